@@ -0,0 +1,214 @@
+package ru.c21501.rfcservice.benchmark;
+
+import ru.c21501.rfcservice.converter.LongIds;
+import ru.c21501.rfcservice.converter.RfcHistoryDeltaCodec;
+import ru.c21501.rfcservice.model.entity.AttachmentEntity;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
+import ru.c21501.rfcservice.model.entity.RfcApprovalEntity;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
+import ru.c21501.rfcservice.model.entity.SubsystemEntity;
+import ru.c21501.rfcservice.model.entity.SystemEntity;
+import ru.c21501.rfcservice.model.entity.TeamEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.HistoryOperationType;
+import ru.c21501.rfcservice.model.enums.UserRole;
+import ru.c21501.rfcservice.openapi.model.ConfirmationStatus;
+import ru.c21501.rfcservice.openapi.model.ExecutionStatus;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
+import ru.c21501.rfcservice.openapi.model.Urgency;
+
+import java.lang.reflect.Proxy;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Данные для бенчмарков: агрегаты RFC, близкие к реальным, и заглушки репозиториев
+ */
+public final class BenchmarkFixtures {
+
+    private static final int HISTORY_SNAPSHOT_INTERVAL = 10;
+    private static final OffsetDateTime BASE_TIME = OffsetDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private BenchmarkFixtures() {
+    }
+
+    public static UserEntity user(long id, UserRole role) {
+        return UserEntity.builder()
+                .id(id)
+                .username("user" + id)
+                .firstName("Имя" + id)
+                .lastName("Фамилия" + id)
+                .email("user" + id + "@example.com")
+                .role(role)
+                .createDatetime(BASE_TIME)
+                .updateDatetime(BASE_TIME)
+                .build();
+    }
+
+    /**
+     * RFC с заданным количеством затронутых подсистем (по 3 подсистемы на систему) и вложений
+     */
+    public static RfcEntity rfc(long id, int subsystems, int attachments, UserEntity requester) {
+        RfcEntity rfc = RfcEntity.builder()
+                .id(id)
+                .title("Обновление платежного шлюза #" + id)
+                .description("Перевод платежного шлюза на новую версию API. ".repeat(20))
+                .implementationDate(BASE_TIME.plusDays(14))
+                .urgency(Urgency.PLANNED)
+                .status(RfcStatus.UNDER_REVIEW)
+                .requester(requester)
+                .createDatetime(BASE_TIME)
+                .updateDatetime(BASE_TIME)
+                .build();
+
+        TeamEntity team = TeamEntity.builder().id(1L).name("Платформа").build();
+        SystemEntity system = null;
+        for (int i = 0; i < subsystems; i++) {
+            if (i % 3 == 0) {
+                system = SystemEntity.builder().id((long) i / 3 + 1).name("Система " + (i / 3 + 1)).build();
+            }
+            SubsystemEntity subsystem = SubsystemEntity.builder()
+                    .id((long) i + 1)
+                    .name("Подсистема " + (i + 1))
+                    .system(system)
+                    .team(team)
+                    .build();
+            rfc.getAffectedSubsystems().add(RfcAffectedSubsystemEntity.builder()
+                    .id(id * 1000 + i)
+                    .rfc(rfc)
+                    .subsystem(subsystem)
+                    .executor(user(100 + i, UserRole.USER))
+                    .confirmationStatus(ConfirmationStatus.CONFIRMED)
+                    .executionStatus(i % 2 == 0 ? ExecutionStatus.DONE : ExecutionStatus.IN_PROGRESS)
+                    .createDatetime(BASE_TIME)
+                    .updateDatetime(BASE_TIME)
+                    .build());
+        }
+
+        for (int i = 0; i < attachments; i++) {
+            rfc.getAttachments().add(attachment(id * 1000 + i, rfc, requester));
+        }
+        return rfc;
+    }
+
+    public static AttachmentEntity attachment(long id, RfcEntity rfc, UserEntity uploadedBy) {
+        return AttachmentEntity.builder()
+                .id(id)
+                .rfc(rfc)
+                .originalFilename("plan-" + id + ".pdf")
+                .fileSize(250_000L)
+                .contentType("application/pdf")
+                .uploadedBy(uploadedBy)
+                .createDatetime(BASE_TIME)
+                .build();
+    }
+
+    public static List<RfcApprovalEntity> approvals(RfcEntity rfc, List<UserEntity> approvers) {
+        List<RfcApprovalEntity> approvals = new ArrayList<>();
+        for (UserEntity approver : approvers) {
+            approvals.add(RfcApprovalEntity.builder()
+                    .id(approver.getId())
+                    .rfc(rfc)
+                    .approver(approver)
+                    .isApproved(true)
+                    .createDatetime(BASE_TIME)
+                    .build());
+        }
+        return approvals;
+    }
+
+    /**
+     * История RFC от новых записей к старым (как возвращает репозиторий), дельтами с checkpoint каждые 10 версий.
+     * Каждая запись меняет одно из полей, набор вложений или набор подсистем
+     */
+    public static List<RfcHistoryEntity> rfcHistory(RfcEntity rfc, int size, List<UserEntity> editors) {
+        List<RfcHistoryEntity> history = new ArrayList<>(size);
+        Set<Long> attachmentIds = new HashSet<>();
+        Set<Long> subsystemIds = new HashSet<>();
+        for (RfcAffectedSubsystemEntity affected : rfc.getAffectedSubsystems()) {
+            subsystemIds.add(affected.getId());
+        }
+        RfcStatus[] statuses = RfcStatus.values();
+        RfcHistoryEntity previous = null;
+
+        for (int i = 0; i < size; i++) {
+            if (i % 3 == 1) {
+                attachmentIds.add(rfc.getId() * 1000 + i);
+            }
+            if (i % 5 == 2 && !subsystemIds.isEmpty()) {
+                subsystemIds.remove(subsystemIds.iterator().next());
+            }
+            RfcHistoryEntity state = RfcHistoryEntity.builder()
+                    .id((long) i + 1)
+                    .rfcId(rfc.getId())
+                    .operation(i == 0 ? HistoryOperationType.CREATE : HistoryOperationType.UPDATE)
+                    .changedBy(editors.get(i % editors.size()))
+                    .title(rfc.getTitle() + (i % 4 == 0 ? " (ред. " + i + ")" : ""))
+                    .description(rfc.getDescription())
+                    .implementationDate(rfc.getImplementationDate().plusDays(i / 10))
+                    .urgency(rfc.getUrgency())
+                    .status(statuses[(i / 7) % statuses.length])
+                    .requester(rfc.getRequester())
+                    .attachmentIds(LongIds.of(attachmentIds))
+                    .affectedSubsystems(LongIds.of(subsystemIds))
+                    .createDatetime(BASE_TIME.plusMinutes(i))
+                    .build();
+            RfcHistoryEntity stored = RfcHistoryDeltaCodec.encode(previous, state, HISTORY_SNAPSHOT_INTERVAL);
+            stored.setId(state.getId());
+            history.add(stored);
+            state.setVersion(stored.getVersion());
+            previous = state;
+        }
+        return history.reversed();
+    }
+
+    public static List<RfcAffectedSubsystemHistoryEntity> subsystemHistory(RfcEntity rfc, int perSubsystem,
+                                                                           UserEntity changedBy) {
+        List<RfcAffectedSubsystemHistoryEntity> history = new ArrayList<>();
+        for (RfcAffectedSubsystemEntity affected : rfc.getAffectedSubsystems()) {
+            for (int i = 0; i < perSubsystem; i++) {
+                history.add(RfcAffectedSubsystemHistoryEntity.builder()
+                        .id(affected.getId() * 100 + i)
+                        .rfcAffectedSubsystemId(affected.getId())
+                        .statusType(i % 2 == 0 ? "CONFIRMATION" : "EXECUTION")
+                        .oldStatus("PENDING")
+                        .newStatus(i % 2 == 0 ? "CONFIRMED" : "IN_PROGRESS")
+                        .changedBy(changedBy)
+                        .createDatetime(BASE_TIME.plusMinutes(30L + i))
+                        .build());
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Заглушка интерфейса (репозитория) на основе динамического прокси.
+     * Методы, для которых не задан ответ, выбрасывают UnsupportedOperationException
+     *
+     * @param type    интерфейс
+     * @param answers ответы по имени метода
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "Stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package ru.c21501.rfcservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.c21501.rfcservice.converter.LongIds;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Наборы ID в колонках истории RFC (LongIds): построение из коллекции и diff двух версий.
+ * diffHashSet - прежний способ сравнения через Set<Long> для сравнения
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LongIdsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private List<Long> idList;
+    private long[] current;
+    private long[] previous;
+    private Set<Long> currentSet;
+    private Set<Long> previousSet;
+
+    @Setup
+    public void setUp() {
+        currentSet = new HashSet<>();
+        previousSet = new HashSet<>();
+        for (long i = 0; i < size; i++) {
+            currentSet.add(1_000_000L + i * 7);
+            // Предыдущая версия отличается каждым десятым ID
+            previousSet.add(1_000_000L + (i % 10 == 0 ? i * 7 + 3 : i * 7));
+        }
+        idList = List.copyOf(currentSet);
+        current = LongIds.of(currentSet);
+        previous = LongIds.of(previousSet);
+    }
+
+    @Benchmark
+    public long[] of() {
+        return LongIds.of(idList);
+    }
+
+    @Benchmark
+    public int diff() {
+        return LongIds.difference(current, previous).length + LongIds.difference(previous, current).length;
+    }
+
+    @Benchmark
+    public int diffHashSet() {
+        Set<Long> added = new HashSet<>(currentSet);
+        added.removeAll(previousSet);
+        Set<Long> removed = new HashSet<>(previousSet);
+        removed.removeAll(currentSet);
+        return added.size() + removed.size();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.c21501.rfcservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.UserRole;
+import ru.c21501.rfcservice.openapi.model.RfcAction;
+import ru.c21501.rfcservice.resolver.RfcActionResolver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Определение доступных действий над RFC (RfcActionResolver.resolveActions) для разных ролей
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RfcActionResolverBenchmark {
+
+    @Param({"USER", "RFC_APPROVER", "CAB_MANAGER", "ADMIN"})
+    public UserRole role;
+
+    private RfcActionResolver actionResolver;
+    private RfcEntity ownRfc;
+    private RfcEntity foreignRfc;
+    private UserEntity user;
+
+    @Setup
+    public void setUp() {
+        actionResolver = new RfcActionResolver();
+        user = BenchmarkFixtures.user(1L, role);
+        ownRfc = BenchmarkFixtures.rfc(1L, 3, 0, user);
+        foreignRfc = BenchmarkFixtures.rfc(2L, 3, 0, BenchmarkFixtures.user(2L, UserRole.USER));
+    }
+
+    @Benchmark
+    public List<RfcAction> ownRfc() {
+        return actionResolver.resolveActions(ownRfc, user);
+    }
+
+    @Benchmark
+    public List<RfcAction> foreignRfc() {
+        return actionResolver.resolveActions(foreignRfc, user);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.c21501.rfcservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.c21501.rfcservice.dto.response.history.AttachmentInfo;
+import ru.c21501.rfcservice.dto.response.history.SubsystemInfo;
+import ru.c21501.rfcservice.model.entity.AttachmentEntity;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.UserRole;
+import ru.c21501.rfcservice.openapi.model.RfcHistoryResponse;
+import ru.c21501.rfcservice.repository.AttachmentRepository;
+import ru.c21501.rfcservice.repository.RfcAffectedSubsystemHistoryRepository;
+import ru.c21501.rfcservice.repository.RfcAffectedSubsystemRepository;
+import ru.c21501.rfcservice.repository.RfcHistoryRepository;
+import ru.c21501.rfcservice.repository.RfcRepository;
+import ru.c21501.rfcservice.service.HistoryArchiveService;
+import ru.c21501.rfcservice.service.RfcHistoryService;
+import ru.c21501.rfcservice.service.impl.RfcHistoryServiceImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение ленты истории RFC (RfcHistoryServiceImpl.getRfcHistory): вычисление диффов между
+ * соседними версиями, объединение с историей подсистем и сортировка. Репозитории заменены заглушками,
+ * поэтому измеряется только работа в памяти
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RfcHistoryBenchmark {
+
+    private static final long RFC_ID = 1L;
+
+    @Param({"10", "100", "1000"})
+    public int versions;
+
+    @Param({"5", "30"})
+    public int subsystems;
+
+    private RfcHistoryService historyService;
+    private Pageable firstPage;
+
+    @Setup
+    public void setUp() {
+        UserEntity requester = BenchmarkFixtures.user(1L, UserRole.USER);
+        List<UserEntity> editors = List.of(requester,
+                BenchmarkFixtures.user(2L, UserRole.CAB_MANAGER),
+                BenchmarkFixtures.user(3L, UserRole.ADMIN));
+        RfcEntity rfc = BenchmarkFixtures.rfc(RFC_ID, subsystems, 0, requester);
+
+        List<RfcHistoryEntity> rfcHistory = BenchmarkFixtures.rfcHistory(rfc, versions, editors);
+        List<RfcAffectedSubsystemHistoryEntity> subsystemHistory =
+                BenchmarkFixtures.subsystemHistory(rfc, 4, editors.get(1));
+
+        Map<Long, RfcAffectedSubsystemEntity> affectedById = new HashMap<>();
+        for (RfcAffectedSubsystemEntity affected : rfc.getAffectedSubsystems()) {
+            affectedById.put(affected.getId(), affected);
+        }
+
+        RfcRepository rfcRepository = BenchmarkFixtures.stub(RfcRepository.class,
+                Map.of("existsById", args -> RFC_ID == (Long) args[0]));
+        RfcHistoryRepository rfcHistoryRepository = BenchmarkFixtures.stub(RfcHistoryRepository.class,
+                Map.of("findAllByRfcIdWithUsers", args -> rfcHistory));
+        RfcAffectedSubsystemHistoryRepository subsystemHistoryRepository = BenchmarkFixtures.stub(
+                RfcAffectedSubsystemHistoryRepository.class,
+                Map.of("findByRfcAffectedSubsystemIdInWithUsers", args -> subsystemHistory));
+        RfcAffectedSubsystemRepository affectedSubsystemRepository = BenchmarkFixtures.stub(
+                RfcAffectedSubsystemRepository.class,
+                Map.of("findSubsystemInfoByIdIn", args -> {
+                    List<SubsystemInfo> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        RfcAffectedSubsystemEntity affected = affectedById.get(id);
+                        if (affected != null) {
+                            found.add(new SubsystemInfo(affected.getId(), affected.getSubsystem().getId(),
+                                    affected.getSubsystem().getName(), affected.getSubsystem().getSystem().getName(),
+                                    affected.getExecutor().getId(), affected.getExecutor().getFullName()));
+                        }
+                    }
+                    return found;
+                }));
+        AttachmentRepository attachmentRepository = BenchmarkFixtures.stub(AttachmentRepository.class,
+                Map.of("findInfoByIdIn", args -> {
+                    List<AttachmentInfo> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        AttachmentEntity attachment = BenchmarkFixtures.attachment((Long) id, rfc, requester);
+                        found.add(new AttachmentInfo(attachment.getId(), attachment.getOriginalFilename()));
+                    }
+                    return found;
+                }));
+
+        HistoryArchiveService historyArchiveService = BenchmarkFixtures.stub(HistoryArchiveService.class, Map.of());
+
+        historyService = new RfcHistoryServiceImpl(rfcRepository, rfcHistoryRepository,
+                subsystemHistoryRepository, affectedSubsystemRepository, attachmentRepository, historyArchiveService,
+                event -> { });
+        firstPage = PageRequest.of(0, 20);
+    }
+
+    @Benchmark
+    public RfcHistoryResponse firstPage() {
+        return historyService.getRfcHistory(RFC_ID, firstPage, false);
+    }
+}
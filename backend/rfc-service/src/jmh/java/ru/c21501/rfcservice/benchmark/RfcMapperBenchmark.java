@@ -0,0 +1,53 @@
+package ru.c21501.rfcservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.c21501.rfcservice.mapper.RfcMapper;
+import ru.c21501.rfcservice.mapper.RfcMapperImpl;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.UserRole;
+import ru.c21501.rfcservice.openapi.model.RfcResponse;
+import ru.c21501.rfcservice.resolver.RfcActionResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг RFC в ответ API (RfcMapper.toResponse) с группировкой подсистем по системам
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RfcMapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int subsystems;
+
+    @Param({"0", "5"})
+    public int attachments;
+
+    private RfcMapper mapper;
+    private RfcActionResolver actionResolver;
+    private RfcEntity rfc;
+    private UserEntity currentUser;
+
+    @Setup
+    public void setUp() {
+        mapper = new RfcMapperImpl();
+        actionResolver = new RfcActionResolver();
+        UserEntity requester = BenchmarkFixtures.user(1L, UserRole.USER);
+        rfc = BenchmarkFixtures.rfc(1L, subsystems, attachments, requester);
+        currentUser = BenchmarkFixtures.user(2L, UserRole.CAB_MANAGER);
+    }
+
+    @Benchmark
+    public RfcResponse toResponse() {
+        return mapper.toResponse(rfc, currentUser, actionResolver);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.c21501.rfcservice.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.c21501.rfcservice.benchmark.BenchmarkFixtures;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
+import ru.c21501.rfcservice.model.entity.RfcApprovalEntity;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.UserRole;
+import ru.c21501.rfcservice.openapi.model.ConfirmationStatus;
+import ru.c21501.rfcservice.openapi.model.ExecutionStatus;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
+import ru.c21501.rfcservice.repository.RfcApprovalRepository;
+import ru.c21501.rfcservice.repository.RfcRepository;
+import ru.c21501.rfcservice.repository.UserRepository;
+import ru.c21501.rfcservice.service.PlankaIntegrationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Правила вычисления статуса RFC (RfcStatusSchedulerServiceImpl.calculateRfcStatus).
+ * Лежит в пакете сервиса, так как метод доступен только внутри пакета
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RfcStatusCalculationBenchmark {
+
+    @Param({"5", "50"})
+    public int subsystems;
+
+    @Param({"3", "20"})
+    public int approvers;
+
+    private RfcStatusSchedulerServiceImpl statusService;
+    private RfcEntity pendingRfc;
+    private RfcEntity inProgressRfc;
+    private RfcEntity implementedRfc;
+
+    @Setup
+    public void setUp() {
+        UserEntity requester = BenchmarkFixtures.user(1L, UserRole.USER);
+        List<UserEntity> approverUsers = new ArrayList<>();
+        for (int i = 0; i < approvers; i++) {
+            approverUsers.add(BenchmarkFixtures.user(10L + i, UserRole.RFC_APPROVER));
+        }
+
+        pendingRfc = BenchmarkFixtures.rfc(1L, subsystems, 0, requester);
+        pendingRfc.getAffectedSubsystems().getLast().setConfirmationStatus(ConfirmationStatus.PENDING);
+        inProgressRfc = BenchmarkFixtures.rfc(2L, subsystems, 0, requester);
+        implementedRfc = BenchmarkFixtures.rfc(3L, subsystems, 0, requester);
+        for (RfcAffectedSubsystemEntity affected : implementedRfc.getAffectedSubsystems()) {
+            affected.setExecutionStatus(ExecutionStatus.DONE);
+        }
+
+        List<RfcApprovalEntity> approvals = BenchmarkFixtures.approvals(inProgressRfc, approverUsers);
+
+        UserRepository userRepository = BenchmarkFixtures.stub(UserRepository.class,
+                Map.of("findByRole", args -> approverUsers));
+        RfcApprovalRepository rfcApprovalRepository = BenchmarkFixtures.stub(RfcApprovalRepository.class,
+                Map.of("findByRfcId", args -> approvals));
+
+        statusService = new RfcStatusSchedulerServiceImpl(
+                BenchmarkFixtures.stub(RfcRepository.class, Map.of()),
+                rfcApprovalRepository,
+                userRepository,
+                BenchmarkFixtures.stub(PlankaIntegrationService.class, Map.of()),
+                new SimpleMeterRegistry(),
+                event -> { });
+    }
+
+    @Benchmark
+    public RfcStatus pendingConfirmation() {
+        return statusService.calculateRfcStatus(pendingRfc);
+    }
+
+    @Benchmark
+    public RfcStatus inProgress() {
+        return statusService.calculateRfcStatus(inProgressRfc);
+    }
+
+    @Benchmark
+    public RfcStatus implemented() {
+        return statusService.calculateRfcStatus(implementedRfc);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.c21501.rfcservice.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Описание засеянного набора данных. Связи RFC с подсистемами и исполнителями вычисляются
+ * по тем же формулам, что и в SQL засева, поэтому сценариям не нужно читать БД
+ */
+public class Dataset {
+
+    static final int SUBSYSTEMS_PER_RFC = 3;
+    static final int SUBSYSTEMS_PER_SYSTEM = 5;
+
+    private final int rfcCount;
+    private final int systemCount;
+    private final long firstExecutorId;
+    private final int executorCount;
+    private final LoadActor admin;
+    private final LoadActor approver;
+    private final LoadActor requester;
+    private final AtomicLong pendingCursor = new AtomicLong();
+
+    Dataset(int rfcCount, int systemCount, long firstExecutorId, int executorCount,
+            LoadActor admin, LoadActor approver, LoadActor requester) {
+        this.rfcCount = rfcCount;
+        this.systemCount = systemCount;
+        this.firstExecutorId = firstExecutorId;
+        this.executorCount = executorCount;
+        this.admin = admin;
+        this.approver = approver;
+        this.requester = requester;
+    }
+
+    public int rfcCount() {
+        return rfcCount;
+    }
+
+    public int subsystemCount() {
+        return systemCount * SUBSYSTEMS_PER_SYSTEM;
+    }
+
+    public LoadActor admin() {
+        return admin;
+    }
+
+    public LoadActor approver() {
+        return approver;
+    }
+
+    public LoadActor requester() {
+        return requester;
+    }
+
+    public List<LoadActor> actors() {
+        return List.of(admin, approver, requester);
+    }
+
+    public long randomRfcId() {
+        return ThreadLocalRandom.current().nextLong(1, rfcCount + 1);
+    }
+
+    public long randomExecutorId() {
+        return firstExecutorId + ThreadLocalRandom.current().nextInt(executorCount);
+    }
+
+    public long randomSystemId() {
+        return ThreadLocalRandom.current().nextLong(1, systemCount + 1);
+    }
+
+    /**
+     * Следующий засеянный RFC, подсистемы которого ожидают подтверждения (RFC с четными ID).
+     * Каждый RFC выдается один раз; после исчерпания выдача начинается сначала и запросы
+     * получают ошибку недопустимого перехода статуса
+     */
+    public long nextPendingRfcId() {
+        long pending = rfcCount / 2;
+        return pending == 0 ? 2 : (pendingCursor.getAndIncrement() % pending + 1) * 2;
+    }
+
+    /**
+     * ID подсистемы (справочник subsystem) с порядковым номером k в RFC
+     */
+    public long subsystemId(long rfcId, int k) {
+        return (rfcId * SUBSYSTEMS_PER_RFC + k) % subsystemCount() + 1;
+    }
+
+    public long executorId(long rfcId, int k) {
+        return firstExecutorId + (rfcId + k) % executorCount;
+    }
+
+    public static long systemIdOf(long subsystemId) {
+        return (subsystemId - 1) / SUBSYSTEMS_PER_SYSTEM + 1;
+    }
+
+    /**
+     * Затронутые системы RFC в формате RfcRequest.affectedSystems, совпадающие с засеянными
+     */
+    public List<Map<String, Object>> affectedSystemsOf(long rfcId) {
+        Map<Long, List<Map<String, Object>>> bySystem = new LinkedHashMap<>();
+        for (int k = 0; k < SUBSYSTEMS_PER_RFC; k++) {
+            long subsystemId = subsystemId(rfcId, k);
+            bySystem.computeIfAbsent(systemIdOf(subsystemId), id -> new ArrayList<>())
+                    .add(Map.of("subsystemId", subsystemId, "executorId", executorId(rfcId, k)));
+        }
+        List<Map<String, Object>> systems = new ArrayList<>();
+        bySystem.forEach((systemId, subsystems) ->
+                systems.add(Map.of("systemId", systemId, "affectedSubsystems", subsystems)));
+        return systems;
+    }
+}
@@ -0,0 +1,144 @@
+package ru.c21501.rfcservice.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Засев БД для нагрузочного теста одним набором INSERT ... SELECT generate_series.
+ * <p>
+ * Состав: участники нагрузки (ADMIN, RFC_APPROVER, USER), исполнители, системы по 5 подсистем,
+ * RFC с 3 затронутыми подсистемами, историей изменений и историей статусов подсистем.
+ * RFC с четными ID ожидают подтверждения подсистем (NEW), с нечетными - подтверждены и
+ * согласованы (APPROVED). Все RFC уже привязаны к карточкам Planka
+ */
+public class DatasetSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    private static final int SYSTEM_COUNT = 20;
+    private static final int EXECUTOR_COUNT = 50;
+
+    private final JdbcTemplate jdbc;
+
+    public DatasetSeeder(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    public Dataset seed(int rfcCount, int historyPerRfc) {
+        Long existing = jdbc.queryForObject("SELECT count(*) FROM rfc", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Database already contains " + existing
+                    + " RFCs; load test needs an empty database");
+        }
+
+        LoadActor admin = LoadActor.ADMIN;
+        LoadActor approver = LoadActor.APPROVER;
+        LoadActor requester = LoadActor.REQUESTER;
+        long firstExecutorId = LoadActor.ALL.size() + 1;
+
+        long started = System.nanoTime();
+        for (LoadActor actor : LoadActor.ALL) {
+            jdbc.update("""
+                    INSERT INTO users (id, username, first_name, last_name, role, keycloak_id, email)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    """, actor.id(), actor.username(), actor.firstName(), actor.lastName(),
+                    actor.role().name(), actor.keycloakId(), actor.email());
+        }
+        jdbc.update("""
+                INSERT INTO users (id, username, first_name, last_name, role, keycloak_id, email)
+                SELECT ? + g, 'lt-executor-' || g, 'Executor', 'N' || g, 'USER',
+                       'loadtest-executor-' || g, 'lt-executor-' || g || '@loadtest.local'
+                FROM generate_series(0, ? - 1) g
+                """, firstExecutorId, EXECUTOR_COUNT);
+
+        jdbc.update("INSERT INTO team (id, name) VALUES (1, 'Load test team')");
+        jdbc.update("""
+                INSERT INTO system (id, name)
+                SELECT g, 'System ' || g FROM generate_series(1, ?) g
+                """, SYSTEM_COUNT);
+        jdbc.update("""
+                INSERT INTO subsystem (id, name, system_id, team_id)
+                SELECT g, 'Subsystem ' || g, (g - 1) / ? + 1, 1 FROM generate_series(1, ?) g
+                """, Dataset.SUBSYSTEMS_PER_SYSTEM, SYSTEM_COUNT * Dataset.SUBSYSTEMS_PER_SYSTEM);
+
+        jdbc.update("""
+                INSERT INTO rfc (id, title, description, implementation_date, urgency, status, requester_id,
+                                 planka_card_id, create_datetime, update_datetime)
+                SELECT g,
+                       'Load test RFC ' || g,
+                       repeat('Change description for load testing. ', 10),
+                       now() + (g % 90) * interval '1 day',
+                       (ARRAY['PLANNED', 'URGENT', 'EMERGENCY'])[g % 3 + 1],
+                       CASE WHEN g % 2 = 0 THEN 'NEW' ELSE 'APPROVED' END,
+                       ?,
+                       'seed-card-' || g,
+                       now() - (? - g) * interval '1 minute',
+                       now() - (? - g) * interval '1 minute'
+                FROM generate_series(1, ?) g
+                """, requester.id(), rfcCount, rfcCount, rfcCount);
+
+        // Формулы подсистемы и исполнителя совпадают с Dataset.subsystemId / Dataset.executorId
+        jdbc.update("""
+                INSERT INTO rfc_affected_subsystem (id, rfc_id, subsystem_id, executor_id,
+                                                    confirmation_status, execution_status)
+                SELECT (g - 1) * ? + k + 1, g, (g * ? + k) % ? + 1, ? + (g + k) % ?,
+                       CASE WHEN g % 2 = 0 THEN 'PENDING' ELSE 'CONFIRMED' END, 'PENDING'
+                FROM generate_series(1, ?) g CROSS JOIN generate_series(0, ? - 1) k
+                """, Dataset.SUBSYSTEMS_PER_RFC, Dataset.SUBSYSTEMS_PER_RFC,
+                SYSTEM_COUNT * Dataset.SUBSYSTEMS_PER_SYSTEM, firstExecutorId, EXECUTOR_COUNT,
+                rfcCount, Dataset.SUBSYSTEMS_PER_RFC);
+
+        jdbc.update("""
+                INSERT INTO rfc_affected_subsystem_history (rfc_affected_subsystem_id, operation, status_type,
+                                                            new_status, changed_by_id, create_datetime)
+                SELECT a.id, 'CREATE', t.status_type, 'PENDING', ?, r.create_datetime
+                FROM rfc_affected_subsystem a
+                JOIN rfc r ON r.id = a.rfc_id
+                CROSS JOIN (VALUES ('CONFIRMATION'), ('EXECUTION')) t(status_type)
+                """, requester.id());
+
+        // Версии в формате приложения: checkpoint каждые 10 версий, между ними дельты с измененным названием
+        jdbc.update("""
+                INSERT INTO rfc_history (rfc_id, version, is_snapshot, changed_fields, operation, changed_by_id, title,
+                                         description, implementation_date, urgency, status, requester_id,
+                                         attachment_ids, affected_subsystems, create_datetime)
+                SELECT r.id,
+                       v + 1,
+                       v % 10 = 0,
+                       CASE WHEN v % 10 = 0 THEN 255 ELSE 1 END,
+                       CASE WHEN v = 0 THEN 'CREATE' ELSE 'UPDATE' END,
+                       CASE WHEN v % 2 = 0 THEN ? ELSE ? END,
+                       r.title || CASE WHEN v = 0 THEN '' ELSE ' (rev. ' || v || ')' END,
+                       CASE WHEN v % 10 = 0 THEN r.description END,
+                       CASE WHEN v % 10 = 0 THEN r.implementation_date END,
+                       CASE WHEN v % 10 = 0 THEN r.urgency END,
+                       CASE WHEN v % 10 = 0 THEN 'NEW' END,
+                       CASE WHEN v % 10 = 0 THEN r.requester_id END,
+                       CASE WHEN v % 10 = 0 THEN '{}'::BIGINT[] END,
+                       CASE WHEN v % 10 = 0
+                            THEN ARRAY[(r.id - 1) * ? + 1, (r.id - 1) * ? + 2, (r.id - 1) * ? + 3]::BIGINT[] END,
+                       r.create_datetime + v * interval '1 second'
+                FROM rfc r CROSS JOIN generate_series(0, ? - 1) v
+                """, requester.id(), admin.id(), Dataset.SUBSYSTEMS_PER_RFC, Dataset.SUBSYSTEMS_PER_RFC,
+                Dataset.SUBSYSTEMS_PER_RFC, Math.max(historyPerRfc, 1));
+
+        jdbc.update("""
+                INSERT INTO rfc_approval (rfc_id, approver_id, is_approved, comment)
+                SELECT id, ?, true, 'Approved by seed' FROM rfc WHERE id % 2 = 1
+                """, approver.id());
+
+        for (String table : List.of("users", "team", "system", "subsystem", "rfc", "rfc_affected_subsystem")) {
+            jdbc.execute("SELECT setval(pg_get_serial_sequence('\"" + table + "\"', 'id'), "
+                    + "(SELECT max(id) FROM \"" + table + "\"))");
+        }
+        jdbc.execute("ANALYZE");
+
+        log.info("Seeded {} RFCs ({} history rows each) in {} ms", rfcCount, historyPerRfc,
+                (System.nanoTime() - started) / 1_000_000);
+        return new Dataset(rfcCount, SYSTEM_COUNT, firstExecutorId, EXECUTOR_COUNT, admin, approver, requester);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.c21501.rfcservice.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import ru.c21501.rfcservice.loadtest.StubServer.StubResponse;
+import ru.c21501.rfcservice.model.enums.UserRole;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Заглушка Keycloak: OIDC discovery и JWKS для проверки токенов, выдача токенов участникам
+ * нагрузки и admin API, который сервис вызывает при синхронизации и создании пользователей
+ */
+public class KeycloakStub implements AutoCloseable {
+
+    static final String REALM = "cab-realm";
+
+    private static final Duration TOKEN_TTL = Duration.ofHours(12);
+
+    private final StubServer server;
+    private final RSAKey signingKey;
+    private final Map<String, LoadActor> actorsByKeycloakId;
+
+    public KeycloakStub(Duration latency, List<LoadActor> actors) throws IOException {
+        this.server = new StubServer("keycloak", latency);
+        try {
+            this.signingKey = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to generate signing key", e);
+        }
+        this.actorsByKeycloakId = actors.stream()
+                .collect(Collectors.toMap(LoadActor::keycloakId, actor -> actor));
+        registerRoutes();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    public String issuer() {
+        return baseUrl() + "/realms/" + REALM;
+    }
+
+    public String jwkSetUri() {
+        return issuer() + "/protocol/openid-connect/certs";
+    }
+
+    public long requestCount() {
+        return server.requestCount();
+    }
+
+    /**
+     * Выпускает access token участника нагрузки, подписанный ключом заглушки
+     */
+    public String issueToken(LoadActor actor) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer())
+                .subject(actor.keycloakId())
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(TOKEN_TTL)))
+                .claim("preferred_username", actor.username())
+                .claim("realm_access", Map.of("roles", List.of(actor.role().name())))
+                .build();
+        try {
+            SignedJWT jwt = new SignedJWT(
+                    new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+            jwt.sign(new RSASSASigner(signingKey));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign token", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+
+    private void registerRoutes() {
+        String realm = "/realms/" + REALM;
+        String admin = "/admin/realms/" + REALM;
+
+        server.route("GET", realm + "/\\.well-known/openid-configuration", request -> StubResponse.ok(Map.of(
+                        "issuer", issuer(),
+                        "jwks_uri", jwkSetUri(),
+                        "token_endpoint", issuer() + "/protocol/openid-connect/token",
+                        "authorization_endpoint", issuer() + "/protocol/openid-connect/auth",
+                        "subject_types_supported", List.of("public"),
+                        "id_token_signing_alg_values_supported", List.of("RS256"))))
+                .route("GET", realm + "/protocol/openid-connect/certs",
+                        request -> StubResponse.ok(new JWKSet(signingKey.toPublicJWK()).toJSONObject()))
+                .route("POST", "/realms/[^/]+/protocol/openid-connect/token", request -> StubResponse.ok(Map.of(
+                        "access_token", "stub-admin-token",
+                        "expires_in", TOKEN_TTL.toSeconds(),
+                        "token_type", "Bearer")))
+                .route("GET", admin + "/users", request -> StubResponse.ok(actorsByKeycloakId.values().stream()
+                        .map(actor -> Map.of(
+                                "id", actor.keycloakId(),
+                                "username", actor.username(),
+                                "firstName", actor.firstName(),
+                                "lastName", actor.lastName(),
+                                "email", actor.email(),
+                                "enabled", true))
+                        .toList()))
+                .route("POST", admin + "/users", request -> new StubResponse(201, null,
+                        Map.of("Location", baseUrl() + admin + "/users/" + UUID.randomUUID())))
+                .route("PUT", admin + "/users/[^/]+", request -> StubResponse.status(204))
+                .route("DELETE", admin + "/users/[^/]+", request -> StubResponse.status(204))
+                .route("GET", admin + "/users/([^/]+)/role-mappings/realm", request -> {
+                    LoadActor actor = actorsByKeycloakId.get(request.pathGroup(1));
+                    return StubResponse.ok(actor == null ? List.of() : List.of(role(actor.role().name())));
+                })
+                .route("POST", admin + "/users/[^/]+/role-mappings/realm", request -> StubResponse.status(204))
+                .route("DELETE", admin + "/users/[^/]+/role-mappings/realm", request -> StubResponse.status(204))
+                .route("GET", admin + "/roles", request -> StubResponse.ok(
+                        Arrays.stream(UserRole.values())
+                                .map(role -> role(role.name()))
+                                .toList()))
+                .route("GET", admin + "/roles/([^/]+)", request -> StubResponse.ok(role(request.pathGroup(1))));
+    }
+
+    private static Map<String, Object> role(String name) {
+        return Map.of("id", "role-" + name, "name", name);
+    }
+}
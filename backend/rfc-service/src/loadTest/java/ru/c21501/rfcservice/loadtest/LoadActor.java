@@ -0,0 +1,29 @@
+package ru.c21501.rfcservice.loadtest;
+
+import ru.c21501.rfcservice.model.enums.UserRole;
+
+import java.util.List;
+
+/**
+ * Пользователь, от имени которого выполняются запросы нагрузки
+ *
+ * @param id         ID пользователя в БД сервиса
+ * @param keycloakId subject токена (users.keycloak_id)
+ */
+public record LoadActor(long id, String keycloakId, String username, String firstName, String lastName,
+                        String email, UserRole role) {
+
+    public static final LoadActor ADMIN = of(1, "lt-admin", UserRole.ADMIN);
+    public static final LoadActor APPROVER = of(2, "lt-approver", UserRole.RFC_APPROVER);
+    public static final LoadActor REQUESTER = of(3, "lt-requester", UserRole.USER);
+
+    /**
+     * Участники нагрузки; ID следующего пользователя после них свободен для исполнителей
+     */
+    public static final List<LoadActor> ALL = List.of(ADMIN, APPROVER, REQUESTER);
+
+    static LoadActor of(long id, String username, UserRole role) {
+        return new LoadActor(id, "loadtest-" + username, username, "Load", username,
+                username + "@loadtest.local", role);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.c21501.rfcservice.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.c21501.rfcservice.diagnostics.QueryCounts;
+import ru.c21501.rfcservice.diagnostics.QueryDiagnosticsFilter;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Генератор смешанной нагрузки по замкнутой модели: каждый из concurrency клиентов
+ * выбирает сценарий по весам и отправляет следующий запрос сразу после ответа на предыдущий
+ */
+class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final HttpClient httpClient;
+    private final LoadScenario.Context context;
+    private final LoadScenario[] weightedScenarios;
+    private final int concurrency;
+
+    LoadGenerator(LoadScenario.Context context, Map<LoadScenario, Integer> mix, int concurrency) {
+        this.context = context;
+        this.concurrency = concurrency;
+        this.weightedScenarios = mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(LoadScenario[]::new);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Выполняет нагрузку в течение заданного времени и возвращает результаты по сценариям
+     */
+    Map<LoadScenario, ScenarioStats> run(Duration duration) throws InterruptedException {
+        Map<LoadScenario, ScenarioStats> stats = new EnumMap<>(LoadScenario.class);
+        for (LoadScenario scenario : weightedScenarios) {
+            stats.putIfAbsent(scenario, new ScenarioStats());
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        LoadScenario scenario =
+                                weightedScenarios[ThreadLocalRandom.current().nextInt(weightedScenarios.length)];
+                        execute(scenario, stats.get(scenario));
+                    }
+                });
+            }
+            clients.shutdown();
+            if (!clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+                log.warn("Load clients did not finish in time, interrupting");
+                clients.shutdownNow();
+            }
+        }
+        return stats;
+    }
+
+    private void execute(LoadScenario scenario, ScenarioStats stats) {
+        long started = System.nanoTime();
+        int status;
+        QueryCounts queries = QueryCounts.NONE;
+        try {
+            HttpResponse<Void> response = httpClient.send(scenario.request(context)
+                            .header(StatementCounter.SCENARIO_HEADER, scenario.key())
+                            .timeout(Duration.ofSeconds(30))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            status = response.statusCode();
+            queries = queryCounts(response.headers());
+        } catch (IOException e) {
+            log.debug("Request of scenario {} failed: {}", scenario.key(), e.getMessage());
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.record(System.nanoTime() - started, status, queries);
+    }
+
+    private static QueryCounts queryCounts(HttpHeaders headers) {
+        return new QueryCounts(
+                headers.firstValueAsLong(QueryDiagnosticsFilter.STATEMENTS_HEADER).orElse(0),
+                headers.firstValueAsLong(QueryDiagnosticsFilter.ENTITY_LOADS_HEADER).orElse(0),
+                headers.firstValueAsLong(QueryDiagnosticsFilter.COLLECTION_FETCHES_HEADER).orElse(0));
+    }
+}
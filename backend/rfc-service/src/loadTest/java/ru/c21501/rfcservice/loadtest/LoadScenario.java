@@ -0,0 +1,195 @@
+package ru.c21501.rfcservice.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Сценарии нагрузки: каждый формирует один HTTP-запрос к API сервиса
+ */
+public enum LoadScenario {
+
+    /**
+     * Список RFC: первые 50 страниц, каждый четвертый запрос с фильтром по статусу
+     */
+    LIST("list") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String query = "page=" + random.nextInt(50) + "&size=20"
+                    + (random.nextInt(4) == 0 ? "&status=APPROVED" : "");
+            return context.get(context.dataset().requester(), "/rfc?" + query);
+        }
+    },
+
+    DETAIL("detail") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            return context.get(context.dataset().requester(), "/rfc/" + context.dataset().randomRfcId());
+        }
+    },
+
+    HISTORY("history") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            return context.get(context.dataset().requester(),
+                    "/rfc/" + context.dataset().randomRfcId() + "/history?page=0&size=20");
+        }
+    },
+
+    /**
+     * Создание RFC с двумя подсистемами одной системы
+     */
+    CREATE("create") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            return context.json(context.dataset().requester(), "POST", "/rfc", createRequest(context.dataset()));
+        }
+    },
+
+    /**
+     * Изменение названия и описания засеянного RFC без изменения состава подсистем
+     */
+    UPDATE("update") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            Dataset dataset = context.dataset();
+            long rfcId = dataset.randomRfcId();
+            return context.json(dataset.admin(), "PUT", "/rfc/" + rfcId, updateRequest(dataset, rfcId));
+        }
+    },
+
+    APPROVE("approve") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            return context.json(context.dataset().approver(), "POST",
+                    "/rfc/" + context.dataset().randomRfcId() + "/approve", Map.of("comment", "Load test approval"));
+        }
+    },
+
+    /**
+     * Подтверждение первой подсистемы RFC, ожидающего подтверждения
+     */
+    STATUS("status") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            Dataset dataset = context.dataset();
+            long rfcId = dataset.nextPendingRfcId();
+            return context.json(dataset.admin(), "PATCH",
+                    "/rfc/" + rfcId + "/subsystem/" + dataset.subsystemId(rfcId, 0) + "/confirmation",
+                    Map.of("status", "CONFIRMED", "comment", "Load test confirmation"));
+        }
+    },
+
+    /**
+     * Загрузка вложения размером 64KB
+     */
+    UPLOAD("upload") {
+        @Override
+        HttpRequest.Builder request(Context context) {
+            String boundary = "loadtest-" + UUID.randomUUID();
+            byte[] head = ("--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"plan.pdf\"\r\n"
+                    + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+            byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+            byte[] body = new byte[head.length + UPLOAD_CONTENT.length + tail.length];
+            System.arraycopy(head, 0, body, 0, head.length);
+            System.arraycopy(UPLOAD_CONTENT, 0, body, head.length, UPLOAD_CONTENT.length);
+            System.arraycopy(tail, 0, body, head.length + UPLOAD_CONTENT.length, tail.length);
+            return context.builder(context.dataset().requester(), "/attachment")
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        }
+    };
+
+    private static final byte[] UPLOAD_CONTENT = new byte[64 * 1024];
+
+    static {
+        Arrays.fill(UPLOAD_CONTENT, (byte) 'x');
+    }
+
+    private final String key;
+
+    LoadScenario(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    abstract HttpRequest.Builder request(Context context);
+
+    static LoadScenario byKey(String key) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load scenario: " + key));
+    }
+
+    /**
+     * Тело RfcRequest сценария create
+     */
+    static Map<String, Object> createRequest(Dataset dataset) {
+        long systemId = dataset.randomSystemId();
+        long firstSubsystemId = (systemId - 1) * Dataset.SUBSYSTEMS_PER_SYSTEM + 1;
+        List<Map<String, Object>> subsystems = List.of(
+                Map.of("subsystemId", firstSubsystemId, "executorId", dataset.randomExecutorId()),
+                Map.of("subsystemId", firstSubsystemId + 1, "executorId", dataset.randomExecutorId()));
+        return rfcRequest("Load test RFC " + UUID.randomUUID(),
+                List.of(Map.of("systemId", systemId, "affectedSubsystems", subsystems)));
+    }
+
+    /**
+     * Тело RfcRequest сценария update: новое название при прежнем составе подсистем
+     */
+    static Map<String, Object> updateRequest(Dataset dataset, long rfcId) {
+        return rfcRequest("Load test RFC " + rfcId + " (edited " + ThreadLocalRandom.current().nextInt(1000) + ")",
+                dataset.affectedSystemsOf(rfcId));
+    }
+
+    private static Map<String, Object> rfcRequest(String title, List<Map<String, Object>> affectedSystems) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("title", title);
+        request.put("description", "Load test change description");
+        request.put("implementationDate", OffsetDateTime.now().plusDays(14).toString());
+        request.put("urgency", "PLANNED");
+        request.put("affectedSystems", affectedSystems);
+        return request;
+    }
+
+    /**
+     * Окружение сценариев: адрес сервиса, набор данных и токены участников
+     */
+    record Context(URI baseUri, Dataset dataset, Map<LoadActor, String> tokens, ObjectMapper objectMapper) {
+
+        HttpRequest.Builder builder(LoadActor actor, String path) {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Authorization", "Bearer " + tokens.get(actor));
+        }
+
+        HttpRequest.Builder get(LoadActor actor, String path) {
+            return builder(actor, path).GET();
+        }
+
+        HttpRequest.Builder json(LoadActor actor, String method, String path, Object body) {
+            try {
+                return builder(actor, path)
+                        .header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize request body", e);
+            }
+        }
+    }
+}
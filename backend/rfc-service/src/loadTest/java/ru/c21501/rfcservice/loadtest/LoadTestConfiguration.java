@@ -0,0 +1,21 @@
+package ru.c21501.rfcservice.loadtest;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Дополнительные бины приложения, поднятого нагрузочным тестом
+ */
+@Configuration(proxyBeanMethods = false)
+public class LoadTestConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<StatementCounter.ScenarioFilter> loadScenarioFilter() {
+        FilterRegistrationBean<StatementCounter.ScenarioFilter> registration =
+                new FilterRegistrationBean<>(new StatementCounter.ScenarioFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,128 @@
+package ru.c21501.rfcservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Параметры нагрузочного теста (системные свойства loadtest.*, из Gradle: -Ploadtest.*=...)
+ *
+ * @param rfcCount       количество засеянных RFC (до 100 000)
+ * @param historyPerRfc  записей истории на RFC
+ * @param concurrency    одновременных клиентов (замкнутая модель: следующий запрос после ответа)
+ * @param warmup         прогрев, результаты которого не учитываются
+ * @param duration       длительность замера
+ * @param mix            веса сценариев
+ * @param dbUrl          JDBC URL локальной пустой БД; пусто - встроенный PostgreSQL
+ * @param virtualThreads значение spring.threads.virtual.enabled для сравнения режимов
+ * @param plankaEnabled  включить интеграцию с заглушкой Planka
+ * @param stubLatency    задержка ответов заглушек Keycloak и Planka
+ * @param reportFile     файл отчета в JSON
+ * @param queryBudget    наибольшее допустимое число SQL-выражений в одном запросе сценария;
+ *                       превышение завершает тест с ошибкой (регрессия N+1)
+ * @param appProperties  дополнительные свойства приложения (loadtest.app.*, префикс отбрасывается)
+ */
+public record LoadTestProperties(
+        int rfcCount,
+        int historyPerRfc,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<LoadScenario, Integer> mix,
+        String dbUrl,
+        String dbUsername,
+        String dbPassword,
+        boolean virtualThreads,
+        boolean plankaEnabled,
+        Duration stubLatency,
+        Path reportFile,
+        Map<LoadScenario, Long> queryBudget,
+        Map<String, String> appProperties
+) {
+
+    static final int MAX_RFC_COUNT = 100_000;
+
+    private static final String PREFIX = "loadtest.";
+    private static final String APP_PREFIX = PREFIX + "app.";
+    private static final String DEFAULT_MIX =
+            "list=30,detail=25,history=10,create=10,update=8,approve=7,status=5,upload=5";
+    /**
+     * Закрепленные значения для набора данных по умолчанию (20 RFC на страницу, 3 записи истории на RFC);
+     * на каждой сборке их проверяет также RfcQueryCountTest. Для create и update в значение входят выборки
+     * следующих блоков pooled-последовательностей (раз в 50 вставок), которые могут совпасть в одном запросе
+     */
+    static final String DEFAULT_QUERY_BUDGET = "list=170,detail=12,history=4,create=17,update=18";
+
+    public static LoadTestProperties fromSystemProperties() {
+        Properties props = System.getProperties();
+        int rfcCount = Integer.parseInt(props.getProperty(PREFIX + "rfc-count", "10000"));
+        if (rfcCount < 1 || rfcCount > MAX_RFC_COUNT) {
+            throw new IllegalArgumentException("loadtest.rfc-count must be between 1 and " + MAX_RFC_COUNT);
+        }
+
+        Map<String, String> appProperties = new HashMap<>();
+        props.stringPropertyNames().stream()
+                .filter(name -> name.startsWith(APP_PREFIX))
+                .forEach(name -> appProperties.put(name.substring(APP_PREFIX.length()), props.getProperty(name)));
+
+        return new LoadTestProperties(
+                rfcCount,
+                Integer.parseInt(props.getProperty(PREFIX + "history-per-rfc", "3")),
+                Integer.parseInt(props.getProperty(PREFIX + "concurrency", "32")),
+                Duration.parse(props.getProperty(PREFIX + "warmup", "PT20S")),
+                Duration.parse(props.getProperty(PREFIX + "duration", "PT60S")),
+                parseMix(props.getProperty(PREFIX + "mix", DEFAULT_MIX)),
+                props.getProperty(PREFIX + "db-url", ""),
+                props.getProperty(PREFIX + "db-username", "postgres"),
+                props.getProperty(PREFIX + "db-password", "postgres"),
+                Boolean.parseBoolean(props.getProperty(PREFIX + "virtual-threads", "false")),
+                Boolean.parseBoolean(props.getProperty(PREFIX + "planka-enabled", "true")),
+                Duration.parse(props.getProperty(PREFIX + "stub-latency", "PT0.02S")),
+                Path.of(props.getProperty(PREFIX + "report-file", "build/results/load-test/report.json")),
+                parseQueryBudget(props.getProperty(PREFIX + "query-budget", DEFAULT_QUERY_BUDGET)),
+                appProperties
+        );
+    }
+
+    /**
+     * Разбирает бюджет SQL-выражений вида "list=25,detail=12"; пустая строка отключает проверку
+     */
+    static Map<LoadScenario, Long> parseQueryBudget(String value) {
+        Map<LoadScenario, Long> budget = new EnumMap<>(LoadScenario.class);
+        if (value.isBlank()) {
+            return budget;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.query-budget entry: " + entry);
+            }
+            budget.put(LoadScenario.byKey(parts[0].trim()), Long.parseLong(parts[1].trim()));
+        }
+        return budget;
+    }
+
+    /**
+     * Разбирает веса сценариев вида "list=30,detail=25"; сценарии с весом 0 не выполняются
+     */
+    static Map<LoadScenario, Integer> parseMix(String value) {
+        Map<LoadScenario, Integer> mix = new EnumMap<>(LoadScenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(LoadScenario.byKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no scenarios with positive weight");
+        }
+        return mix;
+    }
+}
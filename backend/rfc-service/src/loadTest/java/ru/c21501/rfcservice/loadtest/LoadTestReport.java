@@ -0,0 +1,72 @@
+package ru.c21501.rfcservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отчет нагрузочного теста: таблица в консоль и JSON-файл для сравнения прогонов
+ *
+ * @param backgroundStatements SQL-выражения вне запросов нагрузки (планировщики, пулы сервиса)
+ * @param stubRequests         запросов к заглушкам Keycloak и Planka за период замера
+ * @param budgetViolations     сценарии, превысившие бюджет SQL-выражений на запрос
+ */
+record LoadTestReport(
+        OffsetDateTime startedAt,
+        int rfcCount,
+        int concurrency,
+        boolean virtualThreads,
+        double durationSeconds,
+        Map<String, ScenarioStats.Summary> scenarios,
+        ScenarioStats.Summary total,
+        long backgroundStatements,
+        Map<String, Long> stubRequests,
+        List<String> budgetViolations
+) {
+
+    void print(PrintStream out) {
+        out.printf("%nLoad test: %d RFCs, %d clients, %s threads, %.0f s%n",
+                rfcCount, concurrency, virtualThreads ? "virtual" : "platform", durationSeconds);
+        out.printf("%-10s %9s %7s %9s %9s %9s %9s %9s %10s %10s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "stmt/req",
+                "max stmt");
+        scenarios.forEach((name, summary) -> printRow(out, name, summary));
+        printRow(out, "total", total);
+        out.printf("Background SQL statements: %d; stub requests: %s%n", backgroundStatements, stubRequests);
+        budgetViolations.forEach(violation -> out.printf("QUERY BUDGET EXCEEDED: %s%n", violation));
+        out.println();
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("startedAt", startedAt.toString());
+        json.put("rfcCount", rfcCount);
+        json.put("concurrency", concurrency);
+        json.put("virtualThreads", virtualThreads);
+        json.put("durationSeconds", durationSeconds);
+        json.put("scenarios", scenarios);
+        json.put("total", total);
+        json.put("backgroundStatements", backgroundStatements);
+        json.put("stubRequests", stubRequests);
+        json.put("budgetViolations", budgetViolations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+    }
+
+    private static void printRow(PrintStream out, String name, ScenarioStats.Summary summary) {
+        out.printf("%-10s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %10.1f %10d%n",
+                name, summary.requests(), summary.errors(), summary.throughput(),
+                summary.p50Ms(), summary.p90Ms(), summary.p99Ms(), summary.maxMs(), summary.statementsPerRequest(),
+                summary.maxQueries().statements());
+    }
+}
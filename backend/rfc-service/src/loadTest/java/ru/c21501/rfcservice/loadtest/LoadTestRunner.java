@@ -0,0 +1,162 @@
+package ru.c21501.rfcservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.c21501.rfcservice.RfcServiceApplication;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сквозной нагрузочный тест rfc-service.
+ * <p>
+ * Поднимает PostgreSQL (встроенный или локальный из loadtest.db-url), заглушки Keycloak и Planka,
+ * запускает приложение с миграциями Liquibase, засевает набор данных и выполняет смешанную нагрузку:
+ * прогрев, затем замер. Результат - пропускная способность, перцентили задержки и число
+ * SQL-выражений по сценариям (см. {@link LoadTestProperties})
+ */
+public final class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestProperties properties = LoadTestProperties.fromSystemProperties();
+        LoadTestReport report = run(properties);
+        report.print(System.out);
+        report.write(properties.reportFile());
+        log.info("Load test report written to {}", properties.reportFile().toAbsolutePath());
+        if (!report.budgetViolations().isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    static LoadTestReport run(LoadTestProperties properties) throws Exception {
+        EmbeddedPostgres embeddedPostgres = null;
+        String dbUrl = properties.dbUrl();
+        if (dbUrl.isBlank()) {
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+            dbUrl = embeddedPostgres.getJdbcUrl("postgres", "postgres");
+            log.info("Started embedded PostgreSQL: {}", dbUrl);
+        }
+
+        try (KeycloakStub keycloak = new KeycloakStub(properties.stubLatency(), LoadActor.ALL);
+             PlankaStub planka = new PlankaStub(properties.stubLatency())) {
+            keycloak.start();
+            planka.start();
+
+            try (ConfigurableApplicationContext application = new SpringApplicationBuilder(
+                    RfcServiceApplication.class, LoadTestConfiguration.class)
+                    .run(applicationArguments(properties, dbUrl, keycloak, planka))) {
+                Dataset dataset = new DatasetSeeder(application.getBean(DataSource.class))
+                        .seed(properties.rfcCount(), properties.historyPerRfc());
+
+                String port = application.getEnvironment().getProperty("local.server.port");
+                Map<LoadActor, String> tokens = dataset.actors().stream()
+                        .collect(Collectors.toMap(Function.identity(), keycloak::issueToken));
+                LoadGenerator generator = new LoadGenerator(
+                        new LoadScenario.Context(URI.create("http://localhost:" + port), dataset, tokens,
+                                new ObjectMapper()),
+                        properties.mix(), properties.concurrency());
+
+                log.info("Warming up for {}", properties.warmup());
+                generator.run(properties.warmup());
+
+                StatementCounter.reset();
+                long keycloakBefore = keycloak.requestCount();
+                long plankaBefore = planka.requestCount();
+                OffsetDateTime startedAt = OffsetDateTime.now();
+                log.info("Measuring for {}", properties.duration());
+                long started = System.nanoTime();
+                Map<LoadScenario, ScenarioStats> stats = generator.run(properties.duration());
+                double seconds = (System.nanoTime() - started) / 1e9;
+
+                return buildReport(properties, dataset, startedAt, seconds, stats, Map.of(
+                        "keycloak", keycloak.requestCount() - keycloakBefore,
+                        "planka", planka.requestCount() - plankaBefore));
+            }
+        } finally {
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+        }
+    }
+
+    /**
+     * Свойства приложения передаются аргументами командной строки, чтобы перекрыть application.yaml
+     */
+    private static String[] applicationArguments(LoadTestProperties properties, String dbUrl,
+                                                 KeycloakStub keycloak, PlankaStub planka) throws IOException {
+        Map<String, String> props = new HashMap<>();
+        props.put("server.port", "0");
+        props.put("spring.datasource.url", dbUrl);
+        props.put("spring.datasource.username", properties.dbUsername());
+        props.put("spring.datasource.password", properties.dbPassword());
+        props.put("spring.threads.virtual.enabled", String.valueOf(properties.virtualThreads()));
+        props.put("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                StatementCounter.class.getName());
+        props.put("app.diagnostics.query.enabled", "true");
+        props.put("app.diagnostics.query.headers", "true");
+        props.put("spring.security.oauth2.resourceserver.jwt.issuer-uri", keycloak.issuer());
+        props.put("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", keycloak.jwkSetUri());
+        props.put("keycloak.auth-server-url", keycloak.baseUrl());
+        props.put("keycloak.realm", KeycloakStub.REALM);
+        props.put("planka.enabled", String.valueOf(properties.plankaEnabled()));
+        props.put("planka.url", planka.baseUrl());
+        props.put("planka.api-token", "loadtest");
+        props.put("planka.project-id", PlankaStub.PROJECT_ID);
+        props.put("planka.board-id", PlankaStub.BOARD_ID);
+        props.put("app.file.storage-path", Files.createTempDirectory("rfc-loadtest-uploads").toString());
+        // Логи каждого запроса на уровне INFO искажают замер; вернуть можно через loadtest.app.logging.level.*
+        props.put("logging.level.ru.c21501.rfcservice", "WARN");
+        props.put("logging.level.org.springframework", "WARN");
+        // Бюджеты запросов проверяет сам тест (loadtest.query-budget), предупреждения на каждый запрос не нужны
+        props.put("logging.level.ru.c21501.rfcservice.diagnostics", "ERROR");
+        props.putAll(properties.appProperties());
+        return props.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static LoadTestReport buildReport(LoadTestProperties properties, Dataset dataset,
+                                              OffsetDateTime startedAt, double seconds,
+                                              Map<LoadScenario, ScenarioStats> stats, Map<String, Long> stubRequests) {
+        Map<String, Long> statements = StatementCounter.snapshot();
+        Map<String, ScenarioStats.Summary> scenarios = new LinkedHashMap<>();
+        ScenarioStats total = new ScenarioStats();
+        List<String> budgetViolations = new ArrayList<>();
+        long totalStatements = 0;
+        for (Map.Entry<LoadScenario, ScenarioStats> entry : stats.entrySet()) {
+            long scenarioStatements = statements.getOrDefault(entry.getKey().key(), 0L);
+            totalStatements += scenarioStatements;
+            ScenarioStats.Summary summary = entry.getValue().summarize(seconds, scenarioStatements);
+            scenarios.put(entry.getKey().key(), summary);
+            entry.getValue().mergeInto(total);
+
+            Long budget = properties.queryBudget().get(entry.getKey());
+            if (budget != null && summary.maxQueries().statements() > budget) {
+                budgetViolations.add(entry.getKey().key() + ": " + summary.maxQueries().statements()
+                        + " statements per request, budget " + budget);
+            }
+        }
+        return new LoadTestReport(startedAt, dataset.rfcCount(), properties.concurrency(),
+                properties.virtualThreads(), seconds, scenarios, total.summarize(seconds, totalStatements),
+                statements.getOrDefault(StatementCounter.BACKGROUND, 0L), stubRequests, budgetViolations);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.c21501.rfcservice.loadtest;
+
+import ru.c21501.rfcservice.loadtest.StubServer.StubResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Заглушка Planka: доска со списками по статусам RFC, карточки и пользователи.
+ * Состояние не хранится - созданным объектам выдаются новые ID
+ */
+public class PlankaStub implements AutoCloseable {
+
+    static final String PROJECT_ID = "loadtest-project";
+    static final String BOARD_ID = "loadtest-board";
+
+    /**
+     * Названия списков совпадают со значениями по умолчанию в PlankaConfig
+     */
+    private static final List<String> LIST_NAMES = List.of(
+            "Новые", "На рассмотрении", "Утверждено", "Выполнено", "Отклонено");
+
+    private final StubServer server;
+    private final AtomicLong ids = new AtomicLong();
+
+    public PlankaStub(Duration latency) throws IOException {
+        this.server = new StubServer("planka", latency);
+        registerRoutes();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    public long requestCount() {
+        return server.requestCount();
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+
+    private void registerRoutes() {
+        List<Map<String, Object>> lists = LIST_NAMES.stream()
+                .map(name -> Map.<String, Object>of("id", "list-" + LIST_NAMES.indexOf(name), "name", name,
+                        "boardId", BOARD_ID))
+                .toList();
+
+        server.route("GET", "/api/boards/([^/]+)", request -> StubResponse.ok(Map.of(
+                        "item", Map.of("id", request.pathGroup(1), "projectId", PROJECT_ID),
+                        "included", Map.of("lists", lists, "cards", List.of()))))
+                .route("POST", "/api/lists/([^/]+)/cards", request -> StubResponse.ok(Map.of(
+                        "item", card("card-" + ids.incrementAndGet(), request.pathGroup(1)))))
+                .route("GET", "/api/cards/([^/]+)", request -> StubResponse.ok(Map.of(
+                        "item", card(request.pathGroup(1), "list-0"),
+                        "included", Map.of("actions", List.of()))))
+                .route("PATCH", "/api/cards/([^/]+)", request -> StubResponse.ok(Map.of(
+                        "item", card(request.pathGroup(1), "list-0"))))
+                .route("DELETE", "/api/cards/([^/]+)", request -> StubResponse.ok(Map.of(
+                        "item", card(request.pathGroup(1), "list-0"))))
+                .route("GET", "/api/users", request -> StubResponse.ok(Map.of("items", List.of())))
+                .route("POST", "/api/users", request -> StubResponse.ok(Map.of(
+                        "item", Map.of("id", "planka-user-" + ids.incrementAndGet()))))
+                .route("PATCH", "/api/users/([^/]+)", request -> StubResponse.ok(Map.of(
+                        "item", Map.of("id", request.pathGroup(1)))))
+                .route("DELETE", "/api/users/([^/]+)", request -> StubResponse.ok(Map.of(
+                        "item", Map.of("id", request.pathGroup(1)))))
+                .route("POST", "/api/access-tokens", request -> StubResponse.ok(Map.of("item", "stub-token")));
+    }
+
+    private static Map<String, Object> card(String id, String listId) {
+        return Map.of("id", id, "listId", listId, "boardId", BOARD_ID, "name", "RFC", "position", 65536);
+    }
+}
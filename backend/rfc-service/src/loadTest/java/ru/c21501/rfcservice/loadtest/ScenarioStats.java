@@ -0,0 +1,87 @@
+package ru.c21501.rfcservice.loadtest;
+
+import ru.c21501.rfcservice.diagnostics.QueryCounts;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Накопитель результатов одного сценария: задержки успешных и неуспешных запросов, коды ответов
+ * и наибольшие счетчики обращений к БД на запрос из заголовков X-Query-*
+ */
+class ScenarioStats {
+
+    private long[] latenciesNanos = new long[1024];
+    private int size;
+    private long errors;
+    private final Map<Integer, Long> statusCodes = new TreeMap<>();
+    private QueryCounts maxQueries = QueryCounts.NONE;
+
+    synchronized void record(long latencyNanos, int statusCode, QueryCounts queries) {
+        if (size == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, size * 2);
+        }
+        latenciesNanos[size++] = latencyNanos;
+        statusCodes.merge(statusCode, 1L, Long::sum);
+        if (statusCode < 200 || statusCode >= 300) {
+            errors++;
+        }
+        maxQueries = max(maxQueries, queries);
+    }
+
+    /**
+     * Добавляет результаты сценария в общий накопитель
+     */
+    synchronized void mergeInto(ScenarioStats target) {
+        synchronized (target) {
+            for (int i = 0; i < size; i++) {
+                if (target.size == target.latenciesNanos.length) {
+                    target.latenciesNanos = Arrays.copyOf(target.latenciesNanos, target.size * 2);
+                }
+                target.latenciesNanos[target.size++] = latenciesNanos[i];
+            }
+            statusCodes.forEach((code, count) -> target.statusCodes.merge(code, count, Long::sum));
+            target.errors += errors;
+            target.maxQueries = max(target.maxQueries, maxQueries);
+        }
+    }
+
+    synchronized Summary summarize(double seconds, long statements) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, size);
+        Arrays.sort(sorted);
+        return new Summary(size, errors, size / seconds,
+                percentileMillis(sorted, 50), percentileMillis(sorted, 90), percentileMillis(sorted, 99),
+                size == 0 ? 0 : sorted[size - 1] / 1_000_000.0,
+                statements, size == 0 ? 0 : (double) statements / size, maxQueries,
+                new TreeMap<>(statusCodes));
+    }
+
+    private static QueryCounts max(QueryCounts left, QueryCounts right) {
+        return new QueryCounts(
+                Math.max(left.statements(), right.statements()),
+                Math.max(left.entityLoads(), right.entityLoads()),
+                Math.max(left.collectionFetches(), right.collectionFetches()));
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * Итог сценария за период замера
+     *
+     * @param throughput           успешных и неуспешных запросов в секунду
+     * @param statements           SQL-выражений, выполненных при обработке запросов сценария
+     * @param statementsPerRequest среднее число SQL-выражений на запрос
+     * @param maxQueries           наибольшие счетчики обращений к БД в одном запросе
+     */
+    record Summary(long requests, long errors, double throughput, double p50Ms, double p90Ms, double p99Ms,
+                   double maxMs, long statements, double statementsPerRequest, QueryCounts maxQueries,
+                   Map<Integer, Long> statusCodes) {
+    }
+}
@@ -0,0 +1,67 @@
+package ru.c21501.rfcservice.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Подсчет SQL-выражений Hibernate по сценариям нагрузки.
+ * Сценарий берется из заголовка запроса {@value #SCENARIO_HEADER}; выражения вне HTTP-запросов
+ * (планировщики, пулы сервиса) учитываются как {@value #BACKGROUND}
+ */
+public class StatementCounter implements StatementInspector {
+
+    public static final String SCENARIO_HEADER = "X-Load-Scenario";
+    public static final String BACKGROUND = "background";
+
+    private static final ThreadLocal<String> CURRENT_SCENARIO = new ThreadLocal<>();
+    private static final Map<String, LongAdder> COUNTS = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        String scenario = CURRENT_SCENARIO.get();
+        COUNTS.computeIfAbsent(scenario != null ? scenario : BACKGROUND, key -> new LongAdder()).increment();
+        return sql;
+    }
+
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        COUNTS.forEach((scenario, count) -> snapshot.put(scenario, count.sum()));
+        return snapshot;
+    }
+
+    public static void reset() {
+        COUNTS.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Привязывает поток обработки запроса к сценарию из заголовка
+     */
+    public static class ScenarioFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String scenario = request.getHeader(SCENARIO_HEADER);
+            if (scenario == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            CURRENT_SCENARIO.set(scenario);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                CURRENT_SCENARIO.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.c21501.rfcservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Локальный HTTP-сервер с заглушками внешних API (Keycloak, Planka).
+ * Маршруты задаются регулярными выражениями пути; к каждому ответу добавляется
+ * искусственная задержка, имитирующая сетевой вызов
+ */
+public class StubServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StubServer.class);
+
+    private final String name;
+    private final Duration latency;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Route> routes = new CopyOnWriteArrayList<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public StubServer(String name, Duration latency) throws IOException {
+        this.name = name;
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-stub-", 0).factory());
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    /**
+     * Регистрирует обработчик для метода и шаблона пути (группы шаблона доступны обработчику)
+     */
+    public StubServer route(String method, String pathRegex, Function<StubRequest, StubResponse> handler) {
+        routes.add(new Route(method, Pattern.compile(pathRegex), handler));
+        return this;
+    }
+
+    public void start() {
+        server.start();
+        log.info("{} stub listening on {}", name, baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+
+            StubResponse response = StubResponse.status(404);
+            for (Route route : routes) {
+                Matcher matcher = route.pattern().matcher(path);
+                if (route.method().equals(method) && matcher.matches()) {
+                    response = route.handler().apply(new StubRequest(matcher, body));
+                    break;
+                }
+            }
+
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+
+            response.headers().forEach((header, value) -> exchange.getResponseHeaders().add(header, value));
+            if (response.body() == null) {
+                exchange.sendResponseHeaders(response.status(), -1);
+                return;
+            }
+            byte[] json = objectMapper.writeValueAsBytes(response.body());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status(), json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("{} stub failed to handle {} {}: {}", name, exchange.getRequestMethod(),
+                    exchange.getRequestURI(), e.getMessage(), e);
+            exchange.sendResponseHeaders(500, -1);
+        }
+    }
+
+    private record Route(String method, Pattern pattern, Function<StubRequest, StubResponse> handler) {
+    }
+
+    /**
+     * Входящий запрос: совпадение шаблона пути и тело
+     */
+    public record StubRequest(Matcher path, byte[] body) {
+
+        public String pathGroup(int group) {
+            return path.group(group);
+        }
+    }
+
+    /**
+     * Ответ заглушки: тело сериализуется в JSON, null - ответ без тела
+     */
+    public record StubResponse(int status, Object body, Map<String, String> headers) {
+
+        public static StubResponse ok(Object body) {
+            return new StubResponse(200, body, Map.of());
+        }
+
+        public static StubResponse status(int status) {
+            return new StubResponse(status, null, Map.of());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.c21501.rfcservice.client;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.function.Supplier;
+
+/**
+ * Учет длительности и исхода HTTP вызовов внешних систем (Planka, Keycloak)
+ * <p>
+ * Каждый вызов попадает в таймер {@value #METRIC_NAME} с тегами client, operation и outcome.
+ * Теги имеют ограниченный набор значений: operation - имя метода клиента, а не URL,
+ * чтобы идентификаторы карточек и пользователей не раздували число временных рядов.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientCallMetrics {
+
+    public static final String METRIC_NAME = "rfc.client.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Выполнить вызов и записать его длительность и исход
+     * <p>
+     * Исключение вызова пробрасывается без изменений.
+     */
+    public <T> T record(String client, String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Длительность HTTP вызовов внешних систем")
+                    .tag("client", client)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String outcomeOf(RuntimeException e) {
+        if (isRejected(e)) {
+            return "rejected";
+        }
+        if (e instanceof HttpClientErrorException) {
+            return "client_error";
+        }
+        if (e instanceof HttpServerErrorException) {
+            return "server_error";
+        }
+        if (e instanceof ResourceAccessException) {
+            return "io_error";
+        }
+        return "error";
+    }
+
+    /**
+     * Вызов отклонен circuit breaker или bulkhead до отправки запроса
+     */
+    private static boolean isRejected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -3,6 +3,7 @@ package ru.c21501.rfcservice.client;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
@@ -23,7 +24,14 @@ import ru.c21501.rfcservice.client.dto.KeycloakTokenResponse;
 import ru.c21501.rfcservice.client.dto.KeycloakUserDto;
 import ru.c21501.rfcservice.exception.KeycloakApiException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Клиент для взаимодействия с Keycloak Admin API
@@ -35,7 +43,16 @@ import java.util.List;
 @ConditionalOnProperty(name = "app.security.enabled", havingValue = "true", matchIfMissing = true)
 public class KeycloakClient {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    /**
+     * Запас до истечения токена Admin API, после которого токен запрашивается заново
+     */
+    private static final long TOKEN_EXPIRY_MARGIN_SECONDS = 10;
+
+    private static final String CLIENT_NAME = "keycloak";
+
+    @Qualifier("keycloakRestTemplate")
+    private final RestTemplate restTemplate;
+    private final ClientCallMetrics callMetrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${keycloak.auth-server-url}")
@@ -57,6 +74,28 @@ public class KeycloakClient {
     @Value("${keycloak.admin.password:admin}")
     private String adminPassword;
 
+    /**
+     * Время жизни кэша ролей realm (роли практически не меняются)
+     */
+    @Value("${keycloak.role-cache.ttl:PT1H}")
+    private Duration roleCacheTtl;
+
+    /**
+     * Пауза перед повторной загрузкой ролей realm после ошибки; до ее истечения роли запрашиваются по одной
+     */
+    @Value("${keycloak.role-cache.retry-delay:PT30S}")
+    private Duration roleCacheRetryDelay;
+
+    /**
+     * Кэш ролей realm: имя роли -> описание роли
+     */
+    private volatile RoleCache roleCache;
+
+    /**
+     * Токен Admin API, переиспользуемый до истечения срока действия
+     */
+    private volatile AdminToken adminToken;
+
     /**
      * Создает пользователя в Keycloak
      *
@@ -76,12 +115,13 @@ public class KeycloakClient {
         HttpEntity<KeycloakUserDto> request = new HttpEntity<>(userDto, headers);
 
         try {
-            ResponseEntity<Void> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    request,
-                    Void.class
-            );
+            ResponseEntity<Void> response = callMetrics.record(CLIENT_NAME, "createUser",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            request,
+                            Void.class
+                    ));
 
             // Keycloak returns the user ID in the Location header
             String location = response.getHeaders().getFirst(HttpHeaders.LOCATION);
@@ -147,12 +187,13 @@ public class KeycloakClient {
         HttpEntity<KeycloakUserDto> request = new HttpEntity<>(userDto, headers);
 
         try {
-            restTemplate.exchange(
-                    url,
-                    HttpMethod.PUT,
-                    request,
-                    Void.class
-            );
+            callMetrics.record(CLIENT_NAME, "updateUser",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.PUT,
+                            request,
+                            Void.class
+                    ));
             log.info("User updated successfully in Keycloak: {}", keycloakUserId);
 
         } catch (HttpClientErrorException e) {
@@ -216,12 +257,13 @@ public class KeycloakClient {
         HttpEntity<Void> request = new HttpEntity<>(headers);
 
         try {
-            restTemplate.exchange(
-                    url,
-                    HttpMethod.DELETE,
-                    request,
-                    Void.class
-            );
+            callMetrics.record(CLIENT_NAME, "deleteUser",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.DELETE,
+                            request,
+                            Void.class
+                    ));
             log.info("User deleted successfully from Keycloak: {}", keycloakUserId);
 
         } catch (HttpClientErrorException e) {
@@ -259,6 +301,11 @@ public class KeycloakClient {
      * @return access token
      */
     private String getAdminAccessToken() {
+        AdminToken cached = adminToken;
+        if (cached != null && Instant.now().isBefore(cached.expiresAt())) {
+            return cached.accessToken();
+        }
+
         String url = String.format("%s/realms/master/protocol/openid-connect/token", baseUrl);
 
         HttpHeaders headers = new HttpHeaders();
@@ -273,15 +320,22 @@ public class KeycloakClient {
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
 
         try {
-            ResponseEntity<KeycloakTokenResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    request,
-                    KeycloakTokenResponse.class
-            );
+            ResponseEntity<KeycloakTokenResponse> response = callMetrics.record(CLIENT_NAME, "getAdminAccessToken",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            request,
+                            KeycloakTokenResponse.class
+                    ));
 
             if (response.getBody() != null && response.getBody().getAccessToken() != null) {
-                return response.getBody().getAccessToken();
+                KeycloakTokenResponse token = response.getBody();
+                // Обновляем токен заранее, чтобы он не истек во время запроса
+                if (token.getExpiresIn() != null && token.getExpiresIn() > TOKEN_EXPIRY_MARGIN_SECONDS) {
+                    adminToken = new AdminToken(token.getAccessToken(),
+                            Instant.now().plusSeconds(token.getExpiresIn() - TOKEN_EXPIRY_MARGIN_SECONDS));
+                }
+                return token.getAccessToken();
             }
 
             throw new KeycloakApiException("Failed to get access token from response", 500, null);
@@ -321,12 +375,81 @@ public class KeycloakClient {
     }
 
     /**
-     * Получает роль realm по имени
+     * Получает роль realm по имени из кэша.
+     * Кэш загружается одним запросом всех ролей realm и обновляется по истечении TTL;
+     * роль, отсутствующая в кэше, запрашивается напрямую. После ошибки загрузки кэш остается пустым
+     * на время паузы, и роли запрашиваются по одной без повторной загрузки всех ролей
      *
      * @param roleName имя роли
-     * @return информация о роли
+     * @return информация о роли или null, если роль не найдена
      */
     public KeycloakRoleDto getRealmRole(String roleName) {
+        RoleCache cache = getRealmRoles();
+        KeycloakRoleDto role = cache.roles().get(roleName);
+        if (role != null) {
+            return role;
+        }
+
+        // Роль могла появиться после загрузки кэша; пустой кэш после ошибки не сбрасывается до конца паузы
+        role = fetchRealmRole(roleName);
+        if (role != null && cache.loaded()) {
+            invalidateRoleCache();
+        }
+        return role;
+    }
+
+    /**
+     * Сбрасывает кэш ролей realm
+     */
+    public void invalidateRoleCache() {
+        roleCache = null;
+        log.debug("Keycloak realm role cache invalidated");
+    }
+
+    /**
+     * Возвращает роли realm из кэша, загружая их при необходимости
+     */
+    private RoleCache getRealmRoles() {
+        RoleCache cached = roleCache;
+        if (cached != null && Instant.now().isBefore(cached.expiresAt())) {
+            return cached;
+        }
+
+        String url = String.format("%s/admin/realms/%s/roles", baseUrl, realm);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(getAdminAccessToken());
+
+        try {
+            ResponseEntity<KeycloakRoleDto[]> response = callMetrics.record(CLIENT_NAME, "getRealmRoles",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            new HttpEntity<>(headers),
+                            KeycloakRoleDto[].class
+                    ));
+
+            Map<String, KeycloakRoleDto> roles = response.getBody() == null ? Map.of()
+                    : Arrays.stream(response.getBody())
+                    .filter(role -> role.getName() != null)
+                    .collect(Collectors.toUnmodifiableMap(KeycloakRoleDto::getName, Function.identity(), (a, b) -> a));
+            RoleCache loaded = new RoleCache(roles, Instant.now().plus(roleCacheTtl), true);
+            roleCache = loaded;
+            log.info("Loaded {} realm roles from Keycloak", roles.size());
+            return loaded;
+
+        } catch (Exception e) {
+            // До конца паузы роли запрашиваются по одной, а не повторной загрузкой всех ролей на каждый запрос
+            log.warn("Failed to load realm roles from Keycloak, retrying in {}: {}", roleCacheRetryDelay, e.getMessage());
+            RoleCache failed = new RoleCache(Map.of(), Instant.now().plus(roleCacheRetryDelay), false);
+            roleCache = failed;
+            return failed;
+        }
+    }
+
+    /**
+     * Запрашивает роль realm по имени напрямую
+     */
+    private KeycloakRoleDto fetchRealmRole(String roleName) {
         log.info("Getting realm role: {}", roleName);
 
         String accessToken = getAdminAccessToken();
@@ -338,12 +461,13 @@ public class KeycloakClient {
         HttpEntity<Void> request = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<KeycloakRoleDto> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    request,
-                    KeycloakRoleDto.class
-            );
+            ResponseEntity<KeycloakRoleDto> response = callMetrics.record(CLIENT_NAME, "fetchRealmRole",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            request,
+                            KeycloakRoleDto.class
+                    ));
 
             log.info("Role retrieved successfully: {}", roleName);
             return response.getBody();
@@ -371,6 +495,10 @@ public class KeycloakClient {
      * @param roles          список ролей для назначения
      */
     public void assignRealmRolesToUser(String keycloakUserId, List<KeycloakRoleDto> roles) {
+        assignRealmRolesToUser(keycloakUserId, roles, true);
+    }
+
+    private void assignRealmRolesToUser(String keycloakUserId, List<KeycloakRoleDto> roles, boolean retryOnNotFound) {
         log.info("Assigning {} realm roles to user: {}", roles.size(), keycloakUserId);
 
         if (roles.isEmpty()) {
@@ -389,15 +517,27 @@ public class KeycloakClient {
         HttpEntity<List<KeycloakRoleDto>> request = new HttpEntity<>(roles, headers);
 
         try {
-            restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    request,
-                    Void.class
-            );
+            callMetrics.record(CLIENT_NAME, "assignRealmRolesToUser",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            request,
+                            Void.class
+                    ));
             log.info("Roles assigned successfully to user: {}", keycloakUserId);
 
         } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND && retryOnNotFound) {
+                // Роль могла быть пересоздана с новым ID - обновляем кэш и повторяем один раз
+                log.warn("Role mapping returned 404 for user {}, refreshing role cache", keycloakUserId);
+                invalidateRoleCache();
+                List<KeycloakRoleDto> refreshed = roles.stream()
+                        .map(role -> getRealmRole(role.getName()))
+                        .filter(Objects::nonNull)
+                        .toList();
+                assignRealmRolesToUser(keycloakUserId, refreshed, false);
+                return;
+            }
             log.error("Client error assigning roles (status: {}): {}", e.getStatusCode(), e.getResponseBodyAsString());
             throw new KeycloakApiException(
                     "Не удалось назначить роли пользователю в Keycloak",
@@ -435,18 +575,21 @@ public class KeycloakClient {
         HttpEntity<List<KeycloakRoleDto>> request = new HttpEntity<>(roles, headers);
 
         try {
-            restTemplate.exchange(
-                    url,
-                    HttpMethod.DELETE,
-                    request,
-                    Void.class
-            );
+            callMetrics.record(CLIENT_NAME, "removeRealmRolesFromUser",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.DELETE,
+                            request,
+                            Void.class
+                    ));
             log.info("Roles removed successfully from user: {}", keycloakUserId);
 
         } catch (HttpClientErrorException e) {
             log.error("Client error removing roles (status: {}): {}", e.getStatusCode(), e.getResponseBodyAsString());
-            // Не бросаем исключение, если роли уже удалены
-            if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+            // Не бросаем исключение, если роли уже удалены; кэш мог устареть
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                invalidateRoleCache();
+            } else {
                 throw new KeycloakApiException(
                         "Не удалось удалить роли пользователя в Keycloak",
                         e.getStatusCode().value(),
@@ -478,12 +621,13 @@ public class KeycloakClient {
         HttpEntity<Void> request = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<KeycloakRoleDto[]> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    request,
-                    KeycloakRoleDto[].class
-            );
+            ResponseEntity<KeycloakRoleDto[]> response = callMetrics.record(CLIENT_NAME, "getUserRealmRoles",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            request,
+                            KeycloakRoleDto[].class
+                    ));
 
             List<KeycloakRoleDto> roles = response.getBody() != null
                     ? List.of(response.getBody())
@@ -522,12 +666,13 @@ public class KeycloakClient {
         HttpEntity<Void> request = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<KeycloakUserDto[]> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    request,
-                    KeycloakUserDto[].class
-            );
+            ResponseEntity<KeycloakUserDto[]> response = callMetrics.record(CLIENT_NAME, "getAllUsers",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            request,
+                            KeycloakUserDto[].class
+                    ));
 
             List<KeycloakUserDto> users = response.getBody() != null
                     ? List.of(response.getBody())
@@ -583,12 +728,13 @@ public class KeycloakClient {
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(formData, headers);
 
         try {
-            ResponseEntity<KeycloakTokenResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    request,
-                    KeycloakTokenResponse.class
-            );
+            ResponseEntity<KeycloakTokenResponse> response = callMetrics.record(CLIENT_NAME, "login",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            request,
+                            KeycloakTokenResponse.class
+                    ));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 log.info("User {} successfully authenticated", username);
@@ -606,4 +752,13 @@ public class KeycloakClient {
             throw new BadCredentialsException("Authentication failed");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @param loaded false - пустой кэш после ошибки загрузки, действующий до конца паузы
+     */
+    private record RoleCache(Map<String, KeycloakRoleDto> roles, Instant expiresAt, boolean loaded) {
+    }
+
+    private record AdminToken(String accessToken, Instant expiresAt) {
+    }
+}
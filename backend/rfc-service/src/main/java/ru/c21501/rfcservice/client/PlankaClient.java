@@ -2,6 +2,7 @@ package ru.c21501.rfcservice.client;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
@@ -22,7 +23,11 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class PlankaClient {
 
+    private static final String CLIENT_NAME = "planka";
+
+    @Qualifier("plankaRestTemplate")
     private final RestTemplate restTemplate;
+    private final ClientCallMetrics callMetrics;
 
     @Value("${planka.url:http://localhost:3000}")
     private String plankaUrl;
@@ -39,8 +44,8 @@ public class PlankaClient {
 
         try {
             HttpEntity<PlankaCardRequest> entity = new HttpEntity<>(request, createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.POST, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "createCard",
+                    () -> restTemplate.exchange(url, HttpMethod.POST, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 log.info("Card created successfully in Planka: {}", response.getBody().getItem());
@@ -61,8 +66,8 @@ public class PlankaClient {
 
         try {
             HttpEntity<PlankaCardRequest> entity = new HttpEntity<>(request, createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.PATCH, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "updateCard",
+                    () -> restTemplate.exchange(url, HttpMethod.PATCH, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 log.info("Card updated successfully in Planka");
@@ -87,8 +92,8 @@ public class PlankaClient {
                     "position", position != null ? position : 65536.0
             );
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.PATCH, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "moveCard",
+                    () -> restTemplate.exchange(url, HttpMethod.PATCH, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 log.info("Card moved successfully in Planka");
@@ -109,8 +114,8 @@ public class PlankaClient {
 
         try {
             HttpEntity<Void> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<Void> response = restTemplate.exchange(
-                    url, HttpMethod.DELETE, entity, Void.class);
+            ResponseEntity<Void> response = callMetrics.record(CLIENT_NAME, "deleteCard",
+                    () -> restTemplate.exchange(url, HttpMethod.DELETE, entity, Void.class));
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Card deleted successfully from Planka");
@@ -131,8 +136,8 @@ public class PlankaClient {
 
         try {
             HttpEntity<Void> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "getCard",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 return Optional.ofNullable(mapToCardResponse(response.getBody().getItem()));
@@ -144,30 +149,47 @@ public class PlankaClient {
     }
 
     /**
-     * Получить списки доски
+     * Получить связанные данные доски (списки, карточки и т.д.) одним запросом
+     *
+     * @return раздел included ответа Planka или пусто, если доску получить не удалось
      */
     @SuppressWarnings("unchecked")
-    public List<Map<String, Object>> getBoardLists(String boardId) {
+    public Optional<Map<String, Object>> getBoardIncluded(String boardId) {
         String url = plankaUrl + "/api/boards/" + boardId;
-        log.debug("Getting board lists from Planka: boardId={}", boardId);
+        log.debug("Getting board from Planka: boardId={}", boardId);
 
         try {
             HttpEntity<Void> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "getBoardIncluded",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, PlankaApiResponse.class));
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Object included = response.getBody().getIncluded();
-                if (included instanceof Map) {
-                    Map<String, Object> includedMap = (Map<String, Object>) included;
-                    Object lists = includedMap.get("lists");
-                    if (lists instanceof List) {
-                        return (List<Map<String, Object>>) lists;
-                    }
-                }
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                    && response.getBody().getIncluded() instanceof Map) {
+                return Optional.of((Map<String, Object>) response.getBody().getIncluded());
             }
         } catch (RestClientException e) {
-            log.error("Failed to get board lists from Planka: {}", e.getMessage(), e);
+            log.error("Failed to get board from Planka: {}", e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Получить списки доски
+     */
+    public List<Map<String, Object>> getBoardLists(String boardId) {
+        return getBoardIncluded(boardId)
+                .map(included -> getIncludedItems(included, "lists"))
+                .orElse(List.of());
+    }
+
+    /**
+     * Извлечь элементы указанного типа из раздела included ответа Planka
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> getIncludedItems(Map<String, Object> included, String type) {
+        Object items = included.get(type);
+        if (items instanceof List) {
+            return (List<Map<String, Object>>) items;
         }
         return List.of();
     }
@@ -196,8 +218,8 @@ public class PlankaClient {
                     "password", password
             );
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.POST, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "authenticate",
+                    () -> restTemplate.exchange(url, HttpMethod.POST, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 String token = (String) response.getBody().getItem();
@@ -239,8 +261,8 @@ public class PlankaClient {
             }
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.POST, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "createUser",
+                    () -> restTemplate.exchange(url, HttpMethod.POST, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 String userId = extractUserId(response.getBody().getItem());
@@ -284,8 +306,8 @@ public class PlankaClient {
             }
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.PATCH, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "updateUser",
+                    () -> restTemplate.exchange(url, HttpMethod.PATCH, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("User updated successfully in Planka: userId={}", userId);
@@ -297,6 +319,31 @@ public class PlankaClient {
         return false;
     }
 
+    /**
+     * Удалить пользователя из Planka
+     *
+     * @param userId ID пользователя в Planka
+     * @return true если успешно
+     */
+    public boolean deleteUser(String userId) {
+        String url = plankaUrl + "/api/users/" + userId;
+        log.info("Deleting user from Planka: userId={}", userId);
+
+        try {
+            HttpEntity<Void> entity = new HttpEntity<>(createHeaders());
+            ResponseEntity<Void> response = callMetrics.record(CLIENT_NAME, "deleteUser",
+                    () -> restTemplate.exchange(url, HttpMethod.DELETE, entity, Void.class));
+
+            if (response.getStatusCode().is2xxSuccessful()) {
+                log.info("User deleted successfully from Planka: userId={}", userId);
+                return true;
+            }
+        } catch (RestClientException e) {
+            log.error("Failed to delete user from Planka: {}", e.getMessage(), e);
+        }
+        return false;
+    }
+
     /**
      * Получить список всех пользователей из Planka
      *
@@ -309,8 +356,8 @@ public class PlankaClient {
 
         try {
             HttpEntity<Void> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "getUsers",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 Object items = response.getBody().getItem();
@@ -365,8 +412,8 @@ public class PlankaClient {
 
         try {
             HttpEntity<Void> entity = new HttpEntity<>(createHeaders());
-            ResponseEntity<PlankaApiResponse> response = restTemplate.exchange(
-                    url, HttpMethod.GET, entity, PlankaApiResponse.class);
+            ResponseEntity<PlankaApiResponse> response = callMetrics.record(CLIENT_NAME, "getLastCardAction",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, PlankaApiResponse.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 Object included = response.getBody().getIncluded();
@@ -0,0 +1,83 @@
+package ru.c21501.rfcservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускает запросы к Planka через circuit breaker и bulkhead
+ * <p>
+ * Пока circuit breaker открыт или все разрешенные параллельные вызовы заняты, запрос
+ * отклоняется сразу, без ожидания таймаута. Отказ оформляется как {@link IOException},
+ * который RestTemplate превращает в ResourceAccessException - его уже обрабатывает
+ * {@link PlankaClient}. Ответы 5xx считаются ошибкой Planka, 4xx - нет.
+ */
+@Slf4j
+@Component
+public class PlankaResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    /**
+     * Имя экземпляра circuit breaker и bulkhead в конфигурации resilience4j
+     */
+    public static final String PLANKA = "planka";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public PlankaResilienceInterceptor(CircuitBreakerRegistry circuitBreakerRegistry,
+                                       BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(PLANKA);
+        this.bulkhead = bulkheadRegistry.bulkhead(PLANKA);
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Planka circuit breaker: {}", event.getStateTransition()));
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            throw new IOException("Planka bulkhead is full: " + e.getMessage(), e);
+        }
+
+        try {
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (CallNotPermittedException e) {
+                throw new IOException("Planka circuit breaker is open: " + e.getMessage(), e);
+            }
+
+            long start = System.nanoTime();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                long duration = System.nanoTime() - start;
+                if (response.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onError(duration, TimeUnit.NANOSECONDS,
+                            new HttpServerErrorException(response.getStatusCode()));
+                } else {
+                    circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.c21501.rfcservice.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки помесячных партиций таблиц истории и их архивации (app.history.archive)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.history.archive")
+public class HistoryArchiveProperties implements InitializingBean {
+
+    /**
+     * На сколько месяцев вперед создаются партиции
+     */
+    private int partitionsAhead = 3;
+
+    /**
+     * Архивация старых партиций; создание партиций выполняется всегда
+     */
+    private boolean enabled = false;
+
+    /**
+     * Сколько полных месяцев до текущего остаются в таблицах; более старые партиции архивируются
+     */
+    private int retentionMonths = 24;
+
+    /**
+     * Каталог файлов архива: {directory}/{table}/{partition}.jsonl.gz. Партиции удаляются из БД
+     * после выгрузки, поэтому значения по умолчанию нет: каталог должен быть на постоянном томе
+     */
+    private Path directory;
+
+    /**
+     * Размер выборки курсора при выгрузке партиции
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * Не дает запустить архивацию без явно заданного постоянного каталога: выгруженные партиции
+     * удаляются из БД, и архив во временном каталоге (часто tmpfs) потерялся бы при перезапуске
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        if (directory == null) {
+            throw new IllegalStateException(
+                    "app.history.archive.directory (HISTORY_ARCHIVE_DIRECTORY) must be set when history archiving is enabled");
+        }
+        if (!directory.isAbsolute()) {
+            throw new IllegalStateException("app.history.archive.directory must be an absolute path: " + directory);
+        }
+        Path normalized = directory.normalize();
+        Path tempDirectory = Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize();
+        if (normalized.startsWith(tempDirectory) || normalized.startsWith(Path.of("/tmp"))) {
+            throw new IllegalStateException(
+                    "app.history.archive.directory must be on durable storage, not in a temporary directory: " + directory);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.c21501.rfcservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки исходящих HTTP-клиентов интеграций (Planka, Keycloak)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.http-client")
+public class HttpClientProperties {
+
+    /**
+     * Клиент Planka API
+     */
+    private Settings planka = new Settings();
+
+    /**
+     * Клиент Keycloak Admin API
+     */
+    private Settings keycloak = new Settings();
+
+    @Data
+    public static class Settings {
+
+        /**
+         * Максимальное количество соединений в пуле
+         */
+        private int maxTotal = 20;
+
+        /**
+         * Максимальное количество соединений на один хост
+         */
+        private int maxPerRoute = 10;
+
+        /**
+         * Таймаут установки соединения
+         */
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Таймаут ожидания ответа
+         */
+        private Duration responseTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Таймаут ожидания свободного соединения из пула
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Соединение, простоявшее дольше, проверяется перед повторным использованием
+         */
+        private Duration validateAfterInactivity = Duration.ofSeconds(1);
+
+        /**
+         * Простаивающие дольше соединения закрываются фоновым потоком
+         */
+        private Duration idleEvictionTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Максимальное время жизни соединения
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Запрашивать сжатие ответа (gzip, deflate)
+         */
+        private boolean compression = true;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.c21501.rfcservice.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация метрик Micrometer
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Включает обработку аннотации {@link io.micrometer.core.annotation.Timed} на методах сервисов
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.c21501.rfcservice.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.c21501.rfcservice.diagnostics.QueryCountingIntegrator;
+import ru.c21501.rfcservice.diagnostics.QueryCountingSessionListener;
+import ru.c21501.rfcservice.diagnostics.QueryDiagnosticsFilter;
+
+import java.util.List;
+
+/**
+ * Подсчет SQL-выражений, загрузок сущностей и коллекций на HTTP запрос (app.diagnostics.query).
+ * Инструмент разработки: по умолчанию выключен, включается в профиле local и в нагрузочном тесте
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.diagnostics.query.enabled", havingValue = "true")
+public class QueryDiagnosticsConfig {
+
+    /**
+     * Имя свойства Hibernate для передачи интеграторов при запуске через JPA
+     */
+    private static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingHibernateCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    QueryCountingSessionListener.class.getName());
+            hibernateProperties.put(INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new QueryCountingIntegrator()));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryDiagnosticsFilter> queryDiagnosticsFilter(QueryDiagnosticsProperties properties) {
+        FilterRegistrationBean<QueryDiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(new QueryDiagnosticsFilter(properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.c21501.rfcservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройки подсчета обращений к БД на HTTP запрос
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.diagnostics.query")
+public class QueryDiagnosticsProperties {
+
+    /**
+     * Считать SQL-выражения, загрузки сущностей и коллекций на каждый запрос (включается в профиле local)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Возвращать счетчики в заголовках ответа (только для не-prod профилей)
+     */
+    private boolean headers = false;
+
+    /**
+     * Бюджет запроса: при превышении любого значения запрос логируется с уровнем WARN
+     */
+    private Budget budget = new Budget();
+
+    @Data
+    public static class Budget {
+
+        /**
+         * Максимум SQL-выражений на запрос
+         */
+        private long statements = 30;
+
+        /**
+         * Максимум загруженных сущностей на запрос
+         */
+        private long entityLoads = 500;
+
+        /**
+         * Максимум ленивых загрузок коллекций на запрос
+         */
+        private long collectionFetches = 20;
+    }
+}
@@ -1,31 +1,109 @@
 package ru.c21501.rfcservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import ru.c21501.rfcservice.client.PlankaResilienceInterceptor;
 
-import java.net.http.HttpClient;
 import java.time.Duration;
 
 /**
- * Конфигурация RestTemplate с поддержкой PATCH метода для интеграции с Planka
- * Использует JDK HttpClient который поддерживает PATCH и имеет правильное управление соединениями
+ * Конфигурация исходящих HTTP-клиентов интеграций
+ * <p>
+ * У каждой интеграции свой пул соединений Apache HttpClient 5 с keep-alive, проверкой
+ * простаивающих соединений перед повторным использованием, таймаутами и сжатием ответов.
+ * Пул публикуется в метриках как {@code httpcomponents.httpclient.pool.*} с тегом
+ * {@code httpclient}, задержки запросов - как {@code http.client.requests}
+ * (RestTemplate строится через {@link RestTemplateBuilder} с наблюдаемостью Spring Boot).
+ * Apache HttpClient поддерживает PATCH, нужный для Planka.
+ * Запросы к Planka дополнительно проходят через {@link PlankaResilienceInterceptor}.
  */
 @Configuration
+@RequiredArgsConstructor
 public class RestTemplateConfig {
 
+    private final HttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Bean
+    public CloseableHttpClient plankaHttpClient() {
+        return createHttpClient("planka", properties.getPlanka());
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        // JDK HttpClient с поддержкой HTTP/1.1 (без keep-alive проблем)
-        HttpClient httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
-                .connectTimeout(Duration.ofSeconds(5))
+    public CloseableHttpClient keycloakHttpClient() {
+        return createHttpClient("keycloak", properties.getKeycloak());
+    }
+
+    @Bean
+    public RestTemplate plankaRestTemplate(RestTemplateBuilder builder,
+                                           @Qualifier("plankaHttpClient") CloseableHttpClient httpClient,
+                                           PlankaResilienceInterceptor resilienceInterceptor) {
+        return createRestTemplate(builder.additionalInterceptors(resilienceInterceptor), httpClient);
+    }
+
+    @Bean
+    public RestTemplate keycloakRestTemplate(RestTemplateBuilder builder,
+                                             @Qualifier("keycloakHttpClient") CloseableHttpClient httpClient) {
+        return createRestTemplate(builder, httpClient);
+    }
+
+    private RestTemplate createRestTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
                 .build();
+    }
+
+    private CloseableHttpClient createHttpClient(String name, HttpClientProperties.Settings settings) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.getMaxTotal())
+                .setMaxConnPerRoute(settings.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(toTimeout(settings.getConnectTimeout()))
+                        .setSocketTimeout(toTimeout(settings.getResponseTimeout()))
+                        .setValidateAfterInactivity(toTimeValue(settings.getValidateAfterInactivity()))
+                        .setTimeToLive(toTimeValue(settings.getTimeToLive()))
+                        .build())
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
 
-        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
-        factory.setReadTimeout(Duration.ofSeconds(10));
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(toTimeout(settings.getConnectionRequestTimeout()))
+                        .setResponseTimeout(toTimeout(settings.getResponseTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(settings.getIdleEvictionTimeout()));
+
+        if (!settings.isCompression()) {
+            builder.disableContentCompression();
+        }
+
+        return builder.build();
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
 
-        return new RestTemplate(factory);
+    private static TimeValue toTimeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
     }
-}
\ No newline at end of file
+}
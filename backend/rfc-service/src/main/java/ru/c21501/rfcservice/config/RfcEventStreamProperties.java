@@ -0,0 +1,54 @@
+package ru.c21501.rfcservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки потока уведомлений об изменениях RFC (app.events)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.events")
+public class RfcEventStreamProperties {
+
+    /**
+     * Сколько последних уведомлений хранится для продолжения потока по Last-Event-ID
+     */
+    private int replaySize = 1000;
+
+    /**
+     * Очередь неотправленных уведомлений одного подписчика; при переполнении поток закрывается,
+     * и клиент переподключается с Last-Event-ID
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * Наибольшее число одновременных подписчиков: каждый занимает поток отправки. Сверх него подписка
+     * отклоняется с 503, и клиент повторяет попытку через интервал переподключения
+     */
+    private int maxSubscribers = 200;
+
+    /**
+     * Наибольшее число одновременных подписок одного пользователя (вкладки, устройства), чтобы один клиент
+     * не занял все места {@link #maxSubscribers}
+     */
+    private int maxSubscribersPerUser = 5;
+
+    /**
+     * Интервал комментариев-keepalive, чтобы прокси не закрывали простаивающее соединение
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Задержка переподключения клиента (поле retry), в том числе после закрытия потока при переполнении очереди
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+    /**
+     * Максимальная длительность одного подключения; после нее клиент переподключается
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
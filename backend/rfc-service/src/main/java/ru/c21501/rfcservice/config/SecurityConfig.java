@@ -31,8 +31,12 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/webhook/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
+                        // Открыт только health; метрики и остальные эндпоинты actuator - для администратора
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/openapi/api/**").authenticated()
+                        // Поток изменений RFC - только для пользователей системы: подписчики ограничены по числу
+                        .requestMatchers("/rfc/events").authenticated()
                         .anyRequest().permitAll()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
@@ -0,0 +1,40 @@
+package ru.c21501.rfcservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Конфигурация фоновых потоков сервиса
+ * <p>
+ * Пулы и потоки самого сервиса (создание пользователей, сверка и webhook Planka, поток уведомлений RFC)
+ * создаются через общую {@link ThreadFactory}: при {@code spring.threads.virtual.enabled=true} - виртуальные
+ * потоки, как у Tomcat и планировщика, иначе - daemon-потоки платформы.
+ */
+@Configuration
+public class ThreadConfig {
+
+    @Bean
+    public ThreadFactory applicationThreadFactory(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return virtualThreads ? Thread.ofVirtual().factory() : Thread.ofPlatform().daemon().factory();
+    }
+
+    /**
+     * Фабрика потоков с именами {@code {prefix}{номер}}, чтобы потоки пула различались в логах и дампах
+     *
+     * @param threadFactory общая фабрика потоков
+     * @param prefix        префикс имени потока
+     * @return фабрика именованных потоков
+     */
+    public static ThreadFactory named(ThreadFactory threadFactory, String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = threadFactory.newThread(runnable);
+            thread.setName(prefix + counter.getAndIncrement());
+            return thread;
+        };
+    }
+}
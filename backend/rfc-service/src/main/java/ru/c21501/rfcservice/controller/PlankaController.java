@@ -0,0 +1,30 @@
+package ru.c21501.rfcservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import ru.c21501.rfcservice.openapi.api.PlankaApi;
+import ru.c21501.rfcservice.openapi.model.PlankaReconciliationReport;
+import ru.c21501.rfcservice.service.PlankaApiService;
+
+/**
+ * Контроллер для операций с Planka
+ */
+@Slf4j
+@RestController
+@RequestMapping
+@RequiredArgsConstructor
+public class PlankaController implements PlankaApi {
+
+    private final PlankaApiService plankaApiService;
+
+    @Override
+    @ResponseStatus(HttpStatus.OK)
+    public PlankaReconciliationReport reconcilePlankaBoard(Boolean apply) {
+        log.info("POST /api/planka/reconcile - Reconciling Planka board, apply={}", apply);
+        return plankaApiService.reconcileBoard(apply);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 import ru.c21501.rfcservice.openapi.api.RfcApi;
 import ru.c21501.rfcservice.openapi.model.*;
 import ru.c21501.rfcservice.service.RfcApiService;
@@ -12,6 +13,8 @@ import ru.c21501.rfcservice.service.RfcApprovalApiService;
 import ru.c21501.rfcservice.service.RfcHistoryService;
 import ru.c21501.rfcservice.service.SubsystemStatusApiService;
 
+import java.util.List;
+
 /**
  * Контроллер для работы с RFC
  */
@@ -31,6 +34,13 @@ public class RfcController implements RfcApi {
         return rfcApiService.createRfc(rfcRequest);
     }
 
+    @Override
+    public RfcImportResponse importRfcs(MultipartFile file) {
+        log.info("POST /api/rfc/import - Importing RFCs from file: {}, size: {} bytes",
+                file.getOriginalFilename(), file.getSize());
+        return rfcApiService.importRfcs(file);
+    }
+
     @Override
     public RfcPageResponse getRfcs(Integer page, Integer size, String status, String urgency, Long requesterId, String title) {
         log.info(
@@ -81,6 +91,15 @@ public class RfcController implements RfcApi {
         return subsystemStatusApiService.updateExecutionStatus(rfcId, subsystemId, request);
     }
 
+    @Override
+    public List<AffectedSubsystemResponse> updateSubsystemStatusesBatch(
+            SubsystemStatusBatchRequest subsystemStatusBatchRequest
+    ) {
+        log.info("PATCH /api/rfc/subsystem/status - Updating {} subsystem statuses",
+                subsystemStatusBatchRequest.getChanges().size());
+        return subsystemStatusApiService.updateStatuses(subsystemStatusBatchRequest);
+    }
+
     @Override
     public RfcApprovalResponse approveRfc(Long id, ApproveRfcRequest approveRfcRequest) {
         log.info("POST /api/rfc/{}/approve - Approving RFC", id);
@@ -100,10 +119,11 @@ public class RfcController implements RfcApi {
     }
 
     @Override
-    public RfcHistoryResponse getRfcHistory(Long id, Integer page, Integer size) {
-        log.info("GET /api/rfc/{}/history - Getting RFC history: page={}, size={}", id, page, size);
+    public RfcHistoryResponse getRfcHistory(Long id, Integer page, Integer size, Boolean includeArchived) {
+        log.info("GET /api/rfc/{}/history - Getting RFC history: page={}, size={}, includeArchived={}",
+                id, page, size, includeArchived);
         Pageable pageable = PageRequest.of(page, size);
-        return rfcHistoryService.getRfcHistory(id, pageable);
+        return rfcHistoryService.getRfcHistory(id, pageable, Boolean.TRUE.equals(includeArchived));
     }
 }
 
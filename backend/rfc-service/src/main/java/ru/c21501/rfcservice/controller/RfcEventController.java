@@ -0,0 +1,42 @@
+package ru.c21501.rfcservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.c21501.rfcservice.service.RfcEventStreamService;
+
+/**
+ * Контроллер потока уведомлений об изменениях RFC (Server-Sent Events)
+ * <p>
+ * Не описан в OpenAPI-спецификации: сгенерированные интерфейсы не поддерживают {@link SseEmitter},
+ * а поток должен оставаться открытым и отправлять события по мере изменений.
+ * <p>
+ * События {@code rfc-change} содержат JSON {@link ru.c21501.rfcservice.event.RfcChangeEvent};
+ * событие {@code reset} означает, что пропущенные уведомления недоступны и данные нужно перечитать.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class RfcEventController {
+
+    private final RfcEventStreamService rfcEventStreamService;
+
+    /**
+     * Подписка на изменения RFC; при переподключении поток продолжается с Last-Event-ID.
+     * X-Accel-Buffering отключает буферизацию ответа в nginx, иначе события доходят пачками
+     */
+    @GetMapping(value = "/rfc/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRfcEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        log.info("GET /api/rfc/events - Subscribing to RFC changes: lastEventId={}", lastEventId);
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(rfcEventStreamService.subscribe(lastEventId));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.c21501.rfcservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.c21501.rfcservice.exception.ValidationException;
+import ru.c21501.rfcservice.model.enums.RfcExportFormat;
+import ru.c21501.rfcservice.service.RfcApiService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Контроллер потоковой выгрузки RFC
+ * <p>
+ * Не описан в OpenAPI-спецификации: сгенерированные интерфейсы не поддерживают
+ * {@link StreamingResponseBody}, а выгрузка должна писаться в ответ по мере чтения из БД.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class RfcExportController {
+
+    private final RfcApiService rfcApiService;
+
+    /**
+     * Выгрузка RFC в CSV или NDJSON с теми же фильтрами, что и список RFC
+     */
+    @GetMapping("/rfc/export")
+    public ResponseEntity<StreamingResponseBody> exportRfcs(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "urgency", required = false) String urgency,
+            @RequestParam(value = "requesterId", required = false) Long requesterId,
+            @RequestParam(value = "title", required = false) String title
+    ) {
+        log.info("GET /api/rfc/export - Exporting RFCs: format={}, status={}, urgency={}, requesterId={}, title={}",
+                format, status, urgency, requesterId, title);
+
+        RfcExportFormat exportFormat = parseFormat(format);
+        StreamingResponseBody body = rfcApiService.exportRfcs(exportFormat, status, urgency, requesterId, title);
+
+        String filename = "rfc-export-" + LocalDate.now() + "." + exportFormat.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private RfcExportFormat parseFormat(String format) {
+        try {
+            return RfcExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Неподдерживаемый формат выгрузки: " + format
+                    + ". Допустимые значения: " + Arrays.toString(RfcExportFormat.values()).toLowerCase(Locale.ROOT));
+        }
+    }
+}
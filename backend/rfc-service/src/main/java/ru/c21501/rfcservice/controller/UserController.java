@@ -10,6 +10,8 @@ import ru.c21501.rfcservice.openapi.api.UsersApi;
 import ru.c21501.rfcservice.openapi.model.LoginRequest;
 import ru.c21501.rfcservice.openapi.model.LoginResponse;
 import ru.c21501.rfcservice.openapi.model.UpdateUserRequest;
+import ru.c21501.rfcservice.openapi.model.UserBatchCreateRequest;
+import ru.c21501.rfcservice.openapi.model.UserBatchCreateResponse;
 import ru.c21501.rfcservice.openapi.model.UserPageResponse;
 import ru.c21501.rfcservice.openapi.model.UserRequest;
 import ru.c21501.rfcservice.openapi.model.UserResponse;
@@ -33,6 +35,13 @@ public class UserController implements UsersApi {
         return userApiService.createUser(userRequest);
     }
 
+    @Override
+    @ResponseStatus(HttpStatus.OK)
+    public UserBatchCreateResponse createUsersBatch(UserBatchCreateRequest userBatchCreateRequest) {
+        log.info("POST /api/users/batch - Creating {} users", userBatchCreateRequest.getUsers().size());
+        return userApiService.createUsers(userBatchCreateRequest);
+    }
+
     @Override
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteUser(Long id) {
@@ -1,14 +1,20 @@
 package ru.c21501.rfcservice.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.c21501.rfcservice.dto.planka.PlankaWebhookPayload;
-import ru.c21501.rfcservice.service.PlankaIntegrationService;
+import ru.c21501.rfcservice.model.enums.PlankaWebhookType;
+import ru.c21501.rfcservice.service.PlankaWebhookInboxService;
 
 /**
- * Контроллер для обработки webhooks от Planka
+ * Контроллер для приема webhooks от Planka
+ * <p>
+ * События только сохраняются во входящую очередь и сразу подтверждаются;
+ * обработка выполняется асинхронно {@link PlankaWebhookInboxService}.
  */
 @Slf4j
 @RestController
@@ -16,7 +22,8 @@ import ru.c21501.rfcservice.service.PlankaIntegrationService;
 @RequiredArgsConstructor
 public class WebhookController {
 
-    private final PlankaIntegrationService plankaIntegrationService;
+    private final PlankaWebhookInboxService plankaWebhookInboxService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Обработка webhook от Planka при изменении карточки
@@ -28,8 +35,9 @@ public class WebhookController {
             @RequestHeader(value = "X-Planka-User-Id", required = false) String plankaUserId,
             @RequestHeader(value = "X-Planka-Username", required = false) String plankaUsername,
             @RequestHeader(value = "X-Planka-User-Email", required = false) String plankaEmail,
-            @RequestBody PlankaWebhookPayload payload
+            @RequestBody String body
     ) {
+        PlankaWebhookPayload payload = readPayload(body);
         var data = payload.getData();
         
         // Получаем пользователя с верхнего уровня payload (где Planka передаёт его)
@@ -71,13 +79,13 @@ public class WebhookController {
         }
         
         try {
-            plankaIntegrationService.handlePlankaWebhook(payload, effectiveSecret);
+            plankaWebhookInboxService.enqueue(PlankaWebhookType.EVENT, payload, body, effectiveSecret);
             return ResponseEntity.ok().build();
         } catch (SecurityException e) {
             log.warn("Invalid webhook secret from Planka");
             return ResponseEntity.status(401).build();
         } catch (Exception e) {
-            log.error("Error processing Planka webhook: {}", e.getMessage(), e);
+            log.error("Error enqueuing Planka webhook: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -88,8 +96,9 @@ public class WebhookController {
     @PostMapping("/planka/card-moved")
     public ResponseEntity<Void> handleCardMoved(
             @RequestHeader(value = "X-Webhook-Secret", required = false) String webhookSecret,
-            @RequestBody PlankaWebhookPayload payload
+            @RequestBody String body
     ) {
+        PlankaWebhookPayload payload = readPayload(body);
         var data = payload.getData();
         var movedBy = data != null ? data.getMovedBy() : null;
         
@@ -114,13 +123,13 @@ public class WebhookController {
         log.info("================================");
         
         try {
-            plankaIntegrationService.handleCardMovedWebhook(payload, webhookSecret);
+            plankaWebhookInboxService.enqueue(PlankaWebhookType.CARD_MOVED, payload, body, webhookSecret);
             return ResponseEntity.ok().build();
         } catch (SecurityException e) {
             log.warn("Invalid webhook secret from Planka");
             return ResponseEntity.status(401).build();
         } catch (Exception e) {
-            log.error("Error processing card moved webhook: {}", e.getMessage(), e);
+            log.error("Error enqueuing card moved webhook: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -131,23 +140,36 @@ public class WebhookController {
     @PostMapping("/planka/card-updated")
     public ResponseEntity<Void> handleCardUpdated(
             @RequestHeader(value = "X-Webhook-Secret", required = false) String webhookSecret,
-            @RequestBody PlankaWebhookPayload payload
+            @RequestBody String body
     ) {
+        PlankaWebhookPayload payload = readPayload(body);
         log.info("Received card updated webhook from Planka: cardId={}", 
                 payload.getData() != null ? payload.getData().getCardId() : null);
         
         try {
-            plankaIntegrationService.handleCardUpdatedWebhook(payload, webhookSecret);
+            plankaWebhookInboxService.enqueue(PlankaWebhookType.CARD_UPDATED, payload, body, webhookSecret);
             return ResponseEntity.ok().build();
         } catch (SecurityException e) {
             log.warn("Invalid webhook secret from Planka");
             return ResponseEntity.status(401).build();
         } catch (Exception e) {
-            log.error("Error processing card updated webhook: {}", e.getMessage(), e);
+            log.error("Error enqueuing card updated webhook: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Разбирает тело webhook. Тело принимается строкой, чтобы во входящую очередь попал
+     * исходный текст запроса, а не повторно сериализованный DTO
+     */
+    private PlankaWebhookPayload readPayload(String body) {
+        try {
+            return objectMapper.readValue(body, PlankaWebhookPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Некорректное тело webhook Planka: " + e.getOriginalMessage(), e);
+        }
+    }
+
     /**
      * Health check для Planka интеграции
      */
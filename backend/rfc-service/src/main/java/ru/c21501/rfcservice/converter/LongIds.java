@@ -0,0 +1,82 @@
+package ru.c21501.rfcservice.converter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Операции над наборами ID в колонках истории RFC (bigint[])
+ * <p>
+ * Набор хранится как отсортированный массив без повторов, поэтому сравнение наборов двух версий
+ * выполняется одним проходом слиянием, без разбора строк и упаковки в {@code Set<Long>}.
+ */
+public final class LongIds {
+
+    public static final long[] EMPTY = new long[0];
+
+    private LongIds() {
+    }
+
+    /**
+     * Отсортированный массив уникальных ID; null элементы пропускаются
+     */
+    public static long[] of(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return EMPTY;
+        }
+        return normalize(ids.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .toArray());
+    }
+
+    /**
+     * Отсортированная копия массива без повторов
+     */
+    public static long[] normalize(long[] ids) {
+        if (ids == null || ids.length == 0) {
+            return EMPTY;
+        }
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * ID из {@code ids}, которых нет в {@code excluded}. Оба массива должны быть отсортированы
+     */
+    public static long[] difference(long[] ids, long[] excluded) {
+        if (ids == null || ids.length == 0) {
+            return EMPTY;
+        }
+        if (excluded == null || excluded.length == 0) {
+            return ids;
+        }
+        long[] result = new long[ids.length];
+        int size = 0;
+        int j = 0;
+        for (long id : ids) {
+            while (j < excluded.length && excluded[j] < id) {
+                j++;
+            }
+            if (j == excluded.length || excluded[j] != id) {
+                result[size++] = id;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * ID в виде списка для запросов к репозиториям
+     */
+    public static List<Long> toList(long[] ids) {
+        return ids == null ? List.of() : Arrays.stream(ids).boxed().toList();
+    }
+}
@@ -1,40 +0,0 @@
-package ru.c21501.rfcservice.converter;
-
-import jakarta.persistence.AttributeConverter;
-import jakarta.persistence.Converter;
-
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-/**
- * Конвертер для Set<Long> в строку с разделителем запятая
- */
-@Converter
-public class LongSetConverter implements AttributeConverter<Set<Long>, String> {
-
-    private static final String DELIMITER = ",";
-
-    @Override
-    public String convertToDatabaseColumn(Set<Long> attribute) {
-        if (attribute == null || attribute.isEmpty()) {
-            return null;
-        }
-        return attribute.stream()
-                .map(String::valueOf)
-                .collect(Collectors.joining(DELIMITER));
-    }
-
-    @Override
-    public Set<Long> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.trim().isEmpty()) {
-            return Collections.emptySet();
-        }
-        return Arrays.stream(dbData.split(DELIMITER))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .map(Long::parseLong)
-                .collect(Collectors.toSet());
-    }
-}
@@ -0,0 +1,201 @@
+package ru.c21501.rfcservice.converter;
+
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.HistoryField;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Дельта-кодирование версий RFC в rfc_history
+ * <p>
+ * Запись версии содержит только поля, изменившиеся относительно предыдущей версии, и маску этих полей
+ * ({@link HistoryField}); каждая {@code snapshotInterval}-я версия сохраняется полностью. Чтобы восстановить
+ * версию, достаточно записей от ближайшего checkpoint до нее включительно. Поля изменения статуса
+ * (oldStatus, newStatus, source, externalActor) описывают саму запись и переносятся без кодирования
+ */
+public final class RfcHistoryDeltaCodec {
+
+    private RfcHistoryDeltaCodec() {
+    }
+
+    /**
+     * Запись для сохранения новой версии
+     *
+     * @param previous         полное состояние предыдущей версии, null для первой версии RFC
+     * @param state            полное состояние новой версии; null в attachmentIds/affectedSubsystems
+     *                         означает, что набор не менялся
+     * @param snapshotInterval через сколько версий сохраняется полная версия
+     * @return новая (не сохраненная) запись истории
+     */
+    public static RfcHistoryEntity encode(RfcHistoryEntity previous, RfcHistoryEntity state, int snapshotInterval) {
+        int version = previous == null ? 1 : previous.getVersion() + 1;
+        long[] attachmentIds = resolveIds(state.getAttachmentIds(), previous == null ? null : previous.getAttachmentIds());
+        long[] affectedSubsystems = resolveIds(state.getAffectedSubsystems(),
+                previous == null ? null : previous.getAffectedSubsystems());
+
+        boolean snapshot = previous == null || snapshotInterval <= 1 || (version - 1) % snapshotInterval == 0;
+        int mask = snapshot ? HistoryField.ALL : diff(previous, state, attachmentIds, affectedSubsystems);
+
+        return RfcHistoryEntity.builder()
+                .rfcId(state.getRfcId())
+                .version(version)
+                .snapshot(snapshot)
+                .changedFields(mask)
+                .operation(state.getOperation())
+                .changedBy(state.getChangedBy())
+                .title(HistoryField.TITLE.isSet(mask) ? state.getTitle() : null)
+                .description(HistoryField.DESCRIPTION.isSet(mask) ? state.getDescription() : null)
+                .implementationDate(HistoryField.IMPLEMENTATION_DATE.isSet(mask) ? state.getImplementationDate() : null)
+                .urgency(HistoryField.URGENCY.isSet(mask) ? state.getUrgency() : null)
+                .status(HistoryField.STATUS.isSet(mask) ? state.getStatus() : null)
+                .requester(HistoryField.REQUESTER.isSet(mask) ? state.getRequester() : null)
+                .attachmentIds(HistoryField.ATTACHMENT_IDS.isSet(mask) ? attachmentIds : null)
+                .affectedSubsystems(HistoryField.AFFECTED_SUBSYSTEMS.isSet(mask) ? affectedSubsystems : null)
+                .oldStatus(state.getOldStatus())
+                .newStatus(state.getNewStatus())
+                .source(state.getSource())
+                .externalActor(state.getExternalActor())
+                .createDatetime(state.getCreateDatetime())
+                .build();
+    }
+
+    /**
+     * Поля, изменившиеся относительно предыдущей версии, независимо от того, будет ли версия checkpoint
+     *
+     * @param previous полное состояние предыдущей версии, null для первой версии RFC
+     * @param state    полное состояние новой версии (как для {@link #encode})
+     * @return маска полей {@link HistoryField}; для первой версии - все поля
+     */
+    public static int changedFields(RfcHistoryEntity previous, RfcHistoryEntity state) {
+        if (previous == null) {
+            return HistoryField.ALL;
+        }
+        return diff(previous, state, resolveIds(state.getAttachmentIds(), previous.getAttachmentIds()),
+                resolveIds(state.getAffectedSubsystems(), previous.getAffectedSubsystems()));
+    }
+
+    /**
+     * Восстановить полные состояния версий
+     *
+     * @param stored записи одного RFC от новых к старым; самая старая должна быть checkpoint,
+     *               номера версий не повторяются
+     * @return полные состояния (новые, не управляемые JPA объекты) в том же порядке
+     */
+    public static List<RfcHistoryEntity> reconstruct(List<RfcHistoryEntity> stored) {
+        if (stored.isEmpty()) {
+            return Collections.emptyList();
+        }
+        RfcHistoryEntity[] states = new RfcHistoryEntity[stored.size()];
+        RfcHistoryEntity state = null;
+        for (int i = stored.size() - 1; i >= 0; i--) {
+            if (state != null && stored.get(i).getVersion() == state.getVersion()) {
+                throw new IllegalStateException("History of RFC " + state.getRfcId()
+                        + " has duplicate version " + state.getVersion());
+            }
+            state = apply(state, stored.get(i));
+            states[i] = state;
+        }
+        return new ArrayList<>(Arrays.asList(states));
+    }
+
+    /**
+     * Превратить сохраненную дельту в полный checkpoint той же версии
+     *
+     * @param record сохраненная запись версии
+     * @param state  восстановленное полное состояние этой версии
+     */
+    public static void promoteToSnapshot(RfcHistoryEntity record, RfcHistoryEntity state) {
+        record.setSnapshot(true);
+        record.setChangedFields(HistoryField.ALL);
+        record.setTitle(state.getTitle());
+        record.setDescription(state.getDescription());
+        record.setImplementationDate(state.getImplementationDate());
+        record.setUrgency(state.getUrgency());
+        record.setStatus(state.getStatus());
+        record.setRequester(state.getRequester());
+        record.setAttachmentIds(state.getAttachmentIds());
+        record.setAffectedSubsystems(state.getAffectedSubsystems());
+    }
+
+    /**
+     * Применить запись к состоянию предыдущей версии
+     */
+    private static RfcHistoryEntity apply(RfcHistoryEntity previous, RfcHistoryEntity delta) {
+        if (previous == null && !delta.isSnapshot()) {
+            throw new IllegalStateException("History of RFC " + delta.getRfcId()
+                    + " has no checkpoint before version " + delta.getVersion());
+        }
+        int mask = delta.isSnapshot() ? HistoryField.ALL : delta.getChangedFields();
+        return RfcHistoryEntity.builder()
+                .id(delta.getId())
+                .rfcId(delta.getRfcId())
+                .version(delta.getVersion())
+                .snapshot(delta.isSnapshot())
+                .changedFields(delta.getChangedFields())
+                .operation(delta.getOperation())
+                .changedBy(delta.getChangedBy())
+                .title(HistoryField.TITLE.isSet(mask) ? delta.getTitle() : previous.getTitle())
+                .description(HistoryField.DESCRIPTION.isSet(mask) ? delta.getDescription() : previous.getDescription())
+                .implementationDate(HistoryField.IMPLEMENTATION_DATE.isSet(mask)
+                        ? delta.getImplementationDate() : previous.getImplementationDate())
+                .urgency(HistoryField.URGENCY.isSet(mask) ? delta.getUrgency() : previous.getUrgency())
+                .status(HistoryField.STATUS.isSet(mask) ? delta.getStatus() : previous.getStatus())
+                .requester(HistoryField.REQUESTER.isSet(mask) ? delta.getRequester() : previous.getRequester())
+                .attachmentIds(HistoryField.ATTACHMENT_IDS.isSet(mask)
+                        ? idsOrEmpty(delta.getAttachmentIds()) : previous.getAttachmentIds())
+                .affectedSubsystems(HistoryField.AFFECTED_SUBSYSTEMS.isSet(mask)
+                        ? idsOrEmpty(delta.getAffectedSubsystems()) : previous.getAffectedSubsystems())
+                .oldStatus(delta.getOldStatus())
+                .newStatus(delta.getNewStatus())
+                .source(delta.getSource())
+                .externalActor(delta.getExternalActor())
+                .createDatetime(delta.getCreateDatetime())
+                .build();
+    }
+
+    private static int diff(RfcHistoryEntity previous, RfcHistoryEntity state,
+                            long[] attachmentIds, long[] affectedSubsystems) {
+        int mask = 0;
+        mask |= changed(HistoryField.TITLE, !Objects.equals(previous.getTitle(), state.getTitle()));
+        mask |= changed(HistoryField.DESCRIPTION, !Objects.equals(previous.getDescription(), state.getDescription()));
+        mask |= changed(HistoryField.IMPLEMENTATION_DATE,
+                !sameInstant(previous.getImplementationDate(), state.getImplementationDate()));
+        mask |= changed(HistoryField.URGENCY, previous.getUrgency() != state.getUrgency());
+        mask |= changed(HistoryField.STATUS, previous.getStatus() != state.getStatus());
+        mask |= changed(HistoryField.REQUESTER, !Objects.equals(userId(previous.getRequester()),
+                userId(state.getRequester())));
+        mask |= changed(HistoryField.ATTACHMENT_IDS, !Arrays.equals(previous.getAttachmentIds(), attachmentIds));
+        mask |= changed(HistoryField.AFFECTED_SUBSYSTEMS,
+                !Arrays.equals(previous.getAffectedSubsystems(), affectedSubsystems));
+        return mask;
+    }
+
+    private static int changed(HistoryField field, boolean changed) {
+        return changed ? field.bit() : 0;
+    }
+
+    private static long[] resolveIds(long[] ids, long[] previousIds) {
+        if (ids != null) {
+            return ids;
+        }
+        return previousIds != null ? previousIds : LongIds.EMPTY;
+    }
+
+    private static long[] idsOrEmpty(long[] ids) {
+        return ids != null ? ids : LongIds.EMPTY;
+    }
+
+    private static boolean sameInstant(OffsetDateTime left, OffsetDateTime right) {
+        return left == null ? right == null : right != null && left.isEqual(right);
+    }
+
+    private static Long userId(UserEntity user) {
+        return user != null ? user.getId() : null;
+    }
+}
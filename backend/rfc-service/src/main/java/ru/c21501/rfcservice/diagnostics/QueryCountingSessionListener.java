@@ -0,0 +1,15 @@
+package ru.c21501.rfcservice.diagnostics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Считает SQL-выражения сессии Hibernate.
+ * Создается Hibernate на каждую сессию (hibernate.session.events.auto)
+ */
+public class QueryCountingSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        RequestQueryStatistics.statementPrepared();
+    }
+}
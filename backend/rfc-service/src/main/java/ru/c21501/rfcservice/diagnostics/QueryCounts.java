@@ -0,0 +1,27 @@
+package ru.c21501.rfcservice.diagnostics;
+
+/**
+ * Обращения к БД за время обработки запроса
+ *
+ * @param statements        подготовленных SQL-выражений
+ * @param entityLoads       сущностей, загруженных в контекст персистентности
+ * @param collectionFetches ленивых загрузок коллекций (типичный признак N+1)
+ */
+public record QueryCounts(long statements, long entityLoads, long collectionFetches) {
+
+    public static final QueryCounts NONE = new QueryCounts(0, 0, 0);
+
+    /**
+     * Превышено ли хотя бы одно значение бюджета
+     */
+    public boolean exceeds(QueryCounts budget) {
+        return statements > budget.statements
+                || entityLoads > budget.entityLoads
+                || collectionFetches > budget.collectionFetches;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", entityLoads=" + entityLoads + ", collectionFetches=" + collectionFetches;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.c21501.rfcservice.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.c21501.rfcservice.config.QueryDiagnosticsProperties;
+
+import java.io.IOException;
+
+/**
+ * Считает обращения к БД на время обработки HTTP запроса.
+ * Запросы сверх бюджета логируются; при включенных заголовках счетчики добавляются в ответ
+ * (для ответов с телом - в {@link QueryStatisticsHeaderAdvice}, до отправки заголовков)
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryDiagnosticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Statements";
+    public static final String ENTITY_LOADS_HEADER = "X-Query-Entity-Loads";
+    public static final String COLLECTION_FETCHES_HEADER = "X-Query-Collection-Fetches";
+
+    private final QueryDiagnosticsProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestQueryStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounts counts = RequestQueryStatistics.end();
+            if (properties.isHeaders() && !response.isCommitted()) {
+                writeHeaders(response, counts);
+            }
+
+            QueryDiagnosticsProperties.Budget budget = properties.getBudget();
+            if (counts.exceeds(new QueryCounts(
+                    budget.getStatements(), budget.getEntityLoads(), budget.getCollectionFetches()))) {
+                log.warn("Query budget exceeded: {} {} -> {}", request.getMethod(), request.getRequestURI(), counts);
+            }
+        }
+    }
+
+    static void writeHeaders(HttpServletResponse response, QueryCounts counts) {
+        response.setHeader(STATEMENTS_HEADER, String.valueOf(counts.statements()));
+        response.setHeader(ENTITY_LOADS_HEADER, String.valueOf(counts.entityLoads()));
+        response.setHeader(COLLECTION_FETCHES_HEADER, String.valueOf(counts.collectionFetches()));
+    }
+}
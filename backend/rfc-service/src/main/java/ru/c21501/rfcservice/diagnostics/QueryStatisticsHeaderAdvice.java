@@ -0,0 +1,36 @@
+package ru.c21501.rfcservice.diagnostics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Добавляет счетчики обращений к БД в заголовки перед записью тела ответа,
+ * пока заголовки еще можно изменить
+ */
+@ControllerAdvice
+@ConditionalOnExpression("${app.diagnostics.query.enabled:false} and ${app.diagnostics.query.headers:false}")
+public class QueryStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryCounts counts = RequestQueryStatistics.current();
+        response.getHeaders().set(QueryDiagnosticsFilter.STATEMENTS_HEADER, String.valueOf(counts.statements()));
+        response.getHeaders().set(QueryDiagnosticsFilter.ENTITY_LOADS_HEADER, String.valueOf(counts.entityLoads()));
+        response.getHeaders().set(QueryDiagnosticsFilter.COLLECTION_FETCHES_HEADER,
+                String.valueOf(counts.collectionFetches()));
+        return body;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.c21501.rfcservice.diagnostics;
+
+import java.util.function.Supplier;
+
+/**
+ * Счетчики обращений к БД, привязанные к текущему потоку
+ * <p>
+ * Подсчет идет только между {@link #begin()} и {@link #end()}; вне этого интервала
+ * (планировщики, фоновые пулы) события Hibernate игнорируются. Работа, переданная
+ * из запроса в другие потоки, в счетчики запроса не попадает.
+ */
+public final class RequestQueryStatistics {
+
+    private static final ThreadLocal<Counters> CURRENT = new ThreadLocal<>();
+
+    private RequestQueryStatistics() {
+    }
+
+    /**
+     * Начать подсчет в текущем потоке
+     */
+    public static void begin() {
+        CURRENT.set(new Counters());
+    }
+
+    /**
+     * Текущие значения счетчиков без остановки подсчета
+     */
+    public static QueryCounts current() {
+        Counters counters = CURRENT.get();
+        return counters != null ? counters.snapshot() : QueryCounts.NONE;
+    }
+
+    /**
+     * Остановить подсчет и вернуть итог
+     */
+    public static QueryCounts end() {
+        QueryCounts counts = current();
+        CURRENT.remove();
+        return counts;
+    }
+
+    /**
+     * Выполнить действие и вернуть число обращений к БД, которое оно вызвало.
+     * Предназначено для проверок количества запросов в интеграционных тестах
+     */
+    public static QueryCounts measure(Runnable action) {
+        return measure(() -> {
+            action.run();
+            return null;
+        }).counts();
+    }
+
+    /**
+     * Выполнить действие и вернуть его результат вместе с числом обращений к БД
+     */
+    public static <T> Measured<T> measure(Supplier<T> action) {
+        Counters outer = CURRENT.get();
+        begin();
+        try {
+            T result = action.get();
+            return new Measured<>(result, current());
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer.plus(CURRENT.get()));
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    static void statementPrepared() {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.entityLoads++;
+        }
+    }
+
+    static void collectionFetched() {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.collectionFetches++;
+        }
+    }
+
+    /**
+     * Результат действия и обращения к БД, которые оно вызвало
+     */
+    public record Measured<T>(T result, QueryCounts counts) {
+    }
+
+    private static final class Counters {
+
+        private long statements;
+        private long entityLoads;
+        private long collectionFetches;
+
+        QueryCounts snapshot() {
+            return new QueryCounts(statements, entityLoads, collectionFetches);
+        }
+
+        Counters plus(Counters nested) {
+            statements += nested.statements;
+            entityLoads += nested.entityLoads;
+            collectionFetches += nested.collectionFetches;
+            return this;
+        }
+    }
+}
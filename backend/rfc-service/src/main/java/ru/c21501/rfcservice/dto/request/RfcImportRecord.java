@@ -0,0 +1,55 @@
+package ru.c21501.rfcservice.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.c21501.rfcservice.openapi.model.AffectedSystemRequest;
+import ru.c21501.rfcservice.openapi.model.Urgency;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Запись NDJSON-файла массового импорта RFC
+ * Поля совпадают с RfcRequest, кроме attachmentIds; requesterId необязателен
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RfcImportRecord {
+
+    @NotNull
+    @Size(min = 1, max = 255)
+    @JsonProperty("title")
+    private String title;
+
+    @Size(max = 5000)
+    @JsonProperty("description")
+    private String description;
+
+    @NotNull
+    @JsonProperty("implementationDate")
+    private OffsetDateTime implementationDate;
+
+    @NotNull
+    @JsonProperty("urgency")
+    private Urgency urgency;
+
+    /**
+     * ID создателя RFC (по умолчанию - пользователь, выполняющий импорт)
+     */
+    @JsonProperty("requesterId")
+    private Long requesterId;
+
+    @NotNull
+    @Size(min = 1)
+    @Valid
+    @JsonProperty("affectedSystems")
+    private List<AffectedSystemRequest> affectedSystems;
+}
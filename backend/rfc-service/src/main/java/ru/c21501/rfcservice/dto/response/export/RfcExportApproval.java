@@ -0,0 +1,34 @@
+package ru.c21501.rfcservice.dto.response.export;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Согласование RFC в выгрузке
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RfcExportApproval {
+
+    @JsonProperty("approverId")
+    private Long approverId;
+
+    @JsonProperty("approverUsername")
+    private String approverUsername;
+
+    @JsonProperty("isApproved")
+    private Boolean isApproved;
+
+    @JsonProperty("comment")
+    private String comment;
+
+    @JsonProperty("updateDatetime")
+    private OffsetDateTime updateDatetime;
+}
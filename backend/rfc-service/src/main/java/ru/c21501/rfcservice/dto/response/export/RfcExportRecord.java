@@ -0,0 +1,56 @@
+package ru.c21501.rfcservice.dto.response.export;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Запись выгрузки RFC с затронутыми подсистемами и согласованиями
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RfcExportRecord {
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("title")
+    private String title;
+
+    @JsonProperty("description")
+    private String description;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("urgency")
+    private String urgency;
+
+    @JsonProperty("implementationDate")
+    private OffsetDateTime implementationDate;
+
+    @JsonProperty("requesterId")
+    private Long requesterId;
+
+    @JsonProperty("requesterUsername")
+    private String requesterUsername;
+
+    @JsonProperty("createDatetime")
+    private OffsetDateTime createDatetime;
+
+    @JsonProperty("updateDatetime")
+    private OffsetDateTime updateDatetime;
+
+    @JsonProperty("affectedSubsystems")
+    private List<RfcExportSubsystem> affectedSubsystems;
+
+    @JsonProperty("approvals")
+    private List<RfcExportApproval> approvals;
+}
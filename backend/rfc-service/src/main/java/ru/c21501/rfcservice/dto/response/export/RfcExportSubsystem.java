@@ -0,0 +1,41 @@
+package ru.c21501.rfcservice.dto.response.export;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Затронутая подсистема в выгрузке RFC
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RfcExportSubsystem {
+
+    @JsonProperty("systemId")
+    private Long systemId;
+
+    @JsonProperty("systemName")
+    private String systemName;
+
+    @JsonProperty("subsystemId")
+    private Long subsystemId;
+
+    @JsonProperty("subsystemName")
+    private String subsystemName;
+
+    @JsonProperty("executorId")
+    private Long executorId;
+
+    @JsonProperty("executorUsername")
+    private String executorUsername;
+
+    @JsonProperty("confirmationStatus")
+    private String confirmationStatus;
+
+    @JsonProperty("executionStatus")
+    private String executionStatus;
+}
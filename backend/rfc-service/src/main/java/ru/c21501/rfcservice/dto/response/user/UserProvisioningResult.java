@@ -0,0 +1,37 @@
+package ru.c21501.rfcservice.dto.response.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+
+/**
+ * Результат создания пользователя в составе пакета
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProvisioningResult {
+
+    /**
+     * Позиция пользователя во входном списке (начиная с 0)
+     */
+    private int index;
+
+    /**
+     * Имя пользователя из запроса
+     */
+    private String username;
+
+    /**
+     * Созданный пользователь (null при ошибке)
+     */
+    private UserEntity user;
+
+    /**
+     * Описание ошибки (null при успехе)
+     */
+    private String error;
+}
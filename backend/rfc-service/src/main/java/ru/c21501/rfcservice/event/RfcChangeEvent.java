@@ -0,0 +1,38 @@
+package ru.c21501.rfcservice.event;
+
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.enums.RfcChangeField;
+import ru.c21501.rfcservice.model.enums.RfcChangeType;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Уведомление об изменении RFC
+ * <p>
+ * Публикуется через {@link org.springframework.context.ApplicationEventPublisher} в транзакции изменения
+ * и рассылается подписчикам потока {@code /rfc/events} после коммита. Это же тело отправляется клиентам в JSON.
+ *
+ * @param rfcId         ID RFC
+ * @param type          тип изменения
+ * @param status        статус RFC после изменения
+ * @param version       номер версии RFC в истории; null, если изменение не создает новую версию
+ *                      (статусы подсистем, согласования, пересчет статуса планировщиком)
+ * @param changedFields изменившиеся части RFC
+ */
+public record RfcChangeEvent(
+        Long rfcId,
+        RfcChangeType type,
+        RfcStatus status,
+        Integer version,
+        Set<RfcChangeField> changedFields
+) {
+
+    /**
+     * Изменение RFC без новой версии в истории
+     */
+    public static RfcChangeEvent updated(RfcEntity rfc, RfcChangeField field, RfcChangeField... more) {
+        return new RfcChangeEvent(rfc.getId(), RfcChangeType.UPDATED, rfc.getStatus(), null, EnumSet.of(field, more));
+    }
+}
@@ -0,0 +1,19 @@
+package ru.c21501.rfcservice.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Исключение при временной перегрузке сервиса: запрос можно повторить через retryAfter
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.c21501.rfcservice.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Партиция таблицы истории, выгруженная в файл и отсоединенная от таблицы
+ */
+@Entity
+@Table(name = "history_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistoryArchiveEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "table_name", nullable = false, length = 63)
+    private String tableName;
+
+    @Column(name = "partition_name", nullable = false, length = 63, unique = true)
+    private String partitionName;
+
+    @Column(name = "range_start", nullable = false)
+    private OffsetDateTime rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private OffsetDateTime rangeEnd;
+
+    @Column(name = "file_path", nullable = false, length = 1024)
+    private String filePath;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    /**
+     * rfc_id (rfc_history) или rfc_affected_subsystem_id (rfc_affected_subsystem_history) строк архива,
+     * отсортированные и без повторов
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "ref_ids", columnDefinition = "BIGINT[]", nullable = false)
+    private long[] refIds;
+
+    /**
+     * Для rfc_history - последняя версия каждого RFC в архиве, по позициям {@link #refIds};
+     * null для rfc_affected_subsystem_history и архивов, созданных до появления колонки
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "ref_versions", columnDefinition = "INTEGER[]")
+    private int[] refVersions;
+
+    @CreationTimestamp
+    @Column(name = "archived_datetime", nullable = false, updatable = false)
+    private OffsetDateTime archivedDatetime;
+}
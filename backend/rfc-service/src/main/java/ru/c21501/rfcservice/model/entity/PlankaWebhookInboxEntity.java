@@ -0,0 +1,76 @@
+package ru.c21501.rfcservice.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import ru.c21501.rfcservice.model.enums.PlankaWebhookType;
+import ru.c21501.rfcservice.model.enums.WebhookInboxStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Событие Planka во входящей очереди webhook
+ */
+@Entity
+@Table(name = "planka_webhook_inbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlankaWebhookInboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "webhook_type", nullable = false, length = 32)
+    private PlankaWebhookType webhookType;
+
+    @Column(name = "event", length = 64)
+    private String event;
+
+    @Column(name = "card_id")
+    private String cardId;
+
+    @Column(name = "dedup_key", nullable = false, length = 128)
+    private String dedupKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private WebhookInboxStatus status = WebhookInboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_datetime", nullable = false)
+    private OffsetDateTime nextAttemptDatetime;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "processed_datetime")
+    private OffsetDateTime processedDatetime;
+
+    /**
+     * Метка пакета обработки, захватившего событие; null, пока событие не в обработке
+     */
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    @CreationTimestamp
+    @Column(name = "create_datetime", nullable = false, updatable = false)
+    private OffsetDateTime createDatetime;
+
+    @UpdateTimestamp
+    @Column(name = "update_datetime", nullable = false)
+    private OffsetDateTime updateDatetime;
+}
@@ -22,7 +22,8 @@ import java.time.OffsetDateTime;
 public class RfcAffectedSubsystemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rfc_affected_subsystem_id_seq")
+    @SequenceGenerator(name = "rfc_affected_subsystem_id_seq", sequenceName = "rfc_affected_subsystem_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
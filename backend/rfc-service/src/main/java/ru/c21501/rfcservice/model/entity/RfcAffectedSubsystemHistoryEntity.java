@@ -20,7 +20,8 @@ import java.time.OffsetDateTime;
 public class RfcAffectedSubsystemHistoryEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rfc_affected_subsystem_history_id_seq")
+    @SequenceGenerator(name = "rfc_affected_subsystem_history_id_seq", sequenceName = "rfc_affected_subsystem_history_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "rfc_affected_subsystem_id", nullable = false)
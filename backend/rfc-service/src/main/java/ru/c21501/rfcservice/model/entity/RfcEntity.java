@@ -24,7 +24,8 @@ import java.util.List;
 public class RfcEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rfc_id_seq")
+    @SequenceGenerator(name = "rfc_id_seq", sequenceName = "rfc_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "title", nullable = false, length = 255)
@@ -3,16 +3,23 @@ package ru.c21501.rfcservice.model.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import ru.c21501.rfcservice.converter.LongSetConverter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import ru.c21501.rfcservice.converter.LongIds;
+import ru.c21501.rfcservice.model.enums.HistoryField;
 import ru.c21501.rfcservice.model.enums.HistoryOperationType;
+import ru.c21501.rfcservice.model.enums.StatusChangeSource;
 import ru.c21501.rfcservice.openapi.model.RfcStatus;
 import ru.c21501.rfcservice.openapi.model.Urgency;
 
 import java.time.OffsetDateTime;
-import java.util.Set;
 
 /**
  * Сущность истории изменений RFC
+ * <p>
+ * Версии хранятся дельтами: в записи заполнены только поля, изменившиеся относительно предыдущей версии
+ * (отмечены в {@link #changedFields}), остальные - null. Каждая N-я версия - полный checkpoint.
+ * Полное состояние версии восстанавливается через {@link ru.c21501.rfcservice.converter.RfcHistoryDeltaCodec}
  */
 @Entity
 @Table(name = "rfc_history")
@@ -24,12 +31,31 @@ import java.util.Set;
 public class RfcHistoryEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rfc_history_id_seq")
+    @SequenceGenerator(name = "rfc_history_id_seq", sequenceName = "rfc_history_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "rfc_id", nullable = false)
     private Long rfcId;
 
+    /**
+     * Номер версии RFC, начиная с 1
+     */
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    /**
+     * Полная версия (checkpoint), от которой восстанавливаются последующие дельты
+     */
+    @Column(name = "is_snapshot", nullable = false)
+    private boolean snapshot;
+
+    /**
+     * Битовая маска заполненных полей (см. {@link HistoryField})
+     */
+    @Column(name = "changed_fields", nullable = false)
+    private int changedFields;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "operation", nullable = false, length = 20)
     private HistoryOperationType operation;
@@ -38,34 +64,62 @@ public class RfcHistoryEntity {
     @JoinColumn(name = "changed_by_id", nullable = false)
     private UserEntity changedBy;
 
-    @Column(name = "title", nullable = false, length = 255)
+    @Column(name = "title", length = 255)
     private String title;
 
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @Column(name = "implementation_date", nullable = false)
+    @Column(name = "implementation_date")
     private OffsetDateTime implementationDate;
 
     @Enumerated(EnumType.STRING)
-    @Column(name = "urgency", nullable = false, length = 50)
+    @Column(name = "urgency", length = 50)
     private Urgency urgency;
 
     @Enumerated(EnumType.STRING)
-    @Column(name = "status", nullable = false, length = 50)
+    @Column(name = "status", length = 50)
     private RfcStatus status;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "requester_id", nullable = false)
+    @JoinColumn(name = "requester_id")
     private UserEntity requester;
 
-    @Convert(converter = LongSetConverter.class)
-    @Column(name = "attachment_ids", columnDefinition = "TEXT")
-    private Set<Long> attachmentIds;
+    /**
+     * ID прикрепленных файлов, отсортированные и без повторов (см. {@link LongIds})
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "attachment_ids", columnDefinition = "BIGINT[]")
+    private long[] attachmentIds;
+
+    /**
+     * ID затронутых подсистем RFC (rfc_affected_subsystem), отсортированные и без повторов
+     */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "affected_subsystems", columnDefinition = "BIGINT[]")
+    private long[] affectedSubsystems;
+
+    /**
+     * Статус до изменения; поля oldStatus..externalActor заполняются только для STATUS_CHANGE,
+     * относятся к самой записи и не участвуют в дельта-кодировании
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "old_status", length = 50)
+    private RfcStatus oldStatus;
 
-    @Convert(converter = LongSetConverter.class)
-    @Column(name = "affected_subsystems", columnDefinition = "TEXT")
-    private Set<Long> affectedSubsystems;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", length = 50)
+    private RfcStatus newStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source", length = 20)
+    private StatusChangeSource source;
+
+    /**
+     * Пользователь внешней системы, выполнивший изменение, например "username &lt;email&gt; (Planka ID 1)"
+     */
+    @Column(name = "external_actor", length = 255)
+    private String externalActor;
 
     @CreationTimestamp
     @Column(name = "create_datetime", nullable = false, updatable = false)
@@ -0,0 +1,35 @@
+package ru.c21501.rfcservice.model.enums;
+
+/**
+ * Поле версии RFC в истории изменений и его бит в rfc_history.changed_fields.
+ * Значения битов хранятся в БД и не должны меняться
+ */
+public enum HistoryField {
+    TITLE(1),
+    DESCRIPTION(1 << 1),
+    IMPLEMENTATION_DATE(1 << 2),
+    URGENCY(1 << 3),
+    STATUS(1 << 4),
+    REQUESTER(1 << 5),
+    ATTACHMENT_IDS(1 << 6),
+    AFFECTED_SUBSYSTEMS(1 << 7);
+
+    /**
+     * Маска полной версии (checkpoint): заполнены все поля
+     */
+    public static final int ALL = (1 << 8) - 1;
+
+    private final int bit;
+
+    HistoryField(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public boolean isSet(int mask) {
+        return (mask & bit) != 0;
+    }
+}
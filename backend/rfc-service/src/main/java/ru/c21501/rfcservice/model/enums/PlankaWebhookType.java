@@ -0,0 +1,21 @@
+package ru.c21501.rfcservice.model.enums;
+
+/**
+ * Эндпоинт, через который получен webhook Planka
+ */
+public enum PlankaWebhookType {
+    /**
+     * Общий webhook с типом события в теле
+     */
+    EVENT,
+
+    /**
+     * Перемещение карточки между списками
+     */
+    CARD_MOVED,
+
+    /**
+     * Обновление карточки
+     */
+    CARD_UPDATED
+}
@@ -0,0 +1,50 @@
+package ru.c21501.rfcservice.model.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Изменившаяся часть RFC в уведомлении об изменении
+ */
+public enum RfcChangeField {
+    TITLE,
+    DESCRIPTION,
+    IMPLEMENTATION_DATE,
+    URGENCY,
+    STATUS,
+    REQUESTER,
+    ATTACHMENTS,
+    AFFECTED_SUBSYSTEMS,
+
+    /**
+     * Статусы подтверждения или выполнения затронутых подсистем
+     */
+    SUBSYSTEM_STATUSES,
+
+    /**
+     * Согласования RFC
+     */
+    APPROVALS;
+
+    /**
+     * Поля по маске изменений версии RFC ({@link HistoryField})
+     */
+    public static Set<RfcChangeField> fromHistoryMask(int mask) {
+        Set<RfcChangeField> fields = EnumSet.noneOf(RfcChangeField.class);
+        for (HistoryField field : HistoryField.values()) {
+            if (field.isSet(mask)) {
+                fields.add(switch (field) {
+                    case TITLE -> TITLE;
+                    case DESCRIPTION -> DESCRIPTION;
+                    case IMPLEMENTATION_DATE -> IMPLEMENTATION_DATE;
+                    case URGENCY -> URGENCY;
+                    case STATUS -> STATUS;
+                    case REQUESTER -> REQUESTER;
+                    case ATTACHMENT_IDS -> ATTACHMENTS;
+                    case AFFECTED_SUBSYSTEMS -> AFFECTED_SUBSYSTEMS;
+                });
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.c21501.rfcservice.model.enums;
+
+/**
+ * Тип изменения RFC в потоке уведомлений
+ */
+public enum RfcChangeType {
+    /**
+     * RFC создан
+     */
+    CREATED,
+
+    /**
+     * RFC или связанные с ним данные изменены
+     */
+    UPDATED,
+
+    /**
+     * RFC удален
+     */
+    DELETED
+}
@@ -0,0 +1,24 @@
+package ru.c21501.rfcservice.model.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Формат выгрузки RFC
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RfcExportFormat {
+    /**
+     * CSV: одна строка на RFC, подсистемы и согласования - в отдельных ячейках
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * NDJSON: один JSON-объект на строку
+     */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+}
@@ -0,0 +1,21 @@
+package ru.c21501.rfcservice.model.enums;
+
+/**
+ * Источник изменения статуса RFC в истории (rfc_history.source)
+ */
+public enum StatusChangeSource {
+    /**
+     * Перемещение карточки в Planka
+     */
+    PLANKA,
+
+    /**
+     * Автоматическое изменение сервисом
+     */
+    SYSTEM,
+
+    /**
+     * Изменение пользователем через API
+     */
+    USER
+}
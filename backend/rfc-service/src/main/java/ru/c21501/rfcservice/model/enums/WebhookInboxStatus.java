@@ -0,0 +1,26 @@
+package ru.c21501.rfcservice.model.enums;
+
+/**
+ * Статус обработки события во входящей очереди webhook
+ */
+public enum WebhookInboxStatus {
+    /**
+     * Ожидает обработки (в том числе повторной)
+     */
+    PENDING,
+
+    /**
+     * Передано обработчику
+     */
+    PROCESSING,
+
+    /**
+     * Успешно обработано
+     */
+    DONE,
+
+    /**
+     * Исчерпаны попытки обработки
+     */
+    DEAD
+}
@@ -1,9 +1,13 @@
 package ru.c21501.rfcservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.c21501.rfcservice.dto.response.history.AttachmentInfo;
 import ru.c21501.rfcservice.model.entity.AttachmentEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,4 +30,14 @@ public interface AttachmentRepository extends JpaRepository<AttachmentEntity, Lo
      * @return список файлов
      */
     List<AttachmentEntity> findByRfc_Id(Long rfcId);
+
+    /**
+     * Краткая информация о файлах для истории RFC одним запросом, без загрузки содержимого файлов
+     *
+     * @param ids ID файлов
+     * @return найденные файлы; удаленные ID пропускаются
+     */
+    @Query("SELECT new ru.c21501.rfcservice.dto.response.history.AttachmentInfo(a.id, a.originalFilename) " +
+            "FROM AttachmentEntity a WHERE a.id IN :ids")
+    List<AttachmentInfo> findInfoByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.c21501.rfcservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.c21501.rfcservice.model.entity.HistoryArchiveEntity;
+
+import java.util.List;
+
+/**
+ * Repository для работы с архивом партиций истории
+ */
+@Repository
+public interface HistoryArchiveRepository extends JpaRepository<HistoryArchiveEntity, Long> {
+
+    /**
+     * Найти архивы таблицы, содержащие строки хотя бы одного из ID (индекс GIN по ref_ids)
+     *
+     * @param tableName таблица истории
+     * @param refIds    rfc_id или rfc_affected_subsystem_id
+     * @return архивы в порядке диапазонов
+     */
+    @Query(value = "SELECT * FROM history_archive " +
+            "WHERE table_name = :tableName AND ref_ids && CAST(:refIds AS bigint[]) " +
+            "ORDER BY range_start", nativeQuery = true)
+    List<HistoryArchiveEntity> findByTableNameAndAnyRefId(@Param("tableName") String tableName,
+                                                          @Param("refIds") Long[] refIds);
+}
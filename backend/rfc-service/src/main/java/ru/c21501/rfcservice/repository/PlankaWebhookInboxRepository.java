@@ -0,0 +1,119 @@
+package ru.c21501.rfcservice.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.c21501.rfcservice.model.entity.PlankaWebhookInboxEntity;
+import ru.c21501.rfcservice.model.enums.WebhookInboxStatus;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository для входящей очереди webhook Planka
+ */
+@Repository
+public interface PlankaWebhookInboxRepository extends JpaRepository<PlankaWebhookInboxEntity, Long> {
+
+    /**
+     * Проверяет, было ли такое же событие получено после указанного момента
+     */
+    boolean existsByDedupKeyAndCreateDatetimeAfter(String dedupKey, OffsetDateTime after);
+
+    /**
+     * Находит события, готовые к обработке, в порядке получения.
+     * Событие пропускается, если более раннее событие той же карточки еще обрабатывается
+     * или ждет повторной попытки - так сохраняется порядок событий внутри карточки
+     */
+    @Query("SELECT i FROM PlankaWebhookInboxEntity i " +
+            "WHERE i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PENDING " +
+            "AND i.nextAttemptDatetime <= :now " +
+            "AND (i.cardId IS NULL OR NOT EXISTS (" +
+            "    SELECT 1 FROM PlankaWebhookInboxEntity p " +
+            "    WHERE p.cardId = i.cardId AND p.id < i.id " +
+            "    AND (p.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PROCESSING " +
+            "         OR (p.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PENDING " +
+            "             AND p.nextAttemptDatetime > :now)))) " +
+            "ORDER BY i.id")
+    List<PlankaWebhookInboxEntity> findReadyForProcessing(@Param("now") OffsetDateTime now, Pageable pageable);
+
+    /**
+     * Помечает события как переданные обработчику с меткой захвата
+     */
+    @Modifying
+    @Query("UPDATE PlankaWebhookInboxEntity i " +
+            "SET i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PROCESSING, " +
+            "i.claimToken = :token, i.updateDatetime = :now " +
+            "WHERE i.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") UUID token, @Param("now") OffsetDateTime now);
+
+    /**
+     * Продлевает захват события перед его обработкой (heartbeat)
+     *
+     * @return 0, если захват уже снят как зависший и событие принадлежит другому пакету
+     */
+    @Modifying
+    @Query("UPDATE PlankaWebhookInboxEntity i SET i.updateDatetime = :now " +
+            "WHERE i.id = :id AND i.claimToken = :token " +
+            "AND i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PROCESSING")
+    int renewClaim(@Param("id") Long id, @Param("token") UUID token, @Param("now") OffsetDateTime now);
+
+    /**
+     * Записывает результат обработки, если событие все еще захвачено этим пакетом
+     *
+     * @return 0, если захват уже снят и результат отброшен
+     */
+    @Modifying
+    @Query("UPDATE PlankaWebhookInboxEntity i " +
+            "SET i.status = :status, i.attempts = :attempts, i.lastError = :lastError, " +
+            "i.nextAttemptDatetime = :nextAttempt, i.processedDatetime = :processed, " +
+            "i.claimToken = NULL, i.updateDatetime = :now " +
+            "WHERE i.id = :id AND i.claimToken = :token " +
+            "AND i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PROCESSING")
+    int completeClaim(@Param("id") Long id,
+                      @Param("token") UUID token,
+                      @Param("status") WebhookInboxStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("lastError") String lastError,
+                      @Param("nextAttempt") OffsetDateTime nextAttempt,
+                      @Param("processed") OffsetDateTime processed,
+                      @Param("now") OffsetDateTime now);
+
+    /**
+     * Возвращает в очередь захваченные этим пакетом события, не дошедшие до обработки
+     */
+    @Modifying
+    @Query("UPDATE PlankaWebhookInboxEntity i " +
+            "SET i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PENDING, " +
+            "i.claimToken = NULL, i.updateDatetime = :now " +
+            "WHERE i.id IN :ids AND i.claimToken = :token " +
+            "AND i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PROCESSING")
+    int releaseClaim(@Param("ids") Collection<Long> ids, @Param("token") UUID token, @Param("now") OffsetDateTime now);
+
+    /**
+     * Возвращает в очередь события, захват которых не продлевался дольше порога: обработчик
+     * остановился (например, при перезапуске сервиса). Событие, ждущее в очереди пула, тоже может
+     * быть возвращено; его задача затем увидит чужую метку в {@link #renewClaim} и пропустит событие
+     */
+    @Modifying
+    @Query("UPDATE PlankaWebhookInboxEntity i " +
+            "SET i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PENDING, " +
+            "i.claimToken = NULL, i.updateDatetime = :now " +
+            "WHERE i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.PROCESSING " +
+            "AND i.updateDatetime < :before")
+    int releaseStaleProcessing(@Param("before") OffsetDateTime before, @Param("now") OffsetDateTime now);
+
+    /**
+     * Удаляет успешно обработанные события старше указанного момента
+     */
+    @Modifying
+    @Query("DELETE FROM PlankaWebhookInboxEntity i " +
+            "WHERE i.status = ru.c21501.rfcservice.model.enums.WebhookInboxStatus.DONE " +
+            "AND i.processedDatetime < :before")
+    int deleteProcessedBefore(@Param("before") OffsetDateTime before);
+}
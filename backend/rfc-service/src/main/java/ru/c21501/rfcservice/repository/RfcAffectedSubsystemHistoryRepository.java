@@ -1,11 +1,13 @@
 package ru.c21501.rfcservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,4 +29,18 @@ public interface RfcAffectedSubsystemHistoryRepository extends JpaRepository<Rfc
     List<RfcAffectedSubsystemHistoryEntity> findByRfcAffectedSubsystemIdInWithUsers(
             @Param("rfcAffectedSubsystemIds") List<Long> rfcAffectedSubsystemIds
     );
+
+    /**
+     * Удалить историю изменений статусов для указанных связей RFC-подсистема
+     * Выполняется одним запросом по индексу rfc_affected_subsystem_id, без загрузки сущностей
+     *
+     * @param rfcAffectedSubsystemIds список ID связей RFC-подсистема
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Query("DELETE FROM RfcAffectedSubsystemHistoryEntity h " +
+            "WHERE h.rfcAffectedSubsystemId IN :rfcAffectedSubsystemIds")
+    int deleteByRfcAffectedSubsystemIdIn(
+            @Param("rfcAffectedSubsystemIds") Collection<Long> rfcAffectedSubsystemIds
+    );
 }
\ No newline at end of file
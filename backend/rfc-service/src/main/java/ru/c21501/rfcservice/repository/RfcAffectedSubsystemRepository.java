@@ -4,8 +4,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.c21501.rfcservice.dto.response.history.SubsystemInfo;
 import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,4 +19,36 @@ public interface RfcAffectedSubsystemRepository extends JpaRepository<RfcAffecte
 
     @Query("SELECT ras FROM RfcAffectedSubsystemEntity ras WHERE ras.subsystem.id = :id AND ras.rfc.id = :rfcId")
     Optional<RfcAffectedSubsystemEntity> findBySubsystemIdAndRfcId(@Param("id") Long id, @Param("rfcId") Long rfcId);
-}
\ No newline at end of file
+
+    /**
+     * Загружает затронутые подсистемы нескольких RFC одним запросом вместе с RFC и исполнителями
+     */
+    @Query("SELECT ras FROM RfcAffectedSubsystemEntity ras " +
+            "JOIN FETCH ras.rfc " +
+            "JOIN FETCH ras.executor " +
+            "WHERE ras.rfc.id IN :rfcIds")
+    List<RfcAffectedSubsystemEntity> findByRfcIdInWithRfcAndExecutor(@Param("rfcIds") Collection<Long> rfcIds);
+
+    /**
+     * Загружает затронутые подсистемы нескольких RFC вместе с подсистемами, системами и исполнителями
+     */
+    @Query("SELECT ras FROM RfcAffectedSubsystemEntity ras " +
+            "JOIN FETCH ras.subsystem s " +
+            "JOIN FETCH s.system " +
+            "JOIN FETCH ras.executor " +
+            "WHERE ras.rfc.id IN :rfcIds " +
+            "ORDER BY ras.id")
+    List<RfcAffectedSubsystemEntity> findByRfcIdInWithDetails(@Param("rfcIds") Collection<Long> rfcIds);
+
+    /**
+     * Информация о затронутых подсистемах для истории RFC (подсистема, система, исполнитель) одним запросом
+     */
+    @Query("SELECT new ru.c21501.rfcservice.dto.response.history.SubsystemInfo(" +
+            "ras.id, s.id, s.name, sys.name, e.id, CONCAT(e.firstName, ' ', e.lastName)) " +
+            "FROM RfcAffectedSubsystemEntity ras " +
+            "JOIN ras.subsystem s " +
+            "JOIN s.system sys " +
+            "JOIN ras.executor e " +
+            "WHERE ras.id IN :ids")
+    List<SubsystemInfo> findSubsystemInfoByIdIn(@Param("ids") Collection<Long> ids);
+}
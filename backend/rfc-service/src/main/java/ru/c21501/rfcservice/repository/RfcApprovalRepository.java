@@ -1,9 +1,12 @@
 package ru.c21501.rfcservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.c21501.rfcservice.model.entity.RfcApprovalEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +20,10 @@ public interface RfcApprovalRepository extends JpaRepository<RfcApprovalEntity,
     long countByRfcIdAndIsApprovedTrue(Long rfcId);
 
     boolean existsByRfcIdAndApproverIdAndIsApprovedFalse(Long rfcId, Long approverId);
-}
\ No newline at end of file
+
+    /**
+     * Загружает согласования нескольких RFC вместе с согласующими
+     */
+    @Query("SELECT a FROM RfcApprovalEntity a JOIN FETCH a.approver WHERE a.rfc.id IN :rfcIds ORDER BY a.id")
+    List<RfcApprovalEntity> findByRfcIdInWithApprover(@Param("rfcIds") Collection<Long> rfcIds);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 /**
@@ -29,12 +30,69 @@ public interface RfcHistoryRepository extends JpaRepository<RfcHistoryEntity, Lo
      * Найти всю историю изменений RFC (для вычисления diff)
      *
      * @param rfcId ID RFC
-     * @return список всей истории изменений, отсортированный по времени создания
+     * @return список всей истории изменений от новых версий к старым
      */
     @Query("SELECT h FROM RfcHistoryEntity h " +
             "LEFT JOIN FETCH h.changedBy " +
             "LEFT JOIN FETCH h.requester " +
             "WHERE h.rfcId = :rfcId " +
-            "ORDER BY h.createDatetime DESC")
+            "ORDER BY h.version DESC")
     List<RfcHistoryEntity> findAllByRfcIdWithUsers(@Param("rfcId") Long rfcId);
-}
\ No newline at end of file
+
+    /**
+     * Есть ли у RFC запись версии. Партиционированная rfc_history не может иметь UNIQUE(rfc_id, version)
+     * без ключа партиционирования, поэтому уникальность версии проверяется при записи
+     *
+     * @param rfcId   ID RFC
+     * @param version номер версии
+     */
+    boolean existsByRfcIdAndVersion(Long rfcId, int version);
+
+    /**
+     * Найти записи, необходимые для восстановления версии: от ближайшего checkpoint до версии включительно
+     *
+     * @param rfcId   ID RFC
+     * @param version номер версии
+     * @return записи от новых версий к старым
+     */
+    @Query("SELECT h FROM RfcHistoryEntity h " +
+            "WHERE h.rfcId = :rfcId AND h.version <= :version " +
+            "AND h.version >= (SELECT MAX(s.version) FROM RfcHistoryEntity s " +
+            "WHERE s.rfcId = :rfcId AND s.snapshot = true AND s.version <= :version) " +
+            "ORDER BY h.version DESC")
+    List<RfcHistoryEntity> findChainUpToVersion(@Param("rfcId") Long rfcId, @Param("version") int version);
+
+    /**
+     * Найти первые записи RFC начиная с момента, если это дельты (перед архивацией более ранних записей)
+     *
+     * @param rfcIds ID RFC
+     * @param from   начало диапазона create_datetime
+     * @return записи-дельты, которые нужно сделать checkpoint
+     */
+    @Query("SELECT h FROM RfcHistoryEntity h " +
+            "WHERE h.rfcId IN :rfcIds AND h.snapshot = false " +
+            "AND h.version = (SELECT MIN(f.version) FROM RfcHistoryEntity f " +
+            "WHERE f.rfcId = h.rfcId AND f.createDatetime >= :from)")
+    List<RfcHistoryEntity> findFirstDeltasFrom(@Param("rfcIds") List<Long> rfcIds,
+                                               @Param("from") OffsetDateTime from);
+
+    /**
+     * Найти RFC, в истории которых упоминается файл (индекс GIN по attachment_ids)
+     *
+     * @param attachmentId ID файла
+     * @return ID RFC
+     */
+    @Query(value = "SELECT DISTINCT h.rfc_id FROM rfc_history h " +
+            "WHERE h.attachment_ids @> ARRAY[:attachmentId]::bigint[]", nativeQuery = true)
+    List<Long> findRfcIdsReferencingAttachment(@Param("attachmentId") long attachmentId);
+
+    /**
+     * Найти RFC, в истории которых упоминается затронутая подсистема (индекс GIN по affected_subsystems)
+     *
+     * @param affectedSubsystemId ID связи RFC-подсистема
+     * @return ID RFC
+     */
+    @Query(value = "SELECT DISTINCT h.rfc_id FROM rfc_history h " +
+            "WHERE h.affected_subsystems @> ARRAY[:affectedSubsystemId]::bigint[]", nativeQuery = true)
+    List<Long> findRfcIdsReferencingAffectedSubsystem(@Param("affectedSubsystemId") long affectedSubsystemId);
+}
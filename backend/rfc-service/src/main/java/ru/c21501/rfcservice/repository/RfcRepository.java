@@ -1,10 +1,18 @@
 package ru.c21501.rfcservice.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,4 +25,66 @@ public interface RfcRepository extends JpaRepository<RfcEntity, Long>, JpaSpecif
      * Найти RFC по Planka Card ID
      */
     Optional<RfcEntity> findByPlankaCardId(String plankaCardId);
-}
\ No newline at end of file
+
+    /**
+     * Найти неудаленные RFC, для которых еще не создана карточка в Planka
+     *
+     * @param pageable ограничение размера выборки
+     * @return список RFC без карточки в Planka, по возрастанию ID
+     */
+    List<RfcEntity> findByPlankaCardIdIsNullAndDeletedDatetimeIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Получить поля всех RFC, нужные для сверки с доской Planka, без загрузки связей
+     */
+    @Query("SELECT r.id AS id, r.title AS title, r.status AS status, " +
+            "r.plankaCardId AS plankaCardId, r.deletedDatetime AS deletedDatetime " +
+            "FROM RfcEntity r")
+    List<RfcPlankaView> findAllPlankaViews();
+
+    /**
+     * Загрузить RFC вместе со всем, что попадает в карточку Planka (создатель, подсистемы, системы,
+     * исполнители), одним запросом. Подсистемы упорядочены по ID, как при ленивой загрузке
+     */
+    @Query("SELECT r FROM RfcEntity r " +
+            "JOIN FETCH r.requester " +
+            "LEFT JOIN FETCH r.affectedSubsystems a " +
+            "LEFT JOIN FETCH a.subsystem s " +
+            "LEFT JOIN FETCH s.system " +
+            "LEFT JOIN FETCH a.executor " +
+            "WHERE r.id IN :ids " +
+            "ORDER BY r.id, a.id")
+    List<RfcEntity> findAllWithPlankaCardDataByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Установить (или сбросить) ID карточки Planka без загрузки RFC
+     */
+    @Modifying
+    @Query("UPDATE RfcEntity r SET r.plankaCardId = :plankaCardId WHERE r.id = :id")
+    int updatePlankaCardId(@Param("id") Long id, @Param("plankaCardId") String plankaCardId);
+
+    /**
+     * Заблокировать строку RFC до конца транзакции (SELECT ... FOR UPDATE) без загрузки сущности.
+     * Сериализует запись версий истории RFC: номер новой версии вычисляется по последней сохраненной
+     *
+     * @param id ID RFC
+     * @return ID RFC или пусто, если RFC нет
+     */
+    @Query(value = "SELECT id FROM rfc WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Проекция RFC для сверки с доской Planka
+     */
+    interface RfcPlankaView {
+        Long getId();
+
+        String getTitle();
+
+        RfcStatus getStatus();
+
+        String getPlankaCardId();
+
+        OffsetDateTime getDeletedDatetime();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.c21501.rfcservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.c21501.rfcservice.model.entity.SubsystemEntity;
 
@@ -28,4 +29,23 @@ public interface SubsystemRepository extends JpaRepository<SubsystemEntity, Long
      * @return true, если подсистема существует
      */
     boolean existsByNameAndSystemId(String name, Long systemId);
+
+    /**
+     * Получить пары (ID подсистемы, ID системы) для всех подсистем
+     * Используется как справочник при массовых операциях без загрузки сущностей
+     *
+     * @return список пар ID подсистемы и ID родительской системы
+     */
+    @Query("SELECT s.id AS id, s.system.id AS systemId FROM SubsystemEntity s")
+    List<SubsystemSystemIdView> findAllSubsystemSystemIds();
+
+    /**
+     * Проекция: ID подсистемы и ID ее системы
+     */
+    interface SubsystemSystemIdView {
+
+        Long getId();
+
+        Long getSystemId();
+    }
 }
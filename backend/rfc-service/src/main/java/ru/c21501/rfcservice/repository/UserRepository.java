@@ -3,6 +3,7 @@ package ru.c21501.rfcservice.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,6 +12,7 @@ import ru.c21501.rfcservice.model.enums.UserRole;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Репозиторий для работы с пользователями
@@ -80,4 +82,60 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
      * @return Optional с пользователем или пустой Optional
      */
     Optional<UserEntity> findByPlankaUserId(String plankaUserId);
+
+    /**
+     * Получить ID всех пользователей
+     * Используется как справочник при массовых операциях без загрузки сущностей
+     *
+     * @return множество ID пользователей
+     */
+    @Query("SELECT u.id FROM UserEntity u")
+    Set<Long> findAllIds();
+
+    /**
+     * Поиск пользователей по email без учета регистра (использует индекс по LOWER(email))
+     *
+     * @param email email пользователя
+     * @return список пользователей (не более одного при корректных данных)
+     */
+    @Query("SELECT u FROM UserEntity u WHERE LOWER(u.email) = LOWER(:email)")
+    List<UserEntity> findByEmailIgnoreCase(@Param("email") String email);
+
+    /**
+     * Поиск пользователей по username без учета регистра (использует индекс по LOWER(username))
+     *
+     * @param username имя пользователя
+     * @return список пользователей (не более одного при корректных данных)
+     */
+    @Query("SELECT u FROM UserEntity u WHERE LOWER(u.username) = LOWER(:username)")
+    List<UserEntity> findByUsernameIgnoreCase(@Param("username") String username);
+
+    /**
+     * Получить идентификаторы всех пользователей для сопоставления с Planka
+     *
+     * @return список проекций пользователей
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.plankaUserId AS plankaUserId " +
+            "FROM UserEntity u")
+    List<UserIdentityView> findAllIdentityViews();
+
+    /**
+     * Установить ID пользователя в Planka без загрузки сущности
+     */
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.plankaUserId = :plankaUserId WHERE u.id = :id")
+    int updatePlankaUserId(@Param("id") Long id, @Param("plankaUserId") String plankaUserId);
+
+    /**
+     * Проекция пользователя для сопоставления с пользователями Planka
+     */
+    interface UserIdentityView {
+        Long getId();
+
+        String getUsername();
+
+        String getEmail();
+
+        String getPlankaUserId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package ru.c21501.rfcservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.c21501.rfcservice.config.HistoryArchiveProperties;
+import ru.c21501.rfcservice.service.HistoryArchiveService;
+
+import java.util.List;
+
+/**
+ * Планировщик помесячных партиций таблиц истории: создает партиции на будущие месяцы
+ * и выгружает в архив партиции старше срока хранения (если архивация включена)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HistoryPartitionScheduler {
+
+    private final HistoryArchiveService historyArchiveService;
+    private final HistoryArchiveProperties properties;
+
+    /**
+     * Создает партиции при запуске, чтобы вставка истории не упала после долгого простоя сервиса
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitionsOnStartup() {
+        createFuturePartitions();
+    }
+
+    @Scheduled(cron = "${app.history.archive.partitions-cron:0 0 3 * * *}")
+    public void createFuturePartitions() {
+        try {
+            int created = historyArchiveService.createFuturePartitions();
+            if (created > 0) {
+                log.info("Created {} history partitions", created);
+            }
+        } catch (Exception e) {
+            log.error("Error creating history partitions: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Выгружает истекшие партиции по одной; ошибка одной партиции не останавливает остальные
+     */
+    @Scheduled(cron = "${app.history.archive.cron:0 30 3 * * *}")
+    public void archiveExpiredPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<String> partitions;
+        try {
+            partitions = historyArchiveService.findExpiredPartitions();
+        } catch (Exception e) {
+            log.error("Error listing expired history partitions: {}", e.getMessage(), e);
+            return;
+        }
+        for (String partition : partitions) {
+            try {
+                historyArchiveService.archivePartition(partition);
+            } catch (Exception e) {
+                log.error("Error archiving history partition {}: {}", partition, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.c21501.rfcservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.c21501.rfcservice.service.PlankaIntegrationService;
+
+/**
+ * Планировщик фонового создания карточек Planka для RFC без карточки
+ * (RFC из массового импорта и RFC, синхронизация которых ранее завершилась ошибкой)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "planka.enabled", havingValue = "true")
+public class PlankaCardBackfillScheduler {
+
+    private final PlankaIntegrationService plankaIntegrationService;
+
+    @Value("${planka.backfill.batch-size:50}")
+    private int batchSize;
+
+    /**
+     * Создает карточки для очередной порции RFC без карточки в Planka
+     */
+    @Scheduled(fixedDelayString = "${planka.backfill.delay-ms:30000}")
+    public void backfillPlankaCards() {
+        try {
+            plankaIntegrationService.syncRfcsWithoutPlankaCard(batchSize);
+        } catch (Exception e) {
+            log.error("Error during Planka card backfill: {}", e.getMessage(), e);
+        }
+    }
+}
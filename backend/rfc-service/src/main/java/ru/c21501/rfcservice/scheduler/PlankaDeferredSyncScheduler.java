@@ -0,0 +1,36 @@
+package ru.c21501.rfcservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.c21501.rfcservice.service.PlankaIntegrationService;
+
+/**
+ * Планировщик повтора синхронизаций с Planka, отложенных на время открытого circuit breaker
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "planka.enabled", havingValue = "true")
+public class PlankaDeferredSyncScheduler {
+
+    private final PlankaIntegrationService plankaIntegrationService;
+
+    @Value("${planka.deferred-sync.batch-size:50}")
+    private int batchSize;
+
+    /**
+     * Синхронизирует очередную порцию отложенных RFC, если circuit breaker закрыт
+     */
+    @Scheduled(fixedDelayString = "${planka.deferred-sync.delay-ms:5000}")
+    public void replayDeferredSyncs() {
+        try {
+            plankaIntegrationService.replayDeferredSyncs(batchSize);
+        } catch (Exception e) {
+            log.error("Error replaying deferred Planka syncs: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.c21501.rfcservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.c21501.rfcservice.service.PlankaReconciliationService;
+
+/**
+ * Планировщик периодической сверки доски Planka с RFC.
+ * По умолчанию отключен (cron "-")
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "planka.enabled", havingValue = "true")
+public class PlankaReconciliationScheduler {
+
+    private final PlankaReconciliationService plankaReconciliationService;
+
+    @Value("${planka.reconciliation.apply:false}")
+    private boolean apply;
+
+    /**
+     * Выполняет сверку доски; в режиме apply устраняет найденные расхождения
+     */
+    @Scheduled(cron = "${planka.reconciliation.cron:-}")
+    public void reconcileBoard() {
+        try {
+            plankaReconciliationService.reconcile(apply);
+        } catch (Exception e) {
+            log.error("Error reconciling Planka board: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.c21501.rfcservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.c21501.rfcservice.service.PlankaIntegrationService;
+
+/**
+ * Планировщик отправки в Planka изменений RFC, накопленных в окне debounce
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "planka.enabled", havingValue = "true")
+public class PlankaSyncDebounceScheduler {
+
+    private final PlankaIntegrationService plankaIntegrationService;
+
+    @Value("${planka.sync-debounce.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Отправляет RFC, окно debounce которых истекло
+     */
+    @Scheduled(fixedDelayString = "${planka.sync-debounce.flush-interval-ms:500}")
+    public void flushDebouncedSyncs() {
+        try {
+            plankaIntegrationService.flushDebouncedSyncs(batchSize);
+        } catch (Exception e) {
+            log.error("Error flushing debounced Planka syncs: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.c21501.rfcservice.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.c21501.rfcservice.service.PlankaWebhookInboxService;
+
+/**
+ * Планировщик обработки входящей очереди webhook Planka
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlankaWebhookInboxScheduler {
+
+    private final PlankaWebhookInboxService plankaWebhookInboxService;
+
+    /**
+     * Передает готовые события пулу обработчиков
+     */
+    @Scheduled(fixedDelayString = "${planka.webhook-inbox.poll-delay-ms:1000}")
+    public void dispatchPendingWebhooks() {
+        try {
+            plankaWebhookInboxService.dispatchPending();
+        } catch (Exception e) {
+            log.error("Error dispatching Planka webhook events: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Удаляет обработанные события старше срока хранения
+     */
+    @Scheduled(cron = "${planka.webhook-inbox.purge-cron:0 0 3 * * *}")
+    public void purgeProcessedWebhooks() {
+        try {
+            plankaWebhookInboxService.purgeProcessed();
+        } catch (Exception e) {
+            log.error("Error purging processed Planka webhook events: {}", e.getMessage(), e);
+        }
+    }
+}
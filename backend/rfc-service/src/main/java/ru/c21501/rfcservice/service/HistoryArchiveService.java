@@ -0,0 +1,62 @@
+package ru.c21501.rfcservice.service;
+
+import ru.c21501.rfcservice.model.entity.HistoryArchiveEntity;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Сервис помесячных партиций таблиц истории (rfc_history, rfc_affected_subsystem_history) и их архива
+ */
+public interface HistoryArchiveService {
+
+    /**
+     * Создать недостающие партиции с текущего месяца на app.history.archive.partitions-ahead месяцев вперед
+     *
+     * @return количество созданных партиций
+     */
+    int createFuturePartitions();
+
+    /**
+     * Найти партиции старше срока хранения (app.history.archive.retention-months)
+     *
+     * @return имена партиций от старых к новым
+     */
+    List<String> findExpiredPartitions();
+
+    /**
+     * Выгрузить партицию в файл архива, отсоединить и удалить ее.
+     * Для rfc_history первая оставшаяся в таблице версия каждого RFC предварительно сохраняется полностью,
+     * чтобы история без архива восстанавливалась без выгруженных записей
+     *
+     * @param partitionName имя партиции ({@code <table>_YYYY_MM})
+     * @return запись об архиве
+     */
+    HistoryArchiveEntity archivePartition(String partitionName);
+
+    /**
+     * Прочитать записи истории RFC из архива
+     *
+     * @param rfcId ID RFC
+     * @return записи в формате rfc_history (дельты), в произвольном порядке
+     */
+    List<RfcHistoryEntity> findArchivedRfcHistory(Long rfcId);
+
+    /**
+     * Последняя версия RFC в архиве: если вся история RFC выгружена, нумерация новых версий продолжается с нее
+     *
+     * @param rfcId ID RFC
+     * @return номер версии или 0, если записей RFC в архиве нет
+     */
+    int findLastArchivedVersion(Long rfcId);
+
+    /**
+     * Прочитать историю статусов затронутых подсистем из архива
+     *
+     * @param affectedSubsystemIds ID затронутых подсистем RFC
+     * @return записи в произвольном порядке
+     */
+    List<RfcAffectedSubsystemHistoryEntity> findArchivedSubsystemHistory(Collection<Long> affectedSubsystemIds);
+}
@@ -0,0 +1,17 @@
+package ru.c21501.rfcservice.service;
+
+import ru.c21501.rfcservice.openapi.model.PlankaReconciliationReport;
+
+/**
+ * API-сервис для операций с Planka
+ */
+public interface PlankaApiService {
+
+    /**
+     * Сверяет доску Planka с RFC (только для администратора)
+     *
+     * @param apply выполнить операции (false - только отчет)
+     * @return отчет о сверке
+     */
+    PlankaReconciliationReport reconcileBoard(Boolean apply);
+}
@@ -2,6 +2,7 @@ package ru.c21501.rfcservice.service;
 
 import ru.c21501.rfcservice.dto.planka.PlankaWebhookPayload;
 import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.enums.PlankaWebhookType;
 
 /**
  * Сервис интеграции с Planka
@@ -9,24 +10,35 @@ import ru.c21501.rfcservice.model.entity.RfcEntity;
 public interface PlankaIntegrationService {
 
     /**
-     * Обработка webhook от Planka
+     * Проверка секрета webhook от Planka
+     *
+     * @throws SecurityException если секрет не принят
      */
-    void handlePlankaWebhook(PlankaWebhookPayload payload, String webhookSecret);
+    void validateWebhookSecret(String webhookSecret);
 
     /**
-     * Обработка webhook при перемещении карточки
+     * Обработка webhook от Planka, ранее принятого во входящую очередь
+     *
+     * @param type    эндпоинт, через который получен webhook
+     * @param payload тело webhook
      */
-    void handleCardMovedWebhook(PlankaWebhookPayload payload, String webhookSecret);
+    void processWebhook(PlankaWebhookType type, PlankaWebhookPayload payload);
 
     /**
-     * Обработка webhook при обновлении карточки
+     * Синхронизировать RFC с Planka (создать или обновить карточку).
+     * Обновления существующей карточки объединяются в окне debounce и отправляются
+     * {@link #flushDebouncedSyncs(int)}. Пока circuit breaker Planka открыт, RFC откладывается
+     * и синхронизируется позже
      */
-    void handleCardUpdatedWebhook(PlankaWebhookPayload payload, String webhookSecret);
+    void syncRfcToPlanka(RfcEntity rfc);
 
     /**
-     * Синхронизировать RFC с Planka (создать или обновить карточку)
+     * Отправить в Planka RFC, окно debounce которых истекло (один PATCH на RFC)
+     *
+     * @param limit максимальное количество RFC за один вызов
+     * @return количество синхронизированных RFC
      */
-    void syncRfcToPlanka(RfcEntity rfc);
+    int flushDebouncedSyncs(int limit);
 
     /**
      * Создать карточку в Planka для RFC
@@ -34,7 +46,7 @@ public interface PlankaIntegrationService {
     String createPlankaCardForRfc(RfcEntity rfc);
 
     /**
-     * Обновить карточку в Planka для RFC
+     * Обновить карточку в Planka для RFC (содержимое и список одним запросом)
      */
     void updatePlankaCardForRfc(RfcEntity rfc, String plankaCardId);
 
@@ -47,5 +59,20 @@ public interface PlankaIntegrationService {
      * Удалить карточку из Planka
      */
     void deletePlankaCard(String plankaCardId);
-}
 
+    /**
+     * Создать карточки в Planka для RFC, у которых их еще нет (например, после массового импорта)
+     *
+     * @param limit максимальное количество RFC за один вызов
+     * @return количество RFC, для которых карточка создана
+     */
+    int syncRfcsWithoutPlankaCard(int limit);
+
+    /**
+     * Повторить отложенные синхронизации, если circuit breaker Planka закрыт
+     *
+     * @param limit максимальное количество RFC за один вызов
+     * @return количество синхронизированных RFC
+     */
+    int replayDeferredSyncs(int limit);
+}
@@ -0,0 +1,17 @@
+package ru.c21501.rfcservice.service;
+
+import ru.c21501.rfcservice.openapi.model.PlankaReconciliationReport;
+
+/**
+ * Сервис сверки доски Planka с RFC
+ */
+public interface PlankaReconciliationService {
+
+    /**
+     * Сверяет доску Planka с RFC и при необходимости устраняет расхождения
+     *
+     * @param apply выполнить операции (false - только отчет)
+     * @return отчет о сверке
+     */
+    PlankaReconciliationReport reconcile(boolean apply);
+}
@@ -0,0 +1,42 @@
+package ru.c21501.rfcservice.service;
+
+import ru.c21501.rfcservice.model.entity.UserEntity;
+
+import java.util.Optional;
+
+/**
+ * Сервис сопоставления пользователей Planka с локальными пользователями
+ */
+public interface PlankaUserIdentityService {
+
+    /**
+     * Находит локального пользователя по данным пользователя Planka.
+     * Приоритет: plankaUserId, email, username. При совпадении по email или username
+     * пользователь связывается с plankaUserId
+     *
+     * @param plankaUserId ID пользователя в Planka
+     * @param username     username из Planka
+     * @param email        email из Planka
+     * @return найденный пользователь или пустой Optional
+     */
+    Optional<UserEntity> resolveUser(String plankaUserId, String username, String email);
+
+    /**
+     * Обновляет данные пользователя в кэше (после создания, изменения или синхронизации)
+     *
+     * @param user пользователь
+     */
+    void register(UserEntity user);
+
+    /**
+     * Удаляет пользователя из кэша
+     *
+     * @param userId ID пользователя
+     */
+    void evict(Long userId);
+
+    /**
+     * Перестраивает кэш по таблице users и списку пользователей Planka
+     */
+    void refresh();
+}
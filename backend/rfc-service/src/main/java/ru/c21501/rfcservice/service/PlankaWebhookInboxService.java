@@ -0,0 +1,38 @@
+package ru.c21501.rfcservice.service;
+
+import ru.c21501.rfcservice.dto.planka.PlankaWebhookPayload;
+import ru.c21501.rfcservice.model.enums.PlankaWebhookType;
+
+/**
+ * Сервис входящей очереди webhook Planka
+ */
+public interface PlankaWebhookInboxService {
+
+    /**
+     * Сохраняет webhook во входящую очередь. Повторная доставка того же события
+     * в пределах окна дедупликации отбрасывается
+     *
+     * @param type          эндпоинт, через который получен webhook
+     * @param payload       тело webhook
+     * @param body          исходное тело запроса: сохраняется как есть и определяет повторную доставку
+     * @param webhookSecret секрет webhook
+     * @return true, если событие поставлено в очередь; false, если это повторная доставка
+     * @throws SecurityException если секрет не принят
+     */
+    boolean enqueue(PlankaWebhookType type, PlankaWebhookPayload payload, String body, String webhookSecret);
+
+    /**
+     * Передает готовые к обработке события пулу обработчиков.
+     * События одной карточки обрабатываются последовательно в порядке получения
+     *
+     * @return количество переданных событий
+     */
+    int dispatchPending();
+
+    /**
+     * Удаляет успешно обработанные события старше срока хранения
+     *
+     * @return количество удаленных событий
+     */
+    int purgeProcessed();
+}
@@ -1,5 +1,9 @@
 package ru.c21501.rfcservice.service;
 
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.c21501.rfcservice.model.enums.RfcExportFormat;
+import ru.c21501.rfcservice.openapi.model.RfcImportResponse;
 import ru.c21501.rfcservice.openapi.model.RfcRequest;
 import ru.c21501.rfcservice.openapi.model.RfcResponse;
 
@@ -56,4 +60,28 @@ public interface RfcApiService {
                                                                String urgency,
                                                                Long requesterId,
                                                                String title);
-}
\ No newline at end of file
+
+    /**
+     * Массовый импорт RFC из NDJSON-файла
+     *
+     * @param file NDJSON-файл с записями RfcImportRecord
+     * @return результат импорта
+     */
+    RfcImportResponse importRfcs(MultipartFile file);
+
+    /**
+     * Потоковая выгрузка RFC с затронутыми подсистемами и согласованиями
+     *
+     * @param format      формат выгрузки
+     * @param status      фильтр по статусу
+     * @param urgency     фильтр по срочности
+     * @param requesterId фильтр по ID создателя
+     * @param title       фильтр по части названия
+     * @return тело ответа, которое пишет выгрузку в поток
+     */
+    StreamingResponseBody exportRfcs(RfcExportFormat format,
+                                     String status,
+                                     String urgency,
+                                     Long requesterId,
+                                     String title);
+}
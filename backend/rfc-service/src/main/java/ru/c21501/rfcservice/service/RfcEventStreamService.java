@@ -0,0 +1,22 @@
+package ru.c21501.rfcservice.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Сервис потока уведомлений об изменениях RFC (Server-Sent Events)
+ */
+public interface RfcEventStreamService {
+
+    /**
+     * Подписать текущего пользователя на уведомления
+     *
+     * @param lastEventId ID последнего полученного уведомления (заголовок Last-Event-ID) или null.
+     *                    Пропущенные уведомления досылаются из буфера; если их там уже нет, первым
+     *                    отправляется событие {@code reset} - клиенту нужно перечитать данные
+     * @return поток уведомлений
+     * @throws ru.c21501.rfcservice.exception.ResourceNotFoundException если пользователь не найден
+     * @throws ru.c21501.rfcservice.exception.ServiceUnavailableException если достигнут предел одновременных подписчиков
+     *                                                                    или подписок пользователя
+     */
+    SseEmitter subscribe(String lastEventId);
+}
@@ -0,0 +1,31 @@
+package ru.c21501.rfcservice.service;
+
+import ru.c21501.rfcservice.model.enums.RfcExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Сервис потоковой выгрузки RFC
+ */
+public interface RfcExportService {
+
+    /**
+     * Выгружает неудаленные RFC с затронутыми подсистемами и согласованиями в поток.
+     * Фильтры совпадают с фильтрами списка RFC
+     *
+     * @param format      формат выгрузки
+     * @param status      фильтр по статусу
+     * @param urgency     фильтр по срочности
+     * @param requesterId фильтр по ID создателя
+     * @param title       фильтр по части названия
+     * @param output      поток для записи
+     * @return количество выгруженных RFC
+     */
+    long exportRfcs(RfcExportFormat format,
+                    String status,
+                    String urgency,
+                    Long requesterId,
+                    String title,
+                    OutputStream output) throws IOException;
+}
@@ -1,8 +1,11 @@
 package ru.c21501.rfcservice.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
 import ru.c21501.rfcservice.openapi.model.RfcHistoryResponse;
 
+import java.util.Optional;
+
 /**
  * Сервис для работы с историей изменений RFC
  */
@@ -11,9 +14,26 @@ public interface RfcHistoryService {
     /**
      * Получить историю изменений RFC
      *
-     * @param rfcId    ID RFC
-     * @param pageable параметры пагинации
+     * @param rfcId           ID RFC
+     * @param pageable        параметры пагинации
+     * @param includeArchived добавить версии из архивированных партиций истории
      * @return историю изменений с пагинацией
      */
-    RfcHistoryResponse getRfcHistory(Long rfcId, Pageable pageable);
+    RfcHistoryResponse getRfcHistory(Long rfcId, Pageable pageable, boolean includeArchived);
+
+    /**
+     * Сохранить новую версию RFC в истории (дельтой к предыдущей версии или полным checkpoint)
+     *
+     * @param state полное состояние RFC; null в attachmentIds/affectedSubsystems - набор не менялся
+     */
+    void recordVersion(RfcHistoryEntity state);
+
+    /**
+     * Восстановить полное состояние версии RFC
+     *
+     * @param rfcId   ID RFC
+     * @param version номер версии, начиная с 1
+     * @return состояние версии или пусто, если версии нет
+     */
+    Optional<RfcHistoryEntity> getVersion(Long rfcId, int version);
 }
@@ -0,0 +1,21 @@
+package ru.c21501.rfcservice.service;
+
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.openapi.model.RfcImportResponse;
+
+import java.io.InputStream;
+
+/**
+ * Сервис массового импорта RFC
+ */
+public interface RfcImportService {
+
+    /**
+     * Импортировать RFC из NDJSON-потока (одна строка - одна запись RfcImportRecord)
+     *
+     * @param input    поток с данными в формате NDJSON
+     * @param importer пользователь, выполняющий импорт
+     * @return результат импорта с ошибками по строкам
+     */
+    RfcImportResponse importRfcs(InputStream input, UserEntity importer);
+}
@@ -1,5 +1,7 @@
 package ru.c21501.rfcservice.service;
 
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+
 /**
  * Сервис для автоматического обновления статусов RFC
  */
@@ -9,4 +11,13 @@ public interface RfcStatusSchedulerService {
      * Обновляет статусы всех RFC на основе состояния подсистем и аппрувов
      */
     void updateRfcStatuses();
+
+    /**
+     * Пересчитывает статус одного RFC и синхронизирует его с Planka при изменении.
+     * Статус, недавно изменённый из Planka, не перезаписывается.
+     *
+     * @param rfc RFC для пересчёта
+     * @return true, если статус RFC изменился
+     */
+    boolean recalculateRfcStatus(RfcEntity rfc);
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package ru.c21501.rfcservice.service;
 
 import ru.c21501.rfcservice.openapi.model.AffectedSubsystemResponse;
+import ru.c21501.rfcservice.openapi.model.SubsystemStatusBatchRequest;
 import ru.c21501.rfcservice.openapi.model.UpdateSubsystemConfirmationStatusRequest;
 import ru.c21501.rfcservice.openapi.model.UpdateSubsystemExecutionStatusRequest;
 
+import java.util.List;
+
 /**
  * API-сервис для работы со статусами затронутых подсистем
  */
@@ -36,4 +39,12 @@ public interface SubsystemStatusApiService {
             Long subsystemId,
             UpdateSubsystemExecutionStatusRequest request
     );
+
+    /**
+     * Массово обновить статусы затронутых подсистем
+     *
+     * @param request пакет изменений статусов
+     * @return обновленные подсистемы
+     */
+    List<AffectedSubsystemResponse> updateStatuses(SubsystemStatusBatchRequest request);
 }
@@ -4,6 +4,9 @@ import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
 import ru.c21501.rfcservice.model.entity.UserEntity;
 import ru.c21501.rfcservice.openapi.model.ConfirmationStatus;
 import ru.c21501.rfcservice.openapi.model.ExecutionStatus;
+import ru.c21501.rfcservice.openapi.model.SubsystemStatusChangeRequest;
+
+import java.util.List;
 
 /**
  * Сервис для работы со статусами затронутых подсистем
@@ -45,4 +48,20 @@ public interface SubsystemStatusService {
             String comment,
             UserEntity currentUser
     );
+
+    /**
+     * Применяет пакет изменений статусов подсистем в одной транзакции.
+     * Если хотя бы одно изменение недопустимо, не применяется ни одно.
+     * После применения статус каждого затронутого RFC пересчитывается один раз.
+     *
+     * @param changes список изменений
+     * @param comment комментарий
+     * @param currentUser текущий пользователь
+     * @return обновленные сущности в порядке изменений
+     */
+    List<RfcAffectedSubsystemEntity> updateStatuses(
+            List<SubsystemStatusChangeRequest> changes,
+            String comment,
+            UserEntity currentUser
+    );
 }
@@ -1,6 +1,8 @@
 package ru.c21501.rfcservice.service;
 
 import ru.c21501.rfcservice.openapi.model.UpdateUserRequest;
+import ru.c21501.rfcservice.openapi.model.UserBatchCreateRequest;
+import ru.c21501.rfcservice.openapi.model.UserBatchCreateResponse;
 import ru.c21501.rfcservice.openapi.model.UserPageResponse;
 import ru.c21501.rfcservice.openapi.model.UserRequest;
 import ru.c21501.rfcservice.openapi.model.UserResponse;
@@ -18,6 +20,14 @@ public interface UserApiService {
      */
     UserResponse createUser(UserRequest request);
 
+    /**
+     * Создает пользователей пакетом
+     *
+     * @param request данные пользователей
+     * @return созданные пользователи и ошибки по остальным
+     */
+    UserBatchCreateResponse createUsers(UserBatchCreateRequest request);
+
     /**
      * Обновляет данные пользователя
      *
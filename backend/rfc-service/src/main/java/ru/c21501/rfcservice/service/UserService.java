@@ -2,8 +2,11 @@ package ru.c21501.rfcservice.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ru.c21501.rfcservice.dto.response.user.UserProvisioningResult;
 import ru.c21501.rfcservice.model.entity.UserEntity;
 
+import java.util.List;
+
 /**
  * Сервис для работы с пользователями (бизнес-логика)
  */
@@ -18,6 +21,16 @@ public interface UserService {
      */
     UserEntity createUser(UserEntity userEntity, String password);
 
+    /**
+     * Создает пользователей пакетом. Удаленные вызовы всех пользователей выполняются
+     * параллельно на ограниченном пуле; каждый пользователь создается независимо
+     *
+     * @param users     данные пользователей
+     * @param passwords пароли пользователей (в том же порядке, что и users)
+     * @return результаты по каждому пользователю в порядке входного списка
+     */
+    List<UserProvisioningResult> createUsers(List<UserEntity> users, List<String> passwords);
+
     /**
      * Обновляет данные пользователя в системе и Keycloak
      *
@@ -0,0 +1,422 @@
+package ru.c21501.rfcservice.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.config.HistoryArchiveProperties;
+import ru.c21501.rfcservice.converter.LongIds;
+import ru.c21501.rfcservice.converter.RfcHistoryDeltaCodec;
+import ru.c21501.rfcservice.model.entity.HistoryArchiveEntity;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.HistoryOperationType;
+import ru.c21501.rfcservice.model.enums.StatusChangeSource;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
+import ru.c21501.rfcservice.openapi.model.Urgency;
+import ru.c21501.rfcservice.repository.HistoryArchiveRepository;
+import ru.c21501.rfcservice.repository.RfcHistoryRepository;
+import ru.c21501.rfcservice.repository.UserRepository;
+import ru.c21501.rfcservice.service.HistoryArchiveService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Реализация сервиса партиций и архива истории
+ * <p>
+ * Партиция выгружается построчно ({@code row_to_json}) в файл JSON Lines со сжатием gzip, затем в той же
+ * транзакции регистрируется в history_archive, отсоединяется и удаляется. Чтение архива фильтрует строки
+ * файлов, в которых по history_archive.ref_ids есть запрошенные RFC или подсистемы
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HistoryArchiveServiceImpl implements HistoryArchiveService {
+
+    private static final String RFC_HISTORY = "rfc_history";
+    private static final String SUBSYSTEM_HISTORY = "rfc_affected_subsystem_history";
+
+    /**
+     * Таблица истории -> колонка, по которой читается архив
+     */
+    private static final Map<String, String> REF_COLUMNS = Map.of(
+            RFC_HISTORY, "rfc_id",
+            SUBSYSTEM_HISTORY, "rfc_affected_subsystem_id");
+
+    private static final Pattern PARTITION_NAME =
+            Pattern.compile("^(" + RFC_HISTORY + "|" + SUBSYSTEM_HISTORY + ")_(\\d{4})_(\\d{2})$");
+
+    /**
+     * Размер порции RFC при подготовке checkpoint перед архивацией
+     */
+    private static final int PROMOTE_BATCH_SIZE = 500;
+
+    private final HistoryArchiveProperties properties;
+    private final HistoryArchiveRepository historyArchiveRepository;
+    private final RfcHistoryRepository rfcHistoryRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int createFuturePartitions() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        int created = 0;
+        for (String table : REF_COLUMNS.keySet()) {
+            Number count = (Number) entityManager
+                    .createNativeQuery("SELECT create_history_partitions(:table, :from, :to)")
+                    .setParameter("table", table)
+                    .setParameter("from", now)
+                    .setParameter("to", now.plusMonths(properties.getPartitionsAhead()))
+                    .getSingleResult();
+            created += count.intValue();
+        }
+        return created;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<String> findExpiredPartitions() {
+        YearMonth oldestKept = YearMonth.now(ZoneOffset.UTC).minusMonths(properties.getRetentionMonths());
+        List<String> expired = new ArrayList<>();
+        for (String table : REF_COLUMNS.keySet()) {
+            List<String> partitions = entityManager.createNativeQuery(
+                            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                                    "WHERE i.inhparent = CAST(:table AS regclass)", String.class)
+                    .setParameter("table", table)
+                    .getResultList();
+            for (String partition : partitions) {
+                Matcher matcher = PARTITION_NAME.matcher(partition);
+                if (matcher.matches() && matcher.group(1).equals(table)
+                        && partitionMonth(matcher).isBefore(oldestKept)) {
+                    expired.add(partition);
+                }
+            }
+        }
+        // Имена заканчиваются на _YYYY_MM: сортировка по месяцу, затем по таблице
+        expired.sort((left, right) -> {
+            int byMonth = left.substring(left.length() - 7).compareTo(right.substring(right.length() - 7));
+            return byMonth != 0 ? byMonth : left.compareTo(right);
+        });
+        return expired;
+    }
+
+    @Override
+    @Transactional
+    public HistoryArchiveEntity archivePartition(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a history partition: " + partitionName);
+        }
+        String table = matcher.group(1);
+        YearMonth month = partitionMonth(matcher);
+        OffsetDateTime rangeStart = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime rangeEnd = rangeStart.plusMonths(1);
+
+        Path file = properties.getDirectory().resolve(table).resolve(partitionName + ".jsonl.gz");
+        ExportResult export = exportPartition(partitionName, REF_COLUMNS.get(table), file);
+
+        int[] refVersions = null;
+        if (RFC_HISTORY.equals(table)) {
+            refVersions = lastVersions(partitionName, export.refIds());
+            int promoted = promoteCheckpoints(export.refIds(), rangeEnd);
+            log.info("History partition {}: {} RFC versions promoted to checkpoints", partitionName, promoted);
+        }
+
+        HistoryArchiveEntity archive = historyArchiveRepository.save(HistoryArchiveEntity.builder()
+                .tableName(table)
+                .partitionName(partitionName)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .filePath(file.toAbsolutePath().toString())
+                .rowCount(export.rowCount())
+                .sha256(export.sha256())
+                .refIds(export.refIds())
+                .refVersions(refVersions)
+                .build());
+        entityManager.flush();
+
+        entityManager.createNativeQuery("ALTER TABLE " + table + " DETACH PARTITION " + partitionName).executeUpdate();
+        entityManager.createNativeQuery("DROP TABLE " + partitionName).executeUpdate();
+
+        log.info("History partition {} archived: {} rows -> {}", partitionName, export.rowCount(), file);
+        return archive;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RfcHistoryEntity> findArchivedRfcHistory(Long rfcId) {
+        List<JsonNode> rows = readArchivedRows(RFC_HISTORY, Set.of(rfcId));
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserEntity> users = loadUsers(rows, "changed_by_id", "requester_id");
+        return rows.stream()
+                .map(row -> RfcHistoryEntity.builder()
+                        .id(row.get("id").asLong())
+                        .rfcId(row.get("rfc_id").asLong())
+                        .version(row.get("version").asInt())
+                        .snapshot(row.get("is_snapshot").asBoolean())
+                        .changedFields(row.get("changed_fields").asInt())
+                        .operation(HistoryOperationType.valueOf(row.get("operation").asText()))
+                        .changedBy(users.get(row.get("changed_by_id").asLong()))
+                        .title(text(row, "title"))
+                        .description(text(row, "description"))
+                        .implementationDate(dateTime(row, "implementation_date"))
+                        .urgency(row.hasNonNull("urgency") ? Urgency.valueOf(row.get("urgency").asText()) : null)
+                        .status(row.hasNonNull("status") ? RfcStatus.valueOf(row.get("status").asText()) : null)
+                        .requester(row.hasNonNull("requester_id") ? users.get(row.get("requester_id").asLong()) : null)
+                        .attachmentIds(ids(row, "attachment_ids"))
+                        .affectedSubsystems(ids(row, "affected_subsystems"))
+                        .oldStatus(row.hasNonNull("old_status") ? RfcStatus.valueOf(row.get("old_status").asText()) : null)
+                        .newStatus(row.hasNonNull("new_status") ? RfcStatus.valueOf(row.get("new_status").asText()) : null)
+                        .source(row.hasNonNull("source") ? StatusChangeSource.valueOf(row.get("source").asText()) : null)
+                        .externalActor(text(row, "external_actor"))
+                        .createDatetime(dateTime(row, "create_datetime"))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int findLastArchivedVersion(Long rfcId) {
+        int lastVersion = 0;
+        for (HistoryArchiveEntity archive : historyArchiveRepository
+                .findByTableNameAndAnyRefId(RFC_HISTORY, new Long[]{rfcId})) {
+            int index = Arrays.binarySearch(archive.getRefIds(), rfcId);
+            if (index < 0) {
+                continue;
+            }
+            if (archive.getRefVersions() != null) {
+                lastVersion = Math.max(lastVersion, archive.getRefVersions()[index]);
+                continue;
+            }
+            // Архив создан до колонки ref_versions: номер версии берется из файла
+            for (JsonNode row : readArchiveFile(archive, REF_COLUMNS.get(RFC_HISTORY), Set.of(rfcId))) {
+                lastVersion = Math.max(lastVersion, row.get("version").asInt());
+            }
+        }
+        return lastVersion;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RfcAffectedSubsystemHistoryEntity> findArchivedSubsystemHistory(Collection<Long> affectedSubsystemIds) {
+        if (affectedSubsystemIds.isEmpty()) {
+            return List.of();
+        }
+        List<JsonNode> rows = readArchivedRows(SUBSYSTEM_HISTORY, new HashSet<>(affectedSubsystemIds));
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserEntity> users = loadUsers(rows, "changed_by_id");
+        return rows.stream()
+                .map(row -> RfcAffectedSubsystemHistoryEntity.builder()
+                        .id(row.get("id").asLong())
+                        .rfcAffectedSubsystemId(row.get("rfc_affected_subsystem_id").asLong())
+                        .operation(HistoryOperationType.valueOf(row.get("operation").asText()))
+                        .statusType(text(row, "status_type"))
+                        .oldStatus(text(row, "old_status"))
+                        .newStatus(text(row, "new_status"))
+                        .changedBy(users.get(row.get("changed_by_id").asLong()))
+                        .createDatetime(dateTime(row, "create_datetime"))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Выгрузить строки партиции в файл: запись во временный файл, fsync и атомарное переименование
+     */
+    @SuppressWarnings("unchecked")
+    private ExportResult exportPartition(String partitionName, String refColumn, Path file) {
+        MessageDigest digest = sha256();
+        Set<Long> refIds = new HashSet<>();
+        long rowCount = 0;
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), partitionName, ".tmp");
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                    new DigestOutputStream(Files.newOutputStream(tmp), digest)), StandardCharsets.UTF_8));
+                 Stream<Object[]> rows = entityManager.createNativeQuery(
+                                 "SELECT h." + refColumn + ", CAST(row_to_json(h) AS text) FROM " + partitionName + " h "
+                                         + "ORDER BY h.id")
+                         .setHint(HibernateHints.HINT_FETCH_SIZE, properties.getFetchSize())
+                         .getResultStream()) {
+                for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                    refIds.add(((Number) row[0]).longValue());
+                    writer.write((String) row[1]);
+                    writer.write('\n');
+                    rowCount++;
+                }
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export history partition " + partitionName, e);
+        }
+        return new ExportResult(rowCount, HexFormat.of().formatHex(digest.digest()), LongIds.of(refIds));
+    }
+
+    /**
+     * Последняя версия каждого RFC партиции rfc_history по позициям отсортированных rfcIds
+     */
+    @SuppressWarnings("unchecked")
+    private int[] lastVersions(String partitionName, long[] rfcIds) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT h.rfc_id, MAX(h.version) FROM " + partitionName + " h GROUP BY h.rfc_id")
+                .getResultList();
+        int[] versions = new int[rfcIds.length];
+        for (Object[] row : rows) {
+            versions[Arrays.binarySearch(rfcIds, ((Number) row[0]).longValue())] = ((Number) row[1]).intValue();
+        }
+        return versions;
+    }
+
+    /**
+     * Сохранить полностью первую версию каждого RFC после архивируемого диапазона, если это дельта
+     */
+    private int promoteCheckpoints(long[] rfcIds, OffsetDateTime rangeEnd) {
+        List<Long> ids = LongIds.toList(rfcIds);
+        int promoted = 0;
+        for (int from = 0; from < ids.size(); from += PROMOTE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + PROMOTE_BATCH_SIZE, ids.size()));
+            for (RfcHistoryEntity head : rfcHistoryRepository.findFirstDeltasFrom(batch, rangeEnd)) {
+                RfcHistoryEntity state = RfcHistoryDeltaCodec.reconstruct(
+                        rfcHistoryRepository.findChainUpToVersion(head.getRfcId(), head.getVersion())).get(0);
+                RfcHistoryDeltaCodec.promoteToSnapshot(head, state);
+                promoted++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return promoted;
+    }
+
+    /**
+     * Строки архивов таблицы, у которых колонка ref_ids совпадает с одним из ID
+     */
+    private List<JsonNode> readArchivedRows(String table, Set<Long> refIds) {
+        List<HistoryArchiveEntity> archives = historyArchiveRepository
+                .findByTableNameAndAnyRefId(table, refIds.toArray(Long[]::new));
+        String refColumn = REF_COLUMNS.get(table);
+        List<JsonNode> rows = new ArrayList<>();
+        for (HistoryArchiveEntity archive : archives) {
+            rows.addAll(readArchiveFile(archive, refColumn, refIds));
+        }
+        log.debug("Read {} rows of {} from {} archives", rows.size(), table, archives.size());
+        return rows;
+    }
+
+    /**
+     * Строки файла архива, у которых колонка refColumn совпадает с одним из ID
+     */
+    private List<JsonNode> readArchiveFile(HistoryArchiveEntity archive, String refColumn, Set<Long> refIds) {
+        Path file = Path.of(archive.getFilePath());
+        List<JsonNode> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode row = objectMapper.readTree(line);
+                if (refIds.contains(row.get(refColumn).asLong())) {
+                    rows.add(row);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read history archive " + file, e);
+        }
+        return rows;
+    }
+
+    private Map<Long, UserEntity> loadUsers(List<JsonNode> rows, String... columns) {
+        Set<Long> userIds = new HashSet<>();
+        for (JsonNode row : rows) {
+            for (String column : columns) {
+                if (row.hasNonNull(column)) {
+                    userIds.add(row.get(column).asLong());
+                }
+            }
+        }
+        return userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+    }
+
+    private static YearMonth partitionMonth(Matcher matcher) {
+        return YearMonth.of(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+    }
+
+    private static String text(JsonNode row, String column) {
+        return row.hasNonNull(column) ? row.get(column).asText() : null;
+    }
+
+    private static OffsetDateTime dateTime(JsonNode row, String column) {
+        return row.hasNonNull(column) ? OffsetDateTime.parse(row.get(column).asText()) : null;
+    }
+
+    private static long[] ids(JsonNode row, String column) {
+        if (!row.hasNonNull(column)) {
+            return null;
+        }
+        long[] ids = new long[row.get(column).size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = row.get(column).get(i).asLong();
+        }
+        return ids;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record ExportResult(long rowCount, String sha256, long[] refIds) {
+    }
+}
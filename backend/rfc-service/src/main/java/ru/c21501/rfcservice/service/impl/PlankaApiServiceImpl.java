@@ -0,0 +1,37 @@
+package ru.c21501.rfcservice.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.c21501.rfcservice.exception.ForbiddenException;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.UserRole;
+import ru.c21501.rfcservice.openapi.model.PlankaReconciliationReport;
+import ru.c21501.rfcservice.service.PlankaApiService;
+import ru.c21501.rfcservice.service.PlankaReconciliationService;
+import ru.c21501.rfcservice.service.SecurityContextService;
+
+/**
+ * Реализация API-сервиса для операций с Planka
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlankaApiServiceImpl implements PlankaApiService {
+
+    private final PlankaReconciliationService plankaReconciliationService;
+    private final SecurityContextService securityContextService;
+
+    @Override
+    public PlankaReconciliationReport reconcileBoard(Boolean apply) {
+        UserEntity currentUser = securityContextService.getCurrentUser();
+
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            log.warn("User {} has no access to Planka board reconciliation", currentUser.getId());
+            throw new ForbiddenException("Недостаточно прав для сверки доски Planka");
+        }
+
+        log.info("API: Reconciling Planka board by user {}, apply={}", currentUser.getId(), apply);
+        return plankaReconciliationService.reconcile(Boolean.TRUE.equals(apply));
+    }
+}
@@ -1,29 +1,42 @@
 package ru.c21501.rfcservice.service.impl;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.c21501.rfcservice.converter.LongIds;
 import ru.c21501.rfcservice.client.PlankaClient;
+import ru.c21501.rfcservice.client.PlankaResilienceInterceptor;
 import ru.c21501.rfcservice.dto.planka.PlankaCardRequest;
 import ru.c21501.rfcservice.dto.planka.PlankaCardResponse;
 import ru.c21501.rfcservice.dto.planka.PlankaWebhookPayload;
+import ru.c21501.rfcservice.event.RfcChangeEvent;
 import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
 import ru.c21501.rfcservice.model.entity.RfcEntity;
 import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
 import ru.c21501.rfcservice.model.entity.UserEntity;
 import ru.c21501.rfcservice.model.enums.HistoryOperationType;
+import ru.c21501.rfcservice.model.enums.PlankaWebhookType;
+import ru.c21501.rfcservice.model.enums.RfcChangeField;
+import ru.c21501.rfcservice.model.enums.StatusChangeSource;
 import ru.c21501.rfcservice.openapi.model.RfcStatus;
 import ru.c21501.rfcservice.openapi.model.Urgency;
-import ru.c21501.rfcservice.repository.RfcHistoryRepository;
 import ru.c21501.rfcservice.repository.RfcRepository;
-import ru.c21501.rfcservice.repository.UserRepository;
 import ru.c21501.rfcservice.service.PlankaIntegrationService;
+import ru.c21501.rfcservice.service.PlankaUserIdentityService;
+import ru.c21501.rfcservice.service.RfcHistoryService;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Реализация сервиса интеграции с Planka
@@ -35,8 +48,25 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
 
     private final PlankaClient plankaClient;
     private final RfcRepository rfcRepository;
-    private final RfcHistoryRepository rfcHistoryRepository;
-    private final UserRepository userRepository;
+    private final RfcHistoryService rfcHistoryService;
+    private final PlankaUserIdentityService plankaUserIdentityService;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * RFC, синхронизация которых отложена, пока circuit breaker Planka открыт.
+     * Хранятся только ID: при повторе синхронизируется актуальное состояние RFC
+     */
+    private final Set<Long> deferredRfcIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * RFC с карточкой, ожидающие отправки изменений: ID RFC -> момент окончания окна debounce.
+     * Все изменения RFC внутри окна отправляются одним PATCH с актуальным состоянием
+     */
+    private final Map<Long, Instant> debouncedSyncs = new ConcurrentHashMap<>();
+
+    @Value("${planka.sync-debounce.window-ms:2000}")
+    private long debounceWindowMs;
 
     @Value("${planka.webhook-secret:}")
     private String expectedWebhookSecret;
@@ -50,7 +80,7 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
     /**
      * Маппинг статусов RFC на названия списков в Planka
      */
-    private static final Map<RfcStatus, List<String>> STATUS_TO_LIST_NAMES = Map.of(
+    static final Map<RfcStatus, List<String>> STATUS_TO_LIST_NAMES = Map.of(
             RfcStatus.NEW, List.of("Новый", "Новые", "New", "Новые запросы", "New Requests", "Backlog"),
             RfcStatus.UNDER_REVIEW, List.of("На рассмотрении", "Under Review", "Review", "In Review"),
             RfcStatus.APPROVED, List.of("Одобрен", "Утверждено", "Approved", "Ready"),
@@ -61,7 +91,7 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
     /**
      * Обратный маппинг: название списка -> статус RFC
      */
-    private static final Map<String, RfcStatus> LIST_NAME_TO_STATUS;
+    static final Map<String, RfcStatus> LIST_NAME_TO_STATUS;
 
     static {
         Map<String, RfcStatus> map = new HashMap<>();
@@ -72,59 +102,110 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
     }
 
     @Override
-    public void handlePlankaWebhook(PlankaWebhookPayload payload, String webhookSecret) {
-        validateWebhookSecret(webhookSecret);
-        
+    public void validateWebhookSecret(String webhookSecret) {
+        // Проверка секрета отключена - используем Planka accessToken
+        // Planka отправляет токен через Authorization Bearer header
+        if (expectedWebhookSecret != null && !expectedWebhookSecret.isBlank() && webhookSecret != null) {
+            if (!expectedWebhookSecret.equals(webhookSecret)) {
+                log.debug("Webhook secret mismatch, but allowing request (expected: {}, got: {})", 
+                        expectedWebhookSecret.substring(0, Math.min(8, expectedWebhookSecret.length())) + "...", 
+                        webhookSecret.substring(0, Math.min(8, webhookSecret.length())) + "...");
+            }
+        }
+        // Не выбрасываем исключение - разрешаем все webhook'и от Planka
+    }
+
+    @Override
+    @Transactional
+    public void processWebhook(PlankaWebhookType type, PlankaWebhookPayload payload) {
         if (!plankaEnabled) {
             log.debug("Planka integration is disabled, skipping webhook");
             return;
         }
 
-        String event = payload.getEvent();
-        log.info("Processing Planka webhook: event={}", event);
-
-        switch (event) {
-            case "cardCreate", "card_created" -> handleCardCreated(payload);
-            case "cardUpdate", "card_updated" -> handleCardUpdated(payload);
-            case "cardMove", "card_moved" -> handleCardMoved(payload);
-            case "cardDelete", "card_deleted" -> handleCardDeleted(payload);
-            case "rfc_status_changed" -> handleRfcStatusChanged(payload);
-            default -> log.debug("Unhandled webhook event: {}", event);
+        switch (type) {
+            case CARD_MOVED -> handleCardMoved(payload);
+            case CARD_UPDATED -> handleCardUpdated(payload);
+            case EVENT -> handleEvent(payload);
         }
     }
 
     @Override
-    public void handleCardMovedWebhook(PlankaWebhookPayload payload, String webhookSecret) {
-        validateWebhookSecret(webhookSecret);
-        
-        if (!plankaEnabled) return;
+    @Transactional
+    public void syncRfcToPlanka(RfcEntity rfc) {
+        if (!plankaEnabled) {
+            log.debug("Planka integration is disabled, skipping sync");
+            return;
+        }
 
-        handleCardMoved(payload);
-    }
+        if (isPlankaCircuitOpen()) {
+            deferredRfcIds.add(rfc.getId());
+            log.info("Planka circuit breaker is open, RFC {} sync deferred ({} pending)",
+                    rfc.getId(), deferredRfcIds.size());
+            return;
+        }
 
-    @Override
-    public void handleCardUpdatedWebhook(PlankaWebhookPayload payload, String webhookSecret) {
-        validateWebhookSecret(webhookSecret);
-        
-        if (!plankaEnabled) return;
+        // Изменения существующей карточки объединяются в окне debounce
+        if (rfc.getPlankaCardId() != null && debounceWindowMs > 0) {
+            scheduleDebouncedSync(rfc.getId());
+            return;
+        }
 
-        handleCardUpdated(payload);
+        pushRfcToPlanka(rfc);
     }
 
     @Override
     @Transactional
-    public void syncRfcToPlanka(RfcEntity rfc) {
-        if (!plankaEnabled) {
-            log.debug("Planka integration is disabled, skipping sync");
-            return;
+    public int flushDebouncedSyncs(int limit) {
+        if (!plankaEnabled || debouncedSyncs.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        List<Long> rfcIds = debouncedSyncs.entrySet().stream()
+                .filter(entry -> !entry.getValue().isAfter(now))
+                .map(Map.Entry::getKey)
+                .limit(limit)
+                .toList();
+        if (rfcIds.isEmpty()) {
+            return 0;
+        }
+        // Изменения, пришедшие после этой точки, откроют новое окно
+        rfcIds.forEach(debouncedSyncs::remove);
+
+        if (isPlankaCircuitOpen()) {
+            deferredRfcIds.addAll(rfcIds);
+            log.info("Planka circuit breaker is open, {} debounced syncs deferred", rfcIds.size());
+            return 0;
         }
 
+        // Списки доски загружаются один раз на всю пачку
+        Map<RfcStatus, String> listIdsByStatus = findListIdsByStatus();
+        int synced = 0;
+        for (RfcEntity rfc : rfcRepository.findAllById(rfcIds)) {
+            if (rfc.getDeletedDatetime() != null || rfc.getPlankaCardId() == null) {
+                continue;
+            }
+            try {
+                sendCardUpdate(rfc, rfc.getPlankaCardId(), listIdsByStatus.get(rfc.getStatus()));
+                synced++;
+            } catch (Exception e) {
+                log.warn("Failed to sync debounced RFC {} to Planka: {}", rfc.getId(), e.getMessage());
+            }
+        }
+        log.debug("Flushed {} debounced Planka syncs ({} pending)", synced, debouncedSyncs.size());
+        return synced;
+    }
+
+    /**
+     * Немедленно отправляет RFC в Planka: создает карточку или обновляет существующую одним PATCH
+     */
+    private void pushRfcToPlanka(RfcEntity rfc) {
         log.info("Syncing RFC to Planka: rfcId={}", rfc.getId());
 
         // Если карточка уже существует - обновляем
         if (rfc.getPlankaCardId() != null) {
             updatePlankaCardForRfc(rfc, rfc.getPlankaCardId());
-            updateRfcStatusInPlanka(rfc, rfc.getPlankaCardId());
             return;
         }
 
@@ -139,6 +220,67 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
         }
     }
 
+    @Override
+    @Transactional
+    public int syncRfcsWithoutPlankaCard(int limit) {
+        if (!plankaEnabled || isPlankaCircuitOpen()) {
+            return 0;
+        }
+
+        List<RfcEntity> rfcs = rfcRepository.findByPlankaCardIdIsNullAndDeletedDatetimeIsNullOrderByIdAsc(
+                PageRequest.of(0, limit));
+        if (rfcs.isEmpty()) {
+            return 0;
+        }
+
+        log.info("Backfilling Planka cards for {} RFCs", rfcs.size());
+        int created = 0;
+        for (RfcEntity rfc : rfcs) {
+            try {
+                syncRfcToPlanka(rfc);
+                if (rfc.getPlankaCardId() != null) {
+                    created++;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to backfill Planka card for RFC {}: {}", rfc.getId(), e.getMessage());
+            }
+        }
+
+        log.info("Planka card backfill completed: {} of {} cards created", created, rfcs.size());
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public int replayDeferredSyncs(int limit) {
+        if (!plankaEnabled || deferredRfcIds.isEmpty()
+                || plankaCircuitBreaker().getState() != CircuitBreaker.State.CLOSED) {
+            return 0;
+        }
+
+        List<Long> rfcIds = deferredRfcIds.stream().limit(limit).toList();
+        log.info("Replaying {} deferred Planka syncs ({} pending)", rfcIds.size(), deferredRfcIds.size());
+
+        int synced = 0;
+        for (Long rfcId : rfcIds) {
+            if (isPlankaCircuitOpen()) {
+                log.warn("Planka circuit breaker opened during replay, {} syncs remain deferred", deferredRfcIds.size());
+                break;
+            }
+            deferredRfcIds.remove(rfcId);
+            try {
+                Optional<RfcEntity> rfc = rfcRepository.findById(rfcId);
+                if (rfc.isPresent() && rfc.get().getDeletedDatetime() == null) {
+                    pushRfcToPlanka(rfc.get());
+                    synced++;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to replay Planka sync for RFC {}: {}", rfcId, e.getMessage());
+            }
+        }
+        return synced;
+    }
+
     @Override
     public String createPlankaCardForRfc(RfcEntity rfc) {
         if (!plankaEnabled || defaultBoardId.isBlank()) {
@@ -163,8 +305,7 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
     public void updatePlankaCardForRfc(RfcEntity rfc, String plankaCardId) {
         if (!plankaEnabled) return;
 
-        PlankaCardRequest request = buildCardRequest(rfc);
-        plankaClient.updateCard(plankaCardId, request);
+        sendCardUpdate(rfc, plankaCardId, findListIdForStatus(rfc.getStatus()));
     }
 
     @Override
@@ -186,17 +327,57 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
 
     // ========== Private methods ==========
 
-    private void validateWebhookSecret(String webhookSecret) {
-        // Проверка секрета отключена - используем Planka accessToken
-        // Planka отправляет токен через Authorization Bearer header
-        if (expectedWebhookSecret != null && !expectedWebhookSecret.isBlank() && webhookSecret != null) {
-            if (!expectedWebhookSecret.equals(webhookSecret)) {
-                log.debug("Webhook secret mismatch, but allowing request (expected: {}, got: {})", 
-                        expectedWebhookSecret.substring(0, Math.min(8, expectedWebhookSecret.length())) + "...", 
-                        webhookSecret.substring(0, Math.min(8, webhookSecret.length())) + "...");
-            }
+    /**
+     * Обновляет карточку одним PATCH: содержимое и список (статус) передаются вместе
+     */
+    private void sendCardUpdate(RfcEntity rfc, String plankaCardId, String listId) {
+        PlankaCardRequest request = buildCardRequest(rfc);
+        request.setListId(listId);
+        plankaClient.updateCard(plankaCardId, request);
+    }
+
+    /**
+     * Ставит RFC в очередь debounce. Внутри транзакции RFC попадает в очередь только после
+     * коммита, чтобы отправка не прочитала незафиксированное состояние
+     */
+    private void scheduleDebouncedSync(Long rfcId) {
+        Runnable schedule = () -> {
+            debouncedSyncs.putIfAbsent(rfcId, Instant.now().plusMillis(debounceWindowMs));
+            log.debug("RFC {} Planka sync debounced ({} pending)", rfcId, debouncedSyncs.size());
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule.run();
+                }
+            });
+        } else {
+            schedule.run();
+        }
+    }
+
+    private CircuitBreaker plankaCircuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker(PlankaResilienceInterceptor.PLANKA);
+    }
+
+    private boolean isPlankaCircuitOpen() {
+        CircuitBreaker.State state = plankaCircuitBreaker().getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private void handleEvent(PlankaWebhookPayload payload) {
+        String event = payload.getEvent();
+        log.info("Processing Planka webhook: event={}", event);
+
+        switch (event) {
+            case "cardCreate", "card_created" -> handleCardCreated(payload);
+            case "cardUpdate", "card_updated" -> handleCardUpdated(payload);
+            case "cardMove", "card_moved" -> handleCardMoved(payload);
+            case "cardDelete", "card_deleted" -> handleCardDeleted(payload);
+            case "rfc_status_changed" -> handleRfcStatusChanged(payload);
+            default -> log.debug("Unhandled webhook event: {}", event);
         }
-        // Не выбрасываем исключение - разрешаем все webhook'и от Planka
     }
 
     @Transactional
@@ -288,7 +469,7 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
                     rfcRepository.save(rfc);
                     
                     // Определяем пользователя через OIDC связку
-                    UserEntity changedByUser = findUserFromPlankaWebhook(plankaUserId, userUsername, userName, userEmail);
+                    UserEntity changedByUser = findUserFromPlankaWebhook(plankaUserId, userUsername, userEmail);
                     
                     // Fallback на requester RFC если пользователь не найден в системе
                     if (changedByUser == null) {
@@ -311,6 +492,7 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
             log.info("Updating RFC title from Planka: {} -> {}", rfc.getTitle(), data.getName());
             rfc.setTitle(data.getName());
             rfcRepository.save(rfc);
+            eventPublisher.publishEvent(RfcChangeEvent.updated(rfc, RfcChangeField.TITLE));
         }
         
         log.info("RFC card updated from Planka: rfcId={}", rfc.getId());
@@ -401,7 +583,7 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
             rfcRepository.save(rfc);
             
             // Определяем пользователя через OIDC связку
-            UserEntity changedByUser = findUserFromPlankaWebhook(plankaUserId, userUsername, userName, userEmail);
+            UserEntity changedByUser = findUserFromPlankaWebhook(plankaUserId, userUsername, userEmail);
             
             // Fallback на requester RFC если пользователь не найден в системе
             if (changedByUser == null) {
@@ -443,66 +625,25 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
 
     /**
      * Находит пользователя по данным из Planka webhook (OIDC/SSO интеграция)
-     * Приоритет поиска:
-     * 1. По plankaUserId (прямая связь через SSO)
-     * 2. По email (OIDC claim)
-     * 3. По username (OIDC preferred_username)
+     * Сопоставление выполняется через кэш {@link PlankaUserIdentityService}
+     * (приоритет: plankaUserId, email, username)
      * 
      * @param plankaUserId ID пользователя в Planka
      * @param username username из Planka (может совпадать с OIDC preferred_username)
-     * @param name полное имя пользователя
      * @param email email пользователя (OIDC claim)
-     * @return найденный пользователь или системный пользователь
+     * @return найденный пользователь или null
      */
-    private UserEntity findUserFromPlankaWebhook(String plankaUserId, String username, String name, String email) {
+    private UserEntity findUserFromPlankaWebhook(String plankaUserId, String username, String email) {
         log.debug("Resolving user from Planka webhook: plankaUserId={}, username={}, email={}", 
                 plankaUserId, username, email);
-        
-        // 1. Приоритетный поиск по plankaUserId (прямая связь SSO)
-        if (plankaUserId != null && !plankaUserId.isBlank()) {
-            Optional<UserEntity> user = userRepository.findByPlankaUserId(plankaUserId);
-            if (user.isPresent()) {
-                log.debug("User found by plankaUserId: {} -> {}", plankaUserId, user.get().getUsername());
-                return user.get();
-            }
-        }
-        
-        // 2. Поиск по email (OIDC email claim - наиболее надежный идентификатор)
-        if (email != null && !email.isBlank()) {
-            Optional<UserEntity> user = userRepository.findByEmail(email);
-            if (user.isPresent()) {
-                log.debug("User found by email: {} -> {}", email, user.get().getUsername());
-                // Обновляем plankaUserId для будущих запросов
-                if (plankaUserId != null && user.get().getPlankaUserId() == null) {
-                    user.get().setPlankaUserId(plankaUserId);
-                    userRepository.save(user.get());
-                    log.info("Updated plankaUserId for user {}: {}", user.get().getId(), plankaUserId);
-                }
-                return user.get();
-            }
-        }
-        
-        // 3. Поиск по username (OIDC preferred_username)
-        if (username != null && !username.isBlank()) {
-            Optional<UserEntity> user = userRepository.findByUsername(username);
-            if (user.isPresent()) {
-                log.debug("User found by username: {} -> {}", username, user.get().getUsername());
-                // Обновляем plankaUserId для будущих запросов
-                if (plankaUserId != null && user.get().getPlankaUserId() == null) {
-                    user.get().setPlankaUserId(plankaUserId);
-                    userRepository.save(user.get());
-                    log.info("Updated plankaUserId for user {}: {}", user.get().getId(), plankaUserId);
-                }
-                return user.get();
-            }
+
+        Optional<UserEntity> user = plankaUserIdentityService.resolveUser(plankaUserId, username, email);
+        if (user.isEmpty()) {
+            log.warn("User not found by plankaUserId='{}', email='{}', username='{}'. " +
+                     "Please ensure user SSO sync is configured correctly.", 
+                     plankaUserId, email, username);
         }
-        
-        // 4. Пользователь не найден - используем системного пользователя (requester RFC)
-        log.warn("User not found by plankaUserId='{}', email='{}', username='{}'. " +
-                 "Please ensure user SSO sync is configured correctly.", 
-                 plankaUserId, email, username);
-        
-        return null; // Вернём null, чтобы использовать requester RFC как fallback
+        return user.orElse(null); // null - используем requester RFC как fallback
     }
 
     /**
@@ -519,39 +660,44 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
     private void createStatusChangeHistory(RfcEntity rfc, UserEntity changedBy, 
                                            RfcStatus oldStatus, RfcStatus newStatus,
                                            String plankaUserId, String plankaUsername, String plankaEmail) {
-        Set<Long> affectedSubsystemIds = rfc.getAffectedSubsystems().stream()
-                .map(RfcAffectedSubsystemEntity::getId)
-                .collect(Collectors.toSet());
-
-        // Формируем описание с информацией об OIDC источнике
-        StringBuilder description = new StringBuilder();
-        description.append(String.format("Статус изменен с %s на %s через Planka", oldStatus, newStatus));
-        description.append("\n--- OIDC/SSO Info ---");
-        description.append("\nPlanka User ID: ").append(plankaUserId != null ? plankaUserId : "N/A");
-        description.append("\nPlanka Username: ").append(plankaUsername != null ? plankaUsername : "N/A");
-        description.append("\nPlanka Email: ").append(plankaEmail != null ? plankaEmail : "N/A");
-        description.append("\nRFC System User: ").append(changedBy.getUsername());
-        description.append(" (ID: ").append(changedBy.getId()).append(")");
-
-        RfcHistoryEntity history = RfcHistoryEntity.builder()
+        long[] affectedSubsystemIds = LongIds.normalize(rfc.getAffectedSubsystems().stream()
+                .mapToLong(RfcAffectedSubsystemEntity::getId)
+                .toArray());
+
+        // Файлы RFC не меняются при перемещении карточки: attachmentIds не задан и переносится из предыдущей версии
+        RfcHistoryEntity state = RfcHistoryEntity.builder()
                 .rfcId(rfc.getId())
                 .operation(HistoryOperationType.STATUS_CHANGE)
                 .changedBy(changedBy)
                 .title(rfc.getTitle())
-                .description(description.toString())
+                .description(rfc.getDescription())
                 .implementationDate(rfc.getImplementationDate())
                 .urgency(rfc.getUrgency())
                 .status(newStatus)
                 .requester(rfc.getRequester())
-                .attachmentIds(Set.of())
                 .affectedSubsystems(affectedSubsystemIds)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .source(StatusChangeSource.PLANKA)
+                .externalActor(formatPlankaActor(plankaUserId, plankaUsername, plankaEmail))
                 .build();
 
-        rfcHistoryRepository.save(history);
+        rfcHistoryService.recordVersion(state);
         log.info("History record created for RFC {} status change: {} -> {} by {} (plankaUserId: {}, email: {})", 
                 rfc.getId(), oldStatus, newStatus, changedBy.getUsername(), plankaUserId, plankaEmail);
     }
 
+    /**
+     * Пользователь Planka для rfc_history.external_actor: "username <email> (Planka ID id)"
+     */
+    private static String formatPlankaActor(String plankaUserId, String plankaUsername, String plankaEmail) {
+        String actor = String.format("%s <%s> (Planka ID %s)",
+                plankaUsername != null ? plankaUsername : "N/A",
+                plankaEmail != null ? plankaEmail : "N/A",
+                plankaUserId != null ? plankaUserId : "N/A");
+        return actor.length() > 255 ? actor.substring(0, 255) : actor;
+    }
+
     private void handleCardDeleted(PlankaWebhookPayload payload) {
         var data = payload.getData();
         if (data == null || data.getRfcData() == null) return;
@@ -571,20 +717,32 @@ public class PlankaIntegrationServiceImpl implements PlankaIntegrationService {
     private String findListIdForStatus(RfcStatus status) {
         if (defaultBoardId == null || defaultBoardId.isBlank()) return null;
 
-        List<String> possibleNames = STATUS_TO_LIST_NAMES.getOrDefault(status, List.of());
-        
-        for (String name : possibleNames) {
-            Optional<String> listId = plankaClient.findListIdByName(defaultBoardId, name);
-            if (listId.isPresent()) {
-                return listId.get();
-            }
+        String listId = findListIdsByStatus().get(status);
+        if (listId == null) {
+            log.warn("Could not find list for status {} in board {}", status, defaultBoardId);
         }
-        
-        log.warn("Could not find list for status {} in board {}", status, defaultBoardId);
-        return null;
+        return listId;
+    }
+
+    /**
+     * Определяет списки для всех статусов одним запросом списков доски
+     * (приоритет - порядок названий в STATUS_TO_LIST_NAMES)
+     */
+    private Map<RfcStatus, String> findListIdsByStatus() {
+        if (defaultBoardId == null || defaultBoardId.isBlank()) return Map.of();
+
+        List<Map<String, Object>> lists = plankaClient.getBoardLists(defaultBoardId);
+        Map<RfcStatus, String> result = new EnumMap<>(RfcStatus.class);
+        STATUS_TO_LIST_NAMES.forEach((status, names) -> names.stream()
+                .flatMap(name -> lists.stream()
+                        .filter(list -> name.equalsIgnoreCase((String) list.get("name")))
+                        .map(list -> (String) list.get("id")))
+                .findFirst()
+                .ifPresent(listId -> result.put(status, listId)));
+        return result;
     }
 
-    private PlankaCardRequest buildCardRequest(RfcEntity rfc) {
+    static PlankaCardRequest buildCardRequest(RfcEntity rfc) {
         // Формируем описание с RFC метаданными
         StringBuilder descBuilder = new StringBuilder();
         if (rfc.getDescription() != null) {
@@ -0,0 +1,363 @@
+package ru.c21501.rfcservice.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.c21501.rfcservice.client.PlankaClient;
+import ru.c21501.rfcservice.config.ThreadConfig;
+import ru.c21501.rfcservice.dto.planka.PlankaCardRequest;
+import ru.c21501.rfcservice.dto.planka.PlankaCardResponse;
+import ru.c21501.rfcservice.openapi.model.PlankaReconciliationAction;
+import ru.c21501.rfcservice.openapi.model.PlankaReconciliationOperation;
+import ru.c21501.rfcservice.openapi.model.PlankaReconciliationReport;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
+import ru.c21501.rfcservice.repository.RfcRepository;
+import ru.c21501.rfcservice.repository.RfcRepository.RfcPlankaView;
+import ru.c21501.rfcservice.service.PlankaReconciliationService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация сверки доски Planka с RFC
+ * <p>
+ * Доска (списки и карточки) загружается одним запросом, RFC - одной проекцией без связей.
+ * Сравнение выполняется в памяти по картам, ключ которых - ID карточки. Содержимое карточек,
+ * связанных с RFC, строится порциями по {@value #CARD_DATA_CHUNK_SIZE} RFC (один запрос на порцию)
+ * и сравнивается по всем синхронизируемым полям; все расхождения карточки, включая список статуса,
+ * отправляются одним PATCH. В режиме apply операции выполняются пулом из {@code parallelism}
+ * потоков, после чего изменения planka_card_id сохраняются одной транзакцией.
+ */
+@Slf4j
+@Service
+public class PlankaReconciliationServiceImpl implements PlankaReconciliationService {
+
+    /**
+     * Максимальное количество расхождений в отчете (счетчики остаются точными)
+     */
+    private static final int MAX_REPORTED_ACTIONS = 1000;
+
+    /**
+     * Количество RFC, загружаемых со связями для построения карточек одним запросом
+     */
+    private static final int CARD_DATA_CHUNK_SIZE = 500;
+
+    /**
+     * Позиция карточки в списке при перемещении (стандартная позиция Planka)
+     */
+    private static final double CARD_POSITION = 65536.0;
+
+    private final PlankaClient plankaClient;
+    private final RfcRepository rfcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadFactory applicationThreadFactory;
+
+    @Value("${planka.enabled:false}")
+    private boolean plankaEnabled;
+
+    @Value("${planka.board-id:}")
+    private String boardId;
+
+    @Value("${planka.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    public PlankaReconciliationServiceImpl(PlankaClient plankaClient,
+                                           RfcRepository rfcRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           ThreadFactory applicationThreadFactory) {
+        this.plankaClient = plankaClient;
+        this.rfcRepository = rfcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationThreadFactory = applicationThreadFactory;
+    }
+
+    @Override
+    public PlankaReconciliationReport reconcile(boolean apply) {
+        if (!plankaEnabled || boardId == null || boardId.isBlank()) {
+            throw new IllegalStateException("Интеграция с Planka отключена или не задан ID доски");
+        }
+
+        log.info("Starting Planka board reconciliation: boardId={}, apply={}", boardId, apply);
+
+        Map<String, Object> included = plankaClient.getBoardIncluded(boardId)
+                .orElseThrow(() -> new IllegalStateException("Не удалось загрузить доску Planka " + boardId));
+
+        // Список для каждого статуса и статус каждого списка
+        Map<String, RfcStatus> statusByListId = new HashMap<>();
+        Map<RfcStatus, String> listIdByStatus = new EnumMap<>(RfcStatus.class);
+        for (Map<String, Object> list : PlankaClient.getIncludedItems(included, "lists")) {
+            String listId = (String) list.get("id");
+            String name = (String) list.get("name");
+            RfcStatus status = name != null ? PlankaIntegrationServiceImpl.LIST_NAME_TO_STATUS.get(name.toLowerCase()) : null;
+            if (listId != null && status != null) {
+                statusByListId.put(listId, status);
+            }
+        }
+        PlankaIntegrationServiceImpl.STATUS_TO_LIST_NAMES.forEach((status, names) -> {
+            for (Map<String, Object> list : PlankaClient.getIncludedItems(included, "lists")) {
+                String name = (String) list.get("name");
+                if (name != null && names.stream().anyMatch(name::equalsIgnoreCase)) {
+                    listIdByStatus.putIfAbsent(status, (String) list.get("id"));
+                }
+            }
+        });
+
+        Map<String, Map<String, Object>> cardsById = PlankaClient.getIncludedItems(included, "cards").stream()
+                .filter(card -> card.get("id") != null)
+                .collect(Collectors.toMap(card -> (String) card.get("id"), Function.identity(), (a, b) -> a));
+
+        List<RfcPlankaView> rfcs = rfcRepository.findAllPlankaViews();
+        List<PlannedAction> plan = new ArrayList<>();
+        Set<String> linkedCardIds = new HashSet<>();
+        Map<Long, RfcPlankaView> rfcsWithCards = new LinkedHashMap<>();
+
+        for (RfcPlankaView rfc : rfcs) {
+            String cardId = rfc.getPlankaCardId();
+            Map<String, Object> card = cardId != null ? cardsById.get(cardId) : null;
+            if (card != null) {
+                linkedCardIds.add(cardId);
+            }
+
+            if (rfc.getDeletedDatetime() != null) {
+                if (card != null) {
+                    plan.add(new PlannedAction(PlankaReconciliationOperation.DELETE, rfc.getId(), cardId, null, null,
+                            "RFC удален, карточка осталась на доске"));
+                }
+                continue;
+            }
+
+            if (card == null) {
+                plan.add(new PlannedAction(PlankaReconciliationOperation.CREATE, rfc.getId(), null,
+                        listIdByStatus.get(rfc.getStatus()), null,
+                        cardId == null ? "У RFC нет карточки" : "Карточка " + cardId + " отсутствует на доске"));
+                continue;
+            }
+
+            rfcsWithCards.put(rfc.getId(), rfc);
+        }
+
+        Map<Long, PlankaCardRequest> expectedCards = loadCardRequests(rfcsWithCards.keySet());
+        for (RfcPlankaView rfc : rfcsWithCards.values()) {
+            planCardUpdate(rfc, cardsById.get(rfc.getPlankaCardId()), expectedCards.get(rfc.getId()),
+                    statusByListId, listIdByStatus)
+                    .ifPresent(plan::add);
+        }
+
+        for (String cardId : cardsById.keySet()) {
+            if (!linkedCardIds.contains(cardId)) {
+                plan.add(new PlannedAction(PlankaReconciliationOperation.UNLINKED, null, cardId, null, null,
+                        "Карточка не связана ни с одним RFC: " + cardsById.get(cardId).get("name")));
+            }
+        }
+
+        List<ActionResult> results = apply
+                ? execute(plan)
+                : plan.stream().map(action -> new ActionResult(action, false, null)).toList();
+
+        PlankaReconciliationReport report = buildReport(apply, rfcs.size(), cardsById.size(), results);
+        log.info("Planka board reconciliation completed: apply={}, create={}, move={}, update={}, delete={}, "
+                        + "unlinked={}, applied={}, failed={}",
+                apply, report.getToCreate(), report.getToMove(), report.getToUpdate(), report.getToDelete(),
+                report.getUnlinkedCards(), report.getApplied(), report.getFailed());
+        return report;
+    }
+
+    /**
+     * Сравнивает карточку со всеми синхронизируемыми полями RFC (список статуса, название, описание, тип).
+     * Расхождения собираются в один PATCH: перемещение и изменение содержимого не отправляются отдельно
+     *
+     * @param expected содержимое карточки по данным RFC; null, если RFC удален после загрузки проекции
+     * @return MOVE, если карточка в списке другого статуса, UPDATE, если отличается только содержимое
+     */
+    private static Optional<PlannedAction> planCardUpdate(RfcPlankaView rfc, Map<String, Object> card,
+                                                          PlankaCardRequest expected,
+                                                          Map<String, RfcStatus> statusByListId,
+                                                          Map<RfcStatus, String> listIdByStatus) {
+        PlankaCardRequest patch = new PlankaCardRequest();
+        List<String> differences = new ArrayList<>();
+
+        RfcStatus cardStatus = statusByListId.get((String) card.get("listId"));
+        String targetListId = listIdByStatus.get(rfc.getStatus());
+        if (targetListId != null && cardStatus != rfc.getStatus()) {
+            patch.setListId(targetListId);
+            patch.setPosition(CARD_POSITION);
+            differences.add("список (статус RFC " + rfc.getStatus() + ", карточка в списке для статуса "
+                    + cardStatus + ")");
+        }
+        if (expected != null) {
+            if (!Objects.equals(card.get("name"), expected.getName())) {
+                patch.setName(expected.getName());
+                differences.add("название");
+            }
+            if (!Objects.equals(card.get("description"), expected.getDescription())) {
+                patch.setDescription(expected.getDescription());
+                differences.add("описание");
+            }
+            if (!Objects.equals(card.get("type"), expected.getType())) {
+                patch.setType(expected.getType());
+                differences.add("тип");
+            }
+        }
+        if (differences.isEmpty()) {
+            return Optional.empty();
+        }
+
+        PlankaReconciliationOperation operation = patch.getListId() != null
+                ? PlankaReconciliationOperation.MOVE
+                : PlankaReconciliationOperation.UPDATE;
+        return Optional.of(new PlannedAction(operation, rfc.getId(), rfc.getPlankaCardId(), null, patch,
+                "Отличается: " + String.join(", ", differences)));
+    }
+
+    /**
+     * Строит содержимое карточек RFC. Каждая порция загружается одним запросом в отдельной транзакции,
+     * чтобы контекст персистентности не рос вместе с доской
+     */
+    private Map<Long, PlankaCardRequest> loadCardRequests(Collection<Long> rfcIds) {
+        List<Long> ids = List.copyOf(rfcIds);
+        Map<Long, PlankaCardRequest> cardRequests = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += CARD_DATA_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CARD_DATA_CHUNK_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> rfcRepository.findAllWithPlankaCardDataByIdIn(chunk)
+                    .forEach(rfc -> cardRequests.put(rfc.getId(), PlankaIntegrationServiceImpl.buildCardRequest(rfc))));
+        }
+        return cardRequests;
+    }
+
+    /**
+     * Выполняет запланированные операции с ограниченным параллелизмом
+     */
+    private List<ActionResult> execute(List<PlannedAction> plan) {
+        // Полные данные создаваемых карточек; для перемещений и обновлений PATCH собран при планировании
+        Map<Long, PlankaCardRequest> cardRequests = loadCardRequests(plan.stream()
+                .filter(action -> action.operation() == PlankaReconciliationOperation.CREATE)
+                .map(PlannedAction::rfcId)
+                .collect(Collectors.toSet()));
+
+        List<ActionResult> results = new ArrayList<>(plan.size());
+        List<Future<ActionResult>> futures = new ArrayList<>();
+        ThreadFactory threadFactory = ThreadConfig.named(applicationThreadFactory, "planka-reconcile-");
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), threadFactory)) {
+            for (PlannedAction action : plan) {
+                if (action.operation() == PlankaReconciliationOperation.UNLINKED) {
+                    results.add(new ActionResult(action, false, null));
+                    continue;
+                }
+                futures.add(executor.submit(() -> executeAction(action, cardRequests)));
+            }
+            for (Future<ActionResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Сверка доски Planka прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка сверки доски Planka: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        // Сохраняем изменения связей RFC с карточками одной транзакцией
+        transactionTemplate.executeWithoutResult(status -> results.stream()
+                .filter(result -> result.applied()
+                        && (result.action().operation() == PlankaReconciliationOperation.CREATE
+                        || result.action().operation() == PlankaReconciliationOperation.DELETE))
+                .forEach(result -> rfcRepository.updatePlankaCardId(result.action().rfcId(), result.newCardId())));
+
+        return results;
+    }
+
+    private ActionResult executeAction(PlannedAction action, Map<Long, PlankaCardRequest> cardRequests) {
+        switch (action.operation()) {
+            case CREATE -> {
+                PlankaCardRequest request = cardRequests.get(action.rfcId());
+                if (request == null || action.targetListId() == null) {
+                    log.warn("No Planka list for RFC {} status, card not created", action.rfcId());
+                    return new ActionResult(action, false, null);
+                }
+                Optional<String> cardId = plankaClient.createCard(action.targetListId(), request)
+                        .map(PlankaCardResponse::getId);
+                return new ActionResult(action, cardId.isPresent(), cardId.orElse(null));
+            }
+            case MOVE, UPDATE -> {
+                boolean updated = plankaClient.updateCard(action.cardId(), action.patch()).isPresent();
+                return new ActionResult(action, updated, action.cardId());
+            }
+            case DELETE -> {
+                // После удаления карточки связь RFC с ней сбрасывается
+                return new ActionResult(action, plankaClient.deleteCard(action.cardId()), null);
+            }
+            default -> {
+                return new ActionResult(action, false, null);
+            }
+        }
+    }
+
+    private PlankaReconciliationReport buildReport(boolean apply, long rfcsChecked, long boardCards,
+                                                   List<ActionResult> results) {
+        Map<PlankaReconciliationOperation, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(result -> result.action().operation(), Collectors.counting()));
+        long applied = results.stream().filter(ActionResult::applied).count();
+        long failed = apply
+                ? results.stream()
+                .filter(result -> !result.applied()
+                        && result.action().operation() != PlankaReconciliationOperation.UNLINKED)
+                .count()
+                : 0;
+
+        List<PlankaReconciliationAction> actions = results.stream()
+                .limit(MAX_REPORTED_ACTIONS)
+                .map(result -> {
+                    PlankaReconciliationAction action = new PlankaReconciliationAction(
+                            result.action().operation(), result.action().detail(), result.applied());
+                    action.setRfcId(result.action().rfcId());
+                    action.setCardId(result.newCardId() != null ? result.newCardId() : result.action().cardId());
+                    return action;
+                })
+                .toList();
+
+        return new PlankaReconciliationReport(
+                apply,
+                rfcsChecked,
+                boardCards,
+                counts.getOrDefault(PlankaReconciliationOperation.CREATE, 0L),
+                counts.getOrDefault(PlankaReconciliationOperation.MOVE, 0L),
+                counts.getOrDefault(PlankaReconciliationOperation.UPDATE, 0L),
+                counts.getOrDefault(PlankaReconciliationOperation.DELETE, 0L),
+                counts.getOrDefault(PlankaReconciliationOperation.UNLINKED, 0L),
+                applied,
+                failed,
+                actions
+        );
+    }
+
+    /**
+     * Запланированная операция; targetListId - список создаваемой карточки,
+     * patch - измененные поля карточки для MOVE и UPDATE
+     */
+    private record PlannedAction(PlankaReconciliationOperation operation, Long rfcId, String cardId,
+                                 String targetListId, PlankaCardRequest patch, String detail) {
+    }
+
+    /**
+     * Результат операции; newCardId - ID карточки, который должен быть сохранен у RFC
+     */
+    private record ActionResult(PlannedAction action, boolean applied, String newCardId) {
+    }
+}
@@ -0,0 +1,200 @@
+package ru.c21501.rfcservice.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.client.PlankaClient;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.repository.UserRepository;
+import ru.c21501.rfcservice.repository.UserRepository.UserIdentityView;
+import ru.c21501.rfcservice.service.PlankaUserIdentityService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Реализация сопоставления пользователей Planka с локальными пользователями
+ * <p>
+ * Хранит в памяти карты plankaUserId, email и username (в нижнем регистре) на ID локального
+ * пользователя. Кэш заполняется при старте приложения из таблицы users и списка пользователей
+ * Planka и обновляется при создании, изменении и удалении пользователей. Для найденного ID
+ * сущность загружается по первичному ключу; при промахе кэша выполняется запрос по
+ * индексам LOWER(email) / LOWER(username), результат которого сохраняется в кэш.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlankaUserIdentityServiceImpl implements PlankaUserIdentityService {
+
+    private final UserRepository userRepository;
+    private final PlankaClient plankaClient;
+
+    private final Map<String, Long> userIdByPlankaUserId = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdByUsername = new ConcurrentHashMap<>();
+
+    @Value("${planka.enabled:false}")
+    private boolean plankaEnabled;
+
+    @Override
+    @Transactional
+    public Optional<UserEntity> resolveUser(String plankaUserId, String username, String email) {
+        // 1. Прямая связь через plankaUserId
+        if (plankaUserId != null && !plankaUserId.isBlank()) {
+            Long userId = userIdByPlankaUserId.get(plankaUserId);
+            Optional<UserEntity> user = userId != null ? userRepository.findById(userId) : Optional.empty();
+            if (user.isEmpty()) {
+                userIdByPlankaUserId.remove(plankaUserId);
+                user = userRepository.findByPlankaUserId(plankaUserId);
+                user.ifPresent(this::register);
+            }
+            if (user.isPresent()) {
+                log.debug("User resolved by plankaUserId: {} -> {}", plankaUserId, user.get().getUsername());
+                return user;
+            }
+        }
+
+        // 2. Поиск по email (OIDC email claim - наиболее надежный идентификатор)
+        Optional<UserEntity> user = findByKey(userIdByEmail, email, userRepository::findByEmailIgnoreCase);
+
+        // 3. Поиск по username (OIDC preferred_username)
+        if (user.isEmpty()) {
+            user = findByKey(userIdByUsername, username, userRepository::findByUsernameIgnoreCase);
+        }
+
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Связываем пользователя с Planka для будущих запросов
+        UserEntity found = user.get();
+        if (plankaUserId != null && !plankaUserId.isBlank() && found.getPlankaUserId() == null) {
+            found.setPlankaUserId(plankaUserId);
+            userRepository.save(found);
+            userIdByPlankaUserId.put(plankaUserId, found.getId());
+            log.info("Updated plankaUserId for user {}: {}", found.getId(), plankaUserId);
+        }
+        log.debug("User resolved by email/username: email={}, username={} -> {}", email, username, found.getUsername());
+        return user;
+    }
+
+    @Override
+    public void register(UserEntity user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        // Старые ключи удаляются, чтобы смена email или username не оставляла устаревших записей
+        evict(user.getId());
+        put(user.getId(), user.getPlankaUserId(), user.getEmail(), user.getUsername());
+    }
+
+    @Override
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        userIdByPlankaUserId.values().removeIf(userId::equals);
+        userIdByEmail.values().removeIf(userId::equals);
+        userIdByUsername.values().removeIf(userId::equals);
+    }
+
+    @Override
+    @Transactional
+    public void refresh() {
+        List<UserIdentityView> users = userRepository.findAllIdentityViews();
+
+        userIdByPlankaUserId.clear();
+        userIdByEmail.clear();
+        userIdByUsername.clear();
+
+        Map<Long, UserIdentityView> unlinked = new HashMap<>();
+        for (UserIdentityView user : users) {
+            put(user.getId(), user.getPlankaUserId(), user.getEmail(), user.getUsername());
+            if (user.getPlankaUserId() == null) {
+                unlinked.put(user.getId(), user);
+            }
+        }
+
+        int linked = 0;
+        if (plankaEnabled && !unlinked.isEmpty()) {
+            // Связываем локальных пользователей без plankaUserId с пользователями Planka по email/username
+            for (Map<String, Object> plankaUser : plankaClient.getUsers()) {
+                Object id = plankaUser.get("id");
+                if (id == null || userIdByPlankaUserId.containsKey(id.toString())) {
+                    continue;
+                }
+                Long userId = lookup(userIdByEmail, plankaUser.get("email"));
+                if (userId == null || !unlinked.containsKey(userId)) {
+                    userId = lookup(userIdByUsername, plankaUser.get("username"));
+                }
+                if (userId != null && unlinked.remove(userId) != null) {
+                    userRepository.updatePlankaUserId(userId, id.toString());
+                    userIdByPlankaUserId.put(id.toString(), userId);
+                    linked++;
+                }
+            }
+        }
+
+        log.info("Planka user identity cache refreshed: users={}, plankaLinks={}, newlyLinked={}",
+                users.size(), userIdByPlankaUserId.size(), linked);
+    }
+
+    /**
+     * Прогревает кэш после старта приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Error warming up Planka user identity cache: {}", e.getMessage(), e);
+        }
+    }
+
+    private Optional<UserEntity> findByKey(Map<String, Long> index, String key,
+                                           Function<String, List<UserEntity>> query) {
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        Long userId = index.get(normalize(key));
+        if (userId != null) {
+            Optional<UserEntity> user = userRepository.findById(userId);
+            if (user.isPresent()) {
+                return user;
+            }
+            index.remove(normalize(key));
+        }
+        Optional<UserEntity> user = query.apply(key).stream().findFirst();
+        user.ifPresent(this::register);
+        return user;
+    }
+
+    private void put(Long userId, String plankaUserId, String email, String username) {
+        if (plankaUserId != null && !plankaUserId.isBlank()) {
+            userIdByPlankaUserId.put(plankaUserId, userId);
+        }
+        if (email != null && !email.isBlank()) {
+            userIdByEmail.put(normalize(email), userId);
+        }
+        if (username != null && !username.isBlank()) {
+            userIdByUsername.put(normalize(username), userId);
+        }
+    }
+
+    private static Long lookup(Map<String, Long> index, Object key) {
+        return key != null ? index.get(normalize(key.toString())) : null;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,324 @@
+package ru.c21501.rfcservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.c21501.rfcservice.config.ThreadConfig;
+import ru.c21501.rfcservice.dto.planka.PlankaWebhookPayload;
+import ru.c21501.rfcservice.model.entity.PlankaWebhookInboxEntity;
+import ru.c21501.rfcservice.model.enums.PlankaWebhookType;
+import ru.c21501.rfcservice.model.enums.WebhookInboxStatus;
+import ru.c21501.rfcservice.repository.PlankaWebhookInboxRepository;
+import ru.c21501.rfcservice.service.PlankaIntegrationService;
+import ru.c21501.rfcservice.service.PlankaWebhookInboxService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Реализация входящей очереди webhook Planka
+ * <p>
+ * Контроллер только сохраняет событие и сразу отвечает Planka. Планировщик периодически забирает
+ * готовые события, помечает их PROCESSING и раздает пулу обработчиков, группируя по карточке:
+ * группа одной карточки обрабатывается одним потоком по порядку. Неудачное событие откладывается
+ * с экспоненциальной задержкой и блокирует более поздние события своей карточки; после
+ * {@code maxAttempts} попыток оно помечается DEAD и остается в таблице для разбора.
+ * <p>
+ * Захват помечается меткой пакета (claim_token), а обработчик продлевает его перед каждым событием.
+ * Если событие слишком долго ждало в очереди пула и было возвращено как зависшее, метка уже
+ * не совпадает: прежняя задача пропускает событие и не перезаписывает результат нового захвата.
+ */
+@Slf4j
+@Service
+public class PlankaWebhookInboxServiceImpl implements PlankaWebhookInboxService {
+
+    /**
+     * Максимальная длина сохраняемого текста ошибки
+     */
+    private static final int MAX_ERROR_LENGTH = 4000;
+
+    /**
+     * Таймер обработки события с тегами type, event и outcome (done, retry, dead)
+     */
+    private static final String PROCESSING_METRIC = "planka.webhook.processing";
+
+    /**
+     * События Planka, которые обрабатывает {@link PlankaIntegrationServiceImpl}; остальные попадают в тег "other"
+     */
+    private static final Set<String> KNOWN_EVENTS = Set.of(
+            "cardCreate", "card_created",
+            "cardUpdate", "card_updated",
+            "cardMove", "card_moved",
+            "cardDelete", "card_deleted",
+            "rfc_status_changed"
+    );
+
+    private final PlankaWebhookInboxRepository inboxRepository;
+    private final PlankaIntegrationService plankaIntegrationService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor webhookExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    @Value("${planka.webhook-inbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${planka.webhook-inbox.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${planka.webhook-inbox.max-retry-delay-ms:600000}")
+    private long maxRetryDelayMs;
+
+    @Value("${planka.webhook-inbox.dedup-window-minutes:10}")
+    private long dedupWindowMinutes;
+
+    @Value("${planka.webhook-inbox.stale-processing-minutes:10}")
+    private long staleProcessingMinutes;
+
+    @Value("${planka.webhook-inbox.retention-days:7}")
+    private long retentionDays;
+
+    public PlankaWebhookInboxServiceImpl(PlankaWebhookInboxRepository inboxRepository,
+                                         PlankaIntegrationService plankaIntegrationService,
+                                         ObjectMapper objectMapper,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${planka.webhook-inbox.workers:4}") int workers,
+                                         @Value("${planka.webhook-inbox.batch-size:100}") int batchSize,
+                                         ThreadFactory applicationThreadFactory) {
+        this.inboxRepository = inboxRepository;
+        this.plankaIntegrationService = plankaIntegrationService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.webhookExecutor = createExecutor(workers, batchSize, applicationThreadFactory);
+    }
+
+    /**
+     * Фиксированный пул с ограниченной очередью. При переполнении задачу выполняет поток
+     * планировщика - так опрос очереди замедляется, пока обработчики заняты.
+     * В режиме виртуальных потоков размер пула по-прежнему ограничивает параллелизм обработки
+     */
+    private static ThreadPoolTaskExecutor createExecutor(int workers, int queueCapacity, ThreadFactory threadFactory) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadFactory(ThreadConfig.named(threadFactory, "planka-webhook-"));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        webhookExecutor.shutdown();
+    }
+
+    @Override
+    @Transactional
+    public boolean enqueue(PlankaWebhookType type, PlankaWebhookPayload payload, String body, String webhookSecret) {
+        plankaIntegrationService.validateWebhookSecret(webhookSecret);
+
+        // Хэш исходного тела: повторная доставка совпадает побайтно, а повторная сериализация DTO
+        // зависит от набора его полей и отбрасывает неизвестные
+        String dedupKey = sha256(type.name() + ":" + body);
+        OffsetDateTime now = OffsetDateTime.now();
+        if (inboxRepository.existsByDedupKeyAndCreateDatetimeAfter(dedupKey, now.minusMinutes(dedupWindowMinutes))) {
+            log.info("Duplicate Planka webhook skipped: type={}, event={}", type, payload.getEvent());
+            return false;
+        }
+
+        PlankaWebhookInboxEntity entry = PlankaWebhookInboxEntity.builder()
+                .webhookType(type)
+                .event(payload.getEvent())
+                .cardId(payload.getData() != null ? payload.getData().getCardId() : null)
+                .dedupKey(dedupKey)
+                .payload(body)
+                .nextAttemptDatetime(now)
+                .build();
+        inboxRepository.save(entry);
+
+        log.debug("Planka webhook enqueued: id={}, type={}, cardId={}", entry.getId(), type, entry.getCardId());
+        return true;
+    }
+
+    @Override
+    public int dispatchPending() {
+        UUID token = UUID.randomUUID();
+        List<PlankaWebhookInboxEntity> claimed = transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            int released = inboxRepository.releaseStaleProcessing(now.minusMinutes(staleProcessingMinutes), now);
+            if (released > 0) {
+                log.warn("Released {} stale Planka webhook events back to the queue", released);
+            }
+
+            List<PlankaWebhookInboxEntity> ready = inboxRepository.findReadyForProcessing(
+                    now, PageRequest.of(0, batchSize));
+            if (!ready.isEmpty()) {
+                inboxRepository.claim(ready.stream().map(PlankaWebhookInboxEntity::getId).toList(), token, now);
+            }
+            return ready;
+        });
+
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Группируем по карточке, сохраняя порядок получения; события без карточки независимы
+        Map<String, List<PlankaWebhookInboxEntity>> groups = new LinkedHashMap<>();
+        for (PlankaWebhookInboxEntity entry : claimed) {
+            String key = entry.getCardId() != null ? entry.getCardId() : "#" + entry.getId();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+
+        log.debug("Dispatching {} Planka webhook events in {} groups", claimed.size(), groups.size());
+        groups.values().forEach(group -> webhookExecutor.execute(() -> processGroup(group, token)));
+        return claimed.size();
+    }
+
+    @Override
+    @Transactional
+    public int purgeProcessed() {
+        int deleted = inboxRepository.deleteProcessedBefore(OffsetDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} processed Planka webhook events", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Обрабатывает события одной карточки по порядку. После отложенного события
+     * остальные возвращаются в очередь и ждут его повторной обработки
+     */
+    private void processGroup(List<PlankaWebhookInboxEntity> group, UUID token) {
+        for (int i = 0; i < group.size(); i++) {
+            if (!process(group.get(i), token)) {
+                List<Long> remaining = group.subList(i + 1, group.size()).stream()
+                        .map(PlankaWebhookInboxEntity::getId)
+                        .toList();
+                if (!remaining.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> inboxRepository.releaseClaim(
+                            remaining, token, OffsetDateTime.now()));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Обрабатывает одно событие
+     *
+     * @return false, если событие отложено для повторной попытки или захвачено другим пакетом
+     */
+    private boolean process(PlankaWebhookInboxEntity entry, UUID token) {
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                inboxRepository.renewClaim(entry.getId(), token, OffsetDateTime.now()) > 0))) {
+            log.warn("Planka webhook {} was released as stale before processing, skipped", entry.getId());
+            return false;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            PlankaWebhookPayload payload = objectMapper.readValue(entry.getPayload(), PlankaWebhookPayload.class);
+            plankaIntegrationService.processWebhook(entry.getWebhookType(), payload);
+
+            complete(entry, token, WebhookInboxStatus.DONE, entry.getAttempts(), null,
+                    entry.getNextAttemptDatetime(), OffsetDateTime.now());
+            recordProcessing(sample, entry, "done");
+            return true;
+        } catch (Exception e) {
+            int attempts = entry.getAttempts() + 1;
+            String lastError = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+
+            if (attempts >= maxAttempts) {
+                log.error("Planka webhook {} moved to dead letter after {} attempts: {}",
+                        entry.getId(), attempts, e.getMessage(), e);
+                complete(entry, token, WebhookInboxStatus.DEAD, attempts, lastError,
+                        entry.getNextAttemptDatetime(), null);
+                recordProcessing(sample, entry, "dead");
+                // Мертвое событие не блокирует следующие события карточки
+                return true;
+            }
+
+            long delay = Math.min(retryDelayMs << Math.min(attempts - 1, 20), maxRetryDelayMs);
+            log.warn("Planka webhook {} failed (attempt {} of {}), retry in {} ms: {}",
+                    entry.getId(), attempts, maxAttempts, delay, e.getMessage());
+            complete(entry, token, WebhookInboxStatus.PENDING, attempts, lastError,
+                    OffsetDateTime.now().plusNanos(delay * 1_000_000), null);
+            recordProcessing(sample, entry, "retry");
+            return false;
+        }
+    }
+
+    /**
+     * Записывает результат обработки. Если захват за время обработки был снят как зависший,
+     * событие уже принадлежит другому пакету и результат отбрасывается
+     */
+    private void complete(PlankaWebhookInboxEntity entry, UUID token, WebhookInboxStatus status, int attempts,
+                          String lastError, OffsetDateTime nextAttempt, OffsetDateTime processed) {
+        Integer updated = transactionTemplate.execute(tx -> inboxRepository.completeClaim(
+                entry.getId(), token, status, attempts, lastError, nextAttempt, processed, OffsetDateTime.now()));
+        if (updated == null || updated == 0) {
+            log.warn("Planka webhook {} was released as stale during processing, {} result discarded",
+                    entry.getId(), status);
+        }
+    }
+
+    private void recordProcessing(Timer.Sample sample, PlankaWebhookInboxEntity entry, String outcome) {
+        sample.stop(Timer.builder(PROCESSING_METRIC)
+                .description("Длительность обработки webhook Planka")
+                .tag("type", entry.getWebhookType().name())
+                .tag("event", eventTag(entry.getEvent()))
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Значение тега event из фиксированного набора: событие приходит в теле неаутентифицированного
+     * запроса, и произвольная строка создавала бы новую серию метрики на каждое значение
+     */
+    private static String eventTag(String event) {
+        if (event == null) {
+            return "unknown";
+        }
+        return KNOWN_EVENTS.contains(event) ? event : "other";
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -5,18 +5,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.c21501.rfcservice.exception.ValidationException;
 import ru.c21501.rfcservice.mapper.RfcMapper;
 import ru.c21501.rfcservice.model.entity.RfcEntity;
 import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.RfcExportFormat;
+import ru.c21501.rfcservice.openapi.model.RfcImportResponse;
 import ru.c21501.rfcservice.openapi.model.RfcPageResponse;
 import ru.c21501.rfcservice.openapi.model.RfcRequest;
 import ru.c21501.rfcservice.openapi.model.RfcResponse;
 import ru.c21501.rfcservice.resolver.RfcActionResolver;
 import ru.c21501.rfcservice.service.RfcApiService;
+import ru.c21501.rfcservice.service.RfcExportService;
+import ru.c21501.rfcservice.service.RfcImportService;
 import ru.c21501.rfcservice.service.RfcService;
 import ru.c21501.rfcservice.service.SecurityContextService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +42,8 @@ public class RfcApiServiceImpl implements RfcApiService {
     private final RfcMapper rfcMapper;
     private final SecurityContextService securityContextService;
     private final RfcActionResolver actionResolver;
+    private final RfcImportService rfcImportService;
+    private final RfcExportService rfcExportService;
 
     @Override
     public RfcResponse createRfc(RfcRequest request) {
@@ -81,8 +93,10 @@ public class RfcApiServiceImpl implements RfcApiService {
         // Получаем текущего пользователя для резолва actions
         UserEntity currentUser = securityContextService.getCurrentUser();
 
-        // Создаем параметры пагинации
-        Pageable pageable = PageRequest.of(page != null ? page : 0, size != null ? size : 20);
+        // Создаем параметры пагинации: сначала недавно измененные, id - для стабильного порядка страниц
+        // (порядок совпадает с частичными индексами idx_rfc_active_*_update_datetime)
+        Pageable pageable = PageRequest.of(page != null ? page : 0, size != null ? size : 20,
+                Sort.by(Sort.Direction.DESC, "updateDatetime", "id"));
 
         // Получаем страницу с RFC
         Page<RfcEntity> rfcPage = rfcService.getRfcs(status, urgency, requesterId, title, pageable);
@@ -103,4 +117,34 @@ public class RfcApiServiceImpl implements RfcApiService {
                 rfcResponses
         );
     }
-}
\ No newline at end of file
+
+    @Override
+    public RfcImportResponse importRfcs(MultipartFile file) {
+        log.info("Importing RFCs from file: {}, size: {} bytes", file.getOriginalFilename(), file.getSize());
+
+        if (file.isEmpty()) {
+            throw new ValidationException("Файл импорта пуст");
+        }
+
+        UserEntity currentUser = securityContextService.getCurrentUser();
+
+        try (InputStream input = file.getInputStream()) {
+            return rfcImportService.importRfcs(input, currentUser);
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось прочитать файл импорта: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public StreamingResponseBody exportRfcs(RfcExportFormat format,
+                                            String status,
+                                            String urgency,
+                                            Long requesterId,
+                                            String title) {
+        // Проверяем аутентификацию до начала записи ответа
+        UserEntity currentUser = securityContextService.getCurrentUser();
+        log.info("User {} requested RFC export: format={}", currentUser.getId(), format);
+
+        return output -> rfcExportService.exportRfcs(format, status, urgency, requesterId, title, output);
+    }
+}
@@ -2,13 +2,16 @@ package ru.c21501.rfcservice.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.event.RfcChangeEvent;
 import ru.c21501.rfcservice.exception.ForbiddenException;
 import ru.c21501.rfcservice.exception.NotFoundException;
 import ru.c21501.rfcservice.model.entity.RfcApprovalEntity;
 import ru.c21501.rfcservice.model.entity.RfcEntity;
 import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.RfcChangeField;
 import ru.c21501.rfcservice.model.enums.UserRole;
 import ru.c21501.rfcservice.repository.RfcApprovalRepository;
 import ru.c21501.rfcservice.repository.RfcRepository;
@@ -27,6 +30,7 @@ public class RfcApprovalServiceImpl implements RfcApprovalService {
 
     private final RfcApprovalRepository rfcApprovalRepository;
     private final RfcRepository rfcRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -59,6 +63,7 @@ public class RfcApprovalServiceImpl implements RfcApprovalService {
         approval.setUpdateDatetime(OffsetDateTime.now());
 
         RfcApprovalEntity saved = rfcApprovalRepository.save(approval);
+        eventPublisher.publishEvent(RfcChangeEvent.updated(rfc, RfcChangeField.APPROVALS));
         log.info("RFC {} approved by user {}", rfcId, currentUser.getId());
 
         return saved;
@@ -95,6 +100,7 @@ public class RfcApprovalServiceImpl implements RfcApprovalService {
         approval.setUpdateDatetime(OffsetDateTime.now());
 
         RfcApprovalEntity saved = rfcApprovalRepository.save(approval);
+        eventPublisher.publishEvent(RfcChangeEvent.updated(rfc, RfcChangeField.APPROVALS));
         log.info("RFC {} unapproved by user {}", rfcId, currentUser.getId());
 
         return saved;
@@ -0,0 +1,275 @@
+package ru.c21501.rfcservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.c21501.rfcservice.config.RfcEventStreamProperties;
+import ru.c21501.rfcservice.event.RfcChangeEvent;
+import ru.c21501.rfcservice.exception.ServiceUnavailableException;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.service.RfcEventStreamService;
+import ru.c21501.rfcservice.service.SecurityContextService;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация потока уведомлений об изменениях RFC
+ * <p>
+ * Уведомления получают номер и сохраняются в кольцевом буфере для продолжения потока по Last-Event-ID.
+ * ID события - {@code {streamId}:{номер}}, где streamId меняется при каждом запуске сервиса: после
+ * перезапуска буфер пуст, и клиент со старым ID получает {@code reset}. Каждый подписчик читает свою
+ * ограниченную очередь в отдельном потоке, поэтому медленный клиент не задерживает коммит и остальных
+ * подписчиков; при переполнении очереди его поток закрывается. Число подписчиков, а значит и потоков
+ * отправки, ограничено {@code app.events.max-subscribers}, а подписки одного пользователя -
+ * {@code app.events.max-subscribers-per-user}. Буфер хранится в памяти процесса:
+ * при нескольких экземплярах сервиса клиент получает только изменения, сделанные через свой экземпляр
+ */
+@Slf4j
+@Service
+public class RfcEventStreamServiceImpl implements RfcEventStreamService {
+
+    private static final String CHANGE_EVENT = "rfc-change";
+    private static final String RESET_EVENT = "reset";
+
+    /**
+     * Метка переполнения в очереди подписчика: будит поток отправки, не прерывая запись в сокет
+     */
+    private static final StreamEvent OVERFLOW = new StreamEvent(-1, null, null);
+
+    private final RfcEventStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final SecurityContextService securityContextService;
+    private final ThreadFactory applicationThreadFactory;
+
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Последние уведомления по возрастанию номера; изменяется вместе с {@link #sequence} под блокировкой this
+     */
+    private final ArrayDeque<StreamEvent> replay = new ArrayDeque<>();
+    private long sequence;
+
+    public RfcEventStreamServiceImpl(RfcEventStreamProperties properties,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     SecurityContextService securityContextService,
+                                     ThreadFactory applicationThreadFactory) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.securityContextService = securityContextService;
+        this.applicationThreadFactory = applicationThreadFactory;
+        meterRegistry.gaugeCollectionSize("rfc.events.subscribers", Tags.empty(), subscribers);
+    }
+
+    /**
+     * Рассылает уведомление после коммита транзакции изменения; вне транзакции - сразу
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRfcChange(RfcChangeEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing RFC change event {}: {}", event, e.getMessage(), e);
+            return;
+        }
+
+        synchronized (this) {
+            StreamEvent streamEvent = new StreamEvent(++sequence, CHANGE_EVENT, data);
+            replay.addLast(streamEvent);
+            while (replay.size() > properties.getReplaySize()) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(streamEvent);
+            }
+        }
+        meterRegistry.counter("rfc.events.published").increment();
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        // Проверяем пользователя до открытия потока
+        UserEntity currentUser = securityContextService.getCurrentUser();
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), currentUser.getId(), emitter,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()));
+
+        // Досылка и регистрация под одной блокировкой: между ними не может пройти новое уведомление
+        synchronized (this) {
+            if (subscribers.size() >= properties.getMaxSubscribers()) {
+                meterRegistry.counter("rfc.events.rejected").increment();
+                throw new ServiceUnavailableException("Too many RFC event subscribers: limit "
+                        + properties.getMaxSubscribers() + " reached", properties.getReconnectDelay());
+            }
+            long userSubscribers = subscribers.stream()
+                    .filter(existing -> existing.userId == subscriber.userId)
+                    .count();
+            if (userSubscribers >= properties.getMaxSubscribersPerUser()) {
+                meterRegistry.counter("rfc.events.rejected").increment();
+                throw new ServiceUnavailableException("Too many RFC event subscriptions of user " + subscriber.userId
+                        + ": limit " + properties.getMaxSubscribersPerUser() + " reached",
+                        properties.getReconnectDelay());
+            }
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                resume(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        Thread thread = applicationThreadFactory.newThread(subscriber);
+        thread.setName("rfc-events-" + subscriber.id);
+        subscriber.thread = thread;
+        thread.start();
+        log.debug("RFC events subscriber {} of user {} connected: lastEventId={}",
+                subscriber.id, subscriber.userId, lastEventId);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter.complete();
+        });
+    }
+
+    /**
+     * Ставит в очередь подписчика уведомления после lastEventId или {@code reset}, если их уже нет в буфере
+     */
+    private void resume(Subscriber subscriber, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.getFirst().sequence();
+        long missed = sequence - lastSequence;
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence < oldest - 1
+                || missed > properties.getQueueCapacity()) {
+            log.debug("RFC events subscriber {} cannot resume from {}: stream {}, buffered {}..{}",
+                    subscriber.id, lastEventId, streamId, oldest, sequence);
+            subscriber.offer(new StreamEvent(sequence, RESET_EVENT, "{}"));
+            return;
+        }
+        for (StreamEvent event : replay) {
+            if (event.sequence() > lastSequence) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Номер уведомления из ID события этого запуска сервиса; -1 для чужого или некорректного ID
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf(':');
+        if (separator < 0 || !streamId.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record StreamEvent(long sequence, String name, String data) {
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final long id;
+        private final long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+        private volatile Thread thread;
+
+        private Subscriber(long id, long userId, SseEmitter emitter, BlockingQueue<StreamEvent> queue) {
+            this.id = id;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        /**
+         * Вызывается под блокировкой сервиса и не ждет: при заполненной очереди подписчик помечается
+         * переполненным, а накопленные уведомления отбрасываются - клиент дочитает их из буфера после переподключения
+         */
+        private void offer(StreamEvent event) {
+            if (overflowed || closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                overflowed = true;
+                queue.clear();
+                queue.offer(OVERFLOW);
+            }
+        }
+
+        @Override
+        public void run() {
+            long heartbeatMillis = properties.getHeartbeat().toMillis();
+            try {
+                // Первая запись отправляет заголовки ответа, даже если досылать нечего
+                emitter.send(SseEmitter.event().reconnectTime(properties.getReconnectDelay().toMillis()));
+                while (!closed) {
+                    StreamEvent event = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (overflowed) {
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(streamId + ":" + event.sequence())
+                                .name(event.name())
+                                .data(event.data()));
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Подписка закрыта
+            } catch (IOException | IllegalStateException e) {
+                log.debug("RFC events subscriber {} disconnected: {}", id, e.getMessage());
+                closed = true;
+            } finally {
+                subscribers.remove(this);
+                if (overflowed && !closed) {
+                    log.warn("RFC events subscriber {} is too slow: queue of {} events overflowed, closing stream",
+                            id, properties.getQueueCapacity());
+                    meterRegistry.counter("rfc.events.overflows").increment();
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            Thread current = thread;
+            if (current != null) {
+                current.interrupt();
+            }
+        }
+    }
+}
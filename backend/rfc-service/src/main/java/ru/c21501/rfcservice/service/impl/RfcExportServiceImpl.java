@@ -0,0 +1,249 @@
+package ru.c21501.rfcservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.dto.response.export.RfcExportApproval;
+import ru.c21501.rfcservice.dto.response.export.RfcExportRecord;
+import ru.c21501.rfcservice.dto.response.export.RfcExportSubsystem;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
+import ru.c21501.rfcservice.model.entity.RfcApprovalEntity;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.RfcExportFormat;
+import ru.c21501.rfcservice.repository.RfcAffectedSubsystemRepository;
+import ru.c21501.rfcservice.repository.RfcApprovalRepository;
+import ru.c21501.rfcservice.service.RfcExportService;
+import ru.c21501.rfcservice.specification.RfcSpecification;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Реализация сервиса потоковой выгрузки RFC
+ * <p>
+ * RFC читаются однонаправленным курсором с размером выборки {@code fetchSize}. Для каждой порции
+ * затронутые подсистемы и согласования загружаются двумя запросами, порция записывается в поток,
+ * после чего persistence context очищается - расход памяти не зависит от объема выгрузки.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RfcExportServiceImpl implements RfcExportService {
+
+    private static final String CSV_HEADER = "id,title,status,urgency,implementation_date,requester_id,"
+            + "requester_username,create_datetime,update_datetime,affected_subsystems,approvals";
+
+    /**
+     * BOM, чтобы Excel корректно открывал CSV в UTF-8
+     */
+    private static final char UTF8_BOM = '\uFEFF';
+
+    /**
+     * Первые символы, с которых табличные редакторы начинают формулу
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final RfcAffectedSubsystemRepository affectedSubsystemRepository;
+    private final RfcApprovalRepository approvalRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportRfcs(RfcExportFormat format,
+                           String status,
+                           String urgency,
+                           Long requesterId,
+                           String title,
+                           OutputStream output) throws IOException {
+        log.info("Exporting RFCs: format={}, status={}, urgency={}, requesterId={}, title={}",
+                format, status, urgency, requesterId, title);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == RfcExportFormat.CSV) {
+            writer.write(UTF8_BOM);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long exported = 0;
+        try (Stream<RfcEntity> rfcs = streamRfcs(RfcSpecification.withFilters(status, urgency, requesterId, title))) {
+            Iterator<RfcEntity> iterator = rfcs.iterator();
+            List<RfcEntity> chunk = new ArrayList<>(fetchSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == fetchSize || !iterator.hasNext()) {
+                    writeChunk(chunk, format, writer);
+                    exported += chunk.size();
+                    chunk.clear();
+                    writer.flush();
+                    // Отпускаем уже выгруженные сущности, курсор при этом остается открытым
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+
+        log.info("RFC export completed: {} records", exported);
+        return exported;
+    }
+
+    /**
+     * Открывает однонаправленный курсор по RFC, отсортированным по ID
+     */
+    private Stream<RfcEntity> streamRfcs(Specification<RfcEntity> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RfcEntity> query = criteriaBuilder.createQuery(RfcEntity.class);
+        Root<RfcEntity> root = query.from(RfcEntity.class);
+        root.fetch("requester", JoinType.LEFT);
+        query.select(root)
+                .where(spec.toPredicate(root, query, criteriaBuilder))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private void writeChunk(List<RfcEntity> chunk, RfcExportFormat format, Writer writer) throws IOException {
+        List<Long> rfcIds = chunk.stream().map(RfcEntity::getId).toList();
+
+        Map<Long, List<RfcAffectedSubsystemEntity>> subsystemsByRfcId = affectedSubsystemRepository
+                .findByRfcIdInWithDetails(rfcIds).stream()
+                .collect(Collectors.groupingBy(subsystem -> subsystem.getRfc().getId()));
+        Map<Long, List<RfcApprovalEntity>> approvalsByRfcId = approvalRepository
+                .findByRfcIdInWithApprover(rfcIds).stream()
+                .collect(Collectors.groupingBy(approval -> approval.getRfc().getId()));
+
+        for (RfcEntity rfc : chunk) {
+            RfcExportRecord record = toExportRecord(
+                    rfc,
+                    subsystemsByRfcId.getOrDefault(rfc.getId(), List.of()),
+                    approvalsByRfcId.getOrDefault(rfc.getId(), List.of())
+            );
+            if (format == RfcExportFormat.CSV) {
+                writeCsvRow(record, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private RfcExportRecord toExportRecord(RfcEntity rfc,
+                                           List<RfcAffectedSubsystemEntity> subsystems,
+                                           List<RfcApprovalEntity> approvals) {
+        UserEntity requester = rfc.getRequester();
+        return RfcExportRecord.builder()
+                .id(rfc.getId())
+                .title(rfc.getTitle())
+                .description(rfc.getDescription())
+                .status(rfc.getStatus() != null ? rfc.getStatus().name() : null)
+                .urgency(rfc.getUrgency() != null ? rfc.getUrgency().name() : null)
+                .implementationDate(rfc.getImplementationDate())
+                .requesterId(requester != null ? requester.getId() : null)
+                .requesterUsername(requester != null ? requester.getUsername() : null)
+                .createDatetime(rfc.getCreateDatetime())
+                .updateDatetime(rfc.getUpdateDatetime())
+                .affectedSubsystems(subsystems.stream()
+                        .map(subsystem -> RfcExportSubsystem.builder()
+                                .systemId(subsystem.getSubsystem().getSystem().getId())
+                                .systemName(subsystem.getSubsystem().getSystem().getName())
+                                .subsystemId(subsystem.getSubsystem().getId())
+                                .subsystemName(subsystem.getSubsystem().getName())
+                                .executorId(subsystem.getExecutor().getId())
+                                .executorUsername(subsystem.getExecutor().getUsername())
+                                .confirmationStatus(subsystem.getConfirmationStatus().name())
+                                .executionStatus(subsystem.getExecutionStatus().name())
+                                .build())
+                        .toList())
+                .approvals(approvals.stream()
+                        .map(approval -> RfcExportApproval.builder()
+                                .approverId(approval.getApprover().getId())
+                                .approverUsername(approval.getApprover().getUsername())
+                                .isApproved(approval.getIsApproved())
+                                .comment(approval.getComment())
+                                .updateDatetime(approval.getUpdateDatetime())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Пишет строку CSV; подсистемы и согласования сворачиваются в ячейки через "; "
+     */
+    private void writeCsvRow(RfcExportRecord record, Writer writer) throws IOException {
+        String subsystems = record.getAffectedSubsystems().stream()
+                .map(subsystem -> String.format("%s/%s (%s): %s/%s",
+                        subsystem.getSystemName(),
+                        subsystem.getSubsystemName(),
+                        subsystem.getExecutorUsername(),
+                        subsystem.getConfirmationStatus(),
+                        subsystem.getExecutionStatus()))
+                .collect(Collectors.joining("; "));
+        String approvals = record.getApprovals().stream()
+                .map(approval -> approval.getApproverUsername() + ": "
+                        + (Boolean.TRUE.equals(approval.getIsApproved()) ? "APPROVED" : "NOT_APPROVED"))
+                .collect(Collectors.joining("; "));
+
+        writer.write(String.join(",",
+                String.valueOf(record.getId()),
+                csvCell(record.getTitle()),
+                csvCell(record.getStatus()),
+                csvCell(record.getUrgency()),
+                csvCell(record.getImplementationDate()),
+                csvCell(record.getRequesterId()),
+                csvCell(record.getRequesterUsername()),
+                csvCell(record.getCreateDatetime()),
+                csvCell(record.getUpdateDatetime()),
+                csvCell(subsystems),
+                csvCell(approvals)));
+        writer.write('\n');
+    }
+
+    /**
+     * Ячейка CSV. Значение, которое начинается с символа формулы ({@code = + - @}, табуляция, CR), экранируется
+     * префиксом {@code '}, иначе Excel и другие табличные редакторы выполнят пользовательский текст как формулу
+     */
+    static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,10 +1,15 @@
 package ru.c21501.rfcservice.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.converter.LongIds;
+import ru.c21501.rfcservice.converter.RfcHistoryDeltaCodec;
 import ru.c21501.rfcservice.dto.response.history.AttachmentInfo;
 import ru.c21501.rfcservice.dto.response.history.FieldChange;
 import ru.c21501.rfcservice.dto.response.history.RfcAttachmentsChangedEvent;
@@ -13,31 +18,38 @@ import ru.c21501.rfcservice.dto.response.history.RfcStatusChangedEvent;
 import ru.c21501.rfcservice.dto.response.history.RfcSubsystemsChangedEvent;
 import ru.c21501.rfcservice.dto.response.history.SubsystemInfo;
 import ru.c21501.rfcservice.dto.response.history.SubsystemStatusChangedEvent;
+import ru.c21501.rfcservice.event.RfcChangeEvent;
 import ru.c21501.rfcservice.exception.ResourceNotFoundException;
-import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
 import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
 import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
 import ru.c21501.rfcservice.model.entity.UserEntity;
 import ru.c21501.rfcservice.model.enums.HistoryOperationType;
+import ru.c21501.rfcservice.model.enums.RfcChangeField;
+import ru.c21501.rfcservice.model.enums.RfcChangeType;
 import ru.c21501.rfcservice.openapi.model.HistoryUser;
 import ru.c21501.rfcservice.openapi.model.RfcHistoryEvent;
 import ru.c21501.rfcservice.openapi.model.RfcHistoryResponse;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
 import ru.c21501.rfcservice.repository.AttachmentRepository;
 import ru.c21501.rfcservice.repository.RfcAffectedSubsystemHistoryRepository;
 import ru.c21501.rfcservice.repository.RfcAffectedSubsystemRepository;
 import ru.c21501.rfcservice.repository.RfcHistoryRepository;
 import ru.c21501.rfcservice.repository.RfcRepository;
+import ru.c21501.rfcservice.service.HistoryArchiveService;
 import ru.c21501.rfcservice.service.RfcHistoryService;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -53,47 +65,69 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
     private final RfcAffectedSubsystemHistoryRepository subsystemHistoryRepository;
     private final RfcAffectedSubsystemRepository affectedSubsystemRepository;
     private final AttachmentRepository attachmentRepository;
+    private final HistoryArchiveService historyArchiveService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.history.snapshot-interval:10}")
+    private int snapshotInterval;
 
     @Override
     @Transactional(readOnly = true)
-    public RfcHistoryResponse getRfcHistory(Long rfcId, Pageable pageable) {
-        log.info("Getting RFC history: rfcId={}, page={}, size={}", rfcId, pageable.getPageNumber(), pageable.getPageSize());
+    @Timed("rfc.history.build")
+    public RfcHistoryResponse getRfcHistory(Long rfcId, Pageable pageable, boolean includeArchived) {
+        log.info("Getting RFC history: rfcId={}, page={}, size={}, includeArchived={}",
+                rfcId, pageable.getPageNumber(), pageable.getPageSize(), includeArchived);
 
         // Проверяем существование RFC
         if (!rfcRepository.existsById(rfcId)) {
             throw new ResourceNotFoundException("RFC not found with id: " + rfcId);
         }
 
-        // 1. Получаем историю RFC
-        List<RfcHistoryEntity> rfcHistory = rfcHistoryRepository.findAllByRfcIdWithUsers(rfcId);
+        // 1. Получаем историю RFC (при необходимости вместе с архивом) и восстанавливаем полные версии из дельт
+        List<RfcHistoryEntity> storedHistory = rfcHistoryRepository.findAllByRfcIdWithUsers(rfcId);
+        if (includeArchived) {
+            storedHistory = new ArrayList<>(storedHistory);
+            storedHistory.addAll(historyArchiveService.findArchivedRfcHistory(rfcId));
+            storedHistory.sort(Comparator.comparing(RfcHistoryEntity::getVersion).reversed());
+        }
+        List<RfcHistoryEntity> rfcHistory = RfcHistoryDeltaCodec.reconstruct(storedHistory);
 
-        // 2. Получаем все affected subsystems для этого RFC (текущие и исторические ID)
+        // 2. Собираем ID файлов и affected subsystems всей ленты (текущие и исторические)
         Set<Long> affectedSubsystemIds = extractAffectedSubsystemIds(rfcHistory);
+        Set<Long> attachmentIds = extractAttachmentIds(rfcHistory);
 
         // 3. Получаем историю изменений статусов подсистем
         List<RfcAffectedSubsystemHistoryEntity> subsystemHistory = Collections.emptyList();
         if (!affectedSubsystemIds.isEmpty()) {
             subsystemHistory = subsystemHistoryRepository
                     .findByRfcAffectedSubsystemIdInWithUsers(new ArrayList<>(affectedSubsystemIds));
+            if (includeArchived) {
+                subsystemHistory = new ArrayList<>(subsystemHistory);
+                subsystemHistory.addAll(historyArchiveService.findArchivedSubsystemHistory(affectedSubsystemIds));
+            }
         }
 
-        // 4. Создаем unified timeline из всех событий
+        // 4. Получаем названия файлов и подсистем одним запросом на каждый тип
+        Map<Long, AttachmentInfo> attachments = getAttachmentInfos(attachmentIds);
+        Map<Long, SubsystemInfo> subsystems = getSubsystemInfos(affectedSubsystemIds);
+
+        // 5. Создаем unified timeline из всех событий
         List<RfcHistoryEvent> events = new ArrayList<>();
 
-        // 4.1 Обрабатываем RFC history и создаем события
-        events.addAll(processRfcHistory(rfcHistory));
+        // 5.1 Обрабатываем RFC history и создаем события
+        events.addAll(processRfcHistory(rfcHistory, attachments, subsystems));
 
-        // 4.2 Обрабатываем subsystem status history
-        events.addAll(processSubsystemHistory(subsystemHistory, affectedSubsystemIds));
+        // 5.2 Обрабатываем subsystem status history
+        events.addAll(processSubsystemHistory(subsystemHistory, subsystems));
 
-        // 5. Сортируем по времени (DESC - новые сначала)
+        // 6. Сортируем по времени (DESC - новые сначала)
         events.sort((e1, e2) -> {
             OffsetDateTime t1 = e1.getTimestamp();
             OffsetDateTime t2 = e2.getTimestamp();
             return t2.compareTo(t1);
         });
 
-        // 6. Применяем пагинацию вручную
+        // 7. Применяем пагинацию вручную
         int start = (int) pageable.getOffset();
         int end = Math.min(start + pageable.getPageSize(), events.size());
 
@@ -101,18 +135,75 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
                 ? events.subList(start, end)
                 : Collections.emptyList();
 
-        // 7. Формируем ответ
+        // 8. Формируем ответ
         return buildHistoryResponse(paginatedEvents, events.size(), pageable);
     }
 
+    @Override
+    @Transactional
+    public void recordVersion(RfcHistoryEntity state) {
+        // Параллельные изменения RFC (API и вебхук Planka) иначе получают один и тот же номер версии
+        rfcRepository.lockById(state.getRfcId())
+                .orElseThrow(() -> new IllegalStateException("RFC " + state.getRfcId() + " not found"));
+        List<RfcHistoryEntity> chain = rfcHistoryRepository.findChainUpToVersion(state.getRfcId(), Integer.MAX_VALUE);
+        RfcHistoryEntity previous = chain.isEmpty() ? null : RfcHistoryDeltaCodec.reconstruct(chain).get(0);
+
+        RfcHistoryEntity record = RfcHistoryDeltaCodec.encode(previous, state, snapshotInterval);
+        if (previous == null && state.getOperation() != HistoryOperationType.CREATE) {
+            // Вся история RFC выгружена в архив: новая версия - checkpoint, нумерация продолжается с архивной
+            int archivedVersion = historyArchiveService.findLastArchivedVersion(state.getRfcId());
+            if (archivedVersion > 0) {
+                record.setVersion(archivedVersion + 1);
+            }
+        }
+        if (rfcHistoryRepository.existsByRfcIdAndVersion(record.getRfcId(), record.getVersion())) {
+            throw new IllegalStateException("RFC " + record.getRfcId() + " history version "
+                    + record.getVersion() + " already exists");
+        }
+        rfcHistoryRepository.save(record);
+        log.debug("RFC {} history version {} saved: snapshot={}, changedFields={}",
+                record.getRfcId(), record.getVersion(), record.isSnapshot(), record.getChangedFields());
+
+        RfcChangeType changeType = switch (state.getOperation()) {
+            case CREATE -> RfcChangeType.CREATED;
+            case DELETE -> RfcChangeType.DELETED;
+            case UPDATE, STATUS_CHANGE -> RfcChangeType.UPDATED;
+        };
+        eventPublisher.publishEvent(new RfcChangeEvent(record.getRfcId(), changeType, state.getStatus(),
+                record.getVersion(), RfcChangeField.fromHistoryMask(RfcHistoryDeltaCodec.changedFields(previous, state))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RfcHistoryEntity> getVersion(Long rfcId, int version) {
+        List<RfcHistoryEntity> chain = rfcHistoryRepository.findChainUpToVersion(rfcId, version);
+        if (chain.isEmpty() || chain.get(0).getVersion() != version) {
+            return Optional.empty();
+        }
+        return Optional.of(RfcHistoryDeltaCodec.reconstruct(chain).get(0));
+    }
+
     /**
      * Извлечь все ID affected subsystems из истории RFC
      */
     private Set<Long> extractAffectedSubsystemIds(List<RfcHistoryEntity> rfcHistory) {
         Set<Long> ids = new HashSet<>();
         for (RfcHistoryEntity history : rfcHistory) {
-            if (history.getAffectedSubsystems() != null) {
-                ids.addAll(history.getAffectedSubsystems());
+            for (long id : history.getAffectedSubsystems()) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Извлечь все ID файлов из истории RFC
+     */
+    private Set<Long> extractAttachmentIds(List<RfcHistoryEntity> rfcHistory) {
+        Set<Long> ids = new HashSet<>();
+        for (RfcHistoryEntity history : rfcHistory) {
+            for (long id : history.getAttachmentIds()) {
+                ids.add(id);
             }
         }
         return ids;
@@ -121,7 +212,9 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
     /**
      * Обработать историю RFC и создать события изменений
      */
-    private List<RfcHistoryEvent> processRfcHistory(List<RfcHistoryEntity> rfcHistory) {
+    private List<RfcHistoryEvent> processRfcHistory(List<RfcHistoryEntity> rfcHistory,
+                                                    Map<Long, AttachmentInfo> attachments,
+                                                    Map<Long, SubsystemInfo> subsystems) {
         List<RfcHistoryEvent> events = new ArrayList<>();
 
         for (int i = 0; i < rfcHistory.size(); i++) {
@@ -146,7 +239,8 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
                     }
 
                     // Изменения attachments
-                    RfcAttachmentsChangedEvent attachmentsEvent = computeAttachmentsDiff(current, previous, changedBy);
+                    RfcAttachmentsChangedEvent attachmentsEvent = computeAttachmentsDiff(current, previous, changedBy,
+                            attachments);
                     if (attachmentsEvent != null &&
                             (!attachmentsEvent.getAttachmentsAdded().isEmpty() ||
                                     !attachmentsEvent.getAttachmentsRemoved().isEmpty())) {
@@ -154,7 +248,8 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
                     }
 
                     // Изменения subsystems
-                    RfcSubsystemsChangedEvent subsystemsEvent = computeSubsystemsDiff(current, previous, changedBy);
+                    RfcSubsystemsChangedEvent subsystemsEvent = computeSubsystemsDiff(current, previous, changedBy,
+                            subsystems);
                     if (subsystemsEvent != null &&
                             (!subsystemsEvent.getSubsystemsAdded().isEmpty() ||
                                     !subsystemsEvent.getSubsystemsRemoved().isEmpty())) {
@@ -169,38 +264,29 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
 
     /**
      * Создать событие для STATUS_CHANGE операции (перемещение карточки в Planka)
+     * <p>
+     * Записи без заполненных колонок изменения статуса (например, из старых файлов архива)
+     * отображаются по статусам соседних версий
      */
     private RfcStatusChangedEvent createStatusChangeEvent(RfcHistoryEntity current,
                                                           RfcHistoryEntity previous,
                                                           HistoryUser changedBy) {
-        // Находим предыдущий статус
-        String oldStatus = previous != null ? previous.getStatus().toString() : null;
-        String newStatus = current.getStatus().toString();
-
-        // Определяем источник изменения (по описанию)
-        RfcStatusChangedEvent.SourceEnum source = RfcStatusChangedEvent.SourceEnum.PLANKA;
-        String comment = null;
-        
-        if (current.getDescription() != null && !current.getDescription().isBlank()) {
-            comment = current.getDescription();
-            // Парсим старый и новый статус из описания если там есть "Статус изменен с X на Y"
-            java.util.regex.Matcher matcher = java.util.regex.Pattern
-                    .compile("Статус изменен с (\\w+) на (\\w+)")
-                    .matcher(current.getDescription());
-            if (matcher.find()) {
-                oldStatus = matcher.group(1);
-                newStatus = matcher.group(2);
-            }
-        }
+        RfcStatus oldStatus = current.getOldStatus() != null || previous == null
+                ? current.getOldStatus()
+                : previous.getStatus();
+        RfcStatus newStatus = current.getNewStatus() != null ? current.getNewStatus() : current.getStatus();
+        RfcStatusChangedEvent.SourceEnum source = current.getSource() != null
+                ? RfcStatusChangedEvent.SourceEnum.valueOf(current.getSource().name())
+                : RfcStatusChangedEvent.SourceEnum.PLANKA;
 
         return new RfcStatusChangedEvent(
                 "RFC_STATUS_CHANGED",
                 current.getCreateDatetime(),
                 changedBy,
-                oldStatus,
-                newStatus,
+                oldStatus != null ? oldStatus.toString() : null,
+                newStatus.toString(),
                 source,
-                comment
+                current.getExternalActor()
         );
     }
 
@@ -290,23 +376,17 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
      */
     private RfcAttachmentsChangedEvent computeAttachmentsDiff(RfcHistoryEntity current,
                                                               RfcHistoryEntity previous,
-                                                              HistoryUser changedBy) {
-        Set<Long> currentIds = current.getAttachmentIds() != null ? current.getAttachmentIds() : Collections.emptySet();
-        Set<Long> previousIds = previous.getAttachmentIds() != null ? previous.getAttachmentIds() : Collections.emptySet();
-
-        Set<Long> added = new HashSet<>(currentIds);
-        added.removeAll(previousIds);
+                                                              HistoryUser changedBy,
+                                                              Map<Long, AttachmentInfo> attachments) {
+        long[] added = LongIds.difference(current.getAttachmentIds(), previous.getAttachmentIds());
+        long[] removed = LongIds.difference(previous.getAttachmentIds(), current.getAttachmentIds());
 
-        Set<Long> removed = new HashSet<>(previousIds);
-        removed.removeAll(currentIds);
-
-        if (added.isEmpty() && removed.isEmpty()) {
+        if (added.length == 0 && removed.length == 0) {
             return null;
         }
 
-        // Получаем информацию о файлах
-        List<AttachmentInfo> addedInfos = getAttachmentInfos(added);
-        List<AttachmentInfo> removedInfos = getAttachmentInfos(removed);
+        List<AttachmentInfo> addedInfos = resolve(added, attachments);
+        List<AttachmentInfo> removedInfos = resolve(removed, attachments);
 
         return new RfcAttachmentsChangedEvent(
                 "RFC_ATTACHMENTS_CHANGED",
@@ -322,23 +402,17 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
      */
     private RfcSubsystemsChangedEvent computeSubsystemsDiff(RfcHistoryEntity current,
                                                             RfcHistoryEntity previous,
-                                                            HistoryUser changedBy) {
-        Set<Long> currentIds = current.getAffectedSubsystems() != null ? current.getAffectedSubsystems() : Collections.emptySet();
-        Set<Long> previousIds = previous.getAffectedSubsystems() != null ? previous.getAffectedSubsystems() : Collections.emptySet();
-
-        Set<Long> added = new HashSet<>(currentIds);
-        added.removeAll(previousIds);
+                                                            HistoryUser changedBy,
+                                                            Map<Long, SubsystemInfo> subsystems) {
+        long[] added = LongIds.difference(current.getAffectedSubsystems(), previous.getAffectedSubsystems());
+        long[] removed = LongIds.difference(previous.getAffectedSubsystems(), current.getAffectedSubsystems());
 
-        Set<Long> removed = new HashSet<>(previousIds);
-        removed.removeAll(currentIds);
-
-        if (added.isEmpty() && removed.isEmpty()) {
+        if (added.length == 0 && removed.length == 0) {
             return null;
         }
 
-        // Получаем информацию о подсистемах
-        List<SubsystemInfo> addedInfos = getSubsystemInfos(added);
-        List<SubsystemInfo> removedInfos = getSubsystemInfos(removed);
+        List<SubsystemInfo> addedInfos = resolve(added, subsystems);
+        List<SubsystemInfo> removedInfos = resolve(removed, subsystems);
 
         return new RfcSubsystemsChangedEvent(
                 "RFC_SUBSYSTEMS_CHANGED",
@@ -354,32 +428,16 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
      */
     private List<RfcHistoryEvent> processSubsystemHistory(
             List<RfcAffectedSubsystemHistoryEntity> subsystemHistory,
-            Set<Long> affectedSubsystemIds) {
+            Map<Long, SubsystemInfo> subsystems) {
 
         List<RfcHistoryEvent> events = new ArrayList<>();
 
-        // Получаем информацию о подсистемах один раз
-        Map<Long, RfcAffectedSubsystemEntity> subsystemMap = affectedSubsystemRepository
-                .findAllById(affectedSubsystemIds)
-                .stream()
-                .collect(Collectors.toMap(RfcAffectedSubsystemEntity::getId, s -> s));
-
         for (RfcAffectedSubsystemHistoryEntity history : subsystemHistory) {
-            RfcAffectedSubsystemEntity affectedSubsystem = subsystemMap.get(history.getRfcAffectedSubsystemId());
-            if (affectedSubsystem == null) {
+            SubsystemInfo subsystemInfo = subsystems.get(history.getRfcAffectedSubsystemId());
+            if (subsystemInfo == null) {
                 continue;
             }
 
-            // Создаем SubsystemInfo
-            ru.c21501.rfcservice.dto.response.history.SubsystemInfo subsystemInfo = ru.c21501.rfcservice.dto.response.history.SubsystemInfo.builder()
-                    .id(affectedSubsystem.getId())
-                    .subsystemId(affectedSubsystem.getSubsystem().getId())
-                    .subsystemName(affectedSubsystem.getSubsystem().getName())
-                    .systemName(affectedSubsystem.getSubsystem().getSystem().getName())
-                    .executorId(affectedSubsystem.getExecutor().getId())
-                    .executorName(affectedSubsystem.getExecutor().getFirstName() + " " + affectedSubsystem.getExecutor().getLastName())
-                    .build();
-
             SubsystemStatusChangedEvent.StatusTypeEnum statusType =
                     "CONFIRMATION".equals(history.getStatusType())
                             ? SubsystemStatusChangedEvent.StatusTypeEnum.CONFIRMATION
@@ -402,41 +460,43 @@ public class RfcHistoryServiceImpl implements RfcHistoryService {
     }
 
     /**
-     * Получить информацию о файлах по их ID
+     * Получить информацию о файлах по их ID (без содержимого файлов)
      */
-    private List<AttachmentInfo> getAttachmentInfos(Set<Long> attachmentIds) {
+    private Map<Long, AttachmentInfo> getAttachmentInfos(Set<Long> attachmentIds) {
         if (attachmentIds.isEmpty()) {
-            return Collections.emptyList();
+            return Collections.emptyMap();
         }
 
-        return attachmentRepository.findAllById(attachmentIds)
+        return attachmentRepository.findInfoByIdIn(attachmentIds)
                 .stream()
-                .map(attachment -> AttachmentInfo.builder()
-                        .id(attachment.getId())
-                        .originalFilename(attachment.getOriginalFilename())
-                        .build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(AttachmentInfo::getId, Function.identity()));
     }
 
     /**
      * Получить информацию о подсистемах по их ID (affected subsystem ID)
      */
-    private List<ru.c21501.rfcservice.dto.response.history.SubsystemInfo> getSubsystemInfos(Set<Long> affectedSubsystemIds) {
+    private Map<Long, SubsystemInfo> getSubsystemInfos(Set<Long> affectedSubsystemIds) {
         if (affectedSubsystemIds.isEmpty()) {
-            return Collections.emptyList();
+            return Collections.emptyMap();
         }
 
-        return affectedSubsystemRepository.findAllById(affectedSubsystemIds)
+        return affectedSubsystemRepository.findSubsystemInfoByIdIn(affectedSubsystemIds)
                 .stream()
-                .map(affected -> ru.c21501.rfcservice.dto.response.history.SubsystemInfo.builder()
-                        .id(affected.getId())
-                        .subsystemId(affected.getSubsystem().getId())
-                        .subsystemName(affected.getSubsystem().getName())
-                        .systemName(affected.getSubsystem().getSystem().getName())
-                        .executorId(affected.getExecutor().getId())
-                        .executorName(affected.getExecutor().getFirstName() + " " + affected.getExecutor().getLastName())
-                        .build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(SubsystemInfo::getId, Function.identity()));
+    }
+
+    /**
+     * Информация по ID в порядке ID; ID удаленных файлов и подсистем пропускаются
+     */
+    private static <T> List<T> resolve(long[] ids, Map<Long, T> infos) {
+        List<T> resolved = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            T info = infos.get(id);
+            if (info != null) {
+                resolved.add(info);
+            }
+        }
+        return resolved;
     }
 
     /**
@@ -0,0 +1,360 @@
+package ru.c21501.rfcservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.c21501.rfcservice.converter.LongIds;
+import ru.c21501.rfcservice.converter.RfcHistoryDeltaCodec;
+import ru.c21501.rfcservice.dto.request.RfcImportRecord;
+import ru.c21501.rfcservice.exception.ForbiddenException;
+import ru.c21501.rfcservice.exception.ValidationException;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
+import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
+import ru.c21501.rfcservice.model.entity.SubsystemEntity;
+import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.HistoryOperationType;
+import ru.c21501.rfcservice.model.enums.UserRole;
+import ru.c21501.rfcservice.openapi.model.AffectedSubsystemRequest;
+import ru.c21501.rfcservice.openapi.model.AffectedSystemRequest;
+import ru.c21501.rfcservice.openapi.model.ConfirmationStatus;
+import ru.c21501.rfcservice.openapi.model.ExecutionStatus;
+import ru.c21501.rfcservice.openapi.model.RfcImportError;
+import ru.c21501.rfcservice.openapi.model.RfcImportResponse;
+import ru.c21501.rfcservice.openapi.model.RfcStatus;
+import ru.c21501.rfcservice.repository.SubsystemRepository;
+import ru.c21501.rfcservice.repository.UserRepository;
+import ru.c21501.rfcservice.service.RfcImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация сервиса массового импорта RFC
+ * <p>
+ * Файл читается построчно, каждая запись проверяется по справочникам подсистем и пользователей,
+ * загруженным один раз на импорт. Валидные записи сохраняются пакетами по {@code batchSize}
+ * в отдельных транзакциях; после каждого пакета persistence context очищается. Ключи RFC и истории
+ * выделяются из pooled-последовательностей, поэтому INSERT уходят пакетами JDBC (hibernate.jdbc.batch_size).
+ * Если пакет не сохранился (ошибку БД не поймала проверка), он повторяется по одной записи:
+ * ошибочной помечается только запись, которую не принимает БД.
+ * Карточки в Planka не создаются - их создает фоновая синхронизация RFC без карточки.
+ */
+@Slf4j
+@Service
+public class RfcImportServiceImpl implements RfcImportService {
+
+    /**
+     * Максимальное количество ошибок, возвращаемых в ответе (счетчики остаются точными)
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final SubsystemRepository subsystemRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    public RfcImportServiceImpl(SubsystemRepository subsystemRepository,
+                                UserRepository userRepository,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                PlatformTransactionManager transactionManager) {
+        this.subsystemRepository = subsystemRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public RfcImportResponse importRfcs(InputStream input, UserEntity importer) {
+        validateImportAccess(importer);
+
+        log.info("Starting RFC import: importer={}, batchSize={}", importer.getUsername(), batchSize);
+        long startedAt = System.currentTimeMillis();
+
+        ReferenceData referenceData = loadReferenceData();
+        ImportResult result = new ImportResult();
+        List<ParsedRecord> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.total++;
+
+                ParsedRecord parsed = parseAndValidate(lineNumber, line, importer, referenceData, result);
+                if (parsed == null) {
+                    continue;
+                }
+
+                batch.add(parsed);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, importer, result);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось прочитать файл импорта: " + e.getMessage());
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch, importer, result);
+        }
+
+        long durationMs = System.currentTimeMillis() - startedAt;
+        log.info("RFC import completed: total={}, imported={}, failed={}, duration={} ms, throughput={} RFC/s",
+                result.total, result.imported, result.failed, durationMs,
+                durationMs > 0 ? result.imported * 1000 / durationMs : result.imported);
+
+        return new RfcImportResponse(result.total, result.imported, result.failed, result.errors);
+    }
+
+    /**
+     * Проверяет, имеет ли пользователь право выполнять импорт
+     * Правило: только CAB_MANAGER или ADMIN
+     */
+    private void validateImportAccess(UserEntity importer) {
+        UserRole role = importer.getRole();
+
+        if (role != UserRole.CAB_MANAGER && role != UserRole.ADMIN) {
+            log.warn("User {} has no access to import RFC", importer.getId());
+            throw new ForbiddenException("Недостаточно прав для импорта RFC");
+        }
+    }
+
+    /**
+     * Загружает справочники подсистем и пользователей одним запросом каждый
+     */
+    private ReferenceData loadReferenceData() {
+        Map<Long, Long> subsystemToSystem = subsystemRepository.findAllSubsystemSystemIds().stream()
+                .collect(Collectors.toMap(
+                        SubsystemRepository.SubsystemSystemIdView::getId,
+                        SubsystemRepository.SubsystemSystemIdView::getSystemId
+                ));
+        Set<Long> userIds = userRepository.findAllIds();
+
+        log.debug("Loaded import reference data: {} subsystems, {} users", subsystemToSystem.size(), userIds.size());
+        return new ReferenceData(subsystemToSystem, userIds);
+    }
+
+    /**
+     * Разбирает и проверяет одну строку файла
+     *
+     * @return запись, готовая к сохранению, или null, если строка содержит ошибку
+     */
+    private ParsedRecord parseAndValidate(long lineNumber,
+                                          String line,
+                                          UserEntity importer,
+                                          ReferenceData referenceData,
+                                          ImportResult result) {
+        RfcImportRecord record;
+        try {
+            record = objectMapper.readValue(line, RfcImportRecord.class);
+        } catch (JsonProcessingException e) {
+            result.fail(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<RfcImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            result.fail(lineNumber, message);
+            return null;
+        }
+
+        Long requesterId = record.getRequesterId() != null ? record.getRequesterId() : importer.getId();
+        if (!referenceData.userIds().contains(requesterId)) {
+            result.fail(lineNumber, "User not found with id: " + requesterId);
+            return null;
+        }
+
+        for (AffectedSystemRequest system : record.getAffectedSystems()) {
+            for (AffectedSubsystemRequest subsystem : system.getAffectedSubsystems()) {
+                Long systemId = referenceData.subsystemToSystem().get(subsystem.getSubsystemId());
+                if (systemId == null) {
+                    result.fail(lineNumber, "Subsystem not found with id: " + subsystem.getSubsystemId());
+                    return null;
+                }
+                if (!systemId.equals(system.getSystemId())) {
+                    result.fail(lineNumber, String.format("Subsystem %d does not belong to system %d",
+                            subsystem.getSubsystemId(), system.getSystemId()));
+                    return null;
+                }
+                if (!referenceData.userIds().contains(subsystem.getExecutorId())) {
+                    result.fail(lineNumber, "User not found with id: " + subsystem.getExecutorId());
+                    return null;
+                }
+            }
+        }
+
+        return new ParsedRecord(lineNumber, record, requesterId);
+    }
+
+    /**
+     * Сохраняет пакет записей в одной транзакции
+     * При ошибке БД пакет откатывается и сохраняется повторно по одной записи в отдельных транзакциях
+     */
+    private void writeBatch(List<ParsedRecord> batch, UserEntity importer, ImportResult result) {
+        try {
+            persistInTransaction(batch, importer);
+            result.imported += batch.size();
+            log.debug("Imported RFC batch: lines {}-{}", batch.get(0).lineNumber(), batch.get(batch.size() - 1).lineNumber());
+        } catch (RuntimeException e) {
+            log.warn("Failed to import RFC batch (lines {}-{}), retrying record by record: {}",
+                    batch.get(0).lineNumber(), batch.get(batch.size() - 1).lineNumber(), e.getMessage());
+            for (ParsedRecord parsed : batch) {
+                try {
+                    persistInTransaction(List.of(parsed), importer);
+                    result.imported++;
+                } catch (RuntimeException recordError) {
+                    log.error("Failed to import RFC from line {}: {}", parsed.lineNumber(), recordError.getMessage());
+                    result.fail(parsed.lineNumber(), "Ошибка сохранения: " + recordError.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Сущности создаются заново при каждом вызове, поэтому повтор после отката не зависит от неудачной попытки
+     */
+    private void persistInTransaction(List<ParsedRecord> records, UserEntity importer) {
+        transactionTemplate.executeWithoutResult(status -> {
+            UserEntity changedBy = entityManager.getReference(UserEntity.class, importer.getId());
+            for (ParsedRecord parsed : records) {
+                persistRecord(parsed, changedBy);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    /**
+     * Сохраняет RFC, его затронутые подсистемы и записи истории
+     * Связанные сущности подставляются ссылками, без дополнительных SELECT
+     */
+    private void persistRecord(ParsedRecord parsed, UserEntity changedBy) {
+        RfcImportRecord record = parsed.record();
+
+        RfcEntity rfc = RfcEntity.builder()
+                .title(record.getTitle())
+                .description(record.getDescription())
+                .implementationDate(record.getImplementationDate())
+                .urgency(record.getUrgency())
+                .status(RfcStatus.NEW)
+                .requester(entityManager.getReference(UserEntity.class, parsed.requesterId()))
+                .build();
+        entityManager.persist(rfc);
+
+        for (AffectedSystemRequest system : record.getAffectedSystems()) {
+            for (AffectedSubsystemRequest subsystem : system.getAffectedSubsystems()) {
+                RfcAffectedSubsystemEntity affectedSubsystem = RfcAffectedSubsystemEntity.builder()
+                        .rfc(rfc)
+                        .subsystem(entityManager.getReference(SubsystemEntity.class, subsystem.getSubsystemId()))
+                        .executor(entityManager.getReference(UserEntity.class, subsystem.getExecutorId()))
+                        .confirmationStatus(ConfirmationStatus.PENDING)
+                        .executionStatus(ExecutionStatus.PENDING)
+                        .build();
+                entityManager.persist(affectedSubsystem);
+                rfc.getAffectedSubsystems().add(affectedSubsystem);
+
+                entityManager.persist(buildSubsystemCreateHistory(affectedSubsystem, "CONFIRMATION",
+                        affectedSubsystem.getConfirmationStatus().name(), changedBy));
+                entityManager.persist(buildSubsystemCreateHistory(affectedSubsystem, "EXECUTION",
+                        affectedSubsystem.getExecutionStatus().name(), changedBy));
+            }
+        }
+
+        // Первая версия RFC - всегда полный checkpoint, предыдущую версию читать не нужно
+        RfcHistoryEntity state = RfcHistoryEntity.builder()
+                .rfcId(rfc.getId())
+                .operation(HistoryOperationType.CREATE)
+                .changedBy(changedBy)
+                .title(rfc.getTitle())
+                .description(rfc.getDescription())
+                .implementationDate(rfc.getImplementationDate())
+                .urgency(rfc.getUrgency())
+                .status(rfc.getStatus())
+                .requester(rfc.getRequester())
+                .affectedSubsystems(LongIds.normalize(rfc.getAffectedSubsystems().stream()
+                        .mapToLong(RfcAffectedSubsystemEntity::getId)
+                        .toArray()))
+                .build();
+        entityManager.persist(RfcHistoryDeltaCodec.encode(null, state, 1));
+    }
+
+    private RfcAffectedSubsystemHistoryEntity buildSubsystemCreateHistory(RfcAffectedSubsystemEntity affectedSubsystem,
+                                                                           String statusType,
+                                                                           String newStatus,
+                                                                           UserEntity changedBy) {
+        return RfcAffectedSubsystemHistoryEntity.builder()
+                .rfcAffectedSubsystemId(affectedSubsystem.getId())
+                .operation(HistoryOperationType.CREATE)
+                .statusType(statusType)
+                .oldStatus(null)
+                .newStatus(newStatus)
+                .changedBy(changedBy)
+                .build();
+    }
+
+    /**
+     * Справочники для проверки записей: подсистема -> система и множество ID пользователей
+     */
+    private record ReferenceData(Map<Long, Long> subsystemToSystem, Set<Long> userIds) {
+    }
+
+    /**
+     * Проверенная запись с номером строки и итоговым ID создателя
+     */
+    private record ParsedRecord(long lineNumber, RfcImportRecord record, Long requesterId) {
+    }
+
+    /**
+     * Накопитель результатов импорта
+     */
+    private static class ImportResult {
+
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<RfcImportError> errors = new ArrayList<>();
+
+        private void fail(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RfcImportError(lineNumber, message));
+            }
+        }
+    }
+}
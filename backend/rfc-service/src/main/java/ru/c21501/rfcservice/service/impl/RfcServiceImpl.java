@@ -1,5 +1,6 @@
 package ru.c21501.rfcservice.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
@@ -9,12 +10,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.converter.LongIds;
 import ru.c21501.rfcservice.exception.ResourceNotFoundException;
 import ru.c21501.rfcservice.model.entity.*;
 import ru.c21501.rfcservice.model.enums.HistoryOperationType;
 import ru.c21501.rfcservice.openapi.model.*;
 import ru.c21501.rfcservice.repository.*;
 import ru.c21501.rfcservice.service.PlankaIntegrationService;
+import ru.c21501.rfcservice.service.RfcHistoryService;
 import ru.c21501.rfcservice.service.RfcService;
 import ru.c21501.rfcservice.specification.RfcSpecification;
 
@@ -31,7 +34,7 @@ import java.util.stream.Collectors;
 public class RfcServiceImpl implements RfcService {
 
     private final RfcRepository rfcRepository;
-    private final RfcHistoryRepository rfcHistoryRepository;
+    private final RfcHistoryService rfcHistoryService;
     private final RfcAffectedSubsystemRepository rfcAffectedSubsystemRepository;
     private final RfcAffectedSubsystemHistoryRepository rfcAffectedSubsystemHistoryRepository;
     private final AttachmentRepository attachmentRepository;
@@ -44,6 +47,7 @@ public class RfcServiceImpl implements RfcService {
 
     @Override
     @Transactional
+    @Timed(value = "rfc.operations", extraTags = {"operation", "create"})
     public RfcEntity createRfc(RfcRequest request, UserEntity requester) {
 
         log.info("Creating RFC: title={}, requester={}", request.getTitle(), requester.getUsername());
@@ -64,18 +68,15 @@ public class RfcServiceImpl implements RfcService {
                 .requester(requester)
                 .build();
 
-        // Сохраняем RFC, чтобы получить ID
+        // Сохраняем RFC, чтобы получить ID (выделяется из pooled-последовательности при persist, INSERT - при flush)
         rfc = rfcRepository.save(rfc);
 
-        // Принудительно сбрасываем изменения в БД для получения ID
-        entityManager.flush();
-
-        // 3. Привязываем attachments к RFC
+        // 3. Привязываем attachments к RFC (и в коллекцию RFC, чтобы ответ строился без перечитывания из БД)
         if (!attachments.isEmpty()) {
             for (AttachmentEntity attachment : attachments) {
                 attachment.setRfc(rfc);
             }
-            attachmentRepository.saveAll(attachments);
+            rfc.getAttachments().addAll(attachments);
         }
 
         // 4. Создаем affected subsystems
@@ -86,15 +87,12 @@ public class RfcServiceImpl implements RfcService {
         );
         rfc.getAffectedSubsystems().addAll(affectedSubsystems);
 
-        // 5. Сохраняем все изменения
-        entityManager.flush();
-
-        // 6. Создаем историю RFC (operation = CREATE)
+        // 5. Создаем историю RFC (operation = CREATE)
         createRfcHistory(rfc, HistoryOperationType.CREATE, requester, request.getAttachmentIds());
 
-        // Принудительно обновляем entity из БД для получения актуального состояния
+        // 6. Единственный flush до обращения к Planka: ошибки БД всплывают до внешнего вызова.
+        // Агрегат в памяти уже актуален, timestamps заполняются Hibernate при persist/flush
         entityManager.flush();
-        entityManager.refresh(rfc);
 
         // 7. Синхронизация с Planka
         try {
@@ -109,6 +107,7 @@ public class RfcServiceImpl implements RfcService {
 
     @Override
     @Transactional
+    @Timed(value = "rfc.operations", extraTags = {"operation", "update"})
     public RfcEntity updateRfc(Long id, RfcRequest request, UserEntity updatedBy) {
         log.info("Updating RFC: id={}, updatedBy={}", id, updatedBy.getUsername());
 
@@ -157,15 +156,11 @@ public class RfcServiceImpl implements RfcService {
         // 4. Обновляем affected subsystems
         updateAffectedSubsystems(rfc, request.getAffectedSystems(), updatedBy);
 
-        // 5. Сохраняем изменения
-        rfc = rfcRepository.save(rfc);
-        entityManager.flush();
-
-        // 6. Создаем историю RFC (operation = UPDATE)
+        // 5. Создаем историю RFC (operation = UPDATE)
         createRfcHistory(rfc, HistoryOperationType.UPDATE, updatedBy, request.getAttachmentIds());
 
-        // Принудительно обновляем entity из БД
-        entityManager.refresh(rfc);
+        // 6. Единственный flush до обращения к Planka (RFC - managed entity, save/refresh не нужны)
+        entityManager.flush();
 
         // 7. Синхронизация с Planka
         try {
@@ -189,24 +184,12 @@ public class RfcServiceImpl implements RfcService {
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "rfc.operations", extraTags = {"operation", "list"})
     public Page<RfcEntity> getRfcs(String status, String urgency, Long requesterId, String title, Pageable pageable) {
         log.debug("Getting RFCs: status={}, urgency={}, requesterId={}, title={}",
                 status, urgency, requesterId, title);
 
-        Specification<RfcEntity> spec = RfcSpecification.isNotDeleted();
-
-        if (status != null) {
-            spec = spec.and(RfcSpecification.hasStatus(status));
-        }
-        if (urgency != null) {
-            spec = spec.and(RfcSpecification.hasUrgency(urgency));
-        }
-        if (requesterId != null) {
-            spec = spec.and(RfcSpecification.hasRequesterId(requesterId));
-        }
-        if (title != null && !title.trim().isEmpty()) {
-            spec = spec.and(RfcSpecification.hasTitleLike(title.trim()));
-        }
+        Specification<RfcEntity> spec = RfcSpecification.withFilters(status, urgency, requesterId, title);
 
         return rfcRepository.findAll(spec, pageable);
     }
@@ -355,12 +338,11 @@ public class RfcServiceImpl implements RfcService {
                     .map(RfcAffectedSubsystemEntity::getId)
                     .collect(Collectors.toList());
 
-            // Удаляем истории subsystems
-            rfcAffectedSubsystemHistoryRepository.deleteAll(
-                    rfcAffectedSubsystemHistoryRepository.findAll().stream()
-                            .filter(h -> toRemoveIds.contains(h.getRfcAffectedSubsystemId()))
-                            .collect(Collectors.toList())
-            );
+            // Удаляем истории subsystems одним запросом по индексу
+            int deletedHistoryCount = rfcAffectedSubsystemHistoryRepository
+                    .deleteByRfcAffectedSubsystemIdIn(toRemoveIds);
+            log.debug("Deleted {} subsystem history records for removed subsystems {}",
+                    deletedHistoryCount, toRemoveIds);
 
             // Удаляем affected subsystems
             rfcAffectedSubsystemRepository.deleteAll(toRemove);
@@ -408,7 +390,7 @@ public class RfcServiceImpl implements RfcService {
     }
 
     /**
-     * Создает запись в истории RFC
+     * Создает запись в истории RFC (сохраняются только изменившиеся поля, см. {@link RfcHistoryService#recordVersion})
      *
      * @param rfc           RFC entity
      * @param operation     тип операции
@@ -417,17 +399,17 @@ public class RfcServiceImpl implements RfcService {
      */
     private void createRfcHistory(RfcEntity rfc, HistoryOperationType operation,
                                    UserEntity changedBy, List<Long> attachmentIds) {
-        Set<Long> attachmentIdSet = attachmentIds != null && !attachmentIds.isEmpty()
-                ? new HashSet<>(attachmentIds)
-                : rfc.getAttachments().stream()
-                        .map(AttachmentEntity::getId)
-                        .collect(Collectors.toSet());
-
-        Set<Long> affectedSubsystemIds = rfc.getAffectedSubsystems().stream()
-                .map(RfcAffectedSubsystemEntity::getId)
-                .collect(Collectors.toSet());
+        long[] attachmentIdSet = attachmentIds != null && !attachmentIds.isEmpty()
+                ? LongIds.of(attachmentIds)
+                : LongIds.normalize(rfc.getAttachments().stream()
+                        .mapToLong(AttachmentEntity::getId)
+                        .toArray());
+
+        long[] affectedSubsystemIds = LongIds.normalize(rfc.getAffectedSubsystems().stream()
+                .mapToLong(RfcAffectedSubsystemEntity::getId)
+                .toArray());
 
-        RfcHistoryEntity history = RfcHistoryEntity.builder()
+        RfcHistoryEntity state = RfcHistoryEntity.builder()
                 .rfcId(rfc.getId())
                 .operation(operation)
                 .changedBy(changedBy)
@@ -441,7 +423,7 @@ public class RfcServiceImpl implements RfcService {
                 .affectedSubsystems(affectedSubsystemIds)
                 .build();
 
-        rfcHistoryRepository.save(history);
+        rfcHistoryService.recordVersion(state);
     }
 
     /**
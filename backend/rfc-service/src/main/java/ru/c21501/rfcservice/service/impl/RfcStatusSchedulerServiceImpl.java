@@ -1,14 +1,19 @@
 package ru.c21501.rfcservice.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.event.RfcChangeEvent;
 import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
 import ru.c21501.rfcservice.model.entity.RfcApprovalEntity;
 import ru.c21501.rfcservice.model.entity.RfcEntity;
 import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.RfcChangeField;
 import ru.c21501.rfcservice.model.enums.UserRole;
 import ru.c21501.rfcservice.openapi.model.ConfirmationStatus;
 import ru.c21501.rfcservice.openapi.model.ExecutionStatus;
@@ -40,6 +45,8 @@ public class RfcStatusSchedulerServiceImpl implements RfcStatusSchedulerService
     private final RfcApprovalRepository rfcApprovalRepository;
     private final UserRepository userRepository;
     private final PlankaIntegrationService plankaIntegrationService;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Обновляет статусы RFC каждые 3 секунды
@@ -49,41 +56,58 @@ public class RfcStatusSchedulerServiceImpl implements RfcStatusSchedulerService
     @Transactional
     public void updateRfcStatuses() {
         log.debug("Starting RFC status update job");
+        Timer.Sample sample = Timer.start(meterRegistry);
 
         List<RfcEntity> allRfcs = rfcRepository.findAll();
 
+        int changed = 0;
         for (RfcEntity rfc : allRfcs) {
             try {
-                // Пропускаем RFC если статус был недавно изменён из Planka
-                if (isStatusProtectedByPlanka(rfc)) {
-                    log.debug("Skipping RFC {} - status protected by Planka (changed at {})", 
-                            rfc.getId(), rfc.getPlankaStatusChangedAt());
-                    continue;
-                }
-                
-                RfcStatus newStatus = calculateRfcStatus(rfc);
-
-                if (newStatus != rfc.getStatus()) {
-                    log.info("Updating RFC {} status from {} to {}", rfc.getId(), rfc.getStatus(), newStatus);
-                    rfc.setStatus(newStatus);
-                    rfc.setUpdateDatetime(OffsetDateTime.now());
-                    // Сбрасываем Planka метку при обновлении статуса scheduler'ом
-                    rfc.setPlankaStatusChangedAt(null);
-                    rfcRepository.save(rfc);
-                    
-                    // Синхронизируем с Planka
-                    try {
-                        plankaIntegrationService.syncRfcToPlanka(rfc);
-                    } catch (Exception e) {
-                        log.warn("Failed to sync RFC {} to Planka: {}", rfc.getId(), e.getMessage());
-                    }
+                if (recalculateRfcStatus(rfc)) {
+                    changed++;
                 }
             } catch (Exception e) {
                 log.error("Error updating status for RFC {}: {}", rfc.getId(), e.getMessage(), e);
             }
         }
 
-        log.debug("RFC status update job completed");
+        meterRegistry.counter("rfc.status.scheduler.scanned").increment(allRfcs.size());
+        meterRegistry.counter("rfc.status.scheduler.changed").increment(changed);
+        sample.stop(meterRegistry.timer("rfc.status.scheduler.tick"));
+        log.debug("RFC status update job completed: scanned={}, changed={}", allRfcs.size(), changed);
+    }
+
+    @Override
+    @Transactional
+    public boolean recalculateRfcStatus(RfcEntity rfc) {
+        // Пропускаем RFC если статус был недавно изменён из Planka
+        if (isStatusProtectedByPlanka(rfc)) {
+            log.debug("Skipping RFC {} - status protected by Planka (changed at {})",
+                    rfc.getId(), rfc.getPlankaStatusChangedAt());
+            return false;
+        }
+
+        RfcStatus newStatus = calculateRfcStatus(rfc);
+
+        if (newStatus == rfc.getStatus()) {
+            return false;
+        }
+
+        log.info("Updating RFC {} status from {} to {}", rfc.getId(), rfc.getStatus(), newStatus);
+        rfc.setStatus(newStatus);
+        rfc.setUpdateDatetime(OffsetDateTime.now());
+        // Сбрасываем Planka метку при обновлении статуса scheduler'ом
+        rfc.setPlankaStatusChangedAt(null);
+        rfcRepository.save(rfc);
+        eventPublisher.publishEvent(RfcChangeEvent.updated(rfc, RfcChangeField.STATUS));
+
+        // Синхронизируем с Planka
+        try {
+            plankaIntegrationService.syncRfcToPlanka(rfc);
+        } catch (Exception e) {
+            log.warn("Failed to sync RFC {} to Planka: {}", rfc.getId(), e.getMessage());
+        }
+        return true;
     }
 
     /**
@@ -97,7 +121,7 @@ public class RfcStatusSchedulerServiceImpl implements RfcStatusSchedulerService
      * 5. Если все RFC_APPROVER согласовали И не все подсистемы выполнены/ожидают выполнения → IN_PROGRESS
      * 6. Иначе → UNDER_REVIEW
      */
-    private RfcStatus calculateRfcStatus(RfcEntity rfc) {
+    RfcStatus calculateRfcStatus(RfcEntity rfc) {
         List<RfcAffectedSubsystemEntity> subsystems = rfc.getAffectedSubsystems();
 
         // Правило 1: Если хотя бы одна подсистема отклонена → REJECTED
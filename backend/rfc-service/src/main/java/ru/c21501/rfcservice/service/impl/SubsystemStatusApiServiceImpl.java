@@ -9,12 +9,15 @@ import ru.c21501.rfcservice.model.entity.UserEntity;
 import ru.c21501.rfcservice.openapi.model.AffectedSubsystemResponse;
 import ru.c21501.rfcservice.openapi.model.ConfirmationStatus;
 import ru.c21501.rfcservice.openapi.model.ExecutionStatus;
+import ru.c21501.rfcservice.openapi.model.SubsystemStatusBatchRequest;
 import ru.c21501.rfcservice.openapi.model.UpdateSubsystemConfirmationStatusRequest;
 import ru.c21501.rfcservice.openapi.model.UpdateSubsystemExecutionStatusRequest;
 import ru.c21501.rfcservice.service.SecurityContextService;
 import ru.c21501.rfcservice.service.SubsystemStatusApiService;
 import ru.c21501.rfcservice.service.SubsystemStatusService;
 
+import java.util.List;
+
 /**
  * Реализация API-сервиса для работы со статусами затронутых подсистем
  */
@@ -70,4 +73,21 @@ public class SubsystemStatusApiServiceImpl implements SubsystemStatusApiService
 
         return rfcMapper.toAffectedSubsystemResponse(updated);
     }
+
+    @Override
+    public List<AffectedSubsystemResponse> updateStatuses(SubsystemStatusBatchRequest request) {
+        log.info("Updating subsystem statuses in batch: {} changes", request.getChanges().size());
+
+        UserEntity currentUser = securityContextService.getCurrentUser();
+
+        List<RfcAffectedSubsystemEntity> updated = subsystemStatusService.updateStatuses(
+                request.getChanges(),
+                request.getComment(),
+                currentUser
+        );
+
+        return updated.stream()
+                .map(rfcMapper::toAffectedSubsystemResponse)
+                .toList();
+    }
 }
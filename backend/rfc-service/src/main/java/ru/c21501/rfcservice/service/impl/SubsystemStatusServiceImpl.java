@@ -2,22 +2,37 @@ package ru.c21501.rfcservice.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.c21501.rfcservice.event.RfcChangeEvent;
 import ru.c21501.rfcservice.exception.ForbiddenException;
 import ru.c21501.rfcservice.exception.NotFoundException;
+import ru.c21501.rfcservice.exception.ValidationException;
 import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemEntity;
 import ru.c21501.rfcservice.model.entity.RfcAffectedSubsystemHistoryEntity;
+import ru.c21501.rfcservice.model.entity.RfcEntity;
 import ru.c21501.rfcservice.model.entity.UserEntity;
 import ru.c21501.rfcservice.model.enums.HistoryOperationType;
+import ru.c21501.rfcservice.model.enums.RfcChangeField;
 import ru.c21501.rfcservice.model.enums.UserRole;
 import ru.c21501.rfcservice.openapi.model.ConfirmationStatus;
 import ru.c21501.rfcservice.openapi.model.ExecutionStatus;
+import ru.c21501.rfcservice.openapi.model.SubsystemStatusChangeRequest;
 import ru.c21501.rfcservice.repository.RfcAffectedSubsystemHistoryRepository;
 import ru.c21501.rfcservice.repository.RfcAffectedSubsystemRepository;
+import ru.c21501.rfcservice.service.RfcStatusSchedulerService;
 import ru.c21501.rfcservice.service.SubsystemStatusService;
 import ru.c21501.rfcservice.validator.SubsystemStatusValidator;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Реализация сервиса для работы со статусами затронутых подсистем
  */
@@ -29,6 +44,8 @@ public class SubsystemStatusServiceImpl implements SubsystemStatusService {
     private final RfcAffectedSubsystemRepository affectedSubsystemRepository;
     private final RfcAffectedSubsystemHistoryRepository historyRepository;
     private final SubsystemStatusValidator statusValidator;
+    private final RfcStatusSchedulerService rfcStatusSchedulerService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -65,6 +82,7 @@ public class SubsystemStatusServiceImpl implements SubsystemStatusService {
                 newStatus.name(),
                 currentUser
         );
+        eventPublisher.publishEvent(RfcChangeEvent.updated(saved.getRfc(), RfcChangeField.SUBSYSTEM_STATUSES));
 
         log.info("Confirmation status updated successfully for subsystem {}", subsystemId);
 
@@ -106,12 +124,95 @@ public class SubsystemStatusServiceImpl implements SubsystemStatusService {
                 newStatus.name(),
                 currentUser
         );
+        eventPublisher.publishEvent(RfcChangeEvent.updated(saved.getRfc(), RfcChangeField.SUBSYSTEM_STATUSES));
 
         log.info("Execution status updated successfully for subsystem {}", subsystemId);
 
         return saved;
     }
 
+    @Override
+    @Transactional
+    public List<RfcAffectedSubsystemEntity> updateStatuses(
+            List<SubsystemStatusChangeRequest> changes,
+            String comment,
+            UserEntity currentUser
+    ) {
+        log.info("Applying batch of {} subsystem status changes", changes.size());
+
+        // Загружаем все затронутые подсистемы участвующих RFC одним запросом
+        Set<Long> rfcIds = changes.stream()
+                .map(SubsystemStatusChangeRequest::getRfcId)
+                .collect(Collectors.toSet());
+        Map<AffectedSubsystemKey, RfcAffectedSubsystemEntity> affectedSubsystems = new HashMap<>();
+        for (RfcAffectedSubsystemEntity affectedSubsystem :
+                affectedSubsystemRepository.findByRfcIdInWithRfcAndExecutor(rfcIds)) {
+            affectedSubsystems.put(
+                    new AffectedSubsystemKey(affectedSubsystem.getRfc().getId(), affectedSubsystem.getSubsystem().getId()),
+                    affectedSubsystem
+            );
+        }
+
+        // Применяем изменения в памяти; любая ошибка откатывает весь пакет
+        Map<Long, RfcAffectedSubsystemEntity> updated = new LinkedHashMap<>();
+        List<RfcAffectedSubsystemHistoryEntity> historyRecords = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            SubsystemStatusChangeRequest change = changes.get(i);
+            RfcAffectedSubsystemEntity affectedSubsystem = affectedSubsystems.get(
+                    new AffectedSubsystemKey(change.getRfcId(), change.getSubsystemId()));
+            if (affectedSubsystem == null) {
+                log.warn("Affected subsystem not found: rfcId={}, subsystemId={}",
+                        change.getRfcId(), change.getSubsystemId());
+                throw new NotFoundException(String.format(
+                        "Изменение #%d: затронутая подсистема не найдена (RFC %d, подсистема %d)",
+                        i + 1, change.getRfcId(), change.getSubsystemId()));
+            }
+            if (change.getConfirmationStatus() == null && change.getExecutionStatus() == null) {
+                throw new ValidationException(String.format(
+                        "Изменение #%d: необходимо указать статус подтверждения или выполнения", i + 1));
+            }
+
+            validateAccess(affectedSubsystem, currentUser);
+
+            try {
+                if (change.getConfirmationStatus() != null) {
+                    ConfirmationStatus oldStatus = affectedSubsystem.getConfirmationStatus();
+                    statusValidator.validateConfirmationStatusTransition(oldStatus, change.getConfirmationStatus());
+                    affectedSubsystem.setConfirmationStatus(change.getConfirmationStatus());
+                    historyRecords.add(buildHistoryRecord(affectedSubsystem.getId(), "CONFIRMATION",
+                            oldStatus.name(), change.getConfirmationStatus().name(), currentUser));
+                }
+                if (change.getExecutionStatus() != null) {
+                    ExecutionStatus oldStatus = affectedSubsystem.getExecutionStatus();
+                    statusValidator.validateExecutionStatusTransition(oldStatus, change.getExecutionStatus());
+                    affectedSubsystem.setExecutionStatus(change.getExecutionStatus());
+                    historyRecords.add(buildHistoryRecord(affectedSubsystem.getId(), "EXECUTION",
+                            oldStatus.name(), change.getExecutionStatus().name(), currentUser));
+                }
+            } catch (ValidationException e) {
+                throw new ValidationException(String.format("Изменение #%d: %s", i + 1, e.getMessage()));
+            }
+
+            updated.put(affectedSubsystem.getId(), affectedSubsystem);
+        }
+
+        // Изменённые сущности управляемые — сохраняются при коммите, история пишется одним вызовом
+        historyRepository.saveAll(historyRecords);
+
+        // Пересчитываем статус каждого затронутого RFC один раз
+        Map<Long, RfcEntity> affectedRfcs = new LinkedHashMap<>();
+        updated.values().forEach(affectedSubsystem ->
+                affectedRfcs.putIfAbsent(affectedSubsystem.getRfc().getId(), affectedSubsystem.getRfc()));
+        affectedRfcs.values().forEach(rfcStatusSchedulerService::recalculateRfcStatus);
+        affectedRfcs.values().forEach(rfc ->
+                eventPublisher.publishEvent(RfcChangeEvent.updated(rfc, RfcChangeField.SUBSYSTEM_STATUSES)));
+
+        log.info("Batch status update completed: {} subsystems, {} history records, {} RFCs",
+                updated.size(), historyRecords.size(), affectedRfcs.size());
+
+        return new ArrayList<>(updated.values());
+    }
+
     private RfcAffectedSubsystemEntity findAffectedSubsystem(Long rfcId, Long subsystemId) {
         return affectedSubsystemRepository.findBySubsystemIdAndRfcId(subsystemId, rfcId)
                 .orElseThrow(() -> {
@@ -145,7 +246,19 @@ public class SubsystemStatusServiceImpl implements SubsystemStatusService {
             String newStatus,
             UserEntity changedBy
     ) {
-        RfcAffectedSubsystemHistoryEntity historyRecord = RfcAffectedSubsystemHistoryEntity.builder()
+        historyRepository.save(buildHistoryRecord(affectedSubsystemId, statusType, oldStatus, newStatus, changedBy));
+        log.debug("Created history record for subsystem {} status change: {} {} -> {}",
+                affectedSubsystemId, statusType, oldStatus, newStatus);
+    }
+
+    private RfcAffectedSubsystemHistoryEntity buildHistoryRecord(
+            Long affectedSubsystemId,
+            String statusType,
+            String oldStatus,
+            String newStatus,
+            UserEntity changedBy
+    ) {
+        return RfcAffectedSubsystemHistoryEntity.builder()
                 .rfcAffectedSubsystemId(affectedSubsystemId)
                 .operation(HistoryOperationType.UPDATE)
                 .statusType(statusType)
@@ -153,9 +266,8 @@ public class SubsystemStatusServiceImpl implements SubsystemStatusService {
                 .newStatus(newStatus)
                 .changedBy(changedBy)
                 .build();
+    }
 
-        historyRepository.save(historyRecord);
-        log.debug("Created history record for subsystem {} status change: {} {} -> {}",
-                affectedSubsystemId, statusType, oldStatus, newStatus);
+    private record AffectedSubsystemKey(Long rfcId, Long subsystemId) {
     }
-}
\ No newline at end of file
+}
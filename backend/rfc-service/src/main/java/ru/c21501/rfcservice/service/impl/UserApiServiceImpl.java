@@ -8,11 +8,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.c21501.rfcservice.client.KeycloakClient;
 import ru.c21501.rfcservice.client.dto.KeycloakTokenResponse;
+import ru.c21501.rfcservice.dto.response.user.UserProvisioningResult;
 import ru.c21501.rfcservice.mapper.UserMapper;
 import ru.c21501.rfcservice.model.entity.UserEntity;
 import ru.c21501.rfcservice.openapi.model.LoginRequest;
 import ru.c21501.rfcservice.openapi.model.LoginResponse;
 import ru.c21501.rfcservice.openapi.model.UpdateUserRequest;
+import ru.c21501.rfcservice.openapi.model.UserBatchCreateError;
+import ru.c21501.rfcservice.openapi.model.UserBatchCreateRequest;
+import ru.c21501.rfcservice.openapi.model.UserBatchCreateResponse;
 import ru.c21501.rfcservice.openapi.model.UserPageResponse;
 import ru.c21501.rfcservice.openapi.model.UserRequest;
 import ru.c21501.rfcservice.openapi.model.UserResponse;
@@ -20,6 +24,7 @@ import ru.c21501.rfcservice.service.SecurityContextService;
 import ru.c21501.rfcservice.service.UserApiService;
 import ru.c21501.rfcservice.service.UserService;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -52,6 +57,28 @@ public class UserApiServiceImpl implements UserApiService {
         return response;
     }
 
+    @Override
+    public UserBatchCreateResponse createUsers(UserBatchCreateRequest request) {
+        log.info("API: Creating {} users in batch", request.getUsers().size());
+
+        List<UserEntity> users = request.getUsers().stream().map(userMapper::toEntity).toList();
+        List<String> passwords = request.getUsers().stream().map(UserRequest::getPassword).toList();
+
+        List<UserProvisioningResult> results = userService.createUsers(users, passwords);
+
+        List<UserResponse> created = results.stream()
+                .filter(result -> result.getUser() != null)
+                .map(result -> userMapper.toResponse(result.getUser()))
+                .toList();
+        List<UserBatchCreateError> errors = results.stream()
+                .filter(result -> result.getError() != null)
+                .map(result -> new UserBatchCreateError(result.getIndex(), result.getUsername(), result.getError()))
+                .toList();
+
+        log.info("API: Batch user creation completed: created={}, failed={}", created.size(), errors.size());
+        return new UserBatchCreateResponse(results.size(), created, errors);
+    }
+
     @Override
     public UserResponse updateUser(Long id, UpdateUserRequest request) {
         log.info("API: Updating user with ID: {}", id);
@@ -1,7 +1,12 @@
 package ru.c21501.rfcservice.service.impl;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -12,14 +17,29 @@ import ru.c21501.rfcservice.client.dto.KeycloakCredentialDto;
 import ru.c21501.rfcservice.client.dto.KeycloakRoleDto;
 import ru.c21501.rfcservice.client.dto.KeycloakUserDto;
 import ru.c21501.rfcservice.config.PlankaConfig;
+import ru.c21501.rfcservice.config.ThreadConfig;
 import ru.c21501.rfcservice.exception.ResourceNotFoundException;
+import ru.c21501.rfcservice.dto.response.user.UserProvisioningResult;
 import ru.c21501.rfcservice.exception.UserAlreadyExistsException;
 import ru.c21501.rfcservice.model.entity.UserEntity;
+import ru.c21501.rfcservice.model.enums.UserRole;
 import ru.c21501.rfcservice.repository.UserRepository;
+import ru.c21501.rfcservice.service.PlankaUserIdentityService;
 import ru.c21501.rfcservice.service.UserService;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Реализация сервиса для работы с пользователями
@@ -33,6 +53,17 @@ public class UserServiceImpl implements UserService {
     private final KeycloakClient keycloakClient;
     private final PlankaClient plankaClient;
     private final PlankaConfig plankaConfig;
+    private final PlankaUserIdentityService plankaUserIdentityService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadFactory applicationThreadFactory;
+
+    /**
+     * Ограниченный пул для параллельных вызовов Keycloak и Planka при создании пользователей
+     */
+    private ExecutorService provisioningExecutor;
+
+    @Value("${app.user-provisioning.parallelism:8}")
+    private int provisioningParallelism;
 
     @Override
     @Transactional
@@ -46,42 +77,87 @@ public class UserServiceImpl implements UserService {
             );
         }
 
-        // Генерируем email если не указан
-        String email = userEntity.getEmail();
-        if (email == null || email.isBlank()) {
-            email = userEntity.getUsername() + "@local.domain";
-            userEntity.setEmail(email);
-        }
+        fillDefaultEmail(userEntity);
 
-        // Создаем пользователя в Keycloak с паролем
-        KeycloakUserDto keycloakUser = KeycloakUserDto.builder()
-                .username(userEntity.getUsername())
-                .firstName(userEntity.getFirstName())
-                .lastName(userEntity.getLastName())
-                .email(email)
-                .enabled(true)
-                .emailVerified(true) // проставляем verified=true
-                .credentials(List.of(KeycloakCredentialDto.password(password, false)))
-                .build();
+        // Создаем учетные записи в Keycloak и Planka (удаленные вызовы выполняются параллельно)
+        RemoteAccounts accounts = await(provisionRemoteAccounts(userEntity, password, lookupRealmRole(userEntity.getRole())));
+        userEntity.setKeycloakId(accounts.keycloakUserId());
+        userEntity.setPlankaUserId(accounts.plankaUserId());
 
-        String keycloakUserId = keycloakClient.createUser(keycloakUser);
-        log.info("User created in Keycloak with ID: {}", keycloakUserId);
+        // Сохраняем пользователя в БД; при ошибке удаляем созданные учетные записи
+        UserEntity savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(userEntity);
+        } catch (RuntimeException e) {
+            compensateRemoteAccounts(userEntity.getUsername(), accounts);
+            throw e;
+        }
+        log.info("User saved to database with ID: {}, keycloakId: {}, plankaUserId: {}", 
+                savedUser.getId(), savedUser.getKeycloakId(), savedUser.getPlankaUserId());
+        plankaUserIdentityService.register(savedUser);
 
-        // Назначаем роль пользователю в Keycloak
-        assignRoleToUser(keycloakUserId, userEntity.getRole());
+        return savedUser;
+    }
 
-        // Сохраняем keycloakId в сущность
-        userEntity.setKeycloakId(keycloakUserId);
+    @Override
+    public List<UserProvisioningResult> createUsers(List<UserEntity> users, List<String> passwords) {
+        log.info("Creating {} users in batch", users.size());
+
+        List<UserProvisioningResult> results = new ArrayList<>(users.size());
+        Map<Integer, CompletableFuture<RemoteAccounts>> provisioning = new LinkedHashMap<>();
+        Map<UserRole, CompletableFuture<KeycloakRoleDto>> roles = new EnumMap<>(UserRole.class);
+        Set<String> batchUsernames = new HashSet<>();
+
+        // Проверки без удаленных вызовов; удаленное создание запускается сразу для каждого пользователя,
+        // так что вызовы разных пользователей выполняются конвейерно на общем ограниченном пуле
+        for (int i = 0; i < users.size(); i++) {
+            UserEntity user = users.get(i);
+            results.add(UserProvisioningResult.builder().index(i).username(user.getUsername()).build());
+
+            if (!batchUsernames.add(user.getUsername())) {
+                results.get(i).setError("Повторяющееся имя пользователя в запросе");
+                continue;
+            }
+            if (userRepository.existsByUsername(user.getUsername())) {
+                results.get(i).setError(String.format("User with username '%s' already exists", user.getUsername()));
+                continue;
+            }
 
-        // Синхронизируем с Planka если интеграция включена
-        syncUserToPlanka(userEntity, password);
+            fillDefaultEmail(user);
+            // Роль Keycloak запрашивается один раз на пакет
+            CompletableFuture<KeycloakRoleDto> role = roles.computeIfAbsent(user.getRole(), this::lookupRealmRole);
+            provisioning.put(i, provisionRemoteAccounts(user, passwords.get(i), role));
+        }
 
-        // Сохраняем пользователя в БД
-        UserEntity savedUser = userRepository.save(userEntity);
-        log.info("User saved to database with ID: {}, keycloakId: {}, plankaUserId: {}", 
-                savedUser.getId(), savedUser.getKeycloakId(), savedUser.getPlankaUserId());
+        provisioning.forEach((index, future) -> {
+            UserEntity user = users.get(index);
+            UserProvisioningResult result = results.get(index);
+            RemoteAccounts accounts;
+            try {
+                accounts = await(future);
+            } catch (RuntimeException e) {
+                log.warn("Failed to provision user {}: {}", user.getUsername(), e.getMessage());
+                result.setError(e.getMessage());
+                return;
+            }
 
-        return savedUser;
+            user.setKeycloakId(accounts.keycloakUserId());
+            user.setPlankaUserId(accounts.plankaUserId());
+            try {
+                // Каждый пользователь сохраняется отдельно: ошибка одного не откатывает остальных
+                UserEntity savedUser = userRepository.save(user);
+                plankaUserIdentityService.register(savedUser);
+                result.setUser(savedUser);
+            } catch (RuntimeException e) {
+                log.warn("Failed to save user {}: {}", user.getUsername(), e.getMessage());
+                compensateRemoteAccounts(user.getUsername(), accounts);
+                result.setError("Не удалось сохранить пользователя: " + e.getMessage());
+            }
+        });
+
+        long created = results.stream().filter(result -> result.getUser() != null).count();
+        log.info("Batch user creation completed: {} of {} users created", created, users.size());
+        return results;
     }
 
     @Override
@@ -138,6 +214,7 @@ public class UserServiceImpl implements UserService {
         // Сохраняем обновленного пользователя
         UserEntity updatedUser = userRepository.save(existingUser);
         log.info("User updated successfully: {}", updatedUser.getId());
+        plankaUserIdentityService.register(updatedUser);
 
         return updatedUser;
     }
@@ -170,27 +247,10 @@ public class UserServiceImpl implements UserService {
 
         // Удаляем пользователя из БД
         userRepository.delete(user);
+        plankaUserIdentityService.evict(id);
         log.info("User deleted from database: {}", id);
     }
 
-    /**
-     * Назначает роль пользователю в Keycloak
-     */
-    private void assignRoleToUser(String keycloakUserId, ru.c21501.rfcservice.model.enums.UserRole userRole) {
-        log.info("Assigning role {} to user {}", userRole, keycloakUserId);
-
-        // Получаем роль из Keycloak по имени
-        KeycloakRoleDto role = keycloakClient.getRealmRole(userRole.name());
-
-        if (role != null) {
-            // Назначаем роль
-            keycloakClient.assignRealmRolesToUser(keycloakUserId, List.of(role));
-            log.info("Role {} assigned successfully", userRole);
-        } else {
-            log.warn("Role {} not found in Keycloak, skipping role assignment", userRole);
-        }
-    }
-
     /**
      * Обновляет роль пользователя в Keycloak
      */
@@ -246,6 +306,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @Timed("rfc.user.sync")
     public void syncUsersFromKeycloak() {
         log.info("Starting synchronization of users from Keycloak");
 
@@ -328,6 +389,7 @@ public class UserServiceImpl implements UserService {
                                 .build();
 
                         userRepository.save(newUser);
+                        plankaUserIdentityService.register(newUser);
                         log.debug("Created new user: {} ({})", newUser.getUsername(), newUser.getKeycloakId());
                         created++;
                     }
@@ -337,6 +399,9 @@ public class UserServiceImpl implements UserService {
                 }
             }
 
+            meterRegistry.counter("rfc.user.sync.seen").increment(keycloakUsers.size());
+            meterRegistry.counter("rfc.user.sync.changed", "change", "created").increment(created);
+            meterRegistry.counter("rfc.user.sync.changed", "change", "updated").increment(updated);
             log.info("User synchronization completed. Created: {}, Updated: {}, Skipped: {}", created, updated, skipped);
         } catch (Exception e) {
             log.error("Error during user synchronization from Keycloak: {}", e.getMessage(), e);
@@ -376,15 +441,17 @@ public class UserServiceImpl implements UserService {
     // ==================== PLANKA USER SYNC ====================
 
     /**
-     * Синхронизирует пользователя с Planka при создании
+     * Синхронизирует пользователя с Planka при создании.
+     * Ошибки Planka не прерывают создание пользователя
      * 
      * @param userEntity пользователь для синхронизации
      * @param password пароль пользователя (опционально для SSO)
+     * @return учетная запись в Planka (пустая, если синхронизация отключена или не удалась)
      */
-    private void syncUserToPlanka(UserEntity userEntity, String password) {
+    private PlankaAccount syncUserToPlanka(UserEntity userEntity, String password) {
         if (!plankaConfig.isEnabled() || !plankaConfig.isUserSync()) {
             log.debug("Planka user sync is disabled, skipping");
-            return;
+            return PlankaAccount.NONE;
         }
 
         log.info("Syncing user to Planka: username={}, email={}", userEntity.getUsername(), userEntity.getEmail());
@@ -401,32 +468,163 @@ public class UserServiceImpl implements UserService {
             if (existingUserId.isPresent()) {
                 // Пользователь уже существует - связываем
                 log.info("User already exists in Planka with ID: {}, linking", existingUserId.get());
-                userEntity.setPlankaUserId(existingUserId.get());
                 
                 // Обновляем данные в Planka
                 plankaClient.updateUser(existingUserId.get(), fullName, username, plankaRole);
-            } else {
-                // Создаем нового пользователя
-                // Для SSO пользователей пароль может быть null - Planka создаст SSO пользователя
-                Optional<String> plankaUserId = plankaClient.createUser(
-                        email, 
-                        fullName, 
-                        username, 
-                        password,  // Может быть null для SSO
-                        plankaRole
-                );
-
-                if (plankaUserId.isPresent()) {
-                    userEntity.setPlankaUserId(plankaUserId.get());
-                    log.info("User created in Planka with ID: {}", plankaUserId.get());
-                } else {
-                    log.warn("Failed to create user in Planka, continuing without plankaUserId");
-                }
+                return new PlankaAccount(existingUserId.get(), false);
             }
+
+            // Создаем нового пользователя
+            // Для SSO пользователей пароль может быть null - Planka создаст SSO пользователя
+            Optional<String> plankaUserId = plankaClient.createUser(
+                    email, 
+                    fullName, 
+                    username, 
+                    password,  // Может быть null для SSO
+                    plankaRole
+            );
+
+            if (plankaUserId.isPresent()) {
+                log.info("User created in Planka with ID: {}", plankaUserId.get());
+                return new PlankaAccount(plankaUserId.get(), true);
+            }
+            log.warn("Failed to create user in Planka, continuing without plankaUserId");
         } catch (Exception e) {
             // Не прерываем создание пользователя при ошибке Planka
             log.error("Error syncing user to Planka: {}", e.getMessage(), e);
         }
+        return PlankaAccount.NONE;
+    }
+
+    // ==================== PARALLEL PROVISIONING ====================
+
+    /**
+     * Генерирует email, если он не указан
+     */
+    private void fillDefaultEmail(UserEntity userEntity) {
+        if (userEntity.getEmail() == null || userEntity.getEmail().isBlank()) {
+            userEntity.setEmail(userEntity.getUsername() + "@local.domain");
+        }
+    }
+
+    /**
+     * Асинхронно получает описание роли Keycloak по имени
+     */
+    private CompletableFuture<KeycloakRoleDto> lookupRealmRole(UserRole userRole) {
+        return CompletableFuture.supplyAsync(() -> keycloakClient.getRealmRole(userRole.name()), provisioningExecutor);
+    }
+
+    /**
+     * Создает учетные записи пользователя в Keycloak и Planka.
+     * Независимые вызовы выполняются параллельно: создание пользователя в Keycloak, получение роли
+     * и синхронизация с Planka; роль назначается, когда готовы пользователь и роль.
+     * При ошибке уже созданные учетные записи удаляются, а future завершается с исключением
+     *
+     * @param userEntity данные пользователя (не изменяются)
+     * @param password   пароль пользователя
+     * @param role       future описания роли Keycloak (может быть общим для нескольких пользователей)
+     * @return future созданных учетных записей
+     */
+    private CompletableFuture<RemoteAccounts> provisionRemoteAccounts(UserEntity userEntity, String password,
+                                                                     CompletableFuture<KeycloakRoleDto> role) {
+        KeycloakUserDto keycloakUser = KeycloakUserDto.builder()
+                .username(userEntity.getUsername())
+                .firstName(userEntity.getFirstName())
+                .lastName(userEntity.getLastName())
+                .email(userEntity.getEmail())
+                .enabled(true)
+                .emailVerified(true) // проставляем verified=true
+                .credentials(List.of(KeycloakCredentialDto.password(password, false)))
+                .build();
+
+        CompletableFuture<String> keycloakUserId = CompletableFuture.supplyAsync(
+                () -> keycloakClient.createUser(keycloakUser), provisioningExecutor);
+        CompletableFuture<PlankaAccount> plankaAccount = CompletableFuture.supplyAsync(
+                () -> syncUserToPlanka(userEntity, password), provisioningExecutor);
+
+        // Назначаем роль пользователю в Keycloak
+        CompletableFuture<Void> roleAssigned = keycloakUserId.thenCombine(role, (userId, keycloakRole) -> {
+            if (keycloakRole != null) {
+                keycloakClient.assignRealmRolesToUser(userId, List.of(keycloakRole));
+                log.info("Role {} assigned to user {}", userEntity.getRole(), userId);
+            } else {
+                log.warn("Role {} not found in Keycloak, skipping role assignment", userEntity.getRole());
+            }
+            return null;
+        });
+
+        return CompletableFuture.allOf(roleAssigned, plankaAccount)
+                .handle((ignored, error) -> {
+                    // allOf завершается только после всех вызовов, поэтому состояние каждого известно
+                    RemoteAccounts accounts = new RemoteAccounts(
+                            keycloakUserId.isCompletedExceptionally() ? null : keycloakUserId.join(),
+                            plankaAccount.join().userId(),
+                            plankaAccount.join().created());
+                    if (error != null) {
+                        compensateRemoteAccounts(userEntity.getUsername(), accounts);
+                        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                    }
+                    log.info("User {} provisioned: keycloakId={}, plankaUserId={}",
+                            userEntity.getUsername(), accounts.keycloakUserId(), accounts.plankaUserId());
+                    return accounts;
+                });
+    }
+
+    /**
+     * Удаляет учетные записи, созданные для пользователя, создание которого не завершилось.
+     * Существующий пользователь Planka, с которым была выполнена связь, не удаляется
+     */
+    private void compensateRemoteAccounts(String username, RemoteAccounts accounts) {
+        log.warn("Rolling back remote accounts of user {}: keycloakId={}, createdPlankaUserId={}",
+                username, accounts.keycloakUserId(), accounts.plankaUserCreated() ? accounts.plankaUserId() : null);
+        if (accounts.keycloakUserId() != null) {
+            try {
+                keycloakClient.deleteUser(accounts.keycloakUserId());
+            } catch (Exception e) {
+                log.error("Failed to delete Keycloak user {} during rollback: {}", accounts.keycloakUserId(), e.getMessage());
+            }
+        }
+        if (accounts.plankaUserCreated() && accounts.plankaUserId() != null) {
+            plankaClient.deleteUser(accounts.plankaUserId());
+        }
+    }
+
+    /**
+     * Ожидает завершения future, пробрасывая исходное исключение
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PostConstruct
+    void initProvisioningExecutor() {
+        provisioningExecutor = Executors.newFixedThreadPool(Math.max(1, provisioningParallelism),
+                ThreadConfig.named(applicationThreadFactory, "user-provisioning-"));
+    }
+
+    @PreDestroy
+    void shutdownProvisioningExecutor() {
+        provisioningExecutor.shutdown();
+    }
+
+    /**
+     * Учетная запись в Planka: created - пользователь создан (а не связан с существующим)
+     */
+    private record PlankaAccount(String userId, boolean created) {
+        static final PlankaAccount NONE = new PlankaAccount(null, false);
+    }
+
+    /**
+     * Учетные записи пользователя во внешних системах
+     */
+    private record RemoteAccounts(String keycloakUserId, String plankaUserId, boolean plankaUserCreated) {
     }
 
     /**
@@ -101,14 +101,15 @@ public class RfcSpecification {
 
     /**
      * Создает спецификацию для фильтрации RFC по заданным параметрам
-     * Все фильтры применяются через AND
+     * Все фильтры применяются через AND, пустые параметры не ограничивают выборку
      *
      * @param status      фильтр по статусу
      * @param urgency     фильтр по срочности
      * @param requesterId фильтр по ID создателя
+     * @param title       фильтр по части названия без учета регистра
      * @return спецификация для фильтрации
      */
-    public static Specification<RfcEntity> withFilters(String status, String urgency, Long requesterId) {
+    public static Specification<RfcEntity> withFilters(String status, String urgency, Long requesterId, String title) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -140,6 +141,14 @@ public class RfcSpecification {
                 predicates.add(criteriaBuilder.equal(root.get("requester").get("id"), requesterId));
             }
 
+            // Фильтр по части названия
+            if (title != null && !title.trim().isEmpty()) {
+                predicates.add(criteriaBuilder.like(
+                        criteriaBuilder.lower(root.get("title")),
+                        "%" + title.trim().toLowerCase() + "%"
+                ));
+            }
+
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
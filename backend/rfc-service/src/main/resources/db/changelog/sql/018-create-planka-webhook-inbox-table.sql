@@ -0,0 +1,42 @@
+-- Create planka_webhook_inbox table for asynchronous processing of Planka webhooks
+CREATE TABLE planka_webhook_inbox (
+    id BIGSERIAL PRIMARY KEY,
+    webhook_type VARCHAR(32) NOT NULL,
+    event VARCHAR(64),
+    card_id VARCHAR(255),
+    dedup_key VARCHAR(128) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_datetime TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    last_error TEXT,
+    processed_datetime TIMESTAMPTZ,
+    create_datetime TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    update_datetime TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT chk_planka_webhook_inbox_type CHECK (webhook_type IN ('EVENT', 'CARD_MOVED', 'CARD_UPDATED')),
+    CONSTRAINT chk_planka_webhook_inbox_status CHECK (status IN ('PENDING', 'PROCESSING', 'DONE', 'DEAD'))
+);
+
+-- Create indexes
+CREATE INDEX idx_planka_webhook_inbox_pending ON planka_webhook_inbox(next_attempt_datetime, id)
+    WHERE status = 'PENDING';
+CREATE INDEX idx_planka_webhook_inbox_card_id ON planka_webhook_inbox(card_id, id)
+    WHERE status IN ('PENDING', 'PROCESSING');
+CREATE INDEX idx_planka_webhook_inbox_dedup_key ON planka_webhook_inbox(dedup_key, create_datetime);
+CREATE INDEX idx_planka_webhook_inbox_status_update ON planka_webhook_inbox(status, update_datetime);
+
+-- Add comments
+COMMENT ON TABLE planka_webhook_inbox IS 'Входящая очередь webhook-событий Planka для асинхронной обработки';
+COMMENT ON COLUMN planka_webhook_inbox.id IS 'Уникальный идентификатор (задает порядок обработки)';
+COMMENT ON COLUMN planka_webhook_inbox.webhook_type IS 'Эндпоинт, через который пришло событие: EVENT, CARD_MOVED, CARD_UPDATED';
+COMMENT ON COLUMN planka_webhook_inbox.event IS 'Тип события Planka';
+COMMENT ON COLUMN planka_webhook_inbox.card_id IS 'ID карточки Planka; события одной карточки обрабатываются по порядку';
+COMMENT ON COLUMN planka_webhook_inbox.dedup_key IS 'Хэш тела события для отбрасывания повторных доставок';
+COMMENT ON COLUMN planka_webhook_inbox.payload IS 'Тело webhook в формате JSON';
+COMMENT ON COLUMN planka_webhook_inbox.status IS 'Статус: PENDING, PROCESSING, DONE, DEAD (исчерпаны попытки)';
+COMMENT ON COLUMN planka_webhook_inbox.attempts IS 'Количество неудачных попыток обработки';
+COMMENT ON COLUMN planka_webhook_inbox.next_attempt_datetime IS 'Время, не раньше которого событие можно обрабатывать';
+COMMENT ON COLUMN planka_webhook_inbox.last_error IS 'Текст последней ошибки обработки';
+COMMENT ON COLUMN planka_webhook_inbox.processed_datetime IS 'Дата и время успешной обработки';
+COMMENT ON COLUMN planka_webhook_inbox.create_datetime IS 'Дата и время получения события';
+COMMENT ON COLUMN planka_webhook_inbox.update_datetime IS 'Дата и время последнего изменения записи';
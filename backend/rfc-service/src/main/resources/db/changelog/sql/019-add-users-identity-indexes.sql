@@ -0,0 +1,4 @@
+-- Case-insensitive lookup indexes for resolving Planka users to local users
+-- (plain indexes on planka_user_id and email already exist since 016)
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON "users"(LOWER(email)) WHERE email IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON "users"(LOWER(username));
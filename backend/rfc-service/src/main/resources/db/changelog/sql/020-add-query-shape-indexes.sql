@@ -0,0 +1,41 @@
+-- Indexes matching the actual query shapes (checked with EXPLAIN ANALYZE on 100k seeded RFCs)
+-- Created and dropped CONCURRENTLY so that existing installations keep accepting writes
+
+-- RFC list: every query filters deleted_datetime IS NULL and pages by update_datetime DESC, id DESC.
+-- Without these indexes the list and its count do a full scan of rfc plus a top-N sort
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rfc_active_update_datetime
+    ON rfc(update_datetime DESC, id DESC) WHERE deleted_datetime IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rfc_active_status_update_datetime
+    ON rfc(status, update_datetime DESC, id DESC) WHERE deleted_datetime IS NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rfc_active_requester_update_datetime
+    ON rfc(requester_id, update_datetime DESC, id DESC) WHERE deleted_datetime IS NULL;
+
+-- RFC history page: WHERE rfc_id = ? ORDER BY create_datetime DESC, without a separate sort
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rfc_history_rfc_id_create_datetime
+    ON rfc_history(rfc_id, create_datetime DESC);
+
+-- Subsystem status history: WHERE rfc_affected_subsystem_id IN (...) ORDER BY create_datetime
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rfc_affected_subsystem_history_subsystem_id_create_datetime
+    ON rfc_affected_subsystem_history(rfc_affected_subsystem_id, create_datetime);
+
+-- Executor work queue: subsystems of an executor in a given confirmation status
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rfc_affected_subsystem_executor_id_confirmation_status
+    ON rfc_affected_subsystem(executor_id, confirmation_status);
+
+-- Indexes covered by the composite indexes above or by unique constraints
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_history_rfc_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_affected_subsystem_history_subsystem_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_affected_subsystem_executor_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_affected_subsystem_rfc_id;         -- uk_rfc_affected_subsystem_rfc_subsystem
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_approval_rfc_id;                   -- uq_rfc_approval_rfc_approver
+
+-- Low-selectivity indexes that no query uses; they only slow down writes
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_deleted_datetime;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_urgency;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_history_operation;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_affected_subsystem_confirmation_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_affected_subsystem_execution_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_affected_subsystem_history_status_type;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_affected_subsystem_history_operation;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rfc_approval_is_approved;
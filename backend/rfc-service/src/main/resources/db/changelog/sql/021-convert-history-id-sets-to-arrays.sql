@@ -0,0 +1,30 @@
+-- Convert comma-separated id lists in rfc_history to sorted, distinct BIGINT[]
+-- (a subquery is not allowed in ALTER COLUMN ... USING, so the data goes through new columns)
+ALTER TABLE rfc_history
+    ADD COLUMN attachment_ids_array BIGINT[] NOT NULL DEFAULT '{}',
+    ADD COLUMN affected_subsystems_array BIGINT[] NOT NULL DEFAULT '{}';
+
+UPDATE rfc_history
+SET attachment_ids_array = ARRAY(
+        SELECT DISTINCT btrim(item)::BIGINT
+        FROM unnest(string_to_array(attachment_ids, ',')) AS item
+        WHERE btrim(item) <> ''
+        ORDER BY 1),
+    affected_subsystems_array = ARRAY(
+        SELECT DISTINCT btrim(item)::BIGINT
+        FROM unnest(string_to_array(affected_subsystems, ',')) AS item
+        WHERE btrim(item) <> ''
+        ORDER BY 1)
+WHERE attachment_ids IS NOT NULL OR affected_subsystems IS NOT NULL;
+
+ALTER TABLE rfc_history DROP COLUMN attachment_ids;
+ALTER TABLE rfc_history DROP COLUMN affected_subsystems;
+ALTER TABLE rfc_history RENAME COLUMN attachment_ids_array TO attachment_ids;
+ALTER TABLE rfc_history RENAME COLUMN affected_subsystems_array TO affected_subsystems;
+
+-- Reverse lookups: which history rows reference a file or an affected subsystem (@>, &&)
+CREATE INDEX idx_rfc_history_attachment_ids ON rfc_history USING GIN (attachment_ids);
+CREATE INDEX idx_rfc_history_affected_subsystems ON rfc_history USING GIN (affected_subsystems);
+
+COMMENT ON COLUMN rfc_history.attachment_ids IS 'ID прикрепленных файлов, отсортированные без повторов';
+COMMENT ON COLUMN rfc_history.affected_subsystems IS 'ID затронутых подсистем RFC (rfc_affected_subsystem), отсортированные без повторов';
@@ -0,0 +1,88 @@
+-- Delta-encoded RFC history: a row stores only fields changed since the previous version of the RFC,
+-- every 10th version (1, 11, 21, ...) is a full checkpoint. changed_fields bits (HistoryField):
+-- 1 title, 2 description, 4 implementation_date, 8 urgency, 16 status, 32 requester_id,
+-- 64 attachment_ids, 128 affected_subsystems; 255 - all fields (checkpoint)
+ALTER TABLE rfc_history
+    ADD COLUMN version INTEGER,
+    ADD COLUMN is_snapshot BOOLEAN NOT NULL DEFAULT TRUE,
+    ADD COLUMN changed_fields INTEGER NOT NULL DEFAULT 255;
+
+ALTER TABLE rfc_history
+    ALTER COLUMN title DROP NOT NULL,
+    ALTER COLUMN implementation_date DROP NOT NULL,
+    ALTER COLUMN urgency DROP NOT NULL,
+    ALTER COLUMN status DROP NOT NULL,
+    ALTER COLUMN requester_id DROP NOT NULL,
+    ALTER COLUMN attachment_ids DROP NOT NULL,
+    ALTER COLUMN attachment_ids DROP DEFAULT,
+    ALTER COLUMN affected_subsystems DROP NOT NULL,
+    ALTER COLUMN affected_subsystems DROP DEFAULT;
+
+-- Compact existing full snapshots: number versions per RFC and null out fields equal to the previous version
+-- (the subquery reads the rows as they were before the UPDATE)
+UPDATE rfc_history h
+SET version = v.version,
+    is_snapshot = v.is_snapshot,
+    changed_fields = v.changed_fields,
+    title = CASE WHEN v.changed_fields & 1 <> 0 THEN h.title END,
+    description = CASE WHEN v.changed_fields & 2 <> 0 THEN h.description END,
+    implementation_date = CASE WHEN v.changed_fields & 4 <> 0 THEN h.implementation_date END,
+    urgency = CASE WHEN v.changed_fields & 8 <> 0 THEN h.urgency END,
+    status = CASE WHEN v.changed_fields & 16 <> 0 THEN h.status END,
+    requester_id = CASE WHEN v.changed_fields & 32 <> 0 THEN h.requester_id END,
+    attachment_ids = CASE WHEN v.changed_fields & 64 <> 0 THEN h.attachment_ids END,
+    affected_subsystems = CASE WHEN v.changed_fields & 128 <> 0 THEN h.affected_subsystems END
+FROM (
+    SELECT c.id,
+           c.version,
+           c.is_snapshot,
+           CASE WHEN c.is_snapshot THEN 255
+                ELSE (CASE WHEN c.title IS DISTINCT FROM c.prev_title THEN 1 ELSE 0 END)
+                   | (CASE WHEN c.description IS DISTINCT FROM c.prev_description THEN 2 ELSE 0 END)
+                   | (CASE WHEN c.implementation_date IS DISTINCT FROM c.prev_implementation_date THEN 4 ELSE 0 END)
+                   | (CASE WHEN c.urgency IS DISTINCT FROM c.prev_urgency THEN 8 ELSE 0 END)
+                   | (CASE WHEN c.status IS DISTINCT FROM c.prev_status THEN 16 ELSE 0 END)
+                   | (CASE WHEN c.requester_id IS DISTINCT FROM c.prev_requester_id THEN 32 ELSE 0 END)
+                   | (CASE WHEN c.attachment_ids IS DISTINCT FROM c.prev_attachment_ids THEN 64 ELSE 0 END)
+                   | (CASE WHEN c.affected_subsystems IS DISTINCT FROM c.prev_affected_subsystems THEN 128 ELSE 0 END)
+           END AS changed_fields
+    FROM (
+        SELECT id, title, description, implementation_date, urgency, status, requester_id,
+               attachment_ids, affected_subsystems,
+               row_number() OVER w AS version,
+               (row_number() OVER w - 1) % 10 = 0 AS is_snapshot,
+               lag(title) OVER w AS prev_title,
+               lag(description) OVER w AS prev_description,
+               lag(implementation_date) OVER w AS prev_implementation_date,
+               lag(urgency) OVER w AS prev_urgency,
+               lag(status) OVER w AS prev_status,
+               lag(requester_id) OVER w AS prev_requester_id,
+               lag(attachment_ids) OVER w AS prev_attachment_ids,
+               lag(affected_subsystems) OVER w AS prev_affected_subsystems
+        FROM rfc_history
+        WINDOW w AS (PARTITION BY rfc_id ORDER BY create_datetime, id)
+    ) c
+) v
+WHERE v.id = h.id;
+-- The UPDATE leaves the previous full row versions as dead tuples: the space is reused after autovacuum,
+-- VACUUM FULL rfc_history (or pg_repack) in a maintenance window returns it to the OS
+
+ALTER TABLE rfc_history
+    ALTER COLUMN version SET NOT NULL,
+    ALTER COLUMN is_snapshot DROP DEFAULT,
+    ALTER COLUMN changed_fields DROP DEFAULT;
+
+-- One row per version; also serves history reads by rfc_id ordered by version,
+-- which replaces the (rfc_id, create_datetime) index
+ALTER TABLE rfc_history ADD CONSTRAINT uq_rfc_history_rfc_id_version UNIQUE (rfc_id, version);
+DROP INDEX IF EXISTS idx_rfc_history_rfc_id_create_datetime;
+
+ALTER TABLE rfc_history ADD CONSTRAINT chk_rfc_history_snapshot_complete
+    CHECK (NOT is_snapshot OR (changed_fields = 255
+        AND title IS NOT NULL AND implementation_date IS NOT NULL AND urgency IS NOT NULL AND status IS NOT NULL
+        AND requester_id IS NOT NULL AND attachment_ids IS NOT NULL AND affected_subsystems IS NOT NULL));
+
+COMMENT ON TABLE rfc_history IS 'История версий RFC: дельты к предыдущей версии и полные checkpoint каждые N версий';
+COMMENT ON COLUMN rfc_history.version IS 'Номер версии RFC, начиная с 1';
+COMMENT ON COLUMN rfc_history.is_snapshot IS 'Полная версия (checkpoint), с которой начинается восстановление';
+COMMENT ON COLUMN rfc_history.changed_fields IS 'Битовая маска заполненных полей (HistoryField): 1 title, 2 description, 4 implementation_date, 8 urgency, 16 status, 32 requester_id, 64 attachment_ids, 128 affected_subsystems';
@@ -0,0 +1,26 @@
+-- Creates missing monthly partitions <parent>_YYYY_MM of a history table for every month (UTC)
+-- from from_month to to_month inclusive. Returns the number of created partitions.
+-- Used by the migration and by HistoryArchiveService for partitions ahead of time.
+CREATE OR REPLACE FUNCTION create_history_partitions(parent_table TEXT, from_month TIMESTAMPTZ, to_month TIMESTAMPTZ)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', from_month AT TIME ZONE 'UTC');
+    last_month TIMESTAMP := date_trunc('month', to_month AT TIME ZONE 'UTC');
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        partition_name := parent_table || '_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, parent_table,
+                           month_start AT TIME ZONE 'UTC', (month_start + INTERVAL '1 month') AT TIME ZONE 'UTC');
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$;
@@ -0,0 +1,163 @@
+-- Convert the append-only history tables into monthly range partitions by create_datetime (UTC months,
+-- partitions <table>_YYYY_MM). Old months are detached and archived to files by HistoryArchiveService,
+-- new months are created ahead of time by the same service (create_history_partitions).
+-- The primary key of a partitioned table must contain the partition key, so it becomes (id, create_datetime);
+-- ids still come from the original sequences and stay unique.
+
+-- rfc_history: free the index and constraint names of the old table, then create the partitioned one
+ALTER TABLE rfc_history RENAME TO rfc_history_unpartitioned;
+ALTER SEQUENCE rfc_history_id_seq OWNED BY NONE;
+ALTER TABLE rfc_history_unpartitioned
+    DROP CONSTRAINT rfc_history_pkey,
+    DROP CONSTRAINT uq_rfc_history_rfc_id_version;
+DROP INDEX IF EXISTS idx_rfc_history_changed_by_id;
+DROP INDEX IF EXISTS idx_rfc_history_create_datetime;
+DROP INDEX IF EXISTS idx_rfc_history_attachment_ids;
+DROP INDEX IF EXISTS idx_rfc_history_affected_subsystems;
+
+CREATE TABLE rfc_history (
+    id BIGINT NOT NULL DEFAULT nextval('rfc_history_id_seq'),
+    rfc_id BIGINT NOT NULL,
+    version INTEGER NOT NULL,
+    is_snapshot BOOLEAN NOT NULL,
+    changed_fields INTEGER NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    changed_by_id BIGINT NOT NULL,
+    title VARCHAR(255),
+    description TEXT,
+    implementation_date TIMESTAMPTZ,
+    urgency VARCHAR(50),
+    status VARCHAR(50),
+    requester_id BIGINT,
+    attachment_ids BIGINT[],
+    affected_subsystems BIGINT[],
+    create_datetime TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT fk_rfc_history_rfc FOREIGN KEY (rfc_id) REFERENCES rfc(id) ON DELETE CASCADE,
+    CONSTRAINT fk_rfc_history_changed_by FOREIGN KEY (changed_by_id) REFERENCES "users"(id) ON DELETE RESTRICT,
+    CONSTRAINT fk_rfc_history_requester FOREIGN KEY (requester_id) REFERENCES "users"(id) ON DELETE RESTRICT,
+    CONSTRAINT chk_rfc_history_operation CHECK (operation IN ('CREATE', 'UPDATE', 'DELETE', 'STATUS_CHANGE')),
+    CONSTRAINT chk_rfc_history_urgency CHECK (urgency IN ('EMERGENCY', 'URGENT', 'PLANNED')),
+    CONSTRAINT chk_rfc_history_status CHECK (status IN ('NEW', 'UNDER_REVIEW', 'APPROVED', 'IMPLEMENTED', 'REJECTED')),
+    CONSTRAINT chk_rfc_history_snapshot_complete CHECK (NOT is_snapshot OR (changed_fields = 255
+        AND title IS NOT NULL AND implementation_date IS NOT NULL AND urgency IS NOT NULL AND status IS NOT NULL
+        AND requester_id IS NOT NULL AND attachment_ids IS NOT NULL AND affected_subsystems IS NOT NULL))
+) PARTITION BY RANGE (create_datetime);
+
+SELECT create_history_partitions('rfc_history',
+                                 COALESCE((SELECT min(create_datetime) FROM rfc_history_unpartitioned), NOW()),
+                                 GREATEST(COALESCE((SELECT max(create_datetime) FROM rfc_history_unpartitioned), NOW()),
+                                          NOW()) + INTERVAL '3 months');
+
+INSERT INTO rfc_history (id, rfc_id, version, is_snapshot, changed_fields, operation, changed_by_id, title, description,
+                         implementation_date, urgency, status, requester_id, attachment_ids, affected_subsystems,
+                         create_datetime)
+SELECT id, rfc_id, version, is_snapshot, changed_fields, operation, changed_by_id, title, description,
+       implementation_date, urgency, status, requester_id, attachment_ids, affected_subsystems, create_datetime
+FROM rfc_history_unpartitioned;
+
+DROP TABLE rfc_history_unpartitioned;
+ALTER SEQUENCE rfc_history_id_seq OWNED BY rfc_history.id;
+
+ALTER TABLE rfc_history ADD CONSTRAINT rfc_history_pkey PRIMARY KEY (id, create_datetime);
+-- Uniqueness of (rfc_id, version) cannot be enforced across partitions without the partition key;
+-- versions are assigned by RfcHistoryService.recordVersion
+CREATE INDEX idx_rfc_history_rfc_id_version ON rfc_history(rfc_id, version);
+CREATE INDEX idx_rfc_history_changed_by_id ON rfc_history(changed_by_id);
+CREATE INDEX idx_rfc_history_attachment_ids ON rfc_history USING GIN (attachment_ids);
+CREATE INDEX idx_rfc_history_affected_subsystems ON rfc_history USING GIN (affected_subsystems);
+
+-- rfc_affected_subsystem_history
+ALTER TABLE rfc_affected_subsystem_history RENAME TO rfc_affected_subsystem_history_unpartitioned;
+ALTER SEQUENCE rfc_affected_subsystem_history_id_seq OWNED BY NONE;
+ALTER TABLE rfc_affected_subsystem_history_unpartitioned DROP CONSTRAINT rfc_affected_subsystem_history_pkey;
+DROP INDEX IF EXISTS idx_rfc_affected_subsystem_history_changed_by_id;
+DROP INDEX IF EXISTS idx_rfc_affected_subsystem_history_create_datetime;
+DROP INDEX IF EXISTS idx_rfc_affected_subsystem_history_subsystem_id_create_datetime;
+
+CREATE TABLE rfc_affected_subsystem_history (
+    id BIGINT NOT NULL DEFAULT nextval('rfc_affected_subsystem_history_id_seq'),
+    rfc_affected_subsystem_id BIGINT NOT NULL,
+    operation VARCHAR(20) NOT NULL DEFAULT 'UPDATE',
+    status_type VARCHAR(50) NOT NULL,
+    old_status VARCHAR(50),
+    new_status VARCHAR(50) NOT NULL,
+    changed_by_id BIGINT NOT NULL,
+    create_datetime TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT fk_rfc_affected_subsystem_history_subsystem FOREIGN KEY (rfc_affected_subsystem_id)
+        REFERENCES rfc_affected_subsystem(id) ON DELETE CASCADE,
+    CONSTRAINT fk_rfc_affected_subsystem_history_changed_by FOREIGN KEY (changed_by_id)
+        REFERENCES "users"(id) ON DELETE RESTRICT,
+    CONSTRAINT chk_rfc_affected_subsystem_history_operation CHECK (operation IN ('CREATE', 'UPDATE', 'DELETE')),
+    CONSTRAINT chk_rfc_affected_subsystem_history_status_type CHECK (status_type IN ('CONFIRMATION', 'EXECUTION')),
+    CONSTRAINT chk_rfc_affected_subsystem_history_confirmation CHECK (status_type <> 'CONFIRMATION' OR (
+        (old_status IS NULL OR old_status IN ('PENDING', 'CONFIRMED', 'REJECTED'))
+        AND new_status IN ('PENDING', 'CONFIRMED', 'REJECTED'))),
+    CONSTRAINT chk_rfc_affected_subsystem_history_execution CHECK (status_type <> 'EXECUTION' OR (
+        (old_status IS NULL OR old_status IN ('PENDING', 'IN_PROGRESS', 'DONE'))
+        AND new_status IN ('PENDING', 'IN_PROGRESS', 'DONE')))
+) PARTITION BY RANGE (create_datetime);
+
+SELECT create_history_partitions('rfc_affected_subsystem_history',
+                                 COALESCE((SELECT min(create_datetime)
+                                           FROM rfc_affected_subsystem_history_unpartitioned), NOW()),
+                                 GREATEST(COALESCE((SELECT max(create_datetime)
+                                                    FROM rfc_affected_subsystem_history_unpartitioned), NOW()),
+                                          NOW()) + INTERVAL '3 months');
+
+INSERT INTO rfc_affected_subsystem_history (id, rfc_affected_subsystem_id, operation, status_type, old_status,
+                                            new_status, changed_by_id, create_datetime)
+SELECT id, rfc_affected_subsystem_id, operation, status_type, old_status, new_status, changed_by_id, create_datetime
+FROM rfc_affected_subsystem_history_unpartitioned;
+
+DROP TABLE rfc_affected_subsystem_history_unpartitioned;
+ALTER SEQUENCE rfc_affected_subsystem_history_id_seq OWNED BY rfc_affected_subsystem_history.id;
+
+ALTER TABLE rfc_affected_subsystem_history
+    ADD CONSTRAINT rfc_affected_subsystem_history_pkey PRIMARY KEY (id, create_datetime);
+CREATE INDEX idx_rfc_affected_subsystem_history_changed_by_id ON rfc_affected_subsystem_history(changed_by_id);
+CREATE INDEX idx_rfc_affected_subsystem_history_subsystem_id_create_datetime
+    ON rfc_affected_subsystem_history(rfc_affected_subsystem_id, create_datetime);
+
+-- Archived (detached and exported) partitions; the files are described in README (History archive)
+CREATE TABLE history_archive (
+    id BIGSERIAL PRIMARY KEY,
+    table_name VARCHAR(63) NOT NULL,
+    partition_name VARCHAR(63) NOT NULL,
+    range_start TIMESTAMPTZ NOT NULL,
+    range_end TIMESTAMPTZ NOT NULL,
+    file_path VARCHAR(1024) NOT NULL,
+    row_count BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    ref_ids BIGINT[] NOT NULL,
+    archived_datetime TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_history_archive_partition_name UNIQUE (partition_name)
+);
+
+CREATE INDEX idx_history_archive_ref_ids ON history_archive USING GIN (ref_ids);
+
+COMMENT ON TABLE rfc_history IS 'История версий RFC: дельты к предыдущей версии и полные checkpoint каждые N версий; помесячные партиции по create_datetime';
+COMMENT ON COLUMN rfc_history.id IS 'Уникальный идентификатор записи';
+COMMENT ON COLUMN rfc_history.rfc_id IS 'ID RFC';
+COMMENT ON COLUMN rfc_history.version IS 'Номер версии RFC, начиная с 1';
+COMMENT ON COLUMN rfc_history.is_snapshot IS 'Полная версия (checkpoint), с которой начинается восстановление';
+COMMENT ON COLUMN rfc_history.changed_fields IS 'Битовая маска заполненных полей (HistoryField): 1 title, 2 description, 4 implementation_date, 8 urgency, 16 status, 32 requester_id, 64 attachment_ids, 128 affected_subsystems';
+COMMENT ON COLUMN rfc_history.operation IS 'Тип операции: CREATE, UPDATE, DELETE, STATUS_CHANGE';
+COMMENT ON COLUMN rfc_history.changed_by_id IS 'ID пользователя, выполнившего изменение';
+COMMENT ON COLUMN rfc_history.attachment_ids IS 'ID прикрепленных файлов, отсортированные без повторов';
+COMMENT ON COLUMN rfc_history.affected_subsystems IS 'ID затронутых подсистем RFC (rfc_affected_subsystem), отсортированные без повторов';
+COMMENT ON COLUMN rfc_history.create_datetime IS 'Дата и время изменения (ключ партиционирования)';
+
+COMMENT ON TABLE rfc_affected_subsystem_history IS 'Таблица истории изменений статусов подсистем RFC; помесячные партиции по create_datetime';
+COMMENT ON COLUMN rfc_affected_subsystem_history.rfc_affected_subsystem_id IS 'ID затронутой подсистемы RFC';
+COMMENT ON COLUMN rfc_affected_subsystem_history.status_type IS 'Тип статуса: CONFIRMATION или EXECUTION';
+COMMENT ON COLUMN rfc_affected_subsystem_history.create_datetime IS 'Дата и время изменения статуса (ключ партиционирования)';
+
+COMMENT ON TABLE history_archive IS 'Партиции истории, выгруженные в файлы и отсоединенные от таблиц';
+COMMENT ON COLUMN history_archive.table_name IS 'Таблица истории: rfc_history или rfc_affected_subsystem_history';
+COMMENT ON COLUMN history_archive.partition_name IS 'Имя отсоединенной партиции (<table>_YYYY_MM)';
+COMMENT ON COLUMN history_archive.range_start IS 'Начало диапазона create_datetime (включительно)';
+COMMENT ON COLUMN history_archive.range_end IS 'Конец диапазона create_datetime (не включительно)';
+COMMENT ON COLUMN history_archive.file_path IS 'Путь к файлу архива (JSON Lines, gzip)';
+COMMENT ON COLUMN history_archive.row_count IS 'Количество строк в файле';
+COMMENT ON COLUMN history_archive.sha256 IS 'SHA-256 файла архива (hex)';
+COMMENT ON COLUMN history_archive.ref_ids IS 'ID, по которым читается архив: rfc_id для rfc_history, rfc_affected_subsystem_id для rfc_affected_subsystem_history';
@@ -0,0 +1,77 @@
+-- Status changes made in Planka were stored as text in rfc_history.description:
+-- "Статус изменен с X на Y через Planka" followed by an OIDC/SSO block with the Planka user.
+-- They get dedicated per-row columns (not delta-encoded, not part of changed_fields),
+-- and description keeps the RFC description only.
+ALTER TABLE rfc_history
+    ADD COLUMN old_status VARCHAR(50),
+    ADD COLUMN new_status VARCHAR(50),
+    ADD COLUMN source VARCHAR(20),
+    ADD COLUMN external_actor VARCHAR(255);
+
+-- Values are taken from reconstructed versions rather than parsed from the text:
+-- *_group numbers the rows that store a field, first_value() over the group is the field value at each version.
+-- The status change text is skipped when looking for the description, so it falls back to the last real one.
+UPDATE rfc_history h
+SET old_status = v.old_status,
+    new_status = v.new_status,
+    source = v.source,
+    external_actor = v.external_actor,
+    description = v.new_description,
+    changed_fields = v.new_changed_fields
+FROM (
+    SELECT e.id,
+           e.create_datetime,
+           CASE WHEN e.operation = 'STATUS_CHANGE' THEN lag(e.status) OVER w END AS old_status,
+           CASE WHEN e.operation = 'STATUS_CHANGE' THEN e.status END AS new_status,
+           CASE WHEN e.operation = 'STATUS_CHANGE' THEN 'PLANKA' END AS source,
+           CASE WHEN e.operation = 'STATUS_CHANGE' AND e.raw_description LIKE '%Planka User ID:%' THEN
+               left(format('%s <%s> (Planka ID %s)',
+                           coalesce(substring(e.raw_description FROM 'Planka Username: ([^\n]*)'), 'N/A'),
+                           coalesce(substring(e.raw_description FROM 'Planka Email: ([^\n]*)'), 'N/A'),
+                           coalesce(substring(e.raw_description FROM 'Planka User ID: ([^\n]*)'), 'N/A')), 255)
+           END AS external_actor,
+           CASE WHEN e.is_snapshot OR e.description IS DISTINCT FROM lag(e.description) OVER w
+                THEN e.description END AS new_description,
+           CASE WHEN e.is_snapshot THEN 255
+                WHEN e.description IS DISTINCT FROM lag(e.description) OVER w THEN e.changed_fields | 2
+                ELSE e.changed_fields & ~2
+           END AS new_changed_fields
+    FROM (
+        SELECT g.id, g.create_datetime, g.rfc_id, g.version, g.operation, g.is_snapshot, g.changed_fields,
+               first_value(g.description) OVER (PARTITION BY g.rfc_id, g.description_group ORDER BY g.version)
+                   AS description,
+               first_value(g.description) OVER (PARTITION BY g.rfc_id, g.raw_description_group ORDER BY g.version)
+                   AS raw_description,
+               first_value(g.status) OVER (PARTITION BY g.rfc_id, g.status_group ORDER BY g.version) AS status
+        FROM (
+            SELECT id, create_datetime, rfc_id, version, operation, is_snapshot, changed_fields, description, status,
+                   count(*) FILTER (WHERE changed_fields & 2 <> 0
+                       AND (description IS NULL OR description NOT LIKE 'Статус изменен с % через Planka%')) OVER r
+                       AS description_group,
+                   count(*) FILTER (WHERE changed_fields & 2 <> 0) OVER r AS raw_description_group,
+                   count(*) FILTER (WHERE changed_fields & 16 <> 0) OVER r AS status_group
+            FROM rfc_history
+            WINDOW r AS (PARTITION BY rfc_id ORDER BY version)
+        ) g
+    ) e
+    WINDOW w AS (PARTITION BY e.rfc_id ORDER BY e.version)
+) v
+WHERE v.id = h.id
+  AND v.create_datetime = h.create_datetime
+  AND (v.source IS NOT NULL
+       OR v.new_description IS DISTINCT FROM h.description
+       OR v.new_changed_fields <> h.changed_fields);
+
+ALTER TABLE rfc_history
+    ADD CONSTRAINT chk_rfc_history_old_status
+        CHECK (old_status IN ('NEW', 'UNDER_REVIEW', 'APPROVED', 'IMPLEMENTED', 'REJECTED')),
+    ADD CONSTRAINT chk_rfc_history_new_status
+        CHECK (new_status IN ('NEW', 'UNDER_REVIEW', 'APPROVED', 'IMPLEMENTED', 'REJECTED')),
+    ADD CONSTRAINT chk_rfc_history_source CHECK (source IN ('PLANKA', 'SYSTEM', 'USER')),
+    ADD CONSTRAINT chk_rfc_history_status_change
+        CHECK (operation <> 'STATUS_CHANGE' OR (new_status IS NOT NULL AND source IS NOT NULL));
+
+COMMENT ON COLUMN rfc_history.old_status IS 'STATUS_CHANGE: статус RFC до изменения';
+COMMENT ON COLUMN rfc_history.new_status IS 'STATUS_CHANGE: статус RFC после изменения';
+COMMENT ON COLUMN rfc_history.source IS 'STATUS_CHANGE: источник изменения статуса (PLANKA, SYSTEM, USER)';
+COMMENT ON COLUMN rfc_history.external_actor IS 'STATUS_CHANGE: пользователь внешней системы, например "username <email> (Planka ID 1)"';
@@ -0,0 +1,6 @@
+-- Claim token of planka_webhook_inbox: a worker whose claim was released as stale must not process or overwrite the event
+ALTER TABLE planka_webhook_inbox ADD COLUMN claim_token UUID;
+
+COMMENT ON COLUMN planka_webhook_inbox.claim_token IS 'Метка захвата события пакетом обработки; сбрасывается при возврате в очередь';
+COMMENT ON COLUMN planka_webhook_inbox.dedup_key IS 'Хэш исходного тела запроса для отбрасывания повторных доставок';
+COMMENT ON COLUMN planka_webhook_inbox.payload IS 'Исходное тело webhook (JSON)';
@@ -0,0 +1,8 @@
+-- Ids of rfc, rfc_affected_subsystem and both history tables are allocated by Hibernate from pooled sequences
+-- (allocationSize = 50): one nextval reserves the 50 ids ending at the returned value, so inserts are no longer
+-- bound to IDENTITY and can be sent in JDBC batches. A column DEFAULT nextval takes the upper end of a block
+-- that no Hibernate pool receives, so plain SQL inserts stay safe; ids merely get gaps.
+ALTER SEQUENCE rfc_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rfc_affected_subsystem_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rfc_affected_subsystem_history_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rfc_history_id_seq INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Last archived version of each RFC: numbering continues from it when the whole RFC history was archived
+ALTER TABLE history_archive ADD COLUMN ref_versions INTEGER[];
+
+COMMENT ON COLUMN history_archive.ref_versions IS 'Для rfc_history: последняя версия каждого RFC в архиве, по позициям ref_ids; NULL для rfc_affected_subsystem_history и архивов до этой колонки';
@@ -0,0 +1,121 @@
+package ru.c21501.rfcservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.c21501.rfcservice.RfcServiceApplication;
+import ru.c21501.rfcservice.model.entity.RfcHistoryEntity;
+import ru.c21501.rfcservice.openapi.model.RfcHistoryResponse;
+import ru.c21501.rfcservice.openapi.model.RfcRequest;
+import ru.c21501.rfcservice.service.HistoryArchiveService;
+import ru.c21501.rfcservice.service.RfcApiService;
+import ru.c21501.rfcservice.service.RfcHistoryService;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Изменение RFC, вся история которого выгружена в архив: новая версия продолжает архивную нумерацию,
+ * а полная история с архивом читается без повторяющихся версий
+ */
+class ArchivedRfcEditTest {
+
+    private static final int RFC_COUNT = 10;
+    private static final int HISTORY_PER_RFC = 3;
+    private static final long ARCHIVED_RFC_ID = 1;
+    private static final String ARCHIVED_MONTH = "2022-01-01";
+
+    private static EmbeddedPostgres postgres;
+    private static KeycloakStub keycloak;
+    private static ConfigurableApplicationContext application;
+    private static Dataset dataset;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        keycloak = new KeycloakStub(Duration.ZERO, LoadActor.ALL);
+        keycloak.start();
+        application = new SpringApplicationBuilder(RfcServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + keycloak.issuer(),
+                        "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + keycloak.jwkSetUri(),
+                        "--keycloak.auth-server-url=" + keycloak.baseUrl(),
+                        "--keycloak.realm=" + KeycloakStub.REALM,
+                        "--planka.enabled=false",
+                        "--app.history.archive.directory=" + Files.createTempDirectory("rfc-history-archive"),
+                        "--app.file.storage-path=" + Files.createTempDirectory("rfc-archive-uploads"),
+                        "--logging.level.ru.c21501.rfcservice=WARN",
+                        "--logging.level.org.springframework=WARN");
+        dataset = new DatasetSeeder(application.getBean(DataSource.class)).seed(RFC_COUNT, HISTORY_PER_RFC);
+        jdbc = new JdbcTemplate(application.getBean(DataSource.class));
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        SecurityContextHolder.clearContext();
+        if (application != null) {
+            application.close();
+        }
+        if (keycloak != null) {
+            keycloak.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void editAfterWholeHistoryArchivedContinuesVersionNumbering() {
+        // Вся история RFC переносится в месяц старше срока хранения и выгружается в архив
+        jdbc.queryForList("SELECT create_history_partitions('rfc_history', CAST(? AS timestamptz), CAST(? AS timestamptz))",
+                ARCHIVED_MONTH, ARCHIVED_MONTH);
+        jdbc.update("UPDATE rfc_history SET create_datetime = CAST(? AS timestamptz) + version * interval '1 minute' "
+                + "WHERE rfc_id = ?", ARCHIVED_MONTH, ARCHIVED_RFC_ID);
+        HistoryArchiveService historyArchiveService = application.getBean(HistoryArchiveService.class);
+        historyArchiveService.archivePartition("rfc_history_2022_01");
+        int archivedVersion = HISTORY_PER_RFC;
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM rfc_history WHERE rfc_id = ?", Long.class, ARCHIVED_RFC_ID))
+                .isZero();
+        assertThat(historyArchiveService.findLastArchivedVersion(ARCHIVED_RFC_ID)).isEqualTo(archivedVersion);
+
+        LoadActor admin = dataset.admin();
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                admin.keycloakId(), null, List.of(new SimpleGrantedAuthority("ROLE_" + admin.role().name()))));
+        Map<String, Object> body = LoadScenario.updateRequest(dataset, ARCHIVED_RFC_ID);
+        RfcRequest request = application.getBean(ObjectMapper.class).convertValue(body, RfcRequest.class);
+        new TransactionTemplate(application.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> application.getBean(RfcApiService.class)
+                        .updateRfc(ARCHIVED_RFC_ID, request));
+
+        assertThat(jdbc.queryForList("SELECT version FROM rfc_history WHERE rfc_id = ?", Integer.class, ARCHIVED_RFC_ID))
+                .containsExactly(archivedVersion + 1);
+        RfcHistoryService rfcHistoryService = application.getBean(RfcHistoryService.class);
+        assertThat(rfcHistoryService.getVersion(ARCHIVED_RFC_ID, archivedVersion + 1))
+                .map(RfcHistoryEntity::getTitle)
+                .contains(request.getTitle());
+
+        RfcHistoryResponse history = new TransactionTemplate(application.getBean(PlatformTransactionManager.class))
+                .execute(status -> rfcHistoryService.getRfcHistory(ARCHIVED_RFC_ID, PageRequest.of(0, 100), true));
+        assertThat(history.getContent()).isNotEmpty();
+    }
+}
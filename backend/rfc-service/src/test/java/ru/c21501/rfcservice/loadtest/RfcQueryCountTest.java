@@ -0,0 +1,208 @@
+package ru.c21501.rfcservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.c21501.rfcservice.RfcServiceApplication;
+import ru.c21501.rfcservice.diagnostics.QueryCounts;
+import ru.c21501.rfcservice.diagnostics.RequestQueryStatistics;
+import ru.c21501.rfcservice.openapi.model.RfcHistoryResponse;
+import ru.c21501.rfcservice.openapi.model.RfcPageResponse;
+import ru.c21501.rfcservice.openapi.model.RfcRequest;
+import ru.c21501.rfcservice.openapi.model.RfcResponse;
+import ru.c21501.rfcservice.service.RfcApiService;
+import ru.c21501.rfcservice.service.RfcHistoryService;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-выражений эндпоинтов GET /rfc, /rfc/{id}, /rfc/{id}/history, POST /rfc и PUT /rfc/{id}.
+ * <p>
+ * Те же закрепленные значения, что и в нагрузочном тесте ({@link LoadTestProperties#DEFAULT_QUERY_BUDGET}),
+ * но проверяются на каждой сборке: приложение поднимается на встроенном PostgreSQL с заглушкой Keycloak,
+ * а обращения к БД считает {@link RequestQueryStatistics#measure}
+ */
+class RfcQueryCountTest {
+
+    private static final int RFC_COUNT = 100;
+    private static final int HISTORY_PER_RFC = 3;
+    private static final int PAGE_SIZE = 20;
+    private static final long RFC_ID = 2;
+    private static final long UPDATED_RFC_ID = 3;
+    private static final long WARM_UP_RFC_ID = 4;
+
+    private static final Map<LoadScenario, Long> BUDGET =
+            LoadTestProperties.parseQueryBudget(LoadTestProperties.DEFAULT_QUERY_BUDGET);
+
+    /**
+     * Выборки блоков pooled-последовательностей, заложенные в бюджет записи: create вставляет строки в четыре
+     * последовательности, update без изменения подсистем - только в rfc_history. После прогрева их не бывает,
+     * и проверка строже бюджета
+     */
+    private static final Map<LoadScenario, Long> SEQUENCE_BLOCK_FETCHES =
+            Map.of(LoadScenario.CREATE, 4L, LoadScenario.UPDATE, 1L);
+
+    private static EmbeddedPostgres postgres;
+    private static KeycloakStub keycloak;
+    private static ConfigurableApplicationContext application;
+    private static Dataset dataset;
+    private static TransactionTemplate session;
+    private static TransactionTemplate writeSession;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        keycloak = new KeycloakStub(Duration.ZERO, LoadActor.ALL);
+        keycloak.start();
+        application = new SpringApplicationBuilder(RfcServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + keycloak.issuer(),
+                        "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + keycloak.jwkSetUri(),
+                        "--keycloak.auth-server-url=" + keycloak.baseUrl(),
+                        "--keycloak.realm=" + KeycloakStub.REALM,
+                        "--planka.enabled=false",
+                        "--app.diagnostics.query.enabled=true",
+                        "--app.file.storage-path=" + Files.createTempDirectory("rfc-query-count-uploads"),
+                        "--logging.level.ru.c21501.rfcservice=WARN",
+                        "--logging.level.org.springframework=WARN");
+        dataset = new DatasetSeeder(application.getBean(DataSource.class)).seed(RFC_COUNT, HISTORY_PER_RFC);
+        // В HTTP-запросе ответ собирается в сессии open-in-view; здесь ее заменяет транзакция только для чтения
+        session = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        session.setReadOnly(true);
+        writeSession = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        warmUpSequences();
+    }
+
+    /**
+     * Первые create и update после старта выбирают начальные блоки pooled-последовательностей, как прогрев
+     * нагрузочного теста; измеряемые запросы после этого выборок блоков не делают
+     */
+    private static void warmUpSequences() {
+        RfcApiService rfcApiService = application.getBean(RfcApiService.class);
+        authenticate(dataset.requester());
+        writeSession.execute(status -> rfcApiService.createRfc(rfcRequest(LoadScenario.createRequest(dataset))));
+        authenticate(dataset.admin());
+        writeSession.execute(status -> rfcApiService.updateRfc(WARM_UP_RFC_ID,
+                rfcRequest(LoadScenario.updateRequest(dataset, WARM_UP_RFC_ID))));
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        if (application != null) {
+            application.close();
+        }
+        if (keycloak != null) {
+            keycloak.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void authenticateAsAdmin() {
+        authenticate(dataset.admin());
+    }
+
+    private static void authenticate(LoadActor actor) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                actor.keycloakId(), null, List.of(new SimpleGrantedAuthority("ROLE_" + actor.role().name()))));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void listStaysWithinBudget() {
+        RfcApiService rfcApiService = application.getBean(RfcApiService.class);
+
+        RequestQueryStatistics.Measured<RfcPageResponse> page = RequestQueryStatistics.measure(
+                () -> session.execute(status -> rfcApiService.getRfcs(0, PAGE_SIZE, null, null, null, null)));
+
+        assertThat(page.result().getContent()).hasSize(PAGE_SIZE);
+        assertWithinBudget(LoadScenario.LIST, page.counts());
+    }
+
+    @Test
+    void detailStaysWithinBudget() {
+        RfcApiService rfcApiService = application.getBean(RfcApiService.class);
+
+        RequestQueryStatistics.Measured<RfcResponse> rfc =
+                RequestQueryStatistics.measure(() -> session.execute(status -> rfcApiService.getRfcById(RFC_ID)));
+
+        assertThat(rfc.result().getId()).isEqualTo(RFC_ID);
+        assertWithinBudget(LoadScenario.DETAIL, rfc.counts());
+    }
+
+    @Test
+    void historyStaysWithinBudget() {
+        RfcHistoryService rfcHistoryService = application.getBean(RfcHistoryService.class);
+
+        RequestQueryStatistics.Measured<RfcHistoryResponse> history = RequestQueryStatistics.measure(
+                () -> session.execute(status ->
+                        rfcHistoryService.getRfcHistory(RFC_ID, PageRequest.of(0, PAGE_SIZE), false)));
+
+        assertThat(history.result().getContent()).isNotEmpty();
+        assertWithinBudget(LoadScenario.HISTORY, history.counts());
+    }
+
+    @Test
+    void createStaysWithinBudget() {
+        RfcApiService rfcApiService = application.getBean(RfcApiService.class);
+        RfcRequest request = rfcRequest(LoadScenario.createRequest(dataset));
+        authenticate(dataset.requester());
+
+        RequestQueryStatistics.Measured<RfcResponse> rfc = RequestQueryStatistics.measure(
+                () -> writeSession.execute(status -> rfcApiService.createRfc(request)));
+
+        assertThat(rfc.result().getId()).isGreaterThan(RFC_COUNT);
+        assertWithinBudget(LoadScenario.CREATE, rfc.counts());
+    }
+
+    @Test
+    void updateStaysWithinBudget() {
+        RfcApiService rfcApiService = application.getBean(RfcApiService.class);
+        RfcRequest request = rfcRequest(LoadScenario.updateRequest(dataset, UPDATED_RFC_ID));
+
+        RequestQueryStatistics.Measured<RfcResponse> rfc = RequestQueryStatistics.measure(
+                () -> writeSession.execute(status -> rfcApiService.updateRfc(UPDATED_RFC_ID, request)));
+
+        assertThat(rfc.result().getTitle()).isEqualTo(request.getTitle());
+        assertWithinBudget(LoadScenario.UPDATE, rfc.counts());
+    }
+
+    private static RfcRequest rfcRequest(Map<String, Object> body) {
+        return application.getBean(ObjectMapper.class).convertValue(body, RfcRequest.class);
+    }
+
+    private static void assertWithinBudget(LoadScenario scenario, QueryCounts counts) {
+        assertThat(counts.statements())
+                .as("SQL statements of %s", scenario.key())
+                .isPositive()
+                .isLessThanOrEqualTo(BUDGET.get(scenario) - SEQUENCE_BLOCK_FETCHES.getOrDefault(scenario, 0L));
+    }
+}
@@ -0,0 +1,29 @@
+package ru.c21501.rfcservice.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Экранирование ячеек CSV-выгрузки RFC
+ */
+class RfcExportServiceImplTest {
+
+    @Test
+    void formulaCellsArePrefixedWithQuote() {
+        assertThat(RfcExportServiceImpl.csvCell("=HYPERLINK(\"http://evil\")")).isEqualTo("\"'=HYPERLINK(\"\"http://evil\"\")\"");
+        assertThat(RfcExportServiceImpl.csvCell("+1+1")).isEqualTo("'+1+1");
+        assertThat(RfcExportServiceImpl.csvCell("-2+3")).isEqualTo("'-2+3");
+        assertThat(RfcExportServiceImpl.csvCell("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(RfcExportServiceImpl.csvCell("\t=1")).isEqualTo("'\t=1");
+        assertThat(RfcExportServiceImpl.csvCell("\r=1")).isEqualTo("\"'\r=1\"");
+    }
+
+    @Test
+    void plainCellsAreKeptAsIs() {
+        assertThat(RfcExportServiceImpl.csvCell(null)).isEmpty();
+        assertThat(RfcExportServiceImpl.csvCell("Обновление БД")).isEqualTo("Обновление БД");
+        assertThat(RfcExportServiceImpl.csvCell("a=b, c")).isEqualTo("\"a=b, c\"");
+        assertThat(RfcExportServiceImpl.csvCell(42L)).isEqualTo("42");
+    }
+}
@@ -0,0 +1,109 @@
+import { api } from '../../../shared/api/config';
+
+const DEFAULT_RETRY_MS = 3000;
+
+/**
+ * Подписка на поток изменений RFC (GET /rfc/events, Server-Sent Events).
+ *
+ * EventSource не умеет передавать заголовок Authorization, поэтому поток читается через fetch.
+ * При обрыве (в том числе когда сервер закрыл поток медленного клиента) подключение повторяется
+ * через интервал retry с заголовком Last-Event-ID, и сервер досылает пропущенные изменения.
+ *
+ * @param {Object} handlers
+ * @param {Function} handlers.onChange - изменение RFC: { rfcId, type, status, version, changedFields }
+ * @param {Function} handlers.onReset - пропущенные изменения недоступны, данные нужно перечитать
+ * @returns {Function} отписка
+ */
+export const subscribeRfcEvents = ({ onChange, onReset }) => {
+  const controller = new AbortController();
+  let lastEventId = null;
+  let retryMs = DEFAULT_RETRY_MS;
+
+  const dispatch = (event) => {
+    if (event.id !== null) {
+      lastEventId = event.id;
+    }
+    if (event.name === 'reset') {
+      onReset?.();
+    } else if (event.name === 'rfc-change' && event.data) {
+      try {
+        onChange?.(JSON.parse(event.data));
+      } catch (err) {
+        console.error('Invalid RFC change event:', err);
+      }
+    }
+  };
+
+  const read = async () => {
+    const headers = { Accept: 'text/event-stream' };
+    const token = localStorage.getItem('accessToken');
+    if (token) {
+      headers.Authorization = `Bearer ${token}`;
+    }
+    if (lastEventId) {
+      headers['Last-Event-ID'] = lastEventId;
+    }
+
+    const response = await fetch(`${api.defaults.baseURL}/rfc/events`, {
+      headers,
+      signal: controller.signal
+    });
+    if (!response.ok || !response.body) {
+      throw new Error(`RFC events stream failed: ${response.status}`);
+    }
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    let event = { id: null, name: 'message', data: '' };
+
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) {
+        return;
+      }
+      buffer += value;
+      const lines = buffer.split(/\r?\n/);
+      buffer = lines.pop();
+
+      for (const line of lines) {
+        if (line === '') {
+          dispatch(event);
+          event = { id: null, name: 'message', data: '' };
+          continue;
+        }
+        if (line.startsWith(':')) {
+          continue; // keepalive
+        }
+        const separator = line.indexOf(':');
+        const field = separator < 0 ? line : line.slice(0, separator);
+        const fieldValue = separator < 0 ? '' : line.slice(separator + 1).replace(/^ /, '');
+        if (field === 'id') {
+          event.id = fieldValue;
+        } else if (field === 'event') {
+          event.name = fieldValue;
+        } else if (field === 'data') {
+          event.data = event.data ? `${event.data}\n${fieldValue}` : fieldValue;
+        } else if (field === 'retry' && /^\d+$/.test(fieldValue)) {
+          retryMs = Number(fieldValue);
+        }
+      }
+    }
+  };
+
+  const run = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        await read();
+      } catch (err) {
+        if (controller.signal.aborted) {
+          return;
+        }
+        console.warn('RFC events stream interrupted:', err.message);
+      }
+      await new Promise(resolve => setTimeout(resolve, retryMs));
+    }
+  };
+
+  run();
+  return () => controller.abort();
+};
@@ -1,5 +1,9 @@
 import { useState, useEffect, useCallback, useRef } from 'react';
 import { rfcApi } from '../api/rfcApi';
+import { subscribeRfcEvents } from '../api/rfcEvents';
+
+// Задержка, за которую изменения из потока собираются в одно обновление списка
+const LIVE_UPDATE_DELAY_MS = 300;
 
 export const useRfcs = (initialFilters = {}) => {
   const [rfcs, setRfcs] = useState([]);
@@ -202,6 +206,58 @@ export const useRfcs = (initialFilters = {}) => {
     }
   }, []);
 
+  // Актуальные значения для обработчиков потока изменений, чтобы не переподписываться при каждом рендере
+  const rfcsRef = useRef(rfcs);
+  const refetchRef = useRef(refetch);
+  rfcsRef.current = rfcs;
+  refetchRef.current = refetch;
+
+  // Живые обновления: изменённые RFC текущей страницы перечитываются по одному,
+  // созданные и удалённые RFC (и reset потока) перезагружают страницу
+  useEffect(() => {
+    const pendingIds = new Set();
+    let pendingRefetch = false;
+    let timer = null;
+
+    const flush = () => {
+      timer = null;
+      if (pendingRefetch) {
+        refetchRef.current();
+      } else {
+        pendingIds.forEach(id => refreshRfc(id));
+      }
+      pendingIds.clear();
+      pendingRefetch = false;
+    };
+    const schedule = () => {
+      if (!timer) {
+        timer = setTimeout(flush, LIVE_UPDATE_DELAY_MS);
+      }
+    };
+
+    const unsubscribe = subscribeRfcEvents({
+      onChange: ({ rfcId, type }) => {
+        if (type !== 'UPDATED') {
+          pendingRefetch = true;
+        } else if (rfcsRef.current.some(rfc => rfc.id === rfcId)) {
+          pendingIds.add(rfcId);
+        } else {
+          return;
+        }
+        schedule();
+      },
+      onReset: () => {
+        pendingRefetch = true;
+        schedule();
+      }
+    });
+
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
+  }, [refreshRfc]);
+
   useEffect(() => {
     isMountedRef.current = true;
     loadRfcs(0, filters);